@@ -0,0 +1,215 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.benchmarks;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compares JMH results against a baseline, both in the JMH CSV format
+ * ({@code -rf csv}), and fails if a benchmark got slower than the allowed tolerance.
+ *
+ * <p>Usage: {@code BaselineComparison <baseline.csv> <results.csv> [tolerance in percent, default 10]}</p>
+ *
+ * <p>A benchmark only counts as regression if the difference is also larger than the
+ * error margins of both measurements. Benchmarks missing in the baseline get reported as new.
+ * The process exits with status 1 if there is any regression.</p>
+ */
+public final class BaselineComparison
+{
+    private BaselineComparison()
+    {
+        // main class
+    }
+
+    public static void main(String[] args) throws IOException
+    {
+        if (args.length < 2)
+        {
+            System.err.println("Usage: BaselineComparison <baseline.csv> <results.csv> [tolerance in percent]");
+            System.exit(2);
+        }
+
+        double tolerance = args.length > 2 ? Double.parseDouble(args[2]) / 100 : 0.1;
+        Map<String, Result> baseline = read(args[0]);
+        Map<String, Result> results = read(args[1]);
+
+        int regressions = 0;
+        for (Result result : results.values())
+        {
+            Result base = baseline.get(result.key);
+            if (base == null)
+            {
+                System.out.println(String.format(Locale.ENGLISH, "NEW        %-70s %12.3f %s", result.key, result.score, result.unit));
+                continue;
+            }
+
+            // positive change is always the worse direction
+            double change = result.higherIsBetter() ?
+                    (base.score - result.score) / base.score : (result.score - base.score) / base.score;
+            boolean significant = Math.abs(result.score - base.score) > result.error + base.error;
+            String status = "OK";
+            if (change > tolerance && significant)
+            {
+                status = "REGRESSION";
+                regressions++;
+            }
+            else if (change < -tolerance && significant)
+            {
+                status = "IMPROVED";
+            }
+            System.out.println(String.format(Locale.ENGLISH, "%-10s %-70s %12.3f -> %12.3f %s (%+.1f%%)",
+                    status, result.key, base.score, result.score, result.unit, -change * 100));
+        }
+
+        if (regressions > 0)
+        {
+            System.out.println(regressions + " benchmark(s) regressed by more than " + Math.round(tolerance * 100) + "%");
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, Result> read(String file) throws IOException
+    {
+        List<String> lines = Files.readAllLines(Paths.get(file), StandardCharsets.UTF_8);
+        Map<String, Result> results = new LinkedHashMap<>();
+        if (lines.isEmpty())
+        {
+            return results;
+        }
+
+        List<String> header = parse(lines.get(0));
+        int benchmark = header.indexOf("Benchmark");
+        int mode = header.indexOf("Mode");
+        int threads = header.indexOf("Threads");
+        int score = header.indexOf("Score");
+        int error = header.indexOf("Score Error (99.9%)");
+        int unit = header.indexOf("Unit");
+        if (benchmark < 0 || mode < 0 || score < 0 || unit < 0)
+        {
+            throw new IllegalArgumentException(file + " is not a JMH CSV result file");
+        }
+
+        for (String line : lines.subList(1, lines.size()))
+        {
+            if (line.trim().isEmpty())
+            {
+                continue;
+            }
+            List<String> values = parse(line);
+
+            // secondary results like gc profiler rows are not compared
+            if (values.get(benchmark).contains(":"))
+            {
+                continue;
+            }
+
+            StringBuilder key = new StringBuilder(values.get(benchmark)).append(' ').append(values.get(mode));
+            if (threads >= 0)
+            {
+                key.append(" t=").append(values.get(threads));
+            }
+            for (int i = 0; i < header.size(); i++)
+            {
+                if (header.get(i).startsWith("Param: ") && !values.get(i).isEmpty())
+                {
+                    key.append(' ').append(header.get(i).substring("Param: ".length())).append('=').append(values.get(i));
+                }
+            }
+
+            Result result = new Result(key.toString(), values.get(mode),
+                    Double.parseDouble(values.get(score)),
+                    error >= 0 ? parseError(values.get(error)) : 0, values.get(unit));
+            results.put(result.key, result);
+        }
+        return results;
+    }
+
+    private static double parseError(String value)
+    {
+        return value.isEmpty() || "NaN".equals(value) ? 0 : Double.parseDouble(value);
+    }
+
+    /**
+     * Splits a CSV line, JMH quotes all text values.
+     */
+    private static List<String> parse(String line)
+    {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++)
+        {
+            char c = line.charAt(i);
+            if (c == '"')
+            {
+                if (quoted && i + 1 < line.length() && line.charAt(i + 1) == '"')
+                {
+                    current.append('"');
+                    i++;
+                }
+                else
+                {
+                    quoted = !quoted;
+                }
+            }
+            else if (c == ',' && !quoted)
+            {
+                values.add(current.toString());
+                current.setLength(0);
+            }
+            else
+            {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    private static final class Result
+    {
+        private final String key;
+        private final String mode;
+        private final double score;
+        private final double error;
+        private final String unit;
+
+        private Result(String key, String mode, double score, double error, String unit)
+        {
+            this.key = key;
+            this.mode = mode;
+            this.score = score;
+            this.error = error;
+            this.unit = unit;
+        }
+
+        private boolean higherIsBetter()
+        {
+            return "thrpt".equals(mode);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.benchmarks;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.context.spi.CreationalContext;
+import javax.enterprise.inject.se.SeContainer;
+import javax.enterprise.inject.spi.Bean;
+import javax.enterprise.inject.spi.BeanManager;
+import javax.inject.Named;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Programmatic lookups via the BeanManager.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class BeanManagerBenchmark
+{
+    private SeContainer container;
+    private BeanManager beanManager;
+    private Bean<?> serviceBean;
+    private Bean<?> dependentBean;
+
+    @Setup
+    public void start()
+    {
+        container = Containers.start(Service.class, DependentService.class);
+        beanManager = container.getBeanManager();
+        serviceBean = beanManager.resolve(beanManager.getBeans(Service.class));
+        dependentBean = beanManager.resolve(beanManager.getBeans(DependentService.class));
+    }
+
+    @TearDown
+    public void stop()
+    {
+        container.close();
+    }
+
+    @Benchmark
+    public Set<Bean<?>> getBeans()
+    {
+        return beanManager.getBeans(Service.class);
+    }
+
+    @Benchmark
+    public Set<Bean<?>> getBeansByName()
+    {
+        return beanManager.getBeans("service");
+    }
+
+    @Benchmark
+    public Object getReferenceNormalScoped()
+    {
+        return beanManager.getReference(serviceBean, Service.class, beanManager.createCreationalContext(serviceBean));
+    }
+
+    @Benchmark
+    public void getReferenceDependent(Blackhole blackhole)
+    {
+        CreationalContext<?> creationalContext = beanManager.createCreationalContext(dependentBean);
+        blackhole.consume(beanManager.getReference(dependentBean, DependentService.class, creationalContext));
+        creationalContext.release();
+    }
+
+    @ApplicationScoped
+    @Named("service")
+    public static class Service
+    {
+        public int ping()
+        {
+            return 1;
+        }
+    }
+
+    public static class DependentService
+    {
+        public int ping()
+        {
+            return 1;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.enterprise.inject.se.SeContainer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Boot and shutdown of a container with the beans of all other benchmarks.
+ * Every fork measures the cold start first, the later iterations the warm JVM.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 10)
+@Measurement(iterations = 20)
+@Fork(3)
+public class BootBenchmark
+{
+    private static final Class<?>[] BEAN_CLASSES =
+    {
+        BeanManagerBenchmark.Service.class,
+        BeanManagerBenchmark.DependentService.class,
+        NormalScopedProxyBenchmark.ApplicationBean.class,
+        NormalScopedProxyBenchmark.RequestBean.class,
+        NormalScopedProxyBenchmark.SessionBean.class,
+        InterceptionBenchmark.PlainBean.class,
+        InterceptionBenchmark.InterceptedBean.class,
+        InterceptionBenchmark.CountingInterceptor.class,
+        InterceptionBenchmark.GreeterImpl.class,
+        InterceptionBenchmark.ShoutingGreeter.class,
+        EventBenchmark.Observers.class,
+        InstanceBenchmark.Holder.class,
+        InstanceBenchmark.DefaultService.class,
+        InstanceBenchmark.SpecialService.class,
+        ELBenchmark.NamedBean.class
+    };
+
+    @Benchmark
+    public Object bootAndShutdown()
+    {
+        try (SeContainer container = Containers.start(BEAN_CLASSES))
+        {
+            return container.getBeanManager();
+        }
+    }
+}
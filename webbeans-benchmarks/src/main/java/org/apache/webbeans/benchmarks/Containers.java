@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.benchmarks;
+
+import javax.enterprise.inject.se.SeContainer;
+import javax.enterprise.inject.se.SeContainerInitializer;
+
+/**
+ * Boots the containers for the benchmarks without classpath scanning,
+ * so the results only depend on the given classes.
+ */
+public final class Containers
+{
+    private Containers()
+    {
+        // utility class
+    }
+
+    public static SeContainerInitializer initializer(Class<?>... beanClasses)
+    {
+        return SeContainerInitializer.newInstance()
+                .disableDiscovery()
+                .addBeanClasses(beanClasses);
+    }
+
+    public static SeContainer start(Class<?>... beanClasses)
+    {
+        return initializer(beanClasses).initialize();
+    }
+}
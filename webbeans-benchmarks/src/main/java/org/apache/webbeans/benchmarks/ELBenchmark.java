@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.el.ELContext;
+import javax.el.ELResolver;
+import javax.el.FunctionMapper;
+import javax.el.VariableMapper;
+import javax.enterprise.context.RequestScoped;
+import javax.enterprise.inject.se.SeContainer;
+import javax.inject.Named;
+
+import org.apache.webbeans.el.ELContextStore;
+import org.apache.webbeans.el22.WebBeansELResolver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Resolving a bean by its EL name.
+ * The first lookup in an EL evaluation resolves the bean, later ones hit the per request ELContextStore.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class ELBenchmark
+{
+    private SeContainer container;
+    private WebBeansELResolver resolver;
+
+    @Setup
+    public void start()
+    {
+        container = Containers.start(NamedBean.class);
+        resolver = new WebBeansELResolver();
+    }
+
+    @TearDown
+    public void stop()
+    {
+        container.close();
+    }
+
+    @Benchmark
+    public Object resolveName(ThreadContexts contexts)
+    {
+        Object value = resolver.getValue(new BenchmarkELContext(), null, "namedBean");
+        ELContextStore.getInstance(false).destroyELContextStore();
+        return value;
+    }
+
+    @Benchmark
+    public Object resolveNameFromStore(ThreadContexts contexts)
+    {
+        return resolver.getValue(new BenchmarkELContext(), null, "namedBean");
+    }
+
+    @RequestScoped
+    @Named
+    public static class NamedBean
+    {
+        public int ping()
+        {
+            return 1;
+        }
+    }
+
+    private static final class BenchmarkELContext extends ELContext
+    {
+        @Override
+        public ELResolver getELResolver()
+        {
+            return null;
+        }
+
+        @Override
+        public FunctionMapper getFunctionMapper()
+        {
+            return null;
+        }
+
+        @Override
+        public VariableMapper getVariableMapper()
+        {
+            return null;
+        }
+    }
+}
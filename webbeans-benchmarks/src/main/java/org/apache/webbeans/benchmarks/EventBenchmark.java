@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Event;
+import javax.enterprise.event.Observes;
+import javax.enterprise.event.ObservesAsync;
+import javax.enterprise.inject.se.SeContainer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Firing an event to two synchronous or two asynchronous observers.
+ * The async benchmark waits for the completion, so it measures the whole round trip.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class EventBenchmark
+{
+    private SeContainer container;
+    private Event<Ping> event;
+    private Event<AsyncPing> asyncEvent;
+
+    @Setup
+    public void start()
+    {
+        container = Containers.start(Observers.class);
+        event = container.getBeanManager().getEvent().select(Ping.class);
+        asyncEvent = container.getBeanManager().getEvent().select(AsyncPing.class);
+    }
+
+    @TearDown
+    public void stop()
+    {
+        container.close();
+    }
+
+    @Benchmark
+    public Ping fire()
+    {
+        Ping ping = new Ping();
+        event.fire(ping);
+        return ping;
+    }
+
+    @Benchmark
+    public AsyncPing fireAsync()
+    {
+        return asyncEvent.fireAsync(new AsyncPing()).toCompletableFuture().join();
+    }
+
+    public static class Ping
+    {
+    }
+
+    public static class AsyncPing
+    {
+    }
+
+    @ApplicationScoped
+    public static class Observers
+    {
+        private final LongAdder received = new LongAdder();
+
+        public void first(@Observes Ping ping)
+        {
+            received.increment();
+        }
+
+        public void second(@Observes Ping ping)
+        {
+            received.increment();
+        }
+
+        public void firstAsync(@ObservesAsync AsyncPing ping)
+        {
+            received.increment();
+        }
+
+        public void secondAsync(@ObservesAsync AsyncPing ping)
+        {
+            received.increment();
+        }
+    }
+}
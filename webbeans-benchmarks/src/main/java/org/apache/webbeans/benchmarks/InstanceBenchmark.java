@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.benchmarks;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.context.Dependent;
+import javax.enterprise.inject.Instance;
+import javax.enterprise.inject.se.SeContainer;
+import javax.enterprise.util.AnnotationLiteral;
+import javax.inject.Inject;
+import javax.inject.Qualifier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Dynamic lookups via an injected {@link Instance}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class InstanceBenchmark
+{
+    private static final Special SPECIAL = new SpecialLiteral();
+
+    private SeContainer container;
+    private Instance<Service> services;
+
+    @Setup
+    public void start()
+    {
+        container = Containers.start(Holder.class, DefaultService.class, SpecialService.class);
+        services = container.select(Holder.class).get().getServices();
+    }
+
+    @TearDown
+    public void stop()
+    {
+        container.close();
+    }
+
+    @Benchmark
+    public Service get()
+    {
+        return services.get();
+    }
+
+    @Benchmark
+    public Service selectGet()
+    {
+        return services.select(SPECIAL).get();
+    }
+
+    public interface Service
+    {
+        int ping();
+    }
+
+    @ApplicationScoped
+    public static class DefaultService implements Service
+    {
+        @Override
+        public int ping()
+        {
+            return 1;
+        }
+    }
+
+    @Qualifier
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target({ElementType.TYPE, ElementType.FIELD, ElementType.PARAMETER, ElementType.METHOD})
+    public @interface Special
+    {
+    }
+
+    public static class SpecialLiteral extends AnnotationLiteral<Special> implements Special
+    {
+        private static final long serialVersionUID = 1L;
+    }
+
+    @ApplicationScoped
+    @Special
+    public static class SpecialService implements Service
+    {
+        @Override
+        public int ping()
+        {
+            return 2;
+        }
+    }
+
+    @Dependent
+    public static class Holder
+    {
+        @Inject
+        private Instance<Service> services;
+
+        public Instance<Service> getServices()
+        {
+            return services;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.benchmarks;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.Priority;
+import javax.decorator.Decorator;
+import javax.decorator.Delegate;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.inject.se.SeContainer;
+import javax.inject.Inject;
+import javax.interceptor.AroundInvoke;
+import javax.interceptor.Interceptor;
+import javax.interceptor.InterceptorBinding;
+import javax.interceptor.InvocationContext;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Business method invocations without interceptors, with one interceptor
+ * and with one decorator, all on ApplicationScoped beans.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class InterceptionBenchmark
+{
+    private SeContainer container;
+    private PlainBean plain;
+    private InterceptedBean intercepted;
+    private Greeter decorated;
+
+    @Setup
+    public void start()
+    {
+        container = Containers.initializer(PlainBean.class, InterceptedBean.class, CountingInterceptor.class,
+                    GreeterImpl.class, ShoutingGreeter.class)
+                .initialize();
+        plain = container.select(PlainBean.class).get();
+        intercepted = container.select(InterceptedBean.class).get();
+        decorated = container.select(Greeter.class).get();
+    }
+
+    @TearDown
+    public void stop()
+    {
+        container.close();
+    }
+
+    @Benchmark
+    public String plain()
+    {
+        return plain.hello("owb");
+    }
+
+    @Benchmark
+    public String intercepted()
+    {
+        return intercepted.hello("owb");
+    }
+
+    @Benchmark
+    public String decorated()
+    {
+        return decorated.hello("owb");
+    }
+
+    @InterceptorBinding
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target({ElementType.TYPE, ElementType.METHOD})
+    public @interface Counted
+    {
+    }
+
+    @Interceptor
+    @Counted
+    @Priority(Interceptor.Priority.APPLICATION)
+    public static class CountingInterceptor
+    {
+        private static final LongAdder INVOCATIONS = new LongAdder();
+
+        @AroundInvoke
+        public Object count(InvocationContext context) throws Exception
+        {
+            INVOCATIONS.increment();
+            return context.proceed();
+        }
+    }
+
+    @ApplicationScoped
+    public static class PlainBean
+    {
+        public String hello(String name)
+        {
+            return name;
+        }
+    }
+
+    @ApplicationScoped
+    @Counted
+    public static class InterceptedBean
+    {
+        public String hello(String name)
+        {
+            return name;
+        }
+    }
+
+    public interface Greeter
+    {
+        String hello(String name);
+    }
+
+    @ApplicationScoped
+    public static class GreeterImpl implements Greeter
+    {
+        @Override
+        public String hello(String name)
+        {
+            return name;
+        }
+    }
+
+    @Decorator
+    @Priority(Interceptor.Priority.APPLICATION)
+    public abstract static class ShoutingGreeter implements Greeter
+    {
+        @Inject
+        @Delegate
+        private Greeter delegate;
+
+        @Override
+        public String hello(String name)
+        {
+            return delegate.hello(name) + '!';
+        }
+    }
+}
@@ -0,0 +1,270 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.benchmarks;
+
+import static org.apache.xbean.asm7.Opcodes.ACC_PRIVATE;
+import static org.apache.xbean.asm7.Opcodes.ACC_PUBLIC;
+import static org.apache.xbean.asm7.Opcodes.ACC_SUPER;
+import static org.apache.xbean.asm7.Opcodes.ACONST_NULL;
+import static org.apache.xbean.asm7.Opcodes.ALOAD;
+import static org.apache.xbean.asm7.Opcodes.ARETURN;
+import static org.apache.xbean.asm7.Opcodes.INVOKESPECIAL;
+import static org.apache.xbean.asm7.Opcodes.RETURN;
+import static org.apache.xbean.asm7.Opcodes.V1_8;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import javax.enterprise.inject.se.SeContainer;
+
+import org.apache.xbean.asm7.ClassReader;
+import org.apache.xbean.asm7.ClassWriter;
+import org.apache.xbean.asm7.FieldVisitor;
+import org.apache.xbean.asm7.MethodVisitor;
+import org.apache.xbean.asm7.Type;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Heap retained by the bean metadata of a container with many generic bean types and injection points,
+ * with and without interning of the types and type closures.
+ *
+ * Each of the {@code beans} generated {@code @ApplicationScoped} repositories implements {@link Repository}
+ * for its own entity class, produces a {@code List<Map<String, Entity>>} and injects both types of the next repository.
+ * The interesting result is the {@code retainedKiloBytes} counter: the heap retained by the running container
+ * minus the heap retained by an empty container, the score includes the full GCs.
+ * Compare {@code -p interning=true} (the default of the container) with {@code -p interning=false}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(2)
+public class MetadataFootprintBenchmark
+{
+    private static final String PACKAGE = "org/apache/webbeans/benchmarks/generated/";
+
+    @Param({"200", "2000"})
+    public int beans;
+
+    @Param({"true", "false"})
+    public boolean interning;
+
+    private Path classesDirectory;
+    private URLClassLoader loader;
+    private Class<?>[] beanClasses;
+    private long emptyContainerBytes;
+
+    @Setup
+    public void generate() throws Exception
+    {
+        classesDirectory = Files.createTempDirectory("owb-footprint");
+        for (int i = 0; i < beans; i++)
+        {
+            write(entity(i));
+            write(repository(i, (i + 1) % beans));
+        }
+
+        loader = new URLClassLoader(new URL[]{classesDirectory.toUri().toURL()}, MetadataFootprintBenchmark.class.getClassLoader());
+        beanClasses = new Class<?>[beans];
+        for (int i = 0; i < beans; i++)
+        {
+            beanClasses[i] = loader.loadClass(PACKAGE.replace('/', '.') + "Repository" + i);
+        }
+
+        emptyContainerBytes = retainedBytes(new Class<?>[0]);
+    }
+
+    @TearDown
+    public void delete() throws IOException
+    {
+        loader.close();
+        try (Stream<Path> files = Files.walk(classesDirectory))
+        {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    /**
+     * Generated classes are written to a directory, the container reads their bytecode to find the annotations.
+     */
+    private void write(ClassWriter writer)
+    {
+        byte[] bytecode = writer.toByteArray();
+        Path file = classesDirectory.resolve(new ClassReader(bytecode).getClassName() + ".class");
+        try
+        {
+            Files.createDirectories(file.getParent());
+            Files.write(file, bytecode);
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Benchmark
+    public long bootAndMeasure(Footprint footprint)
+    {
+        long retained = retainedBytes(beanClasses);
+        footprint.retainedKiloBytes = Math.max(0, retained - emptyContainerBytes) / 1024;
+        return retained;
+    }
+
+    /**
+     * @return the heap retained while a container with the given bean classes is running
+     */
+    private long retainedBytes(Class<?>[] beanClasses)
+    {
+        Thread thread = Thread.currentThread();
+        ClassLoader oldLoader = thread.getContextClassLoader();
+        thread.setContextClassLoader(loader);
+        try
+        {
+            long before = usedHeap();
+            try (SeContainer container = Containers.initializer(beanClasses)
+                    .addProperty("org.apache.webbeans.util.TypeInterner.enabled", Boolean.toString(interning))
+                    .initialize())
+            {
+                return usedHeap() - before;
+            }
+        }
+        finally
+        {
+            thread.setContextClassLoader(oldLoader);
+        }
+    }
+
+    /**
+     * Collects until the used heap stops shrinking, a fixed number of GCs leaves too much noise
+     * compared to the metadata of a few hundred beans.
+     */
+    private static long usedHeap()
+    {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 10; i++)
+        {
+            System.gc();
+            long current = runtime.totalMemory() - runtime.freeMemory();
+            if (current >= used)
+            {
+                break;
+            }
+            used = current;
+        }
+        return used;
+    }
+
+    /**
+     * Reported next to the score of the benchmark.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint
+    {
+        public long retainedKiloBytes;
+    }
+
+    public interface Repository<T, ID>
+    {
+        T find(ID id);
+    }
+
+    private static ClassWriter entity(int index)
+    {
+        ClassWriter writer = new ClassWriter(0);
+        writer.visit(V1_8, ACC_PUBLIC | ACC_SUPER, PACKAGE + "Entity" + index, null, "java/lang/Object", null);
+        defaultConstructor(writer);
+        writer.visitEnd();
+        return writer;
+    }
+
+    private static ClassWriter repository(int index, int next)
+    {
+        String repository = Type.getInternalName(Repository.class);
+        String entity = "L" + PACKAGE + "Entity" + index + ";";
+        String nextEntity = "L" + PACKAGE + "Entity" + next + ";";
+
+        ClassWriter writer = new ClassWriter(0);
+        writer.visit(V1_8, ACC_PUBLIC | ACC_SUPER, PACKAGE + "Repository" + index,
+                "Ljava/lang/Object;L" + repository + "<" + entity + "Ljava/lang/Long;>;", "java/lang/Object", new String[]{repository});
+        writer.visitAnnotation("Ljavax/enterprise/context/ApplicationScoped;", true).visitEnd();
+        defaultConstructor(writer);
+
+        FieldVisitor nextRepository = writer.visitField(ACC_PRIVATE, "nextRepository", "L" + repository + ";",
+                "L" + repository + "<" + nextEntity + "Ljava/lang/Long;>;", null);
+        nextRepository.visitAnnotation("Ljavax/inject/Inject;", true).visitEnd();
+        nextRepository.visitEnd();
+
+        FieldVisitor nextEntities = writer.visitField(ACC_PRIVATE, "nextEntities", "Ljava/util/List;",
+                "Ljava/util/List<Ljava/util/Map<Ljava/lang/String;" + nextEntity + ">;>;", null);
+        nextEntities.visitAnnotation("Ljavax/inject/Inject;", true).visitEnd();
+        nextEntities.visitEnd();
+
+        MethodVisitor entities = writer.visitMethod(ACC_PUBLIC, "entities", "()Ljava/util/List;",
+                "()Ljava/util/List<Ljava/util/Map<Ljava/lang/String;" + entity + ">;>;", null);
+        entities.visitAnnotation("Ljavax/enterprise/inject/Produces;", true).visitEnd();
+        returnNull(entities, 1);
+
+        returnNull(writer.visitMethod(ACC_PUBLIC, "find", "(Ljava/lang/Object;)Ljava/lang/Object;", null, null), 2);
+
+        writer.visitEnd();
+        return writer;
+    }
+
+    private static void defaultConstructor(ClassWriter writer)
+    {
+        MethodVisitor constructor = writer.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
+        constructor.visitCode();
+        constructor.visitVarInsn(ALOAD, 0);
+        constructor.visitMethodInsn(INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+        constructor.visitInsn(RETURN);
+        constructor.visitMaxs(1, 1);
+        constructor.visitEnd();
+    }
+
+    private static void returnNull(MethodVisitor method, int locals)
+    {
+        method.visitCode();
+        method.visitInsn(ACONST_NULL);
+        method.visitInsn(ARETURN);
+        method.visitMaxs(1, locals);
+        method.visitEnd();
+    }
+}
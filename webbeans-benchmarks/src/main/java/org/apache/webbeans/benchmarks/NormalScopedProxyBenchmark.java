@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.benchmarks;
+
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.context.RequestScoped;
+import javax.enterprise.context.SessionScoped;
+import javax.enterprise.inject.se.SeContainer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * A method invocation on the normal scoped proxy of a bean, per scope.
+ * Runs with 4 threads to include the contention on the contexts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+@Threads(4)
+public class NormalScopedProxyBenchmark
+{
+    @Param({"application", "request", "session"})
+    public String scope;
+
+    private SeContainer container;
+    private Pingable proxy;
+
+    @Setup
+    public void start()
+    {
+        container = Containers.start(ApplicationBean.class, RequestBean.class, SessionBean.class);
+        switch (scope)
+        {
+            case "request":
+                proxy = container.select(RequestBean.class).get();
+                break;
+            case "session":
+                proxy = container.select(SessionBean.class).get();
+                break;
+            default:
+                proxy = container.select(ApplicationBean.class).get();
+        }
+    }
+
+    @TearDown
+    public void stop()
+    {
+        container.close();
+    }
+
+    @Benchmark
+    public int invoke(ThreadContexts contexts)
+    {
+        return proxy.ping();
+    }
+
+    public interface Pingable
+    {
+        int ping();
+    }
+
+    @ApplicationScoped
+    public static class ApplicationBean implements Pingable
+    {
+        @Override
+        public int ping()
+        {
+            return 1;
+        }
+    }
+
+    @RequestScoped
+    public static class RequestBean implements Pingable
+    {
+        @Override
+        public int ping()
+        {
+            return 2;
+        }
+    }
+
+    @SessionScoped
+    public static class SessionBean implements Pingable, Serializable
+    {
+        @Override
+        public int ping()
+        {
+            return 3;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.benchmarks;
+
+import javax.enterprise.context.RequestScoped;
+import javax.enterprise.context.SessionScoped;
+
+import org.apache.webbeans.config.WebBeansContext;
+import org.apache.webbeans.spi.ContextsService;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Activates a request and a session for each benchmark thread,
+ * like a web container does for each request.
+ * Benchmarks which need these contexts take this state as parameter,
+ * JMH sets it up after the {@code Scope.Benchmark} state which starts the container.
+ */
+@State(Scope.Thread)
+public class ThreadContexts
+{
+    private ContextsService contextsService;
+
+    @Setup(Level.Iteration)
+    public void start()
+    {
+        contextsService = WebBeansContext.currentInstance().getContextsService();
+        contextsService.startContext(RequestScoped.class, null);
+        contextsService.startContext(SessionScoped.class, null);
+    }
+
+    @TearDown(Level.Iteration)
+    public void end()
+    {
+        contextsService.endContext(SessionScoped.class, null);
+        contextsService.endContext(RequestScoped.class, null);
+    }
+}
@@ -25,6 +25,7 @@ import org.apache.webbeans.container.SerializableBean;
 import org.apache.webbeans.context.creational.CreationalContextImpl;
 import org.apache.webbeans.exception.WebBeansException;
 import org.apache.webbeans.logger.WebBeansLoggerFacade;
+import org.apache.webbeans.spi.InstrumentationService;
 
 import javax.enterprise.context.Dependent;
 import javax.enterprise.context.spi.CreationalContext;
@@ -76,6 +77,12 @@ public abstract class AbstractOwbBean<T>
      * @see #getId()
      */
     protected String passivatingId;
+
+    /**
+     * Dense index of this bean within its normal scope, -1 if none got assigned.
+     * @see #getBeanIndex()
+     */
+    private int beanIndex = -1;
     
     protected final WebBeansContext webBeansContext;
 
@@ -107,6 +114,23 @@ public abstract class AbstractOwbBean<T>
     {
         return beanClass;
     }
+
+    /**
+     * The beans of each normal scope get numbered from 0 at the end of the deployment,
+     * the built-in contexts use this index to store the contextual instances in an array.
+     *
+     * @return the index of this bean within its scope or -1 if the bean got added after the deployment
+     * @see org.apache.webbeans.context.ContextualInstanceMap
+     */
+    public int getBeanIndex()
+    {
+        return beanIndex;
+    }
+
+    public void setBeanIndex(int beanIndex)
+    {
+        this.beanIndex = beanIndex;
+    }
     
     /**
      * {@inheritDoc}
@@ -121,6 +145,9 @@ public abstract class AbstractOwbBean<T>
                 creationalContext = webBeansContext.getCreationalContextFactory().wrappedCreationalContext(creationalContext, this);
             }
 
+            InstrumentationService instrumentation = webBeansContext.getInstrumentationService();
+            long start = instrumentation != null ? System.nanoTime() : 0L;
+
             Producer<T> producer = getProducer();
             T instance = producer.produce(creationalContext);
             if (producer instanceof InjectionTarget && instance != null) // @AroundConstruct can skip proceed and then it returns null
@@ -129,6 +156,11 @@ public abstract class AbstractOwbBean<T>
                 injectionTarget.inject(instance, creationalContext);
                 injectionTarget.postConstruct(instance);
             }
+            if (instrumentation != null)
+            {
+                // read the count before the instance itself gets registered as dependent of its parent
+                instrumentation.beanCreated(this, System.nanoTime() - start, ((CreationalContextImpl<T>) creationalContext).getDependentCount());
+            }
             if (getScope().equals(Dependent.class) && instance != null)
             {
                 ((CreationalContextImpl<T>)creationalContext).addDependent(this, instance);
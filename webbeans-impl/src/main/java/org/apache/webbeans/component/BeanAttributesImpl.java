@@ -28,6 +28,7 @@ import javax.enterprise.context.Dependent;
 import javax.enterprise.inject.spi.Bean;
 import javax.enterprise.inject.spi.BeanAttributes;
 import org.apache.webbeans.util.AnnotationUtil;
+import org.apache.webbeans.util.ImmutableTypeSet;
 
 public class BeanAttributesImpl<T> implements BeanAttributes<T>
 {
@@ -98,7 +99,15 @@ public class BeanAttributesImpl<T> implements BeanAttributes<T>
                         Set<Class<? extends Annotation>> stereotypes,
                         boolean alternative)
     {
-        this.types = types == null? Collections.<Type>emptySet(): Collections.unmodifiableSet(new HashSet<>(types));
+        if (types instanceof ImmutableTypeSet)
+        {
+            // interned, shared with other beans
+            this.types = types;
+        }
+        else
+        {
+            this.types = types == null? Collections.<Type>emptySet(): Collections.unmodifiableSet(new HashSet<>(types));
+        }
         this.qualifiers = qualifiers == null? Collections.<Annotation>emptySet(): Collections.unmodifiableSet(new HashSet<>(qualifiers));
         this.scope = scope;
         this.name = name;
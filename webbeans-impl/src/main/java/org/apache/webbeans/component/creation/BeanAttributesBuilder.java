@@ -130,7 +130,8 @@ public abstract class BeanAttributesBuilder<T, A extends Annotated>
         defineQualifiers();
         defineNullable();
         defineAlternative();
-        return new BeanAttributesImpl<>(types, qualifiers, scope, name, nullable, stereotypes, alternative);
+        return new BeanAttributesImpl<>(webBeansContext.getTypeInterner().internTypes(types),
+                qualifiers, scope, name, nullable, stereotypes, alternative);
     }
 
     protected A getAnnotated()
@@ -20,6 +20,7 @@ package org.apache.webbeans.config;
 
 import org.apache.webbeans.annotation.AnnotationManager;
 import org.apache.webbeans.annotation.AnyLiteral;
+import org.apache.webbeans.component.AbstractOwbBean;
 import org.apache.webbeans.component.AbstractProducerBean;
 import org.apache.webbeans.component.BeanAttributesImpl;
 import org.apache.webbeans.component.BuiltInOwbBean;
@@ -43,10 +44,12 @@ import org.apache.webbeans.container.AnnotatedTypeWrapper;
 import org.apache.webbeans.container.BeanManagerImpl;
 import org.apache.webbeans.container.InjectableBeanManager;
 import org.apache.webbeans.container.InjectionResolver;
+import org.apache.webbeans.corespi.scanner.AbstractMetaDataDiscovery;
 import org.apache.webbeans.corespi.se.DefaultJndiService;
 import org.apache.webbeans.decorator.DecoratorsManager;
 import org.apache.webbeans.deployment.StereoTypeManager;
 import org.apache.webbeans.deployment.StereoTypeModel;
+import org.apache.webbeans.event.NotificationManager;
 import org.apache.webbeans.event.ObserverMethodImpl;
 import org.apache.webbeans.event.OwbObserverMethod;
 import org.apache.webbeans.exception.WebBeansConfigurationException;
@@ -64,6 +67,7 @@ import org.apache.webbeans.inject.AlternativesManager;
 import org.apache.webbeans.intercept.InterceptorsManager;
 import org.apache.webbeans.logger.WebBeansLoggerFacade;
 import org.apache.webbeans.portable.AbstractProducer;
+import org.apache.webbeans.portable.InjectionTargetImpl;
 import org.apache.webbeans.portable.AnnotatedElementFactory;
 import org.apache.webbeans.portable.BaseProducerProducer;
 import org.apache.webbeans.portable.events.ProcessBeanAttributesImpl;
@@ -75,6 +79,7 @@ import org.apache.webbeans.portable.events.discovery.AfterTypeDiscoveryImpl;
 import org.apache.webbeans.portable.events.discovery.AnnotatedTypeConfiguratorHolder;
 import org.apache.webbeans.portable.events.discovery.BeforeBeanDiscoveryImpl;
 import org.apache.webbeans.portable.events.generics.GProcessAnnotatedType;
+import org.apache.webbeans.portable.events.generics.GProcessBeanAttributes;
 import org.apache.webbeans.portable.events.generics.GProcessBean;
 import org.apache.webbeans.portable.events.generics.GProcessManagedBean;
 import org.apache.webbeans.spi.BdaScannerService;
@@ -117,17 +122,24 @@ import java.security.PrivilegedActionException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.ListIterator;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static java.util.Arrays.asList;
 import static org.apache.webbeans.spi.BeanArchiveService.BeanDiscoveryMode;
@@ -186,6 +198,11 @@ public class BeansDeployer
 
     private final Map<String, Boolean> packageVetoCache = new HashMap<>();
 
+    /**
+     * only set during the deployment if {@link OpenWebBeansConfiguration#PARALLEL_DEPLOYMENT} is enabled
+     */
+    private ForkJoinPool deploymentPool;
+
     /**
      * This BdaInfo is used for all manually added annotated types or in case
      * a non-Bda-aware ScannerService got configured.
@@ -226,8 +243,12 @@ public class BeansDeployer
         try
         {
             if (!deployed)
-            {                
+            {
+                deploymentPool = DeploymentPool.create(webBeansContext.getOpenWebBeansConfiguration());
+                StartupProfiler profiler = webBeansContext.getStartupProfiler();
+
                 //Load Extensions
+                profiler.beginPhase("loadExtensions");
                 webBeansContext.getExtensionLoader().loadExtensionServices();
 
                 // Bind manager
@@ -250,11 +271,14 @@ public class BeansDeployer
                 webBeansContext.getBeanManagerImpl().addInternalBean(webBeansContext.getWebBeansUtil().getRequestContextControllerBean());
 
                 //Fire Event
+                profiler.beginPhase("fireBeforeBeanDiscoveryEvent");
                 fireBeforeBeanDiscoveryEvent();
                 
                 //Configure Default Beans
+                profiler.beginPhase("configureDefaultBeans");
                 configureDefaultBeans();
 
+                profiler.beginPhase("processAnnotatedTypes");
                 Map<BeanArchiveInformation, List<AnnotatedType<?>>> annotatedTypesPerBda = annotatedTypesFromClassPath(scanner);
 
                 List<AnnotatedType<?>> globalBdaAnnotatedTypes = annotatedTypesPerBda.get(defaultBeanArchiveInformation);
@@ -264,6 +288,7 @@ public class BeansDeployer
                         webBeansContext.getBeanManagerImpl().getAdditionalAnnotatedTypes();
                 addAdditionalAnnotatedTypes(additionalAnnotatedTypes, globalBdaAnnotatedTypes);
 
+                profiler.beginPhase("deployFromXML");
                 for (List<AnnotatedType<?>> at : annotatedTypesPerBda.values())
                 {
                     registerAlternativesDecoratorsAndInterceptorsWithPriority(at);
@@ -272,8 +297,10 @@ public class BeansDeployer
                 // Also configures deployments, interceptors, decorators.
                 deployFromXML(scanner);
 
+                profiler.beginPhase("fireAfterTypeDiscoveryEvent");
                 addAdditionalAnnotatedTypes(fireAfterTypeDiscoveryEvent(), globalBdaAnnotatedTypes);
 
+                profiler.beginPhase("getBeanAttributes");
 
                 Map<BeanArchiveInformation, Map<AnnotatedType<?>, ExtendedBeanAttributes<?>>> beanAttributesPerBda
                     = getBeanAttributes(annotatedTypesPerBda);
@@ -281,6 +308,7 @@ public class BeansDeployer
                 // shouldn't be used anymore, view is now beanAttributes
                 annotatedTypesPerBda.clear();
 
+                profiler.beginPhase("specialization");
                 SpecializationUtil specializationUtil = new SpecializationUtil(webBeansContext);
                 specializationUtil.removeDisabledBeanAttributes(beanAttributesPerBda, null, true);
 
@@ -312,6 +340,7 @@ public class BeansDeployer
                         false);
 
                 // create beans from the discovered AnnotatedTypes
+                profiler.beginPhase("deployFromBeanAttributes");
                 deployFromBeanAttributes(beanAttributesPerBda);
 
                 configureProducerMethodSpecializations();
@@ -320,21 +349,33 @@ public class BeansDeployer
                 removeDisabledBeans();
                 
                 // We are finally done with our bean discovery
+                profiler.beginPhase("fireAfterBeanDiscoveryEvent");
                 fireAfterBeanDiscoveryEvent();
 
-                // activate InjectionResolver cache now
+                // activate InjectionResolver cache and type index now
+                profiler.beginPhase("buildTypeIndex");
                 webBeansContext.getBeanManagerImpl().getInjectionResolver().setStartup(false);
+                webBeansContext.getBeanManagerImpl().getInjectionResolver().buildTypeIndex();
                 
+                profiler.beginPhase("validateAlternatives");
                 validateAlternatives(beanAttributesPerBda);
 
+                profiler.beginPhase("validateInjectionPoints");
                 validateInjectionPoints();
+                profiler.beginPhase("validateDisposeParameters");
                 validateDisposeParameters();
 
+                profiler.beginPhase("validateDecorators");
                 validateDecoratorDecoratedTypes();
                 validateDecoratorGenericTypes();
 
+                profiler.beginPhase("validateNames");
                 validateNames();
 
+                profiler.beginPhase("prepareInjection");
+                prepareInjection();
+                assignBeanIndexes();
+
                 if (webBeansContext.getNotificationManager().getObserverMethods().stream()
                         .anyMatch(ObserverMethod::isAsync))
                 {
@@ -344,14 +385,18 @@ public class BeansDeployer
                 }
 
                 // fire event
+                profiler.beginPhase("fireAfterDeploymentValidationEvent");
                 fireAfterDeploymentValidationEvent();
 
 
                 // do some cleanup after the deployment
+                profiler.beginPhase("cleanup");
                 scanner.release();
                 webBeansContext.getAnnotatedElementFactory().clear();
                 webBeansContext.getNotificationManager().clearCaches();
+                webBeansContext.getNotificationManager().enableDispatchTables();
                 webBeansContext.getAnnotationManager().clearCaches();
+                profiler.endPhase();
             }
         }
         catch (UnsatisfiedResolutionException e)
@@ -380,6 +425,96 @@ public class BeansDeployer
             //if bootstrapping failed, it doesn't make sense to do it again
             //esp. because #addInternalBean might have been called already and would cause an exception in the next run
             deployed = true;
+
+            if (deploymentPool != null)
+            {
+                deploymentPool.shutdown();
+                deploymentPool = null;
+            }
+        }
+    }
+
+    /**
+     * Applies the task to all elements, in parallel if a {@link #deploymentPool} exists.
+     * The results are in the same order as the elements. If tasks fail the exception of
+     * the first failed element gets thrown, same as in a sequential deployment.
+     * The task must neither fire events nor modify the bean set,
+     * except for the thread safe lifecycle events of {@link #fireLifecycleEvents(List, Function, Consumer)}.
+     */
+    private <E, R> List<R> forEachElement(List<E> elements, Function<E, R> task)
+    {
+        List<R> results = new ArrayList<>(elements.size());
+        if (deploymentPool == null || elements.size() < 2)
+        {
+            for (E element : elements)
+            {
+                results.add(task.apply(element));
+            }
+            return results;
+        }
+
+        Object[] values = new Object[elements.size()];
+        Throwable[] failures = new Throwable[elements.size()];
+        DeploymentPool.invoke(deploymentPool, () ->
+        {
+            IntStream.range(0, values.length).parallel().forEach(i ->
+            {
+                try
+                {
+                    values[i] = task.apply(elements.get(i));
+                }
+                catch (RuntimeException | Error e)
+                {
+                    failures[i] = e;
+                }
+            });
+            return null;
+        });
+
+        for (int i = 0; i < values.length; i++)
+        {
+            if (failures[i] != null)
+            {
+                throw ExceptionUtil.throwAsRuntimeException(failures[i]);
+            }
+            results.add((R) values[i]);
+        }
+        return results;
+    }
+
+    /**
+     * Fires a container lifecycle event for each element. If a {@link #deploymentPool} exists the events
+     * which are only observed by {@link org.apache.webbeans.spi.api.ThreadSafeExtension}s get fired in parallel first,
+     * all other events get fired afterwards one after the other in the order of the elements.
+     *
+     * @param event the lifecycle event of the element, used to resolve its observers
+     * @param fire fires the event of the element and handles its result
+     */
+    private <E> void fireLifecycleEvents(List<E> elements, Function<E, Object> event, Consumer<E> fire)
+    {
+        if (deploymentPool == null || elements.size() < 2)
+        {
+            elements.forEach(fire);
+            return;
+        }
+
+        BeanManagerImpl beanManager = webBeansContext.getBeanManagerImpl();
+        List<Boolean> fired = forEachElement(elements, element ->
+        {
+            if (!beanManager.isThreadSafeLifecycleEvent(event.apply(element)))
+            {
+                return false;
+            }
+            fire.accept(element);
+            return true;
+        });
+
+        for (int i = 0; i < fired.size(); i++)
+        {
+            if (!fired.get(i))
+            {
+                fire.accept(elements.get(i));
+            }
         }
     }
 
@@ -442,49 +577,42 @@ public class BeansDeployer
             boolean onlyScopedBeans = BeanDiscoveryMode.TRIM == bdaInfo.getBeanDiscoveryMode();
 
             Map<AnnotatedType<?>, ExtendedBeanAttributes<?>> bdaBeanAttributes = new IdentityHashMap<>(annotatedTypes.size());
+
+            // building the BeanAttributes does not depend on other types, only the events must be fired in order
+            Iterator<BeanAttributesCandidate> candidates = deploymentPool != null
+                    ? forEachElement(annotatedTypes, at -> new BeanAttributesCandidate(at, onlyScopedBeans)).iterator()
+                    : null;
+
+            List<BeanAttributesCandidate> enabledCandidates = new ArrayList<>();
             Iterator<AnnotatedType<?>> iterator = annotatedTypes.iterator();
             while (iterator.hasNext())
             {
                 AnnotatedType<?> at = iterator.next();
-                Class beanClass = at.getJavaClass();
-                boolean isEjb = discoverEjb && EJBWebBeansConfigurator.isSessionBean(beanClass, webBeansContext);
-                try
+                BeanAttributesCandidate candidate = candidates != null ? candidates.next() : new BeanAttributesCandidate(at, onlyScopedBeans);
+                if (candidate.noClassDefFoundError != null)
                 {
-                    if (isEjb || (ClassUtil.isConcrete(beanClass) || WebBeansUtil.isDecorator(at)) && isValidManagedBean(at))
-                    {
-                        BeanAttributesImpl beanAttributes = BeanAttributesBuilder.forContext(webBeansContext).newBeanAttibutes(at, onlyScopedBeans && !isEjb).build();
-                        if (beanAttributes != null &&
-                                (!beanAttributes.isAlternative() || isEnabledAlternative(at, beanAttributes.getStereotypes())))
-                        {
-                            ProcessBeanAttributesImpl<?> processBeanAttributes
-                                = webBeansContext.getWebBeansUtil().fireProcessBeanAttributes(at, at.getJavaClass(), beanAttributes);
-                            if (processBeanAttributes != null)
-                            {
-                                BeanAttributes<?> newBeanAttributes = processBeanAttributes.getAttributes();
-                                if (beanAttributes != newBeanAttributes)
-                                {
-                                    // check stereotypes
-                                    for (Class<? extends Annotation> stereotype : newBeanAttributes.getStereotypes())
-                                    {
-                                        if (!webBeansContext.getBeanManagerImpl().isStereotype((stereotype)))
-                                        {
-                                            throw new WebBeansConfigurationException("Custom BeanAttributes#getStereotypes() must only contain Stereotypes!");
-                                        }
-                                    }
-                                }
-
-                                bdaBeanAttributes.put(at, new ExtendedBeanAttributes(newBeanAttributes, isEjb, processBeanAttributes.isIgnoreFinalMethods()));
-                            }
-                        }
-                    }
-                    else
-                    {
-                        iterator.remove();
-                    }
+                    logger.info("Skipping deployment of Class " + at.getJavaClass() + "due to a NoClassDefFoundError: "
+                            + candidate.noClassDefFoundError.getMessage());
                 }
-                catch (NoClassDefFoundError ncdfe)
+                else if (!candidate.validBean)
                 {
-                    logger.info("Skipping deployment of Class " + beanClass + "due to a NoClassDefFoundError: " + ncdfe.getMessage());
+                    iterator.remove();
+                }
+                else if (candidate.enabled)
+                {
+                    candidate.processBeanAttributes = new GProcessBeanAttributes(webBeansContext, at.getJavaClass(), at, candidate.beanAttributes);
+                    enabledCandidates.add(candidate);
+                }
+            }
+
+            // fires ProcessBeanAttributes, in parallel for the beans only observed by thread safe extensions
+            fireLifecycleEvents(enabledCandidates, candidate -> candidate.processBeanAttributes, this::fireProcessBeanAttributes);
+
+            for (BeanAttributesCandidate candidate : enabledCandidates)
+            {
+                if (candidate.extendedBeanAttributes != null)
+                {
+                    bdaBeanAttributes.put(candidate.annotatedType, candidate.extendedBeanAttributes);
                 }
             }
 
@@ -495,6 +623,75 @@ public class BeansDeployer
         return beanAttributesPerBda;
     }
 
+    private void fireProcessBeanAttributes(BeanAttributesCandidate candidate)
+    {
+        AnnotatedType<?> at = candidate.annotatedType;
+        try
+        {
+            ProcessBeanAttributesImpl<?> processBeanAttributes = webBeansContext.getWebBeansUtil().fireProcessBeanAttributes(
+                    candidate.processBeanAttributes, at, candidate.beanAttributes);
+            if (processBeanAttributes != null)
+            {
+                BeanAttributes<?> newBeanAttributes = processBeanAttributes.getAttributes();
+                if (candidate.beanAttributes != newBeanAttributes)
+                {
+                    // check stereotypes
+                    for (Class<? extends Annotation> stereotype : newBeanAttributes.getStereotypes())
+                    {
+                        if (!webBeansContext.getBeanManagerImpl().isStereotype((stereotype)))
+                        {
+                            throw new WebBeansConfigurationException("Custom BeanAttributes#getStereotypes() must only contain Stereotypes!");
+                        }
+                    }
+                }
+
+                candidate.extendedBeanAttributes
+                    = new ExtendedBeanAttributes(newBeanAttributes, candidate.ejb, processBeanAttributes.isIgnoreFinalMethods());
+            }
+        }
+        catch (NoClassDefFoundError ncdfe)
+        {
+            logger.info("Skipping deployment of Class " + at.getJavaClass() + "due to a NoClassDefFoundError: " + ncdfe.getMessage());
+        }
+    }
+
+    /**
+     * The part of {@link #getBeanAttributes(Map)} for a single AnnotatedType which does not fire any event,
+     * plus the state of its ProcessBeanAttributes event.
+     */
+    private final class BeanAttributesCandidate
+    {
+        private final AnnotatedType<?> annotatedType;
+        private final boolean ejb;
+        private boolean validBean;
+        private BeanAttributesImpl beanAttributes;
+        private boolean enabled;
+        private NoClassDefFoundError noClassDefFoundError;
+        private ProcessBeanAttributesImpl processBeanAttributes;
+        private ExtendedBeanAttributes<?> extendedBeanAttributes;
+
+        private BeanAttributesCandidate(AnnotatedType<?> at, boolean onlyScopedBeans)
+        {
+            annotatedType = at;
+            Class beanClass = at.getJavaClass();
+            ejb = discoverEjb && EJBWebBeansConfigurator.isSessionBean(beanClass, webBeansContext);
+            try
+            {
+                validBean = ejb || (ClassUtil.isConcrete(beanClass) || WebBeansUtil.isDecorator(at)) && isValidManagedBean(at);
+                if (validBean)
+                {
+                    beanAttributes = BeanAttributesBuilder.forContext(webBeansContext).newBeanAttibutes(at, onlyScopedBeans && !ejb).build();
+                    enabled = beanAttributes != null
+                            && (!beanAttributes.isAlternative() || isEnabledAlternative(at, beanAttributes.getStereotypes()));
+                }
+            }
+            catch (NoClassDefFoundError ncdfe)
+            {
+                noClassDefFoundError = ncdfe;
+            }
+        }
+    }
+
     private boolean isEnabledAlternative(AnnotatedType<?> at, Set<Class<? extends Annotation>> stereotypes)
     {
         AlternativesManager alternativesManager = webBeansContext.getAlternativesManager();
@@ -1111,12 +1308,75 @@ public class BeansDeployer
         logger.info(OWBLogConst.INFO_0003);
     }
     
+    /**
+     * Numbers the beans of each normal scope, so the built-in contexts can store their instances in arrays.
+     * @see AbstractOwbBean#getBeanIndex()
+     */
+    private void assignBeanIndexes()
+    {
+        BeanManagerImpl beanManager = webBeansContext.getBeanManagerImpl();
+        Map<Class<? extends Annotation>, Integer> beanCounts = new HashMap<>();
+        for (Bean<?> bean : beanManager.getBeans())
+        {
+            if (bean instanceof AbstractOwbBean && beanManager.isNormalScope(bean.getScope()))
+            {
+                int beanIndex = beanCounts.merge(bean.getScope(), 1, Integer::sum) - 1;
+                ((AbstractOwbBean<?>) bean).setBeanIndex(beanIndex);
+            }
+        }
+    }
+
+    /**
+     * Resolves the injection plans of all managed beans and binds all observer methods,
+     * so creating their instances or notifying them does not need to resolve any injection point anymore.
+     */
+    private void prepareInjection()
+    {
+        for (Bean<?> bean : webBeansContext.getBeanManagerImpl().getBeans())
+        {
+            if (!ManagedBean.class.isInstance(bean) || !((ManagedBean<?>) bean).isEnabled()
+                    || bean instanceof Interceptor || bean instanceof Decorator
+                    || bean.getBeanClass().getName().startsWith(JAVAX_ENTERPRISE_PACKAGE))
+            {
+                continue;
+            }
+
+            InjectionTargetImpl<?> injectionTarget = ((ManagedBean<?>) bean).getOriginalInjectionTarget();
+            if (injectionTarget != null)
+            {
+                try
+                {
+                    injectionTarget.prepareInjection();
+                }
+                catch (RuntimeException e)
+                {
+                    throw ExceptionUtil.addInformation(e, "Problem while preparing the injection of bean " + bean);
+                }
+            }
+        }
+
+        for (ObserverMethod<?> observerMethod : webBeansContext.getNotificationManager().getObserverMethods())
+        {
+            if (observerMethod instanceof ObserverMethodImpl && ((ObserverMethodImpl<?>) observerMethod).getOwnerBean().isEnabled())
+            {
+                try
+                {
+                    ((ObserverMethodImpl<?>) observerMethod).prepareNotification();
+                }
+                catch (RuntimeException e)
+                {
+                    throw ExceptionUtil.addInformation(e, "Problem while preparing the observer method " + observerMethod);
+                }
+            }
+        }
+    }
+
     /**
      * Validates beans.
      * 
      * @param beans deployed beans
      */
-    private <T, B extends Bean<?>> void validate(Collection<B> beans)
+    private <B extends Bean<?>> void validate(Collection<B> beans)
     {
         webBeansContext.getBeanManagerImpl().getInjectionResolver().clearCaches();
 
@@ -1125,90 +1385,113 @@ public class BeansDeployer
             LinkedList<String> beanNames = new LinkedList<>();
             for (Bean<?> bean : beans)
             {
-                try
+                if (bean instanceof OwbBean && !((OwbBean) bean).isEnabled()
+                        || bean.getBeanClass().getName().startsWith(JAVAX_ENTERPRISE_PACKAGE))
                 {
+                    continue;
+                }
 
-                    if (bean instanceof OwbBean && !((OwbBean) bean).isEnabled())
-                    {
-                        // we skip disabled beans
-                        continue;
-                    }
+                String beanName = bean.getName();
+                if (beanName != null)
+                {
+                    beanNames.push(beanName);
+                }
+            }
 
-                    //don't validate the cdi-api
-                    if (bean.getBeanClass().getName().startsWith(JAVAX_ENTERPRISE_PACKAGE))
-                    {
-                        if (BuiltInOwbBean.class.isInstance(bean))
-                        {
-                            Class<?> proxyable = BuiltInOwbBean.class.cast(bean).proxyableType();
-                            if (proxyable != null)
-                            {
-                                AbstractProducer producer = AbstractProducer.class.cast(OwbBean.class.cast(bean).getProducer());
-                                AnnotatedType<?> annotatedType = webBeansContext.getAnnotatedElementFactory().newAnnotatedType(proxyable);
-                                producer.defineInterceptorStack(bean, annotatedType, webBeansContext);
-                            }
-                        }
-                        continue;
-                    }
+            // the beans got deployed in hash order, a stable order makes the reported problem reproducible,
+            // also between a sequential and a parallel deployment
+            List<Bean<?>> orderedBeans = new ArrayList<>(beans);
+            orderedBeans.sort(Comparator.comparing(bean -> bean.getBeanClass().getName()));
 
-                    String beanName = bean.getName();
-                    if (beanName != null)
-                    {
-                        beanNames.push(beanName);
-                    }
+            // resolving the interceptors and validating the injection points of one bean does not affect any other bean
+            forEachElement(orderedBeans, bean ->
+            {
+                validateBean(bean);
+                return null;
+            });
 
-                    if (bean instanceof OwbBean && !(bean instanceof Interceptor) && !(bean instanceof Decorator))
-                    {
-                        AbstractProducer<T> producer = null;
+            //Validate Bean names
+            validateBeanNames(beanNames);
 
-                        OwbBean<T> owbBean = (OwbBean<T>) bean;
-                        if (ManagedBean.class.isInstance(bean)) // in this case don't use producer which can be wrapped
-                        {
-                            producer = ManagedBean.class.cast(bean).getOriginalInjectionTarget();
-                        }
-                        if (producer == null && owbBean.getProducer() instanceof AbstractProducer)
-                        {
-                            producer = (AbstractProducer<T>) owbBean.getProducer();
-                        }
-                        if (producer != null)
-                        {
-                            AnnotatedType<T> annotatedType;
-                            if (owbBean instanceof InjectionTargetBean)
-                            {
-                                annotatedType = ((InjectionTargetBean<T>) owbBean).getAnnotatedType();
-                            }
-                            else
-                            {
-                                annotatedType = webBeansContext.getAnnotatedElementFactory().newAnnotatedType(owbBean.getReturnType());
-                            }
-                            producer.defineInterceptorStack(owbBean, annotatedType, webBeansContext);
-                        }
-                    }
+            //Clear Names
+            beanNames.clear();
+        }
+        
+    }
 
-                    //Bean injection points
-                    Set<InjectionPoint> injectionPoints = bean.getInjectionPoints();
+    /**
+     * Resolves the interceptors and validates the injection points of a single bean.
+     */
+    private <T> void validateBean(Bean<?> bean)
+    {
+        try
+        {
+            if (bean instanceof OwbBean && !((OwbBean) bean).isEnabled())
+            {
+                // we skip disabled beans
+                return;
+            }
 
-                    //Check injection points
-                    if (injectionPoints != null)
+            //don't validate the cdi-api
+            if (bean.getBeanClass().getName().startsWith(JAVAX_ENTERPRISE_PACKAGE))
+            {
+                if (BuiltInOwbBean.class.isInstance(bean))
+                {
+                    Class<?> proxyable = BuiltInOwbBean.class.cast(bean).proxyableType();
+                    if (proxyable != null)
                     {
-                        webBeansContext.getWebBeansUtil().validate(injectionPoints, bean);
+                        AbstractProducer producer = AbstractProducer.class.cast(OwbBean.class.cast(bean).getProducer());
+                        AnnotatedType<?> annotatedType = webBeansContext.getAnnotatedElementFactory().newAnnotatedType(proxyable);
+                        producer.defineInterceptorStack(bean, annotatedType, webBeansContext);
                     }
+                }
+                return;
+            }
+
+            if (bean instanceof OwbBean && !(bean instanceof Interceptor) && !(bean instanceof Decorator))
+            {
+                AbstractProducer<T> producer = null;
 
-                    //Check passivation scope
-                    checkPassivationScope(bean);
+                OwbBean<T> owbBean = (OwbBean<T>) bean;
+                if (ManagedBean.class.isInstance(bean)) // in this case don't use producer which can be wrapped
+                {
+                    producer = ManagedBean.class.cast(bean).getOriginalInjectionTarget();
                 }
-                catch (RuntimeException e)
+                if (producer == null && owbBean.getProducer() instanceof AbstractProducer)
                 {
-                    throw ExceptionUtil.addInformation(e, "Problem while validating bean " + bean);
+                    producer = (AbstractProducer<T>) owbBean.getProducer();
+                }
+                if (producer != null)
+                {
+                    AnnotatedType<T> annotatedType;
+                    if (owbBean instanceof InjectionTargetBean)
+                    {
+                        annotatedType = ((InjectionTargetBean<T>) owbBean).getAnnotatedType();
+                    }
+                    else
+                    {
+                        annotatedType = webBeansContext.getAnnotatedElementFactory().newAnnotatedType(owbBean.getReturnType());
+                    }
+                    producer.defineInterceptorStack(owbBean, annotatedType, webBeansContext);
                 }
+            }
+
+            //Bean injection points
+            Set<InjectionPoint> injectionPoints = bean.getInjectionPoints();
 
+            //Check injection points
+            if (injectionPoints != null)
+            {
+                webBeansContext.getWebBeansUtil().validate(injectionPoints, bean);
             }
-            //Validate Bean names
-            validateBeanNames(beanNames);
 
-            //Clear Names
-            beanNames.clear();
+            //Check passivation scope
+            checkPassivationScope(bean);
+        }
+        catch (RuntimeException e)
+        {
+            throw ExceptionUtil.addInformation(e, "Problem while validating bean " + bean);
         }
-        
     }
     
     private void validateObservers(Collection<ObserverMethod<?>> observerMethods)
@@ -1280,31 +1563,44 @@ public class BeansDeployer
         Map<BeanArchiveInformation, List<AnnotatedType<?>>> annotatedTypesPerBda
             = new HashMap<>();
 
-        if (scanner instanceof BdaScannerService)
+        // lets the NotificationManager skip the types no @WithAnnotations observer is interested in
+        NotificationManager notificationManager = webBeansContext.getNotificationManager();
+        if (scanner instanceof AbstractMetaDataDiscovery)
         {
-            Map<BeanArchiveInformation, Set<Class<?>>> beanClassesPerBda = ((BdaScannerService) scanner).getBeanClassesPerBda();
+            notificationManager.enableAnnotationIndex(((AbstractMetaDataDiscovery) scanner).getFinder());
+        }
 
-            for (Map.Entry<BeanArchiveInformation, Set<Class<?>>> bdaEntry : beanClassesPerBda.entrySet())
+        try
+        {
+            if (scanner instanceof BdaScannerService)
             {
-                List<AnnotatedType<?>> annotatedTypes = annotatedTypesFromBdaClassPath(bdaEntry.getValue(), foundClasses);
-                annotatedTypesPerBda.put(bdaEntry.getKey(), annotatedTypes);
+                Map<BeanArchiveInformation, Set<Class<?>>> beanClassesPerBda = ((BdaScannerService) scanner).getBeanClassesPerBda();
+
+                for (Map.Entry<BeanArchiveInformation, Set<Class<?>>> bdaEntry : beanClassesPerBda.entrySet())
+                {
+                    List<AnnotatedType<?>> annotatedTypes = annotatedTypesFromBdaClassPath(bdaEntry.getValue(), foundClasses);
+                    annotatedTypesPerBda.put(bdaEntry.getKey(), annotatedTypes);
+                }
+
+                // also add the rest of the class es to the default bda
+                // we also need this initialised in case annotatedTypes get added manually at a later step
+                annotatedTypesPerBda.put(defaultBeanArchiveInformation, annotatedTypesFromBdaClassPath(scanner.getBeanClasses(), foundClasses));
             }
+            else
+            {
+                // this path is only for backward compat to older ScannerService implementations
 
-            // also add the rest of the class es to the default bda
-            // we also need this initialised in case annotatedTypes get added manually at a later step
-            annotatedTypesPerBda.put(defaultBeanArchiveInformation, annotatedTypesFromBdaClassPath(scanner.getBeanClasses(), foundClasses));
+                Set<Class<?>> classIndex = scanner.getBeanClasses();
+                List<AnnotatedType<?>> annotatedTypes = annotatedTypesFromBdaClassPath(classIndex, foundClasses);
+
+                annotatedTypesPerBda.put(defaultBeanArchiveInformation, annotatedTypes);
+            }
         }
-        else
+        finally
         {
-            // this path is only for backward compat to older ScannerService implementations
-
-            Set<Class<?>> classIndex = scanner.getBeanClasses();
-            List<AnnotatedType<?>> annotatedTypes = annotatedTypesFromBdaClassPath(classIndex, foundClasses);
-
-            annotatedTypesPerBda.put(defaultBeanArchiveInformation, annotatedTypes);
+            notificationManager.disableAnnotationIndex();
         }
 
-
         return annotatedTypesPerBda;
     }
 
@@ -1314,11 +1610,13 @@ public class BeansDeployer
     private List<AnnotatedType<?>> annotatedTypesFromBdaClassPath(Set<Class<?>> classIndex, Set<Class<?>> foundClasses)
     {
         List<AnnotatedType<?>> annotatedTypes = new ArrayList<>();
+        List<GProcessAnnotatedType> processAnnotatedEvents = new ArrayList<>();
 
         //Iterating over each class
         if (classIndex != null)
         {
             AnnotatedElementFactory annotatedElementFactory = webBeansContext.getAnnotatedElementFactory();
+            NotificationManager notificationManager = webBeansContext.getNotificationManager();
 
             for (Class<?> implClass : classIndex)
             {
@@ -1364,15 +1662,24 @@ public class BeansDeployer
                     annotatedType.getJavaClass().getDeclaredMethods();
                     annotatedType.getJavaClass().getDeclaredFields();
 
-                    // Fires ProcessAnnotatedType
-                    if (!annotatedType.getJavaClass().isAnnotation())
+                    // Fires ProcessAnnotatedType, unless no extension is interested in this type
+                    if (!annotatedType.getJavaClass().isAnnotation() && notificationManager.isProcessAnnotatedTypeObserved(annotatedType))
                     {
-                        GProcessAnnotatedType processAnnotatedEvent = webBeansContext.getWebBeansUtil().fireProcessAnnotatedTypeEvent(annotatedType);
-                        if (!processAnnotatedEvent.isVeto())
+                        GProcessAnnotatedType processAnnotatedEvent = new GProcessAnnotatedType(webBeansContext, annotatedType);
+                        if (deploymentPool != null)
+                        {
+                            // fired below, possibly in parallel
+                            processAnnotatedEvents.add(processAnnotatedEvent);
+                            annotatedTypes.add(null);
+                        }
+                        else
                         {
-                            annotatedTypes.add(processAnnotatedEvent.getAnnotatedType());
+                            AnnotatedType<?> processedType = fireProcessAnnotatedTypeEvent(processAnnotatedEvent);
+                            if (processedType != null)
+                            {
+                                annotatedTypes.add(processedType);
+                            }
                         }
-                        processAnnotatedEvent.setStarted();
                     }
                     else
                     {
@@ -1386,9 +1693,61 @@ public class BeansDeployer
             }
         }
 
+        if (!processAnnotatedEvents.isEmpty())
+        {
+            // the results are not needed before all events got fired, so they can be delivered in parallel
+            Map<GProcessAnnotatedType, AnnotatedType<?>> results = new ConcurrentHashMap<>();
+            fireLifecycleEvents(processAnnotatedEvents, event -> event, event ->
+            {
+                AnnotatedType<?> result = fireProcessAnnotatedTypeEvent(event);
+                if (result != null)
+                {
+                    results.put(event, result);
+                }
+            });
+
+            Iterator<GProcessAnnotatedType> events = processAnnotatedEvents.iterator();
+            ListIterator<AnnotatedType<?>> iterator = annotatedTypes.listIterator();
+            while (iterator.hasNext())
+            {
+                if (iterator.next() == null)
+                {
+                    AnnotatedType<?> result = results.get(events.next());
+                    if (result != null)
+                    {
+                        iterator.set(result);
+                    }
+                    else
+                    {
+                        iterator.remove();
+                    }
+                }
+            }
+        }
+
         return annotatedTypes;
     }
 
+    /**
+     * @return the AnnotatedType to deploy or {@code null} if it got vetoed or could not be loaded
+     */
+    private AnnotatedType<?> fireProcessAnnotatedTypeEvent(GProcessAnnotatedType processAnnotatedEvent)
+    {
+        try
+        {
+            webBeansContext.getWebBeansUtil().fireProcessAnnotatedTypeEvent(processAnnotatedEvent);
+            AnnotatedType<?> annotatedType = processAnnotatedEvent.isVeto() ? null : processAnnotatedEvent.getAnnotatedType();
+            processAnnotatedEvent.setStarted();
+            return annotatedType;
+        }
+        catch (NoClassDefFoundError ncdfe)
+        {
+            logger.info("Skipping deployment of Class " + processAnnotatedEvent.getAnnotatedType().getJavaClass()
+                    + "due to a NoClassDefFoundError: " + ncdfe.getMessage());
+            return null;
+        }
+    }
+
     private boolean isEEComponent(Class<?> impl)
     {
         OpenWebBeansJavaEEPlugin eePlugin = webBeansContext.getPluginLoader().getJavaEEPlugin();
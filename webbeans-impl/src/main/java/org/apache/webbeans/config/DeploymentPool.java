@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.config;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+import org.apache.webbeans.exception.WebBeansDeploymentException;
+import org.apache.webbeans.util.ExceptionUtil;
+import org.apache.webbeans.util.WebBeansUtil;
+
+/**
+ * Threads for the {@link OpenWebBeansConfiguration#PARALLEL_DEPLOYMENT}.
+ * The pools only live as long as the deployment step which uses them.
+ */
+public final class DeploymentPool
+{
+    private DeploymentPool()
+    {
+        // utility
+    }
+
+    /**
+     * @return a new pool which must get shut down by the caller,
+     *         or {@code null} if the parallel deployment is disabled
+     */
+    public static ForkJoinPool create(OpenWebBeansConfiguration configuration)
+    {
+        if (!configuration.isParallelDeployment())
+        {
+            return null;
+        }
+        int parallelism = configuration.getDeploymentParallelism();
+        if (parallelism < 2)
+        {
+            return null;
+        }
+
+        // the workers need the ClassLoader of the application, e.g. to find the WebBeansContext and to define proxies
+        ClassLoader classLoader = WebBeansUtil.getCurrentClassLoader();
+        return new ForkJoinPool(parallelism, pool ->
+        {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("OpenWebBeans-deployment-" + thread.getPoolIndex());
+            thread.setContextClassLoader(classLoader);
+            return thread;
+        }, null, false);
+    }
+
+    /**
+     * Runs the task in the pool and waits for it.
+     * Parallel streams created by the task use the same pool.
+     */
+    public static <T> T invoke(ForkJoinPool pool, Callable<T> task)
+    {
+        try
+        {
+            return pool.submit(task).get();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new WebBeansDeploymentException(e);
+        }
+        catch (ExecutionException e)
+        {
+            throw ExceptionUtil.throwAsRuntimeException(e.getCause());
+        }
+    }
+}
@@ -18,6 +18,7 @@
  */
 package org.apache.webbeans.config;
 
+import java.io.File;
 import java.io.IOException;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
@@ -205,6 +206,146 @@ public class OpenWebBeansConfiguration
      */
     public static final String GENERATOR_JAVA_VERSION = "org.apache.webbeans.generator.javaVersion";
 
+    /**
+     * Directory the {@link org.apache.webbeans.service.PreGeneratedProxyService} writes
+     * all generated proxy classes and the proxy catalog to.
+     * If not set the pre-generated proxies get loaded from the classpath.
+     */
+    public static final String PROXY_CATALOG_OUTPUT = "org.apache.webbeans.proxy.catalog.output";
+
+    /**
+     * Maximum number of entries in each of the InjectionResolver caches for
+     * beans resolved by type and by name.
+     * A value &lt;= 0 disables the bound. Defaults to 10000.
+     */
+    public static final String RESOLUTION_CACHE_SIZE = "org.apache.webbeans.container.InjectionResolver.cacheSize";
+
+    /**
+     * Eviction policy of the InjectionResolver caches once they reached their
+     * {@link #RESOLUTION_CACHE_SIZE}: {@code lru} (default) or {@code tinylfu}.
+     * With {@code tinylfu} new entries stay in a small admission window and only replace frequently used ones
+     * if they got looked up more often, this works best for dynamic lookups with many one-time qualifiers.
+     */
+    public static final String RESOLUTION_CACHE_EVICTION = "org.apache.webbeans.container.InjectionResolver.cacheEviction";
+
+    /**
+     * Maximum number of resolved observer dispatch tables the NotificationManager keeps,
+     * one per fired event type and qualifiers. A value &lt;= 0 disables the bound. Defaults to 1000.
+     */
+    public static final String OBSERVER_DISPATCH_CACHE_SIZE = "org.apache.webbeans.event.NotificationManager.dispatchCacheSize";
+
+    /**
+     * Maximum number of cached assignability checks of types containing type variables.
+     * A value &lt;= 0 disables the bound. Defaults to 1000.
+     */
+    public static final String TYPE_ASSIGNABILITY_CACHE_SIZE = "org.apache.webbeans.util.GenericsUtil.cacheSize";
+
+    /**
+     * Maximum number of cached assignability checks of types without type variables.
+     * Each pair of required type and bean type with the same raw type is an entry, e.g. every
+     * {@code Repository<Customer>} injection point against every {@code Repository<X>} bean.
+     * A value &lt;= 0 disables the bound. Defaults to 10000.
+     */
+    public static final String TYPE_ASSIGNABILITY_PLAIN_CACHE_SIZE = "org.apache.webbeans.util.GenericsUtil.plainCacheSize";
+
+    /**
+     * Whether equal types and type closures of beans and annotated elements share one instance.
+     * Saves heap for applications with many beans. Defaults to {@code true}.
+     */
+    public static final String TYPE_INTERNING = "org.apache.webbeans.util.TypeInterner.enabled";
+
+    /**
+     * Number of threads delivering asynchronous events if no {@link java.util.concurrent.Executor}
+     * service is configured. Defaults to the number of available processors, but at least 2.
+     */
+    public static final String ASYNC_EVENT_THREADS = "org.apache.webbeans.event.async.threads";
+
+    /**
+     * Maximum number of asynchronous event tasks waiting for a thread. Defaults to 10000.
+     * With virtual threads it limits the number of tasks in flight.
+     */
+    public static final String ASYNC_EVENT_QUEUE_SIZE = "org.apache.webbeans.event.async.queueSize";
+
+    /**
+     * What happens if the asynchronous event queue is full:
+     * {@code block} (default) lets the firing thread wait for free space,
+     * {@code caller-runs} notifies the observers in the firing thread and
+     * {@code abort} completes the returned CompletionStage exceptionally.
+     */
+    public static final String ASYNC_EVENT_REJECTION_POLICY = "org.apache.webbeans.event.async.rejectionPolicy";
+
+    /**
+     * Maximum number of observer methods of a single {@code fireAsync} which get
+     * notified in one task, sharing one RequestScoped context. Defaults to 16.
+     */
+    public static final String ASYNC_EVENT_BATCH_SIZE = "org.apache.webbeans.event.async.batchSize";
+
+    /**
+     * Whether asynchronous events get delivered on virtual threads.
+     * Only has an effect on JVMs which support them. Defaults to {@code false}.
+     */
+    public static final String ASYNC_EVENT_VIRTUAL_THREADS = "org.apache.webbeans.event.async.virtualThreads";
+
+    /**
+     * Whether the independent work during the deployment, like reading the classes of each bean archive,
+     * building the BeanAttributes, resolving the interceptors and validating the injection points, gets done in parallel.
+     * A custom {@link org.apache.xbean.finder.filter.Filter} service must be thread safe then.
+     * The container lifecycle events still get fired one after the other and in the same order,
+     * only the per type events which are just observed by a {@link org.apache.webbeans.spi.api.ThreadSafeExtension}
+     * get fired in parallel.
+     * Defaults to {@code false}.
+     */
+    public static final String PARALLEL_DEPLOYMENT = "org.apache.webbeans.deployment.parallel";
+
+    /**
+     * Number of threads used for a {@link #PARALLEL_DEPLOYMENT}.
+     * Defaults to the number of available processors.
+     */
+    public static final String DEPLOYMENT_PARALLELISM = "org.apache.webbeans.deployment.parallelism";
+
+    /**
+     * Interval in milliseconds in which a background thread destroys the timed out conversations,
+     * also those of sessions which do not get accessed anymore. The thread only gets started once
+     * the first conversation begins. A value &lt;= 0 disables it, timed out conversations then only
+     * get destroyed when their session gets accessed. Defaults to 0.
+     */
+    public static final String CONVERSATION_REAPER_INTERVAL = "org.apache.webbeans.conversation.reaperInterval";
+
+    /**
+     * Maximum number of long running conversations per session. If another conversation begins
+     * the least recently used one which is not in use gets destroyed. A value &lt;= 0 disables the limit.
+     * Defaults to 0.
+     */
+    public static final String CONVERSATION_MAX_PER_SESSION = "org.apache.webbeans.conversation.maxPerSession";
+
+    /**
+     * If {@code true} every &#064;SessionScoped bean gets stored in its own HttpSession attribute
+     * instead of storing the whole SessionContext in one attribute. Together with the dirty tracking
+     * of the {@link org.apache.webbeans.context.SessionContext} only the beans which got used
+     * during a request get set again and thus replicated by the servlet container.
+     * Defaults to {@code false}.
+     */
+    public static final String SESSION_BEANS_AS_ATTRIBUTES = "org.apache.webbeans.web.sessionBeansAsAttributes";
+
+    /**
+     * If {@code true} the container measures the wall time and the allocated bytes of each deployment phase,
+     * of each observer method of the Extensions and of each generated proxy class during the startup.
+     * The result gets written as JSON to {@link #STARTUP_PROFILE_OUTPUT} and the most expensive entries get logged.
+     * Defaults to {@code false}.
+     */
+    public static final String STARTUP_PROFILE = "org.apache.webbeans.startup.profile";
+
+    /**
+     * File the JSON report of the {@link #STARTUP_PROFILE} gets written to.
+     * Defaults to {@code openwebbeans-startup-profile.json} in the {@code java.io.tmpdir}.
+     */
+    public static final String STARTUP_PROFILE_OUTPUT = "org.apache.webbeans.startup.profile.output";
+
+    /**
+     * Number of the most expensive entries of the {@link #STARTUP_PROFILE} which get logged. Defaults to 20.
+     */
+    public static final String STARTUP_PROFILE_TOP = "org.apache.webbeans.startup.profile.top";
+
 
     /**Default configuration files*/
     private static final String DEFAULT_CONFIG_PROPERTIES_NAME = "META-INF/openwebbeans/openwebbeans.properties";
@@ -546,6 +687,114 @@ public class OpenWebBeansConfiguration
         return Boolean.parseBoolean(getProperty(PRODUCER_INTERCEPTION_SUPPORT, "true"));
     }
 
+    public int getResolutionCacheSize()
+    {
+        return getIntProperty(RESOLUTION_CACHE_SIZE, 10000);
+    }
+
+    public int getObserverDispatchCacheSize()
+    {
+        return getIntProperty(OBSERVER_DISPATCH_CACHE_SIZE, 1000);
+    }
+
+    public int getTypeAssignabilityCacheSize()
+    {
+        return getIntProperty(TYPE_ASSIGNABILITY_CACHE_SIZE, 1000);
+    }
+
+    public int getTypeAssignabilityPlainCacheSize()
+    {
+        return getIntProperty(TYPE_ASSIGNABILITY_PLAIN_CACHE_SIZE, 10000);
+    }
+
+    public boolean isTypeInterning()
+    {
+        return !"false".equalsIgnoreCase(getProperty(TYPE_INTERNING));
+    }
+
+    public int getAsyncEventThreads()
+    {
+        return getIntProperty(ASYNC_EVENT_THREADS, Math.max(2, Runtime.getRuntime().availableProcessors()));
+    }
+
+    public int getAsyncEventQueueSize()
+    {
+        return getIntProperty(ASYNC_EVENT_QUEUE_SIZE, 10000);
+    }
+
+    public String getAsyncEventRejectionPolicy()
+    {
+        return getProperty(ASYNC_EVENT_REJECTION_POLICY);
+    }
+
+    public int getAsyncEventBatchSize()
+    {
+        return getIntProperty(ASYNC_EVENT_BATCH_SIZE, 16);
+    }
+
+    public boolean useVirtualThreadsForAsyncEvents()
+    {
+        return "true".equalsIgnoreCase(getProperty(ASYNC_EVENT_VIRTUAL_THREADS));
+    }
+
+    public boolean isParallelDeployment()
+    {
+        return "true".equalsIgnoreCase(getProperty(PARALLEL_DEPLOYMENT));
+    }
+
+    public int getDeploymentParallelism()
+    {
+        return getIntProperty(DEPLOYMENT_PARALLELISM, Runtime.getRuntime().availableProcessors());
+    }
+
+    public int getConversationReaperInterval()
+    {
+        return getIntProperty(CONVERSATION_REAPER_INTERVAL, 0);
+    }
+
+    public int getMaxConversationsPerSession()
+    {
+        return getIntProperty(CONVERSATION_MAX_PER_SESSION, 0);
+    }
+
+    public boolean storeSessionBeansAsAttributes()
+    {
+        return "true".equalsIgnoreCase(getProperty(SESSION_BEANS_AS_ATTRIBUTES));
+    }
+
+    public boolean isStartupProfiling()
+    {
+        return "true".equalsIgnoreCase(getProperty(STARTUP_PROFILE));
+    }
+
+    public String getStartupProfileOutput()
+    {
+        return getProperty(STARTUP_PROFILE_OUTPUT,
+                new File(System.getProperty("java.io.tmpdir"), "openwebbeans-startup-profile.json").getPath());
+    }
+
+    public int getStartupProfileTopEntries()
+    {
+        return getIntProperty(STARTUP_PROFILE_TOP, 20);
+    }
+
+    private int getIntProperty(String key, int defaultValue)
+    {
+        String value = getProperty(key);
+        if (value == null || value.trim().isEmpty())
+        {
+            return defaultValue;
+        }
+        try
+        {
+            return Integer.parseInt(value.trim());
+        }
+        catch (NumberFormatException nfe)
+        {
+            throw new WebBeansConfigurationException("Invalid " + key + ": " + value, nfe);
+        }
+    }
+
     public String getGeneratorJavaVersion()
     {
         String generatorJavaVersion = getProperty(GENERATOR_JAVA_VERSION);
@@ -0,0 +1,340 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.config;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.enterprise.inject.spi.ObserverMethod;
+
+import org.apache.webbeans.event.ObserverMethodImpl;
+import org.apache.webbeans.logger.WebBeansLoggerFacade;
+
+/**
+ * Measures the startup of the container if the {@link OpenWebBeansConfiguration#STARTUP_PROFILE} is enabled.
+ *
+ * The deployment gets split into consecutive phases, see {@link #beginPhase(String)}.
+ * In addition the observer methods of the Extensions and the generated proxy classes get measured one by one,
+ * see {@link #start()} and {@link #record(String, String, Measurement)}. The allocated bytes are the ones
+ * of the measuring thread, so they do not include the work of the pool of a parallel deployment.
+ *
+ * After the startup {@link #report()} writes the JSON report, logs the most expensive entries and disables the profiler.
+ */
+public class StartupProfiler
+{
+    public static final String PHASE = "phase";
+    public static final String EXTENSION_OBSERVER = "extensionObserver";
+    public static final String PROXY = "proxy";
+
+    private static final Logger logger = WebBeansLoggerFacade.getLogger(StartupProfiler.class);
+
+    private final String output;
+    private final int topEntries;
+    private final com.sun.management.ThreadMXBean allocations;
+
+    private volatile boolean enabled;
+
+    /**
+     * the finished phases in their order
+     */
+    private final List<Entry> phases = new ArrayList<>();
+    private final Map<String, Map<String, Entry>> entries = new ConcurrentHashMap<>();
+
+    private String currentPhase;
+    private Measurement currentPhaseStart;
+    private long startNanos;
+
+    public StartupProfiler(OpenWebBeansConfiguration configuration)
+    {
+        enabled = configuration.isStartupProfiling();
+        output = enabled ? configuration.getStartupProfileOutput() : null;
+        topEntries = configuration.getStartupProfileTopEntries();
+        allocations = enabled ? getAllocationBean() : null;
+    }
+
+    private static com.sun.management.ThreadMXBean getAllocationBean()
+    {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        if (threadBean instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) threadBean).isThreadAllocatedMemorySupported()
+                && ((com.sun.management.ThreadMXBean) threadBean).isThreadAllocatedMemoryEnabled())
+        {
+            return (com.sun.management.ThreadMXBean) threadBean;
+        }
+        return null;
+    }
+
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    /**
+     * Ends the current phase, if there is one, and begins the next one.
+     * @param name name of the phase
+     */
+    public synchronized void beginPhase(String name)
+    {
+        if (!enabled)
+        {
+            return;
+        }
+        endPhase();
+        currentPhase = name;
+        currentPhaseStart = start();
+        if (startNanos == 0)
+        {
+            startNanos = currentPhaseStart.nanos;
+        }
+    }
+
+    /**
+     * Ends the current phase, if there is one.
+     */
+    public synchronized void endPhase()
+    {
+        if (currentPhase != null)
+        {
+            Entry phase = new Entry(PHASE, currentPhase);
+            phase.add(currentPhaseStart);
+            phases.add(phase);
+            currentPhase = null;
+            currentPhaseStart = null;
+        }
+    }
+
+    /**
+     * @return the start of a measurement on the current thread, {@code null} if the profiler is disabled
+     */
+    public Measurement start()
+    {
+        if (!enabled)
+        {
+            return null;
+        }
+        return new Measurement(System.nanoTime(), allocatedBytes());
+    }
+
+    /**
+     * Adds the time and the allocated bytes since the given start to the entry with the given name.
+     * @param category e.g. {@link #EXTENSION_OBSERVER} or {@link #PROXY}
+     * @param name name of the entry, measurements with the same name get summed up
+     * @param start the result of {@link #start()}, ignored if {@code null}
+     */
+    public void record(String category, String name, Measurement start)
+    {
+        if (start == null || !enabled)
+        {
+            return;
+        }
+        entries.computeIfAbsent(category, c -> new ConcurrentHashMap<>())
+               .computeIfAbsent(name, n -> new Entry(category, n))
+               .add(start);
+    }
+
+    /**
+     * Measures an observer method which got notified about a container lifecycle event.
+     */
+    public void recordExtensionObserver(ObserverMethod<?> observerMethod, Measurement start)
+    {
+        if (start == null)
+        {
+            return;
+        }
+        String name;
+        if (observerMethod instanceof ObserverMethodImpl)
+        {
+            name = observerMethod.getBeanClass().getName() + "#"
+                    + ((ObserverMethodImpl<?>) observerMethod).getObserverMethod().getJavaMember().getName()
+                    + "(" + observerMethod.getObservedType().getTypeName() + ")";
+        }
+        else
+        {
+            name = observerMethod.getBeanClass().getName() + "(" + observerMethod.getObservedType().getTypeName() + ")";
+        }
+        record(EXTENSION_OBSERVER, name, start);
+    }
+
+    /**
+     * Ends the profiling, writes the JSON report and logs the most expensive entries.
+     */
+    public synchronized void report()
+    {
+        if (!enabled)
+        {
+            return;
+        }
+        endPhase();
+        enabled = false;
+        long totalNanos = startNanos == 0 ? 0 : System.nanoTime() - startNanos;
+
+        Path path = Paths.get(output);
+        try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8))
+        {
+            writer.write(toJson(totalNanos));
+        }
+        catch (IOException e)
+        {
+            logger.log(Level.WARNING, "Could not write the startup profile to " + path, e);
+        }
+
+        if (logger.isLoggable(Level.INFO))
+        {
+            logger.info(summary(totalNanos, path));
+        }
+    }
+
+    String toJson(long totalNanos)
+    {
+        StringBuilder json = new StringBuilder(1024);
+        json.append("{\n  \"totalNanos\": ").append(totalNanos)
+            .append(",\n  \"allocationsMeasured\": ").append(allocations != null);
+        appendJson(json, PHASE + "s", phases);
+        appendJson(json, EXTENSION_OBSERVER + "s", sorted(entries.getOrDefault(EXTENSION_OBSERVER, emptyEntries()).values()));
+        appendJson(json, PROXY + "s", sorted(entries.getOrDefault(PROXY, emptyEntries()).values()));
+        return json.append("\n}\n").toString();
+    }
+
+    private String summary(long totalNanos, Path path)
+    {
+        List<Entry> all = new ArrayList<>(phases);
+        for (Map<String, Entry> category : entries.values())
+        {
+            all.addAll(category.values());
+        }
+        List<Entry> top = sorted(all);
+
+        StringBuilder summary = new StringBuilder(String.format(Locale.ENGLISH,
+                "OpenWebBeans startup profile: %.1f ms, report written to %s, most expensive entries:", totalNanos / 1e6, path));
+        for (int i = 0; i < top.size() && i < topEntries; i++)
+        {
+            Entry entry = top.get(i);
+            summary.append(String.format(Locale.ENGLISH, "%n  %3d. [%s] %s: %.1f ms, %d KB allocated, %d x",
+                    i + 1, entry.category, entry.name, entry.nanos / 1e6, entry.bytes / 1024, entry.count));
+        }
+        return summary.toString();
+    }
+
+    private static Map<String, Entry> emptyEntries()
+    {
+        return new ConcurrentHashMap<>();
+    }
+
+    private static List<Entry> sorted(Collection<Entry> entries)
+    {
+        List<Entry> sorted = new ArrayList<>(entries);
+        sorted.sort(Comparator.comparingLong((Entry e) -> e.nanos).reversed());
+        return sorted;
+    }
+
+    private static void appendJson(StringBuilder json, String name, List<Entry> entries)
+    {
+        json.append(",\n  \"").append(name).append("\": [");
+        for (int i = 0; i < entries.size(); i++)
+        {
+            Entry entry = entries.get(i);
+            json.append(i == 0 ? "\n" : ",\n")
+                .append("    {\"name\": \"").append(escape(entry.name))
+                .append("\", \"count\": ").append(entry.count)
+                .append(", \"wallNanos\": ").append(entry.nanos)
+                .append(", \"allocatedBytes\": ").append(entry.bytes)
+                .append('}');
+        }
+        json.append(entries.isEmpty() ? "]" : "\n  ]");
+    }
+
+    private static String escape(String value)
+    {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++)
+        {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\')
+            {
+                escaped.append('\\').append(c);
+            }
+            else if (c < 0x20)
+            {
+                escaped.append(String.format("\\u%04x", (int) c));
+            }
+            else
+            {
+                escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    private long allocatedBytes()
+    {
+        return allocations == null ? 0 : allocations.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * Start of a measurement.
+     */
+    public static final class Measurement
+    {
+        private final long nanos;
+        private final long bytes;
+
+        private Measurement(long nanos, long bytes)
+        {
+            this.nanos = nanos;
+            this.bytes = bytes;
+        }
+    }
+
+    private final class Entry
+    {
+        private final String category;
+        private final String name;
+        private int count;
+        private long nanos;
+        private long bytes;
+
+        private Entry(String category, String name)
+        {
+            this.category = category;
+            this.name = name;
+        }
+
+        private synchronized void add(Measurement start)
+        {
+            count++;
+            nanos += System.nanoTime() - start.nanos;
+            bytes += Math.max(0, allocatedBytes() - start.bytes);
+        }
+    }
+}
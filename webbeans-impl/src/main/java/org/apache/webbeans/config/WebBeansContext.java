@@ -63,11 +63,15 @@ import org.apache.webbeans.spi.BeanArchiveService;
 import org.apache.webbeans.spi.ApplicationBoundaryService;
 import org.apache.webbeans.spi.ContextsService;
 import org.apache.webbeans.spi.ConversationService;
+import org.apache.webbeans.spi.InstrumentationService;
 import org.apache.webbeans.spi.LoaderService;
 import org.apache.webbeans.spi.ScannerService;
 import org.apache.webbeans.spi.SecurityService;
 import org.apache.webbeans.spi.plugins.OpenWebBeansPlugin;
+import org.apache.webbeans.util.BoundedCache;
 import org.apache.webbeans.util.ClassUtil;
+import org.apache.webbeans.util.TypeAssignabilityCache;
+import org.apache.webbeans.util.TypeInterner;
 import org.apache.webbeans.util.WebBeansUtil;
 import org.apache.webbeans.xml.DefaultBeanArchiveService;
 
@@ -113,6 +117,10 @@ public class WebBeansContext
     private final ConversationManager conversationManager;
     private ConversationService conversationService;
     private final ApplicationBoundaryService applicationBoundaryService;
+    private final InstrumentationService instrumentationService;
+    private final TypeAssignabilityCache typeAssignabilityCache;
+    private final TypeInterner typeInterner;
+    private final StartupProfiler startupProfiler;
     private final NotificationManager notificationManager;
 
 
@@ -129,6 +137,8 @@ public class WebBeansContext
     private WebBeansContext(Map<Class<?>, Object> initialServices, OpenWebBeansConfiguration openWebBeansConfiguration)
     {
         this.openWebBeansConfiguration = openWebBeansConfiguration != null ? openWebBeansConfiguration : new OpenWebBeansConfiguration();
+        startupProfiler = new StartupProfiler(this.openWebBeansConfiguration);
+        typeInterner = new TypeInterner(this.openWebBeansConfiguration.isTypeInterning());
         annotationManager = new AnnotationManager(this);
 
         //pluggable service-loader
@@ -161,6 +171,10 @@ public class WebBeansContext
         loaderService = getService(LoaderService.class);
         securityService = getService(SecurityService.class);
         applicationBoundaryService = getService(ApplicationBoundaryService.class);
+        instrumentationService = getService(InstrumentationService.class);
+        typeAssignabilityCache = new TypeAssignabilityCache(
+                this.openWebBeansConfiguration.getTypeAssignabilityPlainCacheSize(),
+                this.openWebBeansConfiguration.getTypeAssignabilityCacheSize(), instrumentationService);
 
         interceptorDecoratorProxyFactory = new InterceptorDecoratorProxyFactory(this);
         normalScopeProxyFactory = new NormalScopeProxyFactory(this);
@@ -173,6 +187,10 @@ public class WebBeansContext
 
         beanManagerImpl.getInjectionResolver().setFastMatching(!"false".equalsIgnoreCase(getOpenWebBeansConfiguration()
                 .getProperty(OpenWebBeansConfiguration.FAST_MATCHING)));
+        beanManagerImpl.getInjectionResolver().configureCaches(
+                getOpenWebBeansConfiguration().getResolutionCacheSize(),
+                BoundedCache.Eviction.parse(getOpenWebBeansConfiguration().getProperty(OpenWebBeansConfiguration.RESOLUTION_CACHE_EVICTION)),
+                instrumentationService);
     }
 
     public static WebBeansContext getInstance()
@@ -376,6 +394,38 @@ public class WebBeansContext
         return notificationManager;
     }
 
+    /**
+     * @return the configured {@link InstrumentationService} or {@code null} if the container does not get instrumented
+     */
+    public InstrumentationService getInstrumentationService()
+    {
+        return instrumentationService;
+    }
+
+    /**
+     * @return the memoized assignability checks of the types of this container
+     */
+    public TypeAssignabilityCache getTypeAssignabilityCache()
+    {
+        return typeAssignabilityCache;
+    }
+
+    /**
+     * @return the canonical types and type closures of this container
+     */
+    public TypeInterner getTypeInterner()
+    {
+        return typeInterner;
+    }
+
+    /**
+     * @return the profiler of the container startup, disabled if no {@link OpenWebBeansConfiguration#STARTUP_PROFILE} is configured
+     */
+    public StartupProfiler getStartupProfiler()
+    {
+        return startupProfiler;
+    }
+
     public ConversationService getConversationService()
     {
         if (conversationService == null)
@@ -608,6 +658,8 @@ public class WebBeansContext
      */
     public void clear()
     {
+        notificationManager.close();
+        conversationManager.close();
         destroyServices(managerMap.values());
         destroyServices(serviceMap.values());
 
@@ -379,6 +379,7 @@ public class BeanManagerImpl implements BeanManager, Referenceable
             deploymentBeans.add(bean);
             thirdPartyMapping.put(newBean, bean);
         }
+        injectionResolver.clearTypeIndex();
 
         return this;
     }
@@ -460,13 +461,27 @@ public class BeanManagerImpl implements BeanManager, Referenceable
     }
 
     public void fireEvent(Object event, boolean containerEvent, Annotation... bindings)
+    {
+        fireEvent(event, createEventMetadata(event, bindings), containerEvent);
+    }
+
+    /**
+     * @return whether the container lifecycle event only gets observed by
+     *         {@link org.apache.webbeans.spi.api.ThreadSafeExtension}s and thus may get fired concurrently to others
+     */
+    public boolean isThreadSafeLifecycleEvent(Object event)
+    {
+        return webBeansContext.getNotificationManager().isThreadSafeLifecycleEvent(event, createEventMetadata(event, AnnotationUtil.EMPTY_ANNOTATION_ARRAY));
+    }
+
+    private EventMetadataImpl createEventMetadata(Object event, Annotation[] bindings)
     {
         Type type = event.getClass();
         if (GenericsUtil.hasTypeParameters(type))
         {
             type = GenericsUtil.getParameterizedType(type);
         }
-        fireEvent(event, new EventMetadataImpl(null, type, null, bindings, webBeansContext), containerEvent);
+        return new EventMetadataImpl(null, type, null, bindings, webBeansContext);
     }
 
     /**
@@ -755,7 +770,7 @@ public class BeanManagerImpl implements BeanManager, Referenceable
             boolean isProducer = AbstractProducerBean.class.isInstance(bean);
             if(!isProducer && // we have different rules for producers
                !isBeanTypeAssignableToGivenType(bean.getTypes(), beanType, bean instanceof NewBean, isProducer) &&
-               !GenericsUtil.satisfiesDependency(false, isProducer, beanType, bean.getBeanClass(), new HashMap<>()) &&
+               !webBeansContext.getTypeAssignabilityCache().satisfiesDependency(false, isProducer, beanType, bean.getBeanClass()) &&
                !GenericsUtil.satisfiesDependencyRaw(false, isProducer, beanType, bean.getBeanClass(), new HashMap<>()))
             {
                 throw new IllegalArgumentException("Given bean type : " + beanType + " is not applicable for the bean instance : " + bean);
@@ -934,7 +949,7 @@ public class BeanManagerImpl implements BeanManager, Referenceable
     {
         for (Type beanApiType : beanTypes)
         {
-            if (GenericsUtil.satisfiesDependency(false, producer, givenType, beanApiType, new HashMap<>()))
+            if (webBeansContext.getTypeAssignabilityCache().satisfiesDependency(false, producer, givenType, beanApiType))
             {
                 return true;
             }
@@ -1479,7 +1494,10 @@ public class BeanManagerImpl implements BeanManager, Referenceable
         webBeansContext.getAnnotatedElementFactory().clear();
 
         injectionResolver.clearCaches();
+        injectionResolver.clearTypeIndex();
         webBeansContext.getAnnotationManager().clearCaches();
+        webBeansContext.getTypeAssignabilityCache().clear();
+        webBeansContext.getTypeInterner().clear();
 
         // finally destroy all SPI services
         webBeansContext.clear();
@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.container;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.enterprise.inject.Default;
+import javax.enterprise.inject.spi.Bean;
+
+import org.apache.webbeans.util.ClassUtil;
+
+/**
+ * Immutable index of the deployed beans by the raw class of their bean types.
+ *
+ * It only narrows down the candidates for a type resolution, the
+ * {@link InjectionResolver} still applies the full generics and qualifier checks
+ * to them. Beans having a bean type without a raw class (TypeVariable,
+ * WildcardType, GenericArrayType) are candidates for every lookup.
+ *
+ * For each raw type there is a second bucket which only contains the beans
+ * having the &#064;Default qualifier. It is used for injection points without
+ * explicit qualifiers which is by far the most common case.
+ */
+public final class BeanTypeIndex
+{
+    private static final Candidates EMPTY = new Candidates(new ArrayList<>(), new ArrayList<>());
+
+    private final Map<Class<?>, Candidates> candidatesByType;
+
+    /**
+     * beans with a bean type which cannot be mapped to a raw class.
+     */
+    private final Candidates untyped;
+
+    public BeanTypeIndex(Collection<Bean<?>> beans)
+    {
+        Map<Class<?>, Set<Bean<?>>> beansByType = new HashMap<>();
+        Set<Bean<?>> untypedBeans = new LinkedHashSet<>();
+
+        for (Bean<?> bean : beans)
+        {
+            for (Type type : bean.getTypes())
+            {
+                Class<?> rawType = getRawType(type);
+                if (rawType == null)
+                {
+                    untypedBeans.add(bean);
+                }
+                else
+                {
+                    beansByType.computeIfAbsent(rawType, k -> new LinkedHashSet<>()).add(bean);
+                }
+            }
+        }
+
+        candidatesByType = new HashMap<>(beansByType.size() * 4 / 3 + 1);
+        for (Map.Entry<Class<?>, Set<Bean<?>>> entry : beansByType.entrySet())
+        {
+            candidatesByType.put(entry.getKey(), Candidates.of(entry.getValue()));
+        }
+        untyped = Candidates.of(untypedBeans);
+    }
+
+    /**
+     * @param injectionPointType a Class or ParameterizedType
+     * @param defaultQualifier whether only beans with the &#064;Default qualifier are of interest
+     * @return all beans which might satisfy the given type, never {@code null}
+     */
+    public List<Bean<?>> getCandidates(Type injectionPointType, boolean defaultQualifier)
+    {
+        Class<?> rawType = getRawType(injectionPointType);
+        Candidates candidates = rawType == null ? null : candidatesByType.get(rawType);
+        if (candidates == null)
+        {
+            candidates = EMPTY;
+        }
+
+        List<Bean<?>> typed = defaultQualifier ? candidates.defaultBeans : candidates.beans;
+        List<Bean<?>> others = defaultQualifier ? untyped.defaultBeans : untyped.beans;
+        if (others.isEmpty())
+        {
+            return typed;
+        }
+
+        List<Bean<?>> result = new ArrayList<>(typed.size() + others.size());
+        result.addAll(typed);
+        result.addAll(others);
+        return result;
+    }
+
+    /**
+     * @return the raw class of the given type with primitives mapped to their wrappers
+     *         or {@code null} if the type has no single raw class.
+     */
+    private static Class<?> getRawType(Type type)
+    {
+        Type rawType = type instanceof ParameterizedType ? ((ParameterizedType) type).getRawType() : type;
+        if (!(rawType instanceof Class))
+        {
+            return null;
+        }
+
+        Class<?> clazz = (Class<?>) rawType;
+        if (clazz.isPrimitive())
+        {
+            Class<?> wrapper = ClassUtil.getPrimitiveWrapper(clazz);
+            return wrapper != null ? wrapper : clazz;
+        }
+        return clazz;
+    }
+
+    private static final class Candidates
+    {
+        private final List<Bean<?>> beans;
+        private final List<Bean<?>> defaultBeans;
+
+        private Candidates(List<Bean<?>> beans, List<Bean<?>> defaultBeans)
+        {
+            this.beans = beans;
+            this.defaultBeans = defaultBeans;
+        }
+
+        private static Candidates of(Set<Bean<?>> beans)
+        {
+            List<Bean<?>> defaultBeans = new ArrayList<>();
+            for (Bean<?> bean : beans)
+            {
+                if (hasDefaultQualifier(bean))
+                {
+                    defaultBeans.add(bean);
+                }
+            }
+            return new Candidates(new ArrayList<>(beans), defaultBeans);
+        }
+
+        private static boolean hasDefaultQualifier(Bean<?> bean)
+        {
+            for (Annotation qualifier : bean.getQualifiers())
+            {
+                if (qualifier.annotationType() == Default.class)
+                {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
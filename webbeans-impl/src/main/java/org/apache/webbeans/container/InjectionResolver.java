@@ -31,9 +31,11 @@ import org.apache.webbeans.exception.WebBeansDeploymentException;
 import org.apache.webbeans.inject.AlternativesManager;
 import org.apache.webbeans.logger.WebBeansLoggerFacade;
 import org.apache.webbeans.spi.BDABeansXmlScanner;
+import org.apache.webbeans.spi.InstrumentationService;
 import org.apache.webbeans.spi.ScannerService;
 import org.apache.webbeans.util.AnnotationUtil;
 import org.apache.webbeans.util.Asserts;
+import org.apache.webbeans.util.BoundedCache;
 import org.apache.webbeans.util.ClassUtil;
 import org.apache.webbeans.util.GenericsUtil;
 import org.apache.webbeans.util.InjectionExceptionUtil;
@@ -41,6 +43,7 @@ import org.apache.webbeans.util.SingleItemSet;
 import org.apache.webbeans.util.WebBeansUtil;
 
 import javax.enterprise.event.Event;
+import javax.enterprise.inject.Default;
 import javax.enterprise.inject.Instance;
 import javax.enterprise.inject.New;
 import javax.enterprise.inject.UnproxyableResolutionException;
@@ -53,14 +56,12 @@ import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
 import java.lang.reflect.WildcardType;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -88,17 +89,23 @@ public class InjectionResolver
     private AlternativesManager alternativesManager;
     
     /**
-     * This Map contains all resolved beans via it's type and qualifiers.
-     * If a bean have resolved as not existing, the entry will contain <code>null</code> as value.
-     * The Long key is a hashCode, see
+     * This cache contains all resolved beans via it's type and qualifiers.
+     * The key is built from the type and the qualifiers, see
      * {@link BeanCacheKey#BeanCacheKey(boolean, Type, String, java.util.function.Function, Annotation...)}
+     * It is bounded as dynamic lookups with e.g. user provided qualifier values would let it grow forever.
      */
-    private Map<BeanCacheKey, Set<Bean<?>>> resolvedBeansByType = new ConcurrentHashMap<>();
+    private BoundedCache<BeanCacheKey, Set<Bean<?>>> resolvedBeansByType;
 
     /**
-     * This Map contains all resolved beans via it's ExpressionLanguage name.
+     * This cache contains all resolved beans via it's ExpressionLanguage name.
+     * If no bean exists for a name, the entry will contain an empty Set.
      */
-    private Map<String, Set<Bean<?>>> resolvedBeansByName = new ConcurrentHashMap<>();
+    private BoundedCache<String, Set<Bean<?>>> resolvedBeansByName;
+
+    /**
+     * Ids of the qualifiers of the {@link BeanCacheKey}s, bounded like the caches.
+     */
+    private QualifierInterner qualifierInterner;
 
     /**
      * Whether the container is in startup mode.
@@ -108,6 +115,12 @@ public class InjectionResolver
 
     private boolean fastMatching;
 
+    /**
+     * Index of the deployed beans by their raw bean types.
+     * Gets built once the set of Beans is final and dropped whenever a Bean gets added afterwards.
+     */
+    private volatile BeanTypeIndex typeIndex;
+
     private Bean<Instance<Object>> instanceBean;
     private Bean<Event<Object>> eventBean;
 
@@ -124,6 +137,31 @@ public class InjectionResolver
         fastMatching = false;
         instanceBean = webBeansContext.getWebBeansUtil().getInstanceBean();
         eventBean = webBeansContext.getWebBeansUtil().getEventBean();
+        configureCaches(0, BoundedCache.Eviction.LRU, null);
+    }
+
+    /**
+     * (Re-)creates the resolution caches.
+     *
+     * @param maxSize maximum number of entries per cache, {@code <= 0} for unbounded caches
+     * @param eviction the eviction policy once a cache is full
+     * @param instrumentation gets informed about cache hits, misses and evictions, might be {@code null}
+     */
+    public void configureCaches(int maxSize, BoundedCache.Eviction eviction, InstrumentationService instrumentation)
+    {
+        resolvedBeansByType = new BoundedCache<>("resolvedBeansByType", maxSize, eviction, instrumentation);
+        resolvedBeansByName = new BoundedCache<>("resolvedBeansByName", maxSize, eviction, instrumentation);
+        qualifierInterner = new QualifierInterner(this::findQualifierModel, maxSize, instrumentation);
+    }
+
+    public BoundedCache<BeanCacheKey, Set<Bean<?>>> getResolvedBeansByTypeCache()
+    {
+        return resolvedBeansByType;
+    }
+
+    public BoundedCache<String, Set<Bean<?>>> getResolvedBeansByNameCache()
+    {
+        return resolvedBeansByName;
     }
 
     public void setFastMatching(boolean fastMatching)
@@ -135,7 +173,32 @@ public class InjectionResolver
     {
         this.startup = startup;
     }
+
+    /**
+     * @return {@code true} as long as Beans still might get added
+     */
+    public boolean isStartup()
+    {
+        return startup;
+    }
     
+    /**
+     * Builds the index of all deployed beans by their raw types.
+     * Must only be called once the set of Beans is final.
+     */
+    public void buildTypeIndex()
+    {
+        typeIndex = new BeanTypeIndex(webBeansContext.getBeanManagerImpl().getBeans());
+    }
+
+    /**
+     * Drops the type index, it gets lazily rebuilt on the next resolution.
+     */
+    public void clearTypeIndex()
+    {
+        typeIndex = null;
+    }
+
     /**
      * Clear caches.
      */
@@ -143,6 +206,7 @@ public class InjectionResolver
     {
         resolvedBeansByName.clear();
         resolvedBeansByType.clear();
+        qualifierInterner.clear();
     }
 
     /**
@@ -468,7 +532,7 @@ public class InjectionResolver
             // we only cache and validate once the set of Beans is final, otherwise we would cache crap
             validateInjectionPointType(injectionPointType);
 
-            cacheKey = new BeanCacheKey(isDelegate, injectionPointType, bdaBeansXMLFilePath, this::findQualifierModel, qualifiers);
+            cacheKey = new BeanCacheKey(isDelegate, injectionPointType, bdaBeansXMLFilePath, qualifierInterner, qualifiers);
 
             resolvedComponents = resolvedBeansByType.get(cacheKey);
             if (resolvedComponents != null)
@@ -480,8 +544,19 @@ public class InjectionResolver
         resolvedComponents = new HashSet<>();
 
         boolean returnAll = injectionPointType.equals(Object.class) && currentQualifier;
+        boolean defaultQualifier = qualifiers.length == 1 && qualifiers[0].annotationType() == Default.class;
 
-        for (Bean<?> component : webBeansContext.getBeanManagerImpl().getBeans())
+        Collection<Bean<?>> candidates;
+        if (startup || returnAll)
+        {
+            candidates = webBeansContext.getBeanManagerImpl().getBeans();
+        }
+        else
+        {
+            candidates = getTypeIndex().getCandidates(injectionPointType, defaultQualifier);
+        }
+
+        for (Bean<?> component : candidates)
         {
             // no need to check instanceof OwbBean as we always wrap in a
             // ThirdpartyBeanImpl at least
@@ -513,9 +588,9 @@ public class InjectionResolver
                     for (Type componentApiType : component.getTypes())
                     {
 
-                        if (GenericsUtil.satisfiesDependency(
+                        if (webBeansContext.getTypeAssignabilityCache().satisfiesDependency(
                                 isDelegate, AbstractProducerBean.class.isInstance(component),
-                                injectionPointType, componentApiType, new HashMap<>()))
+                                injectionPointType, componentApiType))
                         {
                             resolvedComponents.add(component);
                             break;
@@ -527,8 +602,11 @@ public class InjectionResolver
 
         if (!returnAll)
         {
-            // Look for qualifiers
-            resolvedComponents = findByQualifier(resolvedComponents, injectionPointType, qualifiers);
+            if (startup || !defaultQualifier)
+            {
+                // Look for qualifiers, the type index already did it for @Default
+                resolvedComponents = findByQualifier(resolvedComponents, injectionPointType, qualifiers);
+            }
 
             // have an additional round of checks for assignability of parameterized types.
             Set<Bean<?>> byParameterizedType = findByParameterizedType(resolvedComponents, injectionPointType, isDelegate);
@@ -571,6 +649,17 @@ public class InjectionResolver
         return resolvedComponents;
     }
 
+    private BeanTypeIndex getTypeIndex()
+    {
+        BeanTypeIndex index = typeIndex;
+        if (index == null)
+        {
+            index = new BeanTypeIndex(webBeansContext.getBeanManagerImpl().getBeans());
+            typeIndex = index;
+        }
+        return index;
+    }
+
     private void findNewBean(Set<Bean<?>> resolvedComponents, Type injectionPointType, Annotation[] qualifiers)
     {
         if (qualifiers.length == 1 && New.class.equals(qualifiers[0].annotationType()))
@@ -600,7 +689,7 @@ public class InjectionResolver
             boolean isProducer = AbstractProducerBean.class.isInstance(bean);
             for (Type type : bean.getTypes())
             {
-                if (GenericsUtil.satisfiesDependency(isDelegate, isProducer, injectionPointType, type, new HashMap<>()))
+                if (webBeansContext.getTypeAssignabilityCache().satisfiesDependency(isDelegate, isProducer, injectionPointType, type))
                 {
                     resolved.add(bean);
                 }
@@ -626,7 +715,7 @@ public class InjectionResolver
             for (Type componentApiType : component.getTypes())
             {
 
-                if (GenericsUtil.satisfiesDependency(isDelegate, isProducer, injectionPointType, componentApiType, new HashMap<>()))
+                if (webBeansContext.getTypeAssignabilityCache().satisfiesDependency(isDelegate, isProducer, injectionPointType, componentApiType))
                 {
                     resolvedComponents.add(component);
                     break;
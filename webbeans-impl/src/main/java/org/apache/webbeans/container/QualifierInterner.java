@@ -0,0 +1,272 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.container;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import javax.enterprise.inject.spi.AnnotatedMethod;
+import javax.enterprise.inject.spi.AnnotatedType;
+import javax.enterprise.util.Nonbinding;
+
+import org.apache.webbeans.exception.WebBeansException;
+import org.apache.webbeans.spi.InstrumentationService;
+import org.apache.webbeans.util.BoundedCache;
+
+/**
+ * Maps each qualifier to an id which is the same for all qualifiers
+ * that are equal according to their binding members, i.e. ignoring {@link Nonbinding} members.
+ *
+ * The ids are used by the {@link BeanCacheKey}, so comparing the qualifiers of two keys
+ * is an int comparison. The expensive comparison of the member values only happens once
+ * when a qualifier gets interned. Ids never get reused, not even after {@link #clear()}
+ * or the eviction of an entry.
+ *
+ * Qualifier instances with members get remembered by identity, so a lookup which passes the same
+ * literal again skips reading the member values. Like the JDK does, this relies on annotations being immutable.
+ */
+public final class QualifierInterner
+{
+    private static final Method[] NO_MEMBERS = new Method[0];
+
+    /**
+     * the bound of the instances cache if the interned qualifiers are unbounded,
+     * a fresh literal per lookup must not pile up.
+     */
+    private static final int DEFAULT_MAX_INSTANCES = 1000;
+
+    private final Function<Class<?>, AnnotatedType<?>> qualifierModelLoader;
+    private final AtomicInteger nextId = new AtomicInteger();
+
+    private final ConcurrentMap<Class<? extends Annotation>, Method[]> bindingMembers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Class<? extends Annotation>, Integer> memberlessIds = new ConcurrentHashMap<>();
+    private final BoundedCache<QualifierValues, Integer> ids;
+    private final BoundedCache<QualifierInstance, Integer> instanceIds;
+
+    /**
+     * @param qualifierModelLoader provides the {@link AnnotatedType} of a qualifier if it got added by an extension,
+     *                             which might declare other {@link Nonbinding} members than the annotation class.
+     *                             Might be {@code null} or return {@code null}.
+     * @param maxSize maximum number of interned qualifiers with members, {@code <= 0} for no bound
+     * @param instrumentation callback for cache events, might be {@code null}
+     */
+    public QualifierInterner(Function<Class<?>, AnnotatedType<?>> qualifierModelLoader, int maxSize, InstrumentationService instrumentation)
+    {
+        this.qualifierModelLoader = qualifierModelLoader;
+        ids = new BoundedCache<>("qualifierIds", maxSize, BoundedCache.Eviction.LRU, instrumentation);
+        // one-time literals must not flush the ones which get passed again and again
+        instanceIds = new BoundedCache<>("qualifierInstanceIds", maxSize > 0 ? maxSize : DEFAULT_MAX_INSTANCES,
+                BoundedCache.Eviction.TINY_LFU, instrumentation);
+    }
+
+    /**
+     * @return the id of the qualifier, equal for all qualifiers with the same type and binding member values
+     */
+    public int intern(Annotation qualifier)
+    {
+        Class<? extends Annotation> annotationType = qualifier.annotationType();
+        Method[] members = bindingMembers.computeIfAbsent(annotationType, this::findBindingMembers);
+        if (members.length == 0)
+        {
+            return memberlessIds.computeIfAbsent(annotationType, t -> nextId.incrementAndGet());
+        }
+
+        QualifierInstance instance = new QualifierInstance(qualifier);
+        Integer instanceId = instanceIds.get(instance);
+        if (instanceId != null)
+        {
+            return instanceId;
+        }
+
+        Object[] values = new Object[members.length];
+        for (int i = 0; i < members.length; i++)
+        {
+            values[i] = memberValue(qualifier, members[i]);
+        }
+        QualifierValues key = new QualifierValues(annotationType, values);
+        Integer id = ids.get(key);
+        if (id == null)
+        {
+            // if another thread interns an equal qualifier concurrently or the entry got evicted,
+            // equal qualifiers get different ids. That only costs a cache miss, unequal qualifiers never share an id.
+            id = nextId.incrementAndGet();
+            ids.put(key, id);
+        }
+        instanceIds.put(instance, id);
+        return id;
+    }
+
+    /**
+     * @return the ids of the qualifiers in ascending order
+     */
+    public int[] intern(Annotation... qualifiers)
+    {
+        if (qualifiers == null || qualifiers.length == 0)
+        {
+            return new int[0];
+        }
+        int[] qualifierIds = new int[qualifiers.length];
+        for (int i = 0; i < qualifiers.length; i++)
+        {
+            qualifierIds[i] = intern(qualifiers[i]);
+        }
+        if (qualifierIds.length > 1)
+        {
+            Arrays.sort(qualifierIds);
+        }
+        return qualifierIds;
+    }
+
+    /**
+     * Drops the interned qualifiers, e.g. once the qualifier models might have changed.
+     */
+    public void clear()
+    {
+        bindingMembers.clear();
+        memberlessIds.clear();
+        ids.clear();
+        instanceIds.clear();
+    }
+
+    private Method[] findBindingMembers(Class<? extends Annotation> annotationType)
+    {
+        AnnotatedType<?> model = qualifierModelLoader == null ? null : qualifierModelLoader.apply(annotationType);
+        List<Method> members = new ArrayList<>();
+        if (model != null)
+        {
+            for (AnnotatedMethod<?> method : model.getMethods())
+            {
+                if (!method.isAnnotationPresent(Nonbinding.class))
+                {
+                    members.add(method.getJavaMember());
+                }
+            }
+        }
+        else
+        {
+            for (Method method : annotationType.getDeclaredMethods())
+            {
+                if (!method.isAnnotationPresent(Nonbinding.class))
+                {
+                    members.add(method);
+                }
+            }
+        }
+        if (members.isEmpty())
+        {
+            return NO_MEMBERS;
+        }
+
+        // the order of getDeclaredMethods is not specified, but all values of one type must be in the same order
+        members.sort((m1, m2) -> m1.getName().compareTo(m2.getName()));
+        for (Method member : members)
+        {
+            if (!member.isAccessible())
+            {
+                member.setAccessible(true);
+            }
+        }
+        return members.toArray(new Method[members.size()]);
+    }
+
+    private static Object memberValue(Annotation qualifier, Method member)
+    {
+        try
+        {
+            return member.invoke(qualifier);
+        }
+        catch (Exception e)
+        {
+            throw new WebBeansException("Exception in method call : " + member.getName(), e);
+        }
+    }
+
+    /**
+     * A qualifier compared by identity, its equals and hashCode would read the member values.
+     */
+    private static final class QualifierInstance
+    {
+        private final Annotation qualifier;
+
+        private QualifierInstance(Annotation qualifier)
+        {
+            this.qualifier = qualifier;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            return this == o || o instanceof QualifierInstance && qualifier == ((QualifierInstance) o).qualifier;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return System.identityHashCode(qualifier);
+        }
+    }
+
+    /**
+     * The type and binding member values of a qualifier.
+     */
+    private static final class QualifierValues
+    {
+        private final Class<? extends Annotation> annotationType;
+        private final Object[] values;
+        private final int hashCode;
+
+        private QualifierValues(Class<? extends Annotation> annotationType, Object[] values)
+        {
+            this.annotationType = annotationType;
+            this.values = values;
+            // deepHashCode handles the arrays of primitives as well
+            hashCode = 31 * annotationType.hashCode() + Arrays.deepHashCode(values);
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o)
+            {
+                return true;
+            }
+            if (!(o instanceof QualifierValues))
+            {
+                return false;
+            }
+            QualifierValues other = (QualifierValues) o;
+            return hashCode == other.hashCode
+                    && annotationType == other.annotationType
+                    && Arrays.deepEquals(values, other.values);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hashCode;
+        }
+    }
+}
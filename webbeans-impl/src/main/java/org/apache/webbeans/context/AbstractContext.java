@@ -131,36 +131,28 @@ public abstract class AbstractContext implements AlterableContext, Serializable
     @SuppressWarnings("unchecked")
     protected <T> T getInstance(Contextual<T> contextual, CreationalContext<T> creationalContext)
     {
-        T instance;
-        
-        //Look for bag
+        //Look for bag, the already created case must not allocate anything
         BeanInstanceBag<T> bag = (BeanInstanceBag<T>)componentInstanceMap.get(contextual);
-        if(bag == null)
+        if (bag != null)
         {
-            bag = createContextualBag(contextual, creationalContext);
+            T instance = bag.getBeanInstance();
+            if (instance != null)
+            {
+                return instance;
+            }
         }
 
-        //Look for instance
-        instance = bag.getBeanInstance();
-        if (instance != null)
+        if (creationalContext == null)
         {
-            return instance;
+            return null;
         }
 
-        else
+        if (bag == null)
         {
-            if(creationalContext == null)
-            {
-                return null;
-            }
-            
-            else
-            {                
-                instance = bag.create(contextual);    
-            }
+            bag = createContextualBag(contextual, creationalContext);
         }
 
-        return  instance;
+        return bag.create(contextual);
     }
 
     @Override
@@ -30,6 +30,7 @@ import org.apache.webbeans.config.WebBeansContext;
 import org.apache.webbeans.conversation.ConversationImpl;
 import org.apache.webbeans.conversation.ConversationManager;
 import org.apache.webbeans.spi.ContextsService;
+import org.apache.webbeans.spi.InstrumentationService;
 
 public abstract class AbstractContextsService implements ContextsService
 {
@@ -37,10 +38,15 @@ public abstract class AbstractContextsService implements ContextsService
 
     protected boolean supportsConversation;
 
+    /**
+     * gets informed about started and ended contexts, might be {@code null}
+     */
+    protected final InstrumentationService instrumentation;
 
     protected AbstractContextsService(WebBeansContext webBeansContext)
     {
         this.webBeansContext = webBeansContext;
+        instrumentation = webBeansContext.getInstrumentationService();
         supportsConversation = webBeansContext.getOpenWebBeansConfiguration().supportsConversation();
 
     }
@@ -113,10 +119,10 @@ public abstract class AbstractContextsService implements ContextsService
                     ConversationContext conversationContext = convIt.next();
 
                     ConversationImpl conv = conversationContext.getConversation();
-                    if (conversationManager.conversationTimedOut(conv))
+                    // the conversation might get removed concurrently, e.g. by the reaper, so only one destroys it
+                    if (conversationManager.conversationTimedOut(conv) && conversationContexts.remove(conversationContext))
                     {
                         conversationManager.destroyConversationContext(conversationContext);
-                        convIt.remove();
                     }
                 }
             }
@@ -133,8 +139,43 @@ public abstract class AbstractContextsService implements ContextsService
         }
     }
 
+    /**
+     * Runs the task with the given existing session context as the current one of this thread,
+     * e.g. to destroy the timed out conversations of a session outside of its requests.
+     * The session context does not get ended afterwards.
+     *
+     * @return {@code false} if this ContextsService cannot activate a given session context, the task did not run then
+     */
+    public boolean runWithSessionContext(SessionContext sessionContext, Runnable task)
+    {
+        return false;
+    }
+
     public boolean isSupportsConversation()
     {
         return supportsConversation;
     }
+
+    /**
+     * Reports a started context to the {@link InstrumentationService}, if there is one.
+     */
+    protected void contextStarted(Class<? extends Annotation> scopeType)
+    {
+        if (instrumentation != null)
+        {
+            instrumentation.contextStarted(scopeType);
+        }
+    }
+
+    /**
+     * Reports an ended context to the {@link InstrumentationService}, if there is one.
+     * @param startNanos {@link System#nanoTime()} when ending the context began
+     */
+    protected void contextEnded(Class<? extends Annotation> scopeType, long startNanos)
+    {
+        if (instrumentation != null)
+        {
+            instrumentation.contextEnded(scopeType, System.nanoTime() - startNanos);
+        }
+    }
 }
@@ -0,0 +1,246 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.context;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+
+/**
+ * Carries the thread bound contexts (request, session and conversation) of one unit of work.
+ *
+ * <p>A carrier gets bound to a thread for the duration of a call, like a scoped value:
+ * {@link #run(Runnable)} and {@link #call(Callable)} bind it, invoke the task and restore
+ * the previously bound carrier afterwards. This allows to capture the contexts of a request
+ * with {@link #current()} and to activate them in executor tasks or virtual threads
+ * without copying any context state.</p>
+ *
+ * <p>All carriers share a single thread local slot which gets removed again once the
+ * outermost binding ends, so short lived threads do not leave any per request garbage behind.</p>
+ *
+ * <p>The contexts of a captured carrier are still owned by the thread which started them.
+ * Each task runs with its own {@link #fork() fork} of the carrier, so contexts a task starts
+ * stay invisible to the owner and ending an inherited context in a task only detaches it from the task.
+ * Tasks should be completed before the owner ends the request.</p>
+ *
+ * @see org.apache.webbeans.corespi.se.CarrierContextsService
+ */
+public final class ContextCarrier
+{
+    private static final ThreadLocal<ContextCarrier> CURRENT = new ThreadLocal<>();
+
+    private volatile RequestContext requestContext;
+    private volatile SessionContext sessionContext;
+    private volatile ConversationContext conversationContext;
+
+    /**
+     * the contexts this carrier got forked with, they are owned by the original carrier
+     */
+    private final RequestContext inheritedRequestContext;
+    private final SessionContext inheritedSessionContext;
+    private final ConversationContext inheritedConversationContext;
+
+    public ContextCarrier()
+    {
+        this(null, null, null);
+    }
+
+    private ContextCarrier(RequestContext requestContext, SessionContext sessionContext, ConversationContext conversationContext)
+    {
+        this.requestContext = requestContext;
+        this.sessionContext = sessionContext;
+        this.conversationContext = conversationContext;
+        inheritedRequestContext = requestContext;
+        inheritedSessionContext = sessionContext;
+        inheritedConversationContext = conversationContext;
+    }
+
+    /**
+     * @return the carrier bound to the current thread or {@code null} if there is none
+     */
+    public static ContextCarrier current()
+    {
+        return CURRENT.get();
+    }
+
+    /**
+     * Binds the given carrier to the current thread until {@link #unbind()} gets invoked.
+     * Used by the ContextsService when a context gets started without an enclosing scope.
+     */
+    public static void bind(ContextCarrier carrier)
+    {
+        CURRENT.set(carrier);
+    }
+
+    /**
+     * Removes the carrier from the current thread.
+     */
+    public static void unbind()
+    {
+        CURRENT.remove();
+    }
+
+    public RequestContext getRequestContext()
+    {
+        return requestContext;
+    }
+
+    public void setRequestContext(RequestContext requestContext)
+    {
+        this.requestContext = requestContext;
+    }
+
+    public SessionContext getSessionContext()
+    {
+        return sessionContext;
+    }
+
+    public void setSessionContext(SessionContext sessionContext)
+    {
+        this.sessionContext = sessionContext;
+    }
+
+    public ConversationContext getConversationContext()
+    {
+        return conversationContext;
+    }
+
+    public void setConversationContext(ConversationContext conversationContext)
+    {
+        this.conversationContext = conversationContext;
+    }
+
+    /**
+     * @return {@code true} if the request context got started with this carrier rather than inherited by a fork
+     */
+    public boolean ownsRequestContext()
+    {
+        return requestContext != null && requestContext != inheritedRequestContext;
+    }
+
+    /**
+     * @return {@code true} if the session context got started with this carrier rather than inherited by a fork
+     */
+    public boolean ownsSessionContext()
+    {
+        return sessionContext != null && sessionContext != inheritedSessionContext;
+    }
+
+    /**
+     * @return {@code true} if the conversation context got started with this carrier rather than inherited by a fork
+     */
+    public boolean ownsConversationContext()
+    {
+        return conversationContext != null && conversationContext != inheritedConversationContext;
+    }
+
+    /**
+     * Creates a carrier which sees the current contexts of this one without owning them.
+     * Contexts started or ended with the fork do not change this carrier.
+     */
+    public ContextCarrier fork()
+    {
+        return new ContextCarrier(requestContext, sessionContext, conversationContext);
+    }
+
+    /**
+     * @return {@code true} if this carrier does not hold any context anymore
+     */
+    public boolean isEmpty()
+    {
+        return requestContext == null && sessionContext == null && conversationContext == null;
+    }
+
+    /**
+     * Invokes the task with a fork of this carrier bound to the current thread.
+     */
+    public void run(Runnable task)
+    {
+        ContextCarrier previous = CURRENT.get();
+        CURRENT.set(fork());
+        try
+        {
+            task.run();
+        }
+        finally
+        {
+            restore(previous);
+        }
+    }
+
+    /**
+     * Invokes the task with a fork of this carrier bound to the current thread.
+     */
+    public <T> T call(Callable<T> task) throws Exception
+    {
+        ContextCarrier previous = CURRENT.get();
+        CURRENT.set(fork());
+        try
+        {
+            return task.call();
+        }
+        finally
+        {
+            restore(previous);
+        }
+    }
+
+    /**
+     * @return a task which runs the given one with a fork of this carrier bound
+     */
+    public Runnable wrap(Runnable task)
+    {
+        return () -> run(task);
+    }
+
+    /**
+     * @return a task which calls the given one with a fork of this carrier bound
+     */
+    public <T> Callable<T> wrap(Callable<T> task)
+    {
+        return () -> call(task);
+    }
+
+    /**
+     * @return an Executor which runs all tasks with a fork of this carrier bound,
+     *         e.g. to hand the current request over to a virtual thread executor
+     */
+    public Executor wrap(Executor executor)
+    {
+        return task -> executor.execute(wrap(task));
+    }
+
+    private static void restore(ContextCarrier previous)
+    {
+        if (previous == null)
+        {
+            CURRENT.remove();
+        }
+        else
+        {
+            CURRENT.set(previous);
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return "ContextCarrier{request=" + requestContext + ", session=" + sessionContext +
+                ", conversation=" + conversationContext + '}';
+    }
+}
@@ -0,0 +1,294 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.context;
+
+import java.lang.annotation.Annotation;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import javax.enterprise.context.spi.Contextual;
+
+import org.apache.webbeans.component.AbstractOwbBean;
+import org.apache.webbeans.context.creational.BeanInstanceBag;
+
+/**
+ * Holds the {@link BeanInstanceBag}s of a built-in context.
+ *
+ * The bags of the beans which got a {@link AbstractOwbBean#getBeanIndex() bean index} for the scope
+ * of the context are stored in an array, so looking them up does not need {@code Bean#hashCode()}
+ * and {@code Bean#equals(Object)}. All other contextuals, e.g. beans added after the deployment,
+ * are stored in a map.
+ *
+ * Reading does not lock, all modifications are synchronized.
+ */
+public class ContextualInstanceMap extends AbstractMap<Contextual<?>, BeanInstanceBag<?>>
+        implements ConcurrentMap<Contextual<?>, BeanInstanceBag<?>>
+{
+    private static final AtomicReferenceArray<BeanInstanceBag<?>> NO_BAGS = new AtomicReferenceArray<>(0);
+
+    private final Class<? extends Annotation> scopeType;
+
+    /**
+     * Bags of the indexed beans, grows up to the highest index in use.
+     */
+    private volatile AtomicReferenceArray<BeanInstanceBag<?>> indexedBags = NO_BAGS;
+
+    /**
+     * Keys of the indexedBags, only accessed while synchronized.
+     */
+    private Contextual<?>[] indexedKeys = new Contextual<?>[0];
+
+    /**
+     * Bags of all other contextuals, also of beans which got created before the indexes got assigned.
+     */
+    private final ConcurrentMap<Contextual<?>, BeanInstanceBag<?>> otherBags = new ConcurrentHashMap<>();
+
+    public ContextualInstanceMap(Class<? extends Annotation> scopeType)
+    {
+        this.scopeType = scopeType;
+    }
+
+    @Override
+    public BeanInstanceBag<?> get(Object key)
+    {
+        int index = indexOf(key);
+        if (index < 0)
+        {
+            return otherBags.get(key);
+        }
+
+        AtomicReferenceArray<BeanInstanceBag<?>> bags = indexedBags;
+        if (index < bags.length())
+        {
+            BeanInstanceBag<?> bag = bags.get(index);
+            if (bag != null)
+            {
+                return bag;
+            }
+        }
+        return otherBags.isEmpty() ? null : otherBags.get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key)
+    {
+        return get(key) != null;
+    }
+
+    @Override
+    public synchronized BeanInstanceBag<?> put(Contextual<?> key, BeanInstanceBag<?> value)
+    {
+        Objects.requireNonNull(value);
+
+        int index = indexOf(key);
+        if (index < 0)
+        {
+            return otherBags.put(key, value);
+        }
+
+        ensureCapacity(index);
+        indexedKeys[index] = key;
+        BeanInstanceBag<?> old = indexedBags.getAndSet(index, value);
+        if (old == null)
+        {
+            // the bean got stored before it had an index
+            old = otherBags.remove(key);
+        }
+        return old;
+    }
+
+    @Override
+    public synchronized BeanInstanceBag<?> putIfAbsent(Contextual<?> key, BeanInstanceBag<?> value)
+    {
+        BeanInstanceBag<?> existing = get(key);
+        if (existing != null)
+        {
+            return existing;
+        }
+        return put(key, value);
+    }
+
+    @Override
+    public synchronized BeanInstanceBag<?> remove(Object key)
+    {
+        int index = indexOf(key);
+        BeanInstanceBag<?> old = null;
+        if (index >= 0 && index < indexedBags.length())
+        {
+            indexedKeys[index] = null;
+            old = indexedBags.getAndSet(index, null);
+        }
+        BeanInstanceBag<?> other = otherBags.remove(key);
+        return old != null ? old : other;
+    }
+
+    @Override
+    public synchronized boolean remove(Object key, Object value)
+    {
+        if (value != null && value.equals(get(key)))
+        {
+            remove(key);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public synchronized boolean replace(Contextual<?> key, BeanInstanceBag<?> oldValue, BeanInstanceBag<?> newValue)
+    {
+        if (oldValue != null && oldValue.equals(get(key)))
+        {
+            put(key, newValue);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public synchronized BeanInstanceBag<?> replace(Contextual<?> key, BeanInstanceBag<?> value)
+    {
+        return get(key) != null ? put(key, value) : null;
+    }
+
+    @Override
+    public synchronized void clear()
+    {
+        indexedBags = NO_BAGS;
+        indexedKeys = new Contextual<?>[0];
+        otherBags.clear();
+    }
+
+    /**
+     * @return a snapshot of the entries, removing them via the iterator removes them from this map
+     */
+    @Override
+    public Set<Map.Entry<Contextual<?>, BeanInstanceBag<?>>> entrySet()
+    {
+        List<Map.Entry<Contextual<?>, BeanInstanceBag<?>>> entries = snapshot();
+        return new AbstractSet<Map.Entry<Contextual<?>, BeanInstanceBag<?>>>()
+        {
+            @Override
+            public Iterator<Map.Entry<Contextual<?>, BeanInstanceBag<?>>> iterator()
+            {
+                Iterator<Map.Entry<Contextual<?>, BeanInstanceBag<?>>> iterator = entries.iterator();
+                return new Iterator<Map.Entry<Contextual<?>, BeanInstanceBag<?>>>()
+                {
+                    private Map.Entry<Contextual<?>, BeanInstanceBag<?>> current;
+
+                    @Override
+                    public boolean hasNext()
+                    {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public Map.Entry<Contextual<?>, BeanInstanceBag<?>> next()
+                    {
+                        current = iterator.next();
+                        return current;
+                    }
+
+                    @Override
+                    public void remove()
+                    {
+                        if (current == null)
+                        {
+                            throw new IllegalStateException();
+                        }
+                        ContextualInstanceMap.this.remove(current.getKey(), current.getValue());
+                        current = null;
+                    }
+                };
+            }
+
+            @Override
+            public int size()
+            {
+                return entries.size();
+            }
+        };
+    }
+
+    private synchronized List<Map.Entry<Contextual<?>, BeanInstanceBag<?>>> snapshot()
+    {
+        List<Map.Entry<Contextual<?>, BeanInstanceBag<?>>> entries = new ArrayList<>(otherBags.size());
+        AtomicReferenceArray<BeanInstanceBag<?>> bags = indexedBags;
+        for (int i = 0; i < bags.length(); i++)
+        {
+            BeanInstanceBag<?> bag = bags.get(i);
+            if (bag != null)
+            {
+                entries.add(new SimpleImmutableEntry<>(indexedKeys[i], bag));
+            }
+        }
+        for (Map.Entry<Contextual<?>, BeanInstanceBag<?>> entry : otherBags.entrySet())
+        {
+            entries.add(new SimpleImmutableEntry<>(entry.getKey(), entry.getValue()));
+        }
+        return entries;
+    }
+
+    /**
+     * @return the index of the bean within the scope of this context or -1 if the key has none
+     */
+    private int indexOf(Object key)
+    {
+        if (key instanceof AbstractOwbBean)
+        {
+            AbstractOwbBean<?> bean = (AbstractOwbBean<?>) key;
+            // the indexes are only unique within a scope
+            if (bean.getScope() == scopeType)
+            {
+                return bean.getBeanIndex();
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Must only be called while synchronized.
+     */
+    private void ensureCapacity(int index)
+    {
+        AtomicReferenceArray<BeanInstanceBag<?>> bags = indexedBags;
+        if (index < bags.length())
+        {
+            return;
+        }
+
+        int length = Math.max(index + 1, bags.length() * 2);
+        AtomicReferenceArray<BeanInstanceBag<?>> newBags = new AtomicReferenceArray<>(length);
+        for (int i = 0; i < bags.length(); i++)
+        {
+            newBags.set(i, bags.get(i));
+        }
+        indexedKeys = Arrays.copyOf(indexedKeys, length);
+        indexedBags = newBags;
+    }
+}
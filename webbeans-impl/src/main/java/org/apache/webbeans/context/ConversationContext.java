@@ -21,7 +21,6 @@ package org.apache.webbeans.context;
 import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
-import java.util.concurrent.ConcurrentHashMap;
 
 import javax.enterprise.context.ConversationScoped;
 
@@ -58,7 +57,7 @@ public class ConversationContext extends PassivatingContext
     @Override
     public void setComponentInstanceMap()
     {
-        componentInstanceMap = new ConcurrentHashMap<>();
+        componentInstanceMap = new ContextualInstanceMap(scopeType);
     }
 
     public ConversationImpl getConversation()
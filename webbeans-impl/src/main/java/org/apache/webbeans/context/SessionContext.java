@@ -18,20 +18,49 @@
  */
 package org.apache.webbeans.context;
 
-import java.util.concurrent.ConcurrentHashMap;
-
 import javax.enterprise.context.SessionScoped;
 import javax.enterprise.context.spi.Contextual;
+import javax.enterprise.context.spi.CreationalContext;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
 
+import org.apache.webbeans.config.WebBeansContext;
+import org.apache.webbeans.context.creational.BeanInstanceBag;
 import org.apache.webbeans.intercept.SessionScopedBeanInterceptorHandler;
+import org.apache.webbeans.util.WebBeansUtil;
 
 /**
  * Session context implementation.
+ *
+ * The context keeps track of the beans whose instances got created, looked up or destroyed.
+ * This allows to only replicate the changed beans of a session, see {@link #flushDirtyBeans(BiConsumer)}.
  */
 public class SessionContext extends PassivatingContext
 {
     private static final long serialVersionUID = 2L;
 
+    /**
+     * The beans which got used since the last {@link #flushDirtyBeans(BiConsumer)}
+     */
+    private final transient Set<Contextual<?>> dirtyBeans = ConcurrentHashMap.newKeySet();
+
+    /**
+     * whether the bean instances get stored separately and thus must not be serialized with this context
+     */
+    private transient volatile boolean beansStoredSeparately;
+
+    /**
+     * whether this context got deserialized and the separately stored beans did not get restored yet
+     */
+    private transient volatile boolean deserialized;
+
     public SessionContext()
     {
         super(SessionScoped.class);
@@ -40,7 +69,29 @@ public class SessionContext extends PassivatingContext
     @Override
     public void setComponentInstanceMap()
     {
-        componentInstanceMap = new ConcurrentHashMap<>();
+        componentInstanceMap = new ContextualInstanceMap(scopeType);
+    }
+
+    @Override
+    public <T> T get(Contextual<T> component)
+    {
+        T instance = super.get(component);
+        if (instance != null)
+        {
+            markDirty(component);
+        }
+        return instance;
+    }
+
+    @Override
+    protected <T> T getInstance(Contextual<T> contextual, CreationalContext<T> creationalContext)
+    {
+        T instance = super.getInstance(contextual, creationalContext);
+        if (instance != null)
+        {
+            markDirty(contextual);
+        }
+        return instance;
     }
 
     @Override
@@ -49,4 +100,123 @@ public class SessionContext extends PassivatingContext
         super.destroy(contextual);
         SessionScopedBeanInterceptorHandler.removeThreadLocals();
     }
+
+    @Override
+    public void destroyInstance(Contextual<?> contextual)
+    {
+        super.destroyInstance(contextual);
+        markDirty(contextual);
+    }
+
+    /**
+     * Marks the instance of the given bean as changed, so that it gets replicated again.
+     * Instances get marked automatically if they get looked up via their proxy,
+     * this method is only needed if an instance gets changed without using the proxy,
+     * e.g. by a thread which already holds the instance itself.
+     *
+     * @param contextual the changed bean
+     */
+    public void markDirty(Contextual<?> contextual)
+    {
+        dirtyBeans.add(contextual);
+    }
+
+    /**
+     * @return whether any bean got used since the last {@link #flushDirtyBeans(BiConsumer)}
+     */
+    public boolean isDirty()
+    {
+        return !dirtyBeans.isEmpty();
+    }
+
+    /**
+     * Hands the beans which got used since the last flush to the given consumer and resets their dirty state.
+     *
+     * @param consumer gets the passivation id and the instance bag of each changed bean,
+     *                 the bag is {@code null} if the instance got destroyed meanwhile
+     * @return whether any bean was dirty
+     */
+    public boolean flushDirtyBeans(BiConsumer<String, BeanInstanceBag<?>> consumer)
+    {
+        boolean dirty = false;
+        Iterator<Contextual<?>> iterator = dirtyBeans.iterator();
+        while (iterator.hasNext())
+        {
+            Contextual<?> contextual = iterator.next();
+            iterator.remove();
+            dirty = true;
+
+            // not passivation capable beans cannot be replicated anyway
+            String id = WebBeansUtil.getPassivationId(contextual);
+            if (id != null)
+            {
+                consumer.accept(id, componentInstanceMap.get(contextual));
+            }
+        }
+        return dirty;
+    }
+
+    /**
+     * @param beansStoredSeparately if {@code true} the bean instances get stored separately, e.g. one HttpSession
+     *                              attribute per bean, and are not part of the serialized form of this context anymore
+     */
+    public void setBeansStoredSeparately(boolean beansStoredSeparately)
+    {
+        this.beansStoredSeparately = beansStoredSeparately;
+    }
+
+    /**
+     * @return whether this context got deserialized and {@link #restoreBeans(Map)} did not get called yet
+     */
+    public boolean isDeserialized()
+    {
+        return deserialized;
+    }
+
+    /**
+     * Puts the separately stored bean instances back into this context after it got deserialized.
+     * Only the first invocation after the deserialisation has an effect.
+     *
+     * @param bags the instance bags per passivation id of the beans
+     */
+    public synchronized void restoreBeans(Map<String, BeanInstanceBag<?>> bags)
+    {
+        if (!deserialized)
+        {
+            return;
+        }
+
+        WebBeansContext webBeansContext = WebBeansContext.currentInstance();
+        for (Map.Entry<String, BeanInstanceBag<?>> bag : bags.entrySet())
+        {
+            Contextual<?> contextual = webBeansContext.getBeanManagerImpl().getPassivationCapableBean(bag.getKey());
+            if (contextual != null && !componentInstanceMap.containsKey(contextual))
+            {
+                componentInstanceMap.put(contextual, bag.getValue());
+            }
+        }
+        deserialized = false;
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException
+    {
+        super.readExternal(in);
+        deserialized = true;
+    }
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException
+    {
+        if (beansStoredSeparately)
+        {
+            // same format as an empty context
+            out.writeObject(scopeType);
+            out.writeObject(Collections.emptyMap());
+        }
+        else
+        {
+            super.writeExternal(out);
+        }
+    }
 }
@@ -20,24 +20,30 @@ package org.apache.webbeans.context.creational;
 
 import javax.enterprise.context.spi.Contextual;
 import javax.enterprise.context.spi.CreationalContext;
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
-import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Stores the CreationalContext and the Contextual Instance.
  * This also makes sure that we don't create the same bean
  * twice.
+ *
+ * Once the instance got created reading it is a single volatile read,
+ * only threads racing for the first creation get synchronized.
+ * This uses a {@link ReentrantLock} and not a monitor, so a virtual thread
+ * creating the instance doesn't pin its carrier thread.
  */
 public class BeanInstanceBag<T> implements Serializable
 {
     private static final long serialVersionUID = 1656996021599122499L;
     private final CreationalContext<T> beanCreationalContext;
     
-    private T beanInstance;
-    
-    private final Lock lock = new ReentrantLock();
-    
+    private volatile T beanInstance;
+
+    private transient ReentrantLock lock = new ReentrantLock();
+
     public BeanInstanceBag(CreationalContext<T> beanCreationalContext)
     {
         this.beanCreationalContext = beanCreationalContext;
@@ -66,23 +72,35 @@ public class BeanInstanceBag<T> implements Serializable
      */
     public T create(Contextual<T> contextual)
     {
+        T instance = beanInstance;
+        if (instance != null)
+        {
+            return instance;
+        }
+
+        lock.lock();
         try
         {
-            lock.lock();
-            
             // we need to check again, maybe we got blocked by a previous invocation
-            if (beanInstance == null)
+            instance = beanInstance;
+            if (instance == null)
             {
-                beanInstance = contextual.create(beanCreationalContext);
+                instance = contextual.create(beanCreationalContext);
+                beanInstance = instance;
             }
-            
         }
         finally
         {
             lock.unlock();
         }
-        
-        return beanInstance; 
+
+        return instance;
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException
+    {
+        in.defaultReadObject();
+        lock = new ReentrantLock();
     }
 
     @Override
@@ -212,6 +212,14 @@ public class CreationalContextImpl<T> implements CreationalContext<T>, Serializa
         }
     }
 
+    /**
+     * @return the number of dependent instances of this context
+     */
+    public synchronized int getDependentCount()
+    {
+        return dependentObjects == null ? 0 : dependentObjects.size();
+    }
+
     public boolean containsDependent(Contextual<?> contextual, Object instance)
     {
         if (dependentObjects == null)
@@ -191,6 +191,14 @@ public class ConversationImpl implements Conversation, Serializable
         }
     }
 
+    /**
+     * @return whether a request currently uses this conversation
+     */
+    public synchronized boolean isInUse()
+    {
+        return !threadsUsingIt.isEmpty();
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -35,6 +35,7 @@ import org.apache.webbeans.annotation.BeforeDestroyedLiteral;
 import org.apache.webbeans.annotation.DefaultLiteral;
 import org.apache.webbeans.annotation.DestroyedLiteral;
 import org.apache.webbeans.config.OWBLogConst;
+import org.apache.webbeans.config.OpenWebBeansConfiguration;
 import org.apache.webbeans.config.WebBeansContext;
 import org.apache.webbeans.container.BeanManagerImpl;
 import org.apache.webbeans.context.ConversationContext;
@@ -60,6 +61,13 @@ public class ConversationManager
     private final WebBeansContext webBeansContext;
     private final Bean<Set<ConversationContext>> conversationStorageBean;
 
+    /**
+     * Destroys timed out conversations in the background, {@code null} if disabled.
+     */
+    private final ConversationReaper reaper;
+
+    private final int maxConversationsPerSession;
+
     /**
      * Creates new conversation manager
      */
@@ -76,6 +84,11 @@ public class ConversationManager
         // this will return the internally wrapped ThirdPartyBean.
         conversationStorageBean = (Bean<Set<ConversationContext>>)
                 bm.resolve(bm.getBeans(ConversationStorageBean.OWB_INTERNAL_CONVERSATION_STORAGE_BEAN_PASSIVATION_ID));
+
+        OpenWebBeansConfiguration configuration = webBeansContext.getOpenWebBeansConfiguration();
+        int reaperInterval = configuration.getConversationReaperInterval();
+        reaper = reaperInterval > 0 ? new ConversationReaper(webBeansContext, reaperInterval) : null;
+        maxConversationsPerSession = configuration.getMaxConversationsPerSession();
     }
 
 
@@ -108,7 +121,14 @@ public class ConversationManager
                             conversationContext.getConversation().setProblemDuringCreation(problem);
                         }
 
+                        conversationContext.getConversation().updateLastAccessTime();
                         conversationContext.setActive(true);
+
+                        if (reaper != null)
+                        {
+                            // e.g. restored with a passivated session
+                            reaper.schedule(conversationContext, conversationContexts, sessionContext);
+                        }
                         return conversationContext;
                     }
                 }
@@ -146,6 +166,48 @@ public class ConversationManager
 
         // if not, then simply add this conversation
         sessionConversations.add(conversationContext);
+
+        if (maxConversationsPerSession > 0)
+        {
+            destroyLeastRecentlyUsedConversations(sessionConversations);
+        }
+        if (reaper != null)
+        {
+            reaper.schedule(conversationContext, sessionConversations, sessionContext);
+        }
+    }
+
+    /**
+     * Destroys the least recently used conversations which are not in use
+     * until the session has no more than the configured maximum of conversations.
+     * @see OpenWebBeansConfiguration#CONVERSATION_MAX_PER_SESSION
+     */
+    private void destroyLeastRecentlyUsedConversations(Set<ConversationContext> sessionConversations)
+    {
+        while (sessionConversations.size() > maxConversationsPerSession)
+        {
+            ConversationContext leastRecentlyUsed = null;
+            for (ConversationContext sessionConversation : sessionConversations)
+            {
+                ConversationImpl conversation = sessionConversation.getConversation();
+                if (!conversation.isInUse() && (leastRecentlyUsed == null
+                        || conversation.getLastAccessTime() < leastRecentlyUsed.getConversation().getLastAccessTime()))
+                {
+                    leastRecentlyUsed = sessionConversation;
+                }
+            }
+
+            if (leastRecentlyUsed == null)
+            {
+                // all of them are in use by other requests
+                return;
+            }
+            if (sessionConversations.remove(leastRecentlyUsed))
+            {
+                logger.log(Level.FINE, "Destroying least recently used {0}", leastRecentlyUsed.getConversation());
+                destroyConversationContext(leastRecentlyUsed);
+            }
+        }
     }
 
     /**
@@ -176,6 +238,17 @@ public class ConversationManager
     }
 
 
+    /**
+     * Stops destroying timed out conversations in the background.
+     */
+    public void close()
+    {
+        if (reaper != null)
+        {
+            reaper.close();
+        }
+    }
+
     public boolean conversationTimedOut(ConversationImpl conv)
     {
         long timeout = 0L;
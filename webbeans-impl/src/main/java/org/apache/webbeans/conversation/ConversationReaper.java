@@ -0,0 +1,278 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.conversation;
+
+import java.io.Closeable;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.enterprise.context.BusyConversationException;
+import javax.enterprise.context.RequestScoped;
+import javax.enterprise.context.spi.Context;
+
+import org.apache.webbeans.config.WebBeansContext;
+import org.apache.webbeans.context.AbstractContextsService;
+import org.apache.webbeans.context.ConversationContext;
+import org.apache.webbeans.context.SessionContext;
+import org.apache.webbeans.logger.WebBeansLoggerFacade;
+import org.apache.webbeans.spi.ContextsService;
+
+/**
+ * Destroys timed out conversations in the background, also those of sessions which do not get accessed anymore.
+ *
+ * <p>Each long running conversation gets scheduled in a {@link HierarchicalTimerWheel} for the time it would
+ * time out. Accessing a conversation does not touch the wheel, once the deadline is reached the conversation
+ * gets checked again and rescheduled if it got accessed in the meantime.</p>
+ *
+ * <p>The conversations get destroyed with their session context activated, so their beans can still use
+ * session scoped beans. If the ContextsService cannot activate a given session context the destruction
+ * is left to the next request of the session or the end of the session. The wheel only references
+ * the conversations and their sessions weakly, so it does not keep abandoned sessions alive.</p>
+ *
+ * @see org.apache.webbeans.config.OpenWebBeansConfiguration#CONVERSATION_REAPER_INTERVAL
+ */
+final class ConversationReaper implements Closeable
+{
+    private static final Logger logger = WebBeansLoggerFacade.getLogger(ConversationReaper.class);
+
+    private final WebBeansContext webBeansContext;
+    private final long intervalMillis;
+    private final HierarchicalTimerWheel<ScheduledConversation> wheel;
+
+    /**
+     * The conversations which are in the wheel, so restored conversations do not get scheduled twice.
+     * Contexts do not override equals, so this is an identity set.
+     */
+    private final Set<ConversationContext> scheduled = Collections.newSetFromMap(new WeakHashMap<>());
+
+    private ScheduledExecutorService executor;
+    private boolean closed;
+
+    ConversationReaper(WebBeansContext webBeansContext, long intervalMillis)
+    {
+        this.webBeansContext = webBeansContext;
+        this.intervalMillis = intervalMillis;
+        wheel = new HierarchicalTimerWheel<>(intervalMillis, System.currentTimeMillis());
+    }
+
+    /**
+     * Schedules the long running conversation unless it is scheduled already.
+     * @param sessionConversations the conversations of the session the conversation belongs to
+     * @param sessionContext the context of that session
+     */
+    synchronized void schedule(ConversationContext conversationContext, Set<ConversationContext> sessionConversations,
+                               Context sessionContext)
+    {
+        if (closed || scheduled.contains(conversationContext))
+        {
+            return;
+        }
+
+        long deadline = getDeadline(conversationContext.getConversation());
+        if (deadline >= 0)
+        {
+            if (executor == null)
+            {
+                executor = startExecutor();
+            }
+            scheduled.add(conversationContext);
+            wheel.schedule(new ScheduledConversation(conversationContext, sessionConversations,
+                    sessionContext instanceof SessionContext ? (SessionContext) sessionContext : null), deadline);
+        }
+    }
+
+    @Override
+    public synchronized void close()
+    {
+        closed = true;
+        scheduled.clear();
+        if (executor != null)
+        {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    private ScheduledExecutorService startExecutor()
+    {
+        // destroying the beans might need the classes of the application
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        ScheduledExecutorService scheduledExecutor = Executors.newSingleThreadScheduledExecutor(runnable ->
+        {
+            Thread thread = new Thread(runnable, "OpenWebBeans conversation reaper");
+            thread.setDaemon(true);
+            thread.setContextClassLoader(classLoader);
+            return thread;
+        });
+        scheduledExecutor.scheduleWithFixedDelay(this::reap, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        return scheduledExecutor;
+    }
+
+    private void reap()
+    {
+        try
+        {
+            List<ScheduledConversation> expired = new ArrayList<>();
+            synchronized (this)
+            {
+                wheel.advance(System.currentTimeMillis(), expired::add);
+            }
+
+            for (ScheduledConversation conversation : expired)
+            {
+                reap(conversation);
+            }
+        }
+        catch (RuntimeException e)
+        {
+            // the executor would not run this task anymore
+            logger.log(Level.WARNING, "Problem while destroying the timed out conversations", e);
+        }
+    }
+
+    private void reap(ScheduledConversation scheduledConversation)
+    {
+        ConversationContext conversationContext = scheduledConversation.conversationContext.get();
+        Set<ConversationContext> sessionConversations = scheduledConversation.sessionConversations.get();
+        if (conversationContext == null || sessionConversations == null)
+        {
+            // the session is gone already
+            return;
+        }
+
+        ConversationImpl conversation = conversationContext.getConversation();
+        ConversationManager conversationManager = webBeansContext.getConversationManager();
+
+        if (sessionConversations.contains(conversationContext)
+                && (conversation.isInUse() || !conversationManager.conversationTimedOut(conversation)))
+        {
+            reschedule(scheduledConversation, conversationContext);
+            return;
+        }
+
+        synchronized (this)
+        {
+            scheduled.remove(conversationContext);
+        }
+
+        SessionContext sessionContext = scheduledConversation.sessionContext.get();
+        ContextsService contextsService = webBeansContext.getContextsService();
+        boolean destroyed = sessionContext != null && sessionContext.isActive()
+                && contextsService instanceof AbstractContextsService
+                && ((AbstractContextsService) contextsService).runWithSessionContext(sessionContext, () ->
+                {
+                    // the conversation might have ended or got destroyed by its session meanwhile
+                    if (sessionConversations.remove(conversationContext))
+                    {
+                        destroy(conversationContext);
+                    }
+                });
+        if (!destroyed && logger.isLoggable(Level.FINE))
+        {
+            logger.log(Level.FINE, "The session context of the timed out {0} cannot be activated, " +
+                    "it gets destroyed with the next request or the end of its session", conversation);
+        }
+    }
+
+    private synchronized void reschedule(ScheduledConversation scheduledConversation, ConversationContext conversationContext)
+    {
+        if (closed)
+        {
+            return;
+        }
+
+        long deadline = getDeadline(conversationContext.getConversation());
+        if (deadline >= 0)
+        {
+            wheel.schedule(scheduledConversation, deadline);
+        }
+        else
+        {
+            scheduled.remove(conversationContext);
+        }
+    }
+
+    private void destroy(ConversationContext conversationContext)
+    {
+        ContextsService contextsService = webBeansContext.getContextsService();
+        Context requestContext = contextsService.getCurrentContext(RequestScoped.class, false);
+        boolean startRequest = requestContext == null || !requestContext.isActive();
+        if (startRequest)
+        {
+            contextsService.startContext(RequestScoped.class, null);
+        }
+        try
+        {
+            webBeansContext.getConversationManager().destroyConversationContext(conversationContext);
+        }
+        catch (RuntimeException e)
+        {
+            logger.log(Level.WARNING, "Problem while destroying the timed out " + conversationContext.getConversation(), e);
+        }
+        finally
+        {
+            if (startRequest)
+            {
+                contextsService.endContext(RequestScoped.class, null);
+            }
+        }
+    }
+
+    /**
+     * @return the time at which the conversation times out, -1 if it does not time out
+     */
+    private long getDeadline(ConversationImpl conversation)
+    {
+        long timeout;
+        try
+        {
+            timeout = conversation.getTimeout();
+        }
+        catch (BusyConversationException bce)
+        {
+            // check again with the next tick
+            return System.currentTimeMillis() + intervalMillis;
+        }
+        return timeout > 0 ? conversation.getLastAccessTime() + timeout : -1;
+    }
+
+    private static final class ScheduledConversation
+    {
+        private final WeakReference<ConversationContext> conversationContext;
+        private final WeakReference<Set<ConversationContext>> sessionConversations;
+        private final WeakReference<SessionContext> sessionContext;
+
+        private ScheduledConversation(ConversationContext conversationContext, Set<ConversationContext> sessionConversations,
+                                      SessionContext sessionContext)
+        {
+            this.conversationContext = new WeakReference<>(conversationContext);
+            this.sessionConversations = new WeakReference<>(sessionConversations);
+            this.sessionContext = new WeakReference<>(sessionContext);
+        }
+    }
+}
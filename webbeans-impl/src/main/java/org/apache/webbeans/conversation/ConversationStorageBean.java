@@ -27,6 +27,7 @@ import javax.enterprise.inject.spi.PassivationCapable;
 import java.io.Serializable;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -68,9 +69,13 @@ public class ConversationStorageBean implements Bean<Set<ConversationContext>>,
         }
 
         ConversationManager conversationManager = webBeansContext.getConversationManager();
-        for (ConversationContext conversationContext : instance)
+        for (ConversationContext conversationContext : new ArrayList<>(instance))
         {
-            conversationManager.destroyConversationContext(conversationContext);
+            // the ConversationManager might destroy it concurrently, e.g. because it timed out
+            if (instance.remove(conversationContext))
+            {
+                conversationManager.destroyConversationContext(conversationContext);
+            }
         }
     }
 
@@ -0,0 +1,174 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.conversation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A hierarchical timer wheel with a fixed tick duration.
+ *
+ * <p>Each level has 64 slots, a slot of level {@code n} covers {@code 64^n} ticks.
+ * Scheduling and expiring an element is O(1), elements in the upper levels get moved
+ * to the lower ones once their slot is reached. With four levels and a tick of one second
+ * deadlines up to about 194 days get handled directly, later ones are just cascaded more often.</p>
+ *
+ * <p>Not thread safe.</p>
+ *
+ * @param <E> the scheduled elements
+ */
+final class HierarchicalTimerWheel<E>
+{
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+
+    private final long tickMillis;
+    private final long startMillis;
+    private final List<Entry<E>>[][] wheels;
+
+    /**
+     * The last tick which got processed.
+     */
+    private long currentTick;
+    private int size;
+
+    HierarchicalTimerWheel(long tickMillis, long startMillis)
+    {
+        if (tickMillis <= 0)
+        {
+            throw new IllegalArgumentException("tickMillis must be positive but is " + tickMillis);
+        }
+        this.tickMillis = tickMillis;
+        this.startMillis = startMillis;
+        wheels = new List[LEVELS][SLOTS];
+    }
+
+    /**
+     * @param deadlineMillis the time at which the element expires, earliest with the next tick
+     */
+    void schedule(E element, long deadlineMillis)
+    {
+        long deadlineTick = Math.max(currentTick + 1, ceilDiv(deadlineMillis - startMillis, tickMillis));
+        add(new Entry<>(element, deadlineTick));
+        size++;
+    }
+
+    /**
+     * Processes all ticks up to the given time.
+     * @param expired receives the elements whose deadline got reached, tick by tick
+     */
+    void advance(long nowMillis, Consumer<E> expired)
+    {
+        long targetTick = (nowMillis - startMillis) / tickMillis;
+        while (currentTick < targetTick)
+        {
+            currentTick++;
+
+            // move the elements of the upper levels down once the lower level wrapped around
+            for (int level = 1; level < LEVELS && (currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0; level++)
+            {
+                List<Entry<E>> entries = removeSlot(level, slotIndex(currentTick, level));
+                if (entries != null)
+                {
+                    // entries due with the current tick end up in the slot which gets processed next
+                    entries.forEach(this::add);
+                }
+            }
+
+            List<Entry<E>> entries = removeSlot(0, slotIndex(currentTick, 0));
+            if (entries != null)
+            {
+                for (Entry<E> entry : entries)
+                {
+                    if (entry.deadlineTick <= currentTick)
+                    {
+                        size--;
+                        expired.accept(entry.element);
+                    }
+                    else
+                    {
+                        add(entry);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the number of scheduled elements
+     */
+    int size()
+    {
+        return size;
+    }
+
+    private void add(Entry<E> entry)
+    {
+        long delta = entry.deadlineTick - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1)))
+        {
+            level++;
+        }
+        slot(level, slotIndex(entry.deadlineTick, level)).add(entry);
+    }
+
+    private List<Entry<E>> slot(int level, int index)
+    {
+        List<Entry<E>> slot = wheels[level][index];
+        if (slot == null)
+        {
+            slot = new ArrayList<>(2);
+            wheels[level][index] = slot;
+        }
+        return slot;
+    }
+
+    private List<Entry<E>> removeSlot(int level, int index)
+    {
+        List<Entry<E>> slot = wheels[level][index];
+        wheels[level][index] = null;
+        return slot;
+    }
+
+    private static int slotIndex(long tick, int level)
+    {
+        return (int) ((tick >>> (SLOT_BITS * level)) & SLOT_MASK);
+    }
+
+    private static long ceilDiv(long value, long divisor)
+    {
+        return -Math.floorDiv(-value, divisor);
+    }
+
+    private static final class Entry<E>
+    {
+        private final E element;
+        private final long deadlineTick;
+
+        private Entry(E element, long deadlineTick)
+        {
+            this.element = element;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+}
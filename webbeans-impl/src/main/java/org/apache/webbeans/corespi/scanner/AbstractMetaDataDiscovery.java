@@ -19,8 +19,10 @@
 package org.apache.webbeans.corespi.scanner;
 
 
+import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toMap;
 
+import org.apache.webbeans.config.DeploymentPool;
 import org.apache.webbeans.config.OWBLogConst;
 import org.apache.webbeans.config.OpenWebBeansConfiguration;
 import org.apache.webbeans.config.WebBeansContext;
@@ -54,6 +56,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -100,6 +103,14 @@ public abstract class AbstractMetaDataDiscovery implements BdaScannerService
     protected BDABeansXmlScanner bdaBeansXmlScanner;
     protected WebBeansContext webBeansContext;
 
+    /**
+     * @return the annotation index of the scanned bean archives, {@code null} if they did not get scanned yet
+     */
+    public OwbAnnotationFinder getFinder()
+    {
+        return finder;
+    }
+
     protected AnnotationFinder initFinder()
     {
         if (finder != null)
@@ -125,19 +136,58 @@ public abstract class AbstractMetaDataDiscovery implements BdaScannerService
                     .collect(toMap(Map.Entry::getKey, Map.Entry::getValue));
             extensionJars.clear(); // no more needed
         }
+        beanDeploymentUrls = selectScannedDeploymentUrls(beanDeploymentUrls);
         archive = new CdiArchive(
                 beanArchiveService, WebBeansUtil.getCurrentClassLoader(),
                 beanDeploymentUrls, userFilter, getAdditionalArchive());
-        finder = new OwbAnnotationFinder(archive);
+        finder = createFinder(webBeansContext, archive);
 
         return finder;
     }
 
+    /**
+     * Reads the classes of all bean archives.
+     * With a {@link OpenWebBeansConfiguration#PARALLEL_DEPLOYMENT} each bean archive gets read in its own task.
+     */
+    protected OwbAnnotationFinder createFinder(WebBeansContext webBeansContext, CdiArchive cdiArchive)
+    {
+        List<Archive> archives = cdiArchive.archives();
+        ForkJoinPool pool = archives.size() > 1 ? DeploymentPool.create(webBeansContext.getOpenWebBeansConfiguration()) : null;
+        if (pool == null)
+        {
+            return new OwbAnnotationFinder(cdiArchive);
+        }
+
+        try
+        {
+            // the stream keeps the order of the archives, so the result does not depend on which task finished first
+            List<OwbAnnotationFinder> parts = DeploymentPool.invoke(pool,
+                () -> archives.parallelStream().map(OwbAnnotationFinder::new).collect(toList()));
+            return new OwbAnnotationFinder(cdiArchive, parts);
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+    }
+
     protected Archive getAdditionalArchive()
     {
         return null;
     }
 
+    /**
+     * Last chance to remove bean archives from the classpath scanning,
+     * e.g. because their classes are already known from a build time index.
+     *
+     * @param beanDeploymentUrls the bean archives which are about to get scanned
+     * @return the bean archives which really have to get scanned
+     */
+    protected Map<String, URL> selectScannedDeploymentUrls(Map<String, URL> beanDeploymentUrls)
+    {
+        return beanDeploymentUrls;
+    }
+
     /**
      * @return list of beans.xml locations or implicit bean archives
      * @deprecated just here for backward compat reasons
@@ -410,42 +460,20 @@ public abstract class AbstractMetaDataDiscovery implements BdaScannerService
                 boolean scanModeAnnotated = BeanDiscoveryMode.ANNOTATED == foundClasses.getBeanArchiveInfo().getBeanDiscoveryMode();
                 for (String className : foundClasses.getClassNames())
                 {
-                    try
+                    if (scanModeAnnotated)
                     {
-                        if (scanModeAnnotated)
-                        {
-                            // in this case we need to find out whether we should keep this class in the Archive
-                            AnnotationFinder.ClassInfo classInfo = finder.getClassInfo(className);
-                            if (classInfo == null || !isBeanAnnotatedClass(classInfo))
-                            {
-                                continue;
-                            }
-                        }
-
-                        Class<?> clazz = ClassUtil.getClassFromName(className);
-                        if (clazz != null)
+                        // in this case we need to find out whether we should keep this class in the Archive
+                        AnnotationFinder.ClassInfo classInfo = finder.getClassInfo(className);
+                        if (classInfo == null || !isBeanAnnotatedClass(classInfo))
                         {
-                            // try to provoke a NoClassDefFoundError exception which is thrown
-                            // if some dependencies of the class are missing
-                            clazz.getDeclaredFields();
-
-                            // we can add this class cause it has been loaded completely
-                            classSet.add(clazz);
+                            continue;
                         }
                     }
-                    catch (NoClassDefFoundError e)
+
+                    Class<?> clazz = loadBeanClass(className);
+                    if (clazz != null)
                     {
-                        if (isAnonymous(className))
-                        {
-                            if (logger.isLoggable(Level.FINE))
-                            {
-                                logger.log(Level.FINE, OWBLogConst.WARN_0018, new Object[]{className, e.toString()});
-                            }
-                        }
-                        else if (logger.isLoggable(Level.WARNING))
-                        {
-                            logger.log(Level.WARNING, OWBLogConst.WARN_0018, new Object[]{className, e.toString()});
-                        }
+                        classSet.add(clazz);
                     }
                 }
 
@@ -456,6 +484,43 @@ public abstract class AbstractMetaDataDiscovery implements BdaScannerService
         return beanClassesPerBda;
     }
 
+    /**
+     * Loads a class found in a bean archive.
+     *
+     * @return the fully loaded class or {@code null} if it or one of its dependencies is not available
+     */
+    protected Class<?> loadBeanClass(String className)
+    {
+        try
+        {
+            Class<?> clazz = ClassUtil.getClassFromName(className);
+            if (clazz != null)
+            {
+                // try to provoke a NoClassDefFoundError exception which is thrown
+                // if some dependencies of the class are missing
+                clazz.getDeclaredFields();
+
+                // we can add this class cause it has been loaded completely
+                return clazz;
+            }
+        }
+        catch (NoClassDefFoundError e)
+        {
+            if (isAnonymous(className))
+            {
+                if (logger.isLoggable(Level.FINE))
+                {
+                    logger.log(Level.FINE, OWBLogConst.WARN_0018, new Object[]{className, e.toString()});
+                }
+            }
+            else if (logger.isLoggable(Level.WARNING))
+            {
+                logger.log(Level.WARNING, OWBLogConst.WARN_0018, new Object[]{className, e.toString()});
+            }
+        }
+        return null;
+    }
+
     private boolean isAnonymous(final String className)
     {
         final int start = className.lastIndexOf('$');
@@ -511,8 +576,11 @@ public abstract class AbstractMetaDataDiscovery implements BdaScannerService
 
     protected boolean isBeanAnnotation(AnnotationFinder.AnnotationInfo annotationInfo)
     {
-        String annotationName = annotationInfo.getName();
+        return isBeanAnnotation(annotationInfo.getName());
+    }
 
+    protected boolean isBeanAnnotation(String annotationName)
+    {
         // TODO add caches
 
         try
@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.corespi.scanner.index;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Build time index of a single bean archive.
+ *
+ * The index gets written by the {@link BeanArchiveIndexGenerator} into
+ * {@link #INDEX_LOCATION} of the archive it describes. It contains
+ * all class names of the archive together with their class level annotations,
+ * so the container does not need to open and parse the archive at startup.
+ *
+ * The binary format is:
+ * <pre>
+ * int    magic
+ * short  format version
+ * long   build timestamp
+ * UTF    digest of META-INF/beans.xml (empty if there is none)
+ * int    number of classes
+ *   UTF  class name
+ *   int  number of class level annotations
+ *     UTF annotation class name
+ * </pre>
+ */
+public final class BeanArchiveIndex
+{
+    public static final String INDEX_LOCATION = "META-INF/openwebbeans/beanarchive.idx";
+
+    private static final int MAGIC = 0x4F574249; // OWBI
+    private static final short VERSION = 1;
+
+    private final long timestamp;
+    private final String beansXmlDigest;
+
+    /**
+     * key: class name, value: class level annotation names.
+     * Ordered as found in the archive.
+     */
+    private final Map<String, List<String>> classes;
+
+    public BeanArchiveIndex(long timestamp, String beansXmlDigest, Map<String, List<String>> classes)
+    {
+        this.timestamp = timestamp;
+        this.beansXmlDigest = beansXmlDigest == null ? "" : beansXmlDigest;
+        this.classes = classes;
+    }
+
+    public long getTimestamp()
+    {
+        return timestamp;
+    }
+
+    public String getBeansXmlDigest()
+    {
+        return beansXmlDigest;
+    }
+
+    public Map<String, List<String>> getClasses()
+    {
+        return classes;
+    }
+
+    public void write(OutputStream out) throws IOException
+    {
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+        data.writeInt(MAGIC);
+        data.writeShort(VERSION);
+        data.writeLong(timestamp);
+        data.writeUTF(beansXmlDigest);
+        data.writeInt(classes.size());
+        for (Map.Entry<String, List<String>> clazz : classes.entrySet())
+        {
+            data.writeUTF(clazz.getKey());
+            data.writeInt(clazz.getValue().size());
+            for (String annotation : clazz.getValue())
+            {
+                data.writeUTF(annotation);
+            }
+        }
+        data.flush();
+    }
+
+    /**
+     * @return the index or {@code null} if the stream was written by an incompatible version
+     */
+    public static BeanArchiveIndex read(InputStream in) throws IOException
+    {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+        if (data.readInt() != MAGIC || data.readShort() != VERSION)
+        {
+            return null;
+        }
+
+        long timestamp = data.readLong();
+        String beansXmlDigest = data.readUTF();
+        int classCount = data.readInt();
+        Map<String, List<String>> classes = new LinkedHashMap<>(classCount * 4 / 3 + 1);
+        for (int i = 0; i < classCount; i++)
+        {
+            String className = data.readUTF();
+            int annotationCount = data.readInt();
+            List<String> annotations;
+            if (annotationCount == 0)
+            {
+                annotations = Collections.emptyList();
+            }
+            else
+            {
+                annotations = new ArrayList<>(annotationCount);
+                for (int j = 0; j < annotationCount; j++)
+                {
+                    annotations.add(data.readUTF());
+                }
+            }
+            classes.put(className, annotations);
+        }
+        return new BeanArchiveIndex(timestamp, beansXmlDigest, classes);
+    }
+
+    /**
+     * @param beansXml the beans.xml content or {@code null} if the archive has no beans.xml
+     * @return the digest stored in the index for the given beans.xml
+     */
+    public static String digest(InputStream beansXml) throws IOException
+    {
+        if (beansXml == null)
+        {
+            return "";
+        }
+
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int read;
+        while ((read = beansXml.read(buffer)) >= 0)
+        {
+            content.write(buffer, 0, read);
+        }
+
+        try
+        {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(content.toByteArray());
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest)
+            {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            throw new IllegalStateException(e);
+        }
+    }
+}
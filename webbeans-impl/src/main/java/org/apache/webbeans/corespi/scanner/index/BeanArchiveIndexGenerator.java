@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.corespi.scanner.index;
+
+import org.apache.webbeans.corespi.scanner.AbstractMetaDataDiscovery;
+import org.apache.webbeans.corespi.scanner.xbean.OwbAnnotationFinder;
+import org.apache.xbean.finder.AnnotationFinder;
+import org.apache.xbean.finder.archive.Archive;
+import org.apache.xbean.finder.archive.FileArchive;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Creates the {@link BeanArchiveIndex} of a compiled classes directory.
+ *
+ * This is the build time part of the index, it is used by the
+ * openwebbeans-maven plugin and the openwebbeans-gradle task but can also
+ * be invoked as a plain main: {@code BeanArchiveIndexGenerator <classes directory>}.
+ */
+public class BeanArchiveIndexGenerator
+{
+    public static void main(String[] args) throws IOException
+    {
+        if (args.length != 1)
+        {
+            throw new IllegalArgumentException("Usage: " + BeanArchiveIndexGenerator.class.getName() + " <classes directory>");
+        }
+        new BeanArchiveIndexGenerator().generate(new File(args[0]));
+    }
+
+    /**
+     * Scans the given directory and writes the index to {@link BeanArchiveIndex#INDEX_LOCATION}.
+     *
+     * @param classesDirectory the root of the bean archive
+     * @return the written index file
+     */
+    public File generate(File classesDirectory) throws IOException
+    {
+        if (!classesDirectory.isDirectory())
+        {
+            throw new IllegalArgumentException(classesDirectory + " is not a directory");
+        }
+
+        BeanArchiveIndex index = createIndex(classesDirectory);
+
+        File indexFile = new File(classesDirectory, BeanArchiveIndex.INDEX_LOCATION);
+        if (!indexFile.getParentFile().isDirectory() && !indexFile.getParentFile().mkdirs())
+        {
+            throw new IOException("Can't create " + indexFile.getParentFile());
+        }
+        try (OutputStream out = new FileOutputStream(indexFile))
+        {
+            index.write(out);
+        }
+        return indexFile;
+    }
+
+    public BeanArchiveIndex createIndex(File classesDirectory) throws IOException
+    {
+        long timestamp = System.currentTimeMillis();
+
+        String beansXmlDigest;
+        File beansXml = new File(classesDirectory, AbstractMetaDataDiscovery.META_INF_BEANS_XML);
+        if (beansXml.isFile())
+        {
+            try (InputStream in = new FileInputStream(beansXml))
+            {
+                beansXmlDigest = BeanArchiveIndex.digest(in);
+            }
+        }
+        else
+        {
+            beansXmlDigest = BeanArchiveIndex.digest(null);
+        }
+
+        Map<String, List<String>> classes = new LinkedHashMap<>();
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{classesDirectory.toURI().toURL()}, null))
+        {
+            Archive archive = new FileArchive(loader, classesDirectory);
+
+            // we only read the class headers, no class gets loaded
+            OwbAnnotationFinder finder = new OwbAnnotationFinder(archive, false);
+            for (Archive.Entry entry : archive)
+            {
+                String className = entry.getName();
+                if (className.endsWith("package-info") || className.endsWith("module-info"))
+                {
+                    continue;
+                }
+
+                AnnotationFinder.ClassInfo classInfo = finder.getClassInfo(className);
+                if (classInfo == null || classInfo.getAnnotations().isEmpty())
+                {
+                    classes.put(className, Collections.emptyList());
+                    continue;
+                }
+
+                List<String> annotations = new ArrayList<>(classInfo.getAnnotations().size());
+                for (AnnotationFinder.AnnotationInfo annotationInfo : classInfo.getAnnotations())
+                {
+                    annotations.add(annotationInfo.getName());
+                }
+                classes.put(className, annotations);
+            }
+        }
+
+        return new BeanArchiveIndex(timestamp, beansXmlDigest, classes);
+    }
+}
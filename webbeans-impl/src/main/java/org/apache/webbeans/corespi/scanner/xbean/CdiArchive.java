@@ -50,12 +50,16 @@ public class CdiArchive implements Archive
      */
     private final Map<String, FoundClasses> classesByUrl = new HashMap<>();
 
+    /**
+     * one Archive per scanned classpath entry, in scanning order
+     */
+    private final List<Archive> archives = new ArrayList<>();
+
     private final Archive delegate;
 
     public CdiArchive(BeanArchiveService beanArchiveService, ClassLoader loader, Map<String, URL> urls,
                       Filter userFilter, Archive customArchive)
     {
-        Collection<Archive> archives = new ArrayList<>();
         boolean customAdded = false;
         for (URL url : urls.values())
         {
@@ -86,6 +90,15 @@ public class CdiArchive implements Archive
         return classesByUrl;
     }
 
+    /**
+     * @return the Archives of the single classpath entries which together form this Archive.
+     *         They are independent of each other and can be read concurrently.
+     */
+    public List<Archive> archives()
+    {
+        return archives;
+    }
+
     @Override
     public InputStream getBytecode(String className) throws IOException, ClassNotFoundException
     {
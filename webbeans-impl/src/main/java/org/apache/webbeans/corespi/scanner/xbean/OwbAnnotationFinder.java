@@ -18,6 +18,13 @@
  */
 package org.apache.webbeans.corespi.scanner.xbean;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
 import org.apache.xbean.finder.AnnotationFinder;
 import org.apache.xbean.finder.archive.Archive;
 
@@ -27,14 +34,75 @@ import org.apache.xbean.finder.archive.Archive;
  */
 public class OwbAnnotationFinder extends AnnotationFinder
 {
+    private final List<OwbAnnotationFinder> parts;
+
     public OwbAnnotationFinder(Archive archive, boolean checkRuntimeAnnotation)
     {
         super(archive, checkRuntimeAnnotation);
+        parts = Collections.emptyList();
     }
 
     public OwbAnnotationFinder(Archive archive)
     {
         super(archive);
+        parts = Collections.emptyList();
+    }
+
+    /**
+     * Combines the finders of the single parts of the archive, e.g. after reading them in parallel.
+     * The result is the same as reading the whole archive with one finder if the parts
+     * are given in the order of the archive.
+     *
+     * @param archive the whole archive, used to load classes
+     * @param parts the finders of the parts of the archive, in scanning order
+     */
+    public OwbAnnotationFinder(Archive archive, List<OwbAnnotationFinder> parts)
+    {
+        super(new NoEntriesArchive(archive));
+        this.parts = parts;
+        boolean linked = false;
+        boolean metaAnnotations = false;
+        for (OwbAnnotationFinder part : parts)
+        {
+            classInfos.putAll(part.classInfos);
+            originalInfos.putAll(part.originalInfos);
+            for (Map.Entry<String, List<Info>> annotation : part.annotated.entrySet())
+            {
+                // the lists of the AnnotationFinder do not support addAll
+                List<Info> infos = initAnnotationInfos(annotation.getKey());
+                for (Info info : annotation.getValue())
+                {
+                    infos.add(info);
+                }
+            }
+            linked |= !part.getClassesNotLoaded().isEmpty();
+            metaAnnotations |= part.hasMetaAnnotations();
+        }
+
+        // the classes not loaded and the meta-annotation roots are only known to the parts, build them again
+        if (linked)
+        {
+            link();
+        }
+        if (metaAnnotations)
+        {
+            enableMetaAnnotations();
+        }
+    }
+
+    /**
+     * The merged {@link ClassInfo}s still belong to the finders of the parts and look up the meta-annotation
+     * roots there, so the parts get their meta-annotations enabled too.
+     */
+    @Override
+    public AnnotationFinder enableMetaAnnotations()
+    {
+        super.enableMetaAnnotations();
+        for (OwbAnnotationFinder part : parts)
+        {
+            part.enableMetaAnnotations();
+        }
+        return this;
     }
 
     public ClassInfo getClassInfo(String className)
@@ -42,4 +110,42 @@ public class OwbAnnotationFinder extends AnnotationFinder
         return classInfos.get(className);
     }
 
+    /**
+     * @return the annotated classes, fields, methods and parameters per annotation name
+     */
+    public Map<String, List<Info>> getAnnotatedInfos()
+    {
+        return Collections.unmodifiableMap(annotated);
+    }
+
+    /**
+     * Delegates to the whole archive but does not list its classes again, they are already read by the parts.
+     */
+    private static final class NoEntriesArchive implements Archive
+    {
+        private final Archive delegate;
+
+        private NoEntriesArchive(Archive delegate)
+        {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public InputStream getBytecode(String className) throws IOException, ClassNotFoundException
+        {
+            return delegate.getBytecode(className);
+        }
+
+        @Override
+        public Class<?> loadClass(String className) throws ClassNotFoundException
+        {
+            return delegate.loadClass(className);
+        }
+
+        @Override
+        public Iterator<Entry> iterator()
+        {
+            return Collections.emptyIterator();
+        }
+    }
 }
@@ -83,7 +83,8 @@ public abstract class BaseSeContextsService extends AbstractContextsService
     @Override
     public void endContext(Class<? extends Annotation> scopeType, Object endParameters)
     {
-        
+        long start = instrumentation != null ? System.nanoTime() : 0L;
+
         if(scopeType.equals(RequestScoped.class))
         {
             stopRequestContext();
@@ -107,6 +108,7 @@ public abstract class BaseSeContextsService extends AbstractContextsService
 
         // do nothing for Dependent.class
 
+        contextEnded(scopeType, start);
     }
 
 
@@ -176,6 +178,7 @@ public abstract class BaseSeContextsService extends AbstractContextsService
 
             // do nothing for Dependent.class
 
+            contextStarted(scopeType);
         }
         catch (ContextException ce)
         {
@@ -281,6 +284,33 @@ public abstract class BaseSeContextsService extends AbstractContextsService
     {
         return sessionContext.get();
     }
+
+    @Override
+    public boolean runWithSessionContext(SessionContext sessionCtx, Runnable task)
+    {
+        SessionContext previous = sessionContext.get();
+        sessionContext.set(sessionCtx);
+
+        // the proxies of this thread might still cache the instances of another session
+        SessionScopedBeanInterceptorHandler.removeThreadLocals();
+        try
+        {
+            task.run();
+        }
+        finally
+        {
+            SessionScopedBeanInterceptorHandler.removeThreadLocals();
+            if (previous == null)
+            {
+                sessionContext.remove();
+            }
+            else
+            {
+                sessionContext.set(previous);
+            }
+        }
+        return true;
+    }
     
     private void startApplicationContext()
     {
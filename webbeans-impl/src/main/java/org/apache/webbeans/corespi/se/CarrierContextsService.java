@@ -0,0 +1,334 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.corespi.se;
+
+import java.lang.annotation.Annotation;
+
+import javax.enterprise.context.BusyConversationException;
+import javax.enterprise.context.ContextException;
+import javax.enterprise.context.ConversationScoped;
+import javax.enterprise.context.Dependent;
+import javax.enterprise.context.NonexistentConversationException;
+import javax.enterprise.context.RequestScoped;
+import javax.enterprise.context.SessionScoped;
+import javax.enterprise.context.spi.Context;
+
+import org.apache.webbeans.annotation.BeforeDestroyedLiteral;
+import org.apache.webbeans.annotation.DestroyedLiteral;
+import org.apache.webbeans.annotation.InitializedLiteral;
+import org.apache.webbeans.config.WebBeansContext;
+import org.apache.webbeans.context.ContextCarrier;
+import org.apache.webbeans.context.ConversationContext;
+import org.apache.webbeans.context.DependentContext;
+import org.apache.webbeans.context.RequestContext;
+import org.apache.webbeans.context.SessionContext;
+import org.apache.webbeans.conversation.ConversationManager;
+
+/**
+ * ContextsService which keeps the request, session and conversation contexts
+ * of a thread in a {@link ContextCarrier} instead of one ThreadLocal per scope.
+ *
+ * <p>The contexts of the current thread can be captured with {@link ContextCarrier#current()}
+ * and activated in executor tasks or virtual threads via {@link ContextCarrier#wrap(Runnable)}.
+ * Request contexts are backed by a concurrent map as they might be shared with such tasks.</p>
+ *
+ * <p>The normal scoped proxies do not use their per thread instance caches in this mode,
+ * so a request does not leave anything behind on the thread once it got ended.</p>
+ *
+ * Enable it with
+ * <pre>
+ * org.apache.webbeans.spi.ContextsService=org.apache.webbeans.corespi.se.CarrierContextsService
+ * </pre>
+ */
+public class CarrierContextsService extends DefaultContextsService
+{
+    /**
+     * the DependentContext does not hold any state, so all threads can share it
+     */
+    private final DependentContext dependentContext = new DependentContext();
+
+    public CarrierContextsService(WebBeansContext webBeansContext)
+    {
+        super(webBeansContext);
+    }
+
+    @Override
+    public Context getCurrentContext(Class<? extends Annotation> scopeType)
+    {
+        if (scopeType == RequestScoped.class)
+        {
+            ContextCarrier carrier = ContextCarrier.current();
+            return carrier == null ? null : carrier.getRequestContext();
+        }
+        if (scopeType == SessionScoped.class)
+        {
+            ContextCarrier carrier = ContextCarrier.current();
+            return carrier == null ? null : carrier.getSessionContext();
+        }
+        if (scopeType == Dependent.class)
+        {
+            return dependentContext;
+        }
+        if (scopeType == ConversationScoped.class)
+        {
+            return supportsConversation ? getCurrentConversationContext() : null;
+        }
+
+        return super.getCurrentContext(scopeType);
+    }
+
+    @Override
+    public void startContext(Class<? extends Annotation> scopeType, Object startParameter) throws ContextException
+    {
+        if (scopeType == RequestScoped.class)
+        {
+            RequestContext ctx = new CarrierRequestContext();
+            ctx.setActive(true);
+            getOrBindCarrier().setRequestContext(ctx);
+            webBeansContext.getBeanManagerImpl().fireContextLifecyleEvent(
+                new Object(), InitializedLiteral.INSTANCE_REQUEST_SCOPED);
+        }
+        else if (scopeType == SessionScoped.class)
+        {
+            SessionContext ctx = new SessionContext();
+            ctx.setActive(true);
+            getOrBindCarrier().setSessionContext(ctx);
+            webBeansContext.getBeanManagerImpl().fireContextLifecyleEvent(
+                new Object(), InitializedLiteral.INSTANCE_SESSION_SCOPED);
+        }
+        else if (scopeType == ConversationScoped.class)
+        {
+            ConversationManager conversationManager = webBeansContext.getConversationManager();
+            ConversationContext ctx = conversationManager.getConversationContext(
+                    getCurrentContext(SessionScoped.class));
+            ctx.setActive(true);
+            getOrBindCarrier().setConversationContext(ctx);
+
+            if (ctx.getConversation().isTransient())
+            {
+                webBeansContext.getBeanManagerImpl().fireContextLifecyleEvent(
+                    conversationManager.getLifecycleEventPayload(ctx), InitializedLiteral.INSTANCE_CONVERSATION_SCOPED);
+            }
+        }
+        else
+        {
+            // reported by the super class
+            super.startContext(scopeType, startParameter);
+            return;
+        }
+        contextStarted(scopeType);
+    }
+
+    @Override
+    public void endContext(Class<? extends Annotation> scopeType, Object endParameters)
+    {
+        long start = instrumentation != null ? System.nanoTime() : 0L;
+        if (scopeType == RequestScoped.class)
+        {
+            stopRequestContext();
+        }
+        else if (scopeType == SessionScoped.class)
+        {
+            stopSessionContext();
+        }
+        else if (scopeType == ConversationScoped.class)
+        {
+            ContextCarrier carrier = ContextCarrier.current();
+            if (carrier != null)
+            {
+                if (carrier.ownsConversationContext())
+                {
+                    carrier.getConversationContext().destroy();
+                }
+                carrier.setConversationContext(null);
+                unbindIfEmpty(carrier);
+            }
+        }
+        else
+        {
+            // reported by the super class
+            super.endContext(scopeType, endParameters);
+            return;
+        }
+        contextEnded(scopeType, start);
+    }
+
+    @Override
+    public void destroy(Object destroyObject)
+    {
+        ContextCarrier carrier = ContextCarrier.current();
+        if (carrier != null)
+        {
+            if (carrier.ownsRequestContext())
+            {
+                carrier.getRequestContext().destroy();
+            }
+            if (carrier.ownsSessionContext())
+            {
+                carrier.getSessionContext().destroy();
+            }
+            if (carrier.ownsConversationContext())
+            {
+                carrier.getConversationContext().destroy();
+            }
+            ContextCarrier.unbind();
+        }
+
+        super.destroy(destroyObject);
+    }
+
+    @Override
+    public void removeThreadLocals()
+    {
+        ContextCarrier.unbind();
+    }
+
+    @Override
+    public boolean runWithSessionContext(SessionContext sessionContext, Runnable task)
+    {
+        // the task runs with a fork, so it does not own and thus never destroys the session context
+        ContextCarrier carrier = new ContextCarrier();
+        carrier.setSessionContext(sessionContext);
+        carrier.run(task);
+        return true;
+    }
+
+    private void stopRequestContext()
+    {
+        ContextCarrier carrier = ContextCarrier.current();
+        if (carrier != null && carrier.getRequestContext() != null && !carrier.ownsRequestContext())
+        {
+            // a task only detaches the request context it inherited, the owner ends it
+            carrier.setRequestContext(null);
+            if (!carrier.ownsConversationContext())
+            {
+                carrier.setConversationContext(null);
+            }
+            unbindIfEmpty(carrier);
+            return;
+        }
+
+        // cleanup open conversations first
+        if (supportsConversation)
+        {
+            destroyOutdatedConversations(carrier == null || !carrier.ownsConversationContext() ? null : carrier.getConversationContext());
+            if (carrier != null)
+            {
+                carrier.setConversationContext(null);
+            }
+        }
+
+        webBeansContext.getBeanManagerImpl().fireContextLifecyleEvent(
+                new Object(), BeforeDestroyedLiteral.INSTANCE_REQUEST_SCOPED);
+        if (carrier != null)
+        {
+            if (carrier.ownsRequestContext())
+            {
+                carrier.getRequestContext().destroy();
+            }
+            carrier.setRequestContext(null);
+            unbindIfEmpty(carrier);
+        }
+        webBeansContext.getBeanManagerImpl().fireContextLifecyleEvent(
+            new Object(), DestroyedLiteral.INSTANCE_REQUEST_SCOPED);
+    }
+
+    private void stopSessionContext()
+    {
+        ContextCarrier carrier = ContextCarrier.current();
+        if (carrier != null && carrier.getSessionContext() != null && !carrier.ownsSessionContext())
+        {
+            // a task only detaches the session context it inherited, the owner ends it
+            carrier.setSessionContext(null);
+            unbindIfEmpty(carrier);
+            return;
+        }
+
+        webBeansContext.getBeanManagerImpl().fireContextLifecyleEvent(
+                new Object(), BeforeDestroyedLiteral.INSTANCE_SESSION_SCOPED);
+        if (carrier != null)
+        {
+            if (carrier.ownsSessionContext())
+            {
+                carrier.getSessionContext().destroy();
+            }
+            carrier.setSessionContext(null);
+            unbindIfEmpty(carrier);
+        }
+        webBeansContext.getBeanManagerImpl().fireContextLifecyleEvent(
+            new Object(), DestroyedLiteral.INSTANCE_SESSION_SCOPED);
+    }
+
+    private Context getCurrentConversationContext()
+    {
+        ContextCarrier carrier = ContextCarrier.current();
+        ConversationContext conversationCtx = carrier == null ? null : carrier.getConversationContext();
+        if (conversationCtx == null)
+        {
+            conversationCtx = webBeansContext.getConversationManager().getConversationContext(
+                    getCurrentContext(SessionScoped.class));
+            getOrBindCarrier().setConversationContext(conversationCtx);
+
+            // check for busy and non-existing conversations
+            String conversationId = webBeansContext.getConversationService().getConversationId();
+            if (conversationId != null && conversationCtx.getConversation().isTransient())
+            {
+                throw new NonexistentConversationException("Propogated conversation with cid=" + conversationId +
+                        " cannot be restored. It creates a new transient conversation.");
+            }
+
+            if (conversationCtx.getConversation().iUseIt() > 1)
+            {
+                //Throw Busy exception
+                throw new BusyConversationException("Propogated conversation with cid=" + conversationId +
+                        " is used by other request. It creates a new transient conversation");
+            }
+        }
+
+        return conversationCtx;
+    }
+
+    private static ContextCarrier getOrBindCarrier()
+    {
+        ContextCarrier carrier = ContextCarrier.current();
+        if (carrier == null)
+        {
+            carrier = new ContextCarrier();
+            ContextCarrier.bind(carrier);
+        }
+        return carrier;
+    }
+
+    private static void unbindIfEmpty(ContextCarrier carrier)
+    {
+        if (carrier.isEmpty() && ContextCarrier.current() == carrier)
+        {
+            ContextCarrier.unbind();
+        }
+    }
+
+    /**
+     * A RequestContext which can be shared with the tasks the request hands its carrier to.
+     * The {@link org.apache.webbeans.context.ContextualInstanceMap} of the RequestContext is thread safe already.
+     */
+    private static class CarrierRequestContext extends RequestContext
+    {
+        private static final long serialVersionUID = 1L;
+    }
+}
@@ -0,0 +1,302 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.corespi.se;
+
+import org.apache.webbeans.corespi.scanner.index.BeanArchiveIndex;
+import org.apache.webbeans.spi.BeanArchiveService;
+import org.apache.webbeans.spi.BeanArchiveService.BeanArchiveInformation;
+import org.apache.webbeans.spi.BeanArchiveService.BeanDiscoveryMode;
+import org.apache.webbeans.util.WebBeansUtil;
+import org.apache.xbean.finder.filter.Filter;
+import org.apache.xbean.finder.util.Files;
+
+import javax.decorator.Decorator;
+import javax.interceptor.Interceptor;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+
+/**
+ * ScannerService which uses the {@link BeanArchiveIndex} written at build time
+ * instead of scanning the bean archive.
+ *
+ * Bean archives without index or with a stale index get scanned as usual.
+ * An index is considered stale if the beans.xml of the archive changed or
+ * if an exploded archive contains files newer than the index.
+ *
+ * The classes of an indexed archive are not read, so they are not part of the annotation finder.
+ * The index only stores the class level annotations, which is not enough to know whether a member
+ * carries one of the annotations of a {@code @WithAnnotations} observer of {@code ProcessAnnotatedType}.
+ * For these classes the observers fall back to inspecting the AnnotatedType reflectively.
+ *
+ * To enable it configure
+ * {@code org.apache.webbeans.spi.ScannerService=org.apache.webbeans.corespi.se.IndexedScannerService}
+ * in openwebbeans.properties.
+ */
+public class IndexedScannerService extends DefaultScannerService
+{
+    /**
+     * key: the classpath entry of the bean archive
+     * value: the index of this bean archive
+     */
+    private final Map<URL, BeanArchiveIndex> indexedArchives = new LinkedHashMap<>();
+
+    private Map<BeanArchiveInformation, Set<Class<?>>> beanClassesPerBda;
+
+    @Override
+    protected Map<String, URL> selectScannedDeploymentUrls(Map<String, URL> beanDeploymentUrls)
+    {
+        List<URL> indexUrls;
+        try
+        {
+            indexUrls = Collections.list(WebBeansUtil.getCurrentClassLoader().getResources(BeanArchiveIndex.INDEX_LOCATION));
+        }
+        catch (IOException e)
+        {
+            throw new IllegalStateException(e);
+        }
+        if (indexUrls.isEmpty())
+        {
+            return beanDeploymentUrls;
+        }
+
+        Map<String, URL> scannedUrls = new HashMap<>();
+        for (Map.Entry<String, URL> deploymentUrl : beanDeploymentUrls.entrySet())
+        {
+            BeanArchiveIndex index = findIndex(indexUrls, deploymentUrl.getKey(), deploymentUrl.getValue());
+            if (index == null)
+            {
+                scannedUrls.put(deploymentUrl.getKey(), deploymentUrl.getValue());
+            }
+            else
+            {
+                indexedArchives.put(deploymentUrl.getValue(), index);
+            }
+        }
+        return scannedUrls;
+    }
+
+    @Override
+    public Map<BeanArchiveInformation, Set<Class<?>>> getBeanClassesPerBda()
+    {
+        if (beanClassesPerBda == null)
+        {
+            Map<BeanArchiveInformation, Set<Class<?>>> classesPerBda = new HashMap<>(super.getBeanClassesPerBda());
+
+            BeanArchiveService beanArchiveService = webBeansContext().getBeanArchiveService();
+            Filter userFilter = webBeansContext().getService(Filter.class);
+            for (Map.Entry<URL, BeanArchiveIndex> indexedArchive : indexedArchives.entrySet())
+            {
+                BeanArchiveInformation beanArchiveInfo = beanArchiveService.getBeanArchiveInformation(indexedArchive.getKey());
+                Set<Class<?>> classSet = new HashSet<>();
+                classesPerBda.put(beanArchiveInfo, classSet);
+
+                if (BeanDiscoveryMode.NONE == beanArchiveInfo.getBeanDiscoveryMode())
+                {
+                    continue;
+                }
+
+                boolean scanModeAnnotated = BeanDiscoveryMode.ANNOTATED == beanArchiveInfo.getBeanDiscoveryMode();
+                for (Map.Entry<String, List<String>> indexedClass : indexedArchive.getValue().getClasses().entrySet())
+                {
+                    String className = indexedClass.getKey();
+                    if ((userFilter != null && !userFilter.accept(className)) || beanArchiveInfo.isClassExcluded(className))
+                    {
+                        continue;
+                    }
+                    if (scanModeAnnotated && !isBeanAnnotatedClass(indexedClass.getValue()))
+                    {
+                        continue;
+                    }
+
+                    Class<?> clazz = loadBeanClass(className);
+                    if (clazz != null)
+                    {
+                        classSet.add(clazz);
+                    }
+                }
+            }
+
+            beanClassesPerBda = classesPerBda;
+        }
+        return beanClassesPerBda;
+    }
+
+    @Override
+    public void release()
+    {
+        super.release();
+        indexedArchives.clear();
+    }
+
+    /**
+     * Same as {@link #isBeanAnnotatedClass(org.apache.xbean.finder.AnnotationFinder.ClassInfo)}
+     * but based on the annotation names stored in the index.
+     */
+    protected boolean isBeanAnnotatedClass(List<String> annotationNames)
+    {
+        for (String annotationName : annotationNames)
+        {
+            if (Interceptor.class.getName().equals(annotationName) ||
+                    Decorator.class.getName().equals(annotationName) ||
+                    isBeanAnnotation(annotationName))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the up to date index of the given bean archive or {@code null} if it must be scanned
+     */
+    protected BeanArchiveIndex findIndex(List<URL> indexUrls, String beansXml, URL deploymentUrl)
+    {
+        String archiveBase = stripTrailingSlash(stripProtocol(deploymentUrl.toExternalForm()));
+        for (URL indexUrl : indexUrls)
+        {
+            String indexBase = stripProtocol(indexUrl.toExternalForm());
+            indexBase = indexBase.substring(0, indexBase.length() - BeanArchiveIndex.INDEX_LOCATION.length());
+            if (indexBase.endsWith("!/"))
+            {
+                indexBase = indexBase.substring(0, indexBase.length() - 2);
+            }
+            if (!stripTrailingSlash(indexBase).equals(archiveBase))
+            {
+                continue;
+            }
+
+            try
+            {
+                BeanArchiveIndex index;
+                try (InputStream in = indexUrl.openStream())
+                {
+                    index = BeanArchiveIndex.read(in);
+                }
+                if (index == null || isStale(index, beansXml, deploymentUrl))
+                {
+                    logger.info("stale bean archive index, scanning " + deploymentUrl.toExternalForm());
+                    return null;
+                }
+
+                if (logger.isLoggable(Level.FINE))
+                {
+                    logger.fine("using bean archive index for " + deploymentUrl.toExternalForm());
+                }
+                return index;
+            }
+            catch (IOException e)
+            {
+                logger.log(Level.WARNING, "can't read bean archive index " + indexUrl.toExternalForm(), e);
+                return null;
+            }
+        }
+        return null;
+    }
+
+    protected boolean isStale(BeanArchiveIndex index, String beansXml, URL deploymentUrl) throws IOException
+    {
+        URL beansXmlUrl = null;
+        if (beansXml.endsWith(META_INF_BEANS_XML))
+        {
+            for (URL beanArchiveUrl : getBeanXmls())
+            {
+                if (stripProtocol(beanArchiveUrl.toExternalForm()).equals(stripProtocol(beansXml)))
+                {
+                    beansXmlUrl = beanArchiveUrl;
+                    break;
+                }
+            }
+        }
+        else if (beansXml.endsWith(".xml"))
+        {
+            // beans.xml at a location the generator does not know about, e.g. WEB-INF/beans.xml
+            return true;
+        }
+
+        String beansXmlDigest;
+        if (beansXmlUrl == null)
+        {
+            beansXmlDigest = BeanArchiveIndex.digest(null);
+        }
+        else
+        {
+            try (InputStream in = beansXmlUrl.openStream())
+            {
+                beansXmlDigest = BeanArchiveIndex.digest(in);
+            }
+        }
+        if (!beansXmlDigest.equals(index.getBeansXmlDigest()))
+        {
+            return true;
+        }
+
+        // a jar is consistent with the index it contains, an exploded archive might have been recompiled
+        if ("file".equals(deploymentUrl.getProtocol()))
+        {
+            File root = Files.toFile(deploymentUrl);
+            if (root.isDirectory())
+            {
+                return hasNewerFiles(root, new File(root, BeanArchiveIndex.INDEX_LOCATION), index.getTimestamp());
+            }
+        }
+        return false;
+    }
+
+    private boolean hasNewerFiles(File root, File indexFile, long timestamp)
+    {
+        List<File> directories = new ArrayList<>();
+        directories.add(root);
+        while (!directories.isEmpty())
+        {
+            File[] files = directories.remove(directories.size() - 1).listFiles();
+            if (files == null)
+            {
+                continue;
+            }
+            for (File file : files)
+            {
+                if (file.isDirectory())
+                {
+                    directories.add(file);
+                }
+                else if (file.lastModified() > timestamp && !file.equals(indexFile))
+                {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static String stripTrailingSlash(String path)
+    {
+        return path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+    }
+}
@@ -0,0 +1,465 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.event;
+
+import java.io.Closeable;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.webbeans.config.OpenWebBeansConfiguration;
+import org.apache.webbeans.exception.WebBeansConfigurationException;
+import org.apache.webbeans.logger.WebBeansLoggerFacade;
+import org.apache.webbeans.spi.InstrumentationService;
+
+/**
+ * The default Executor for asynchronous events if no {@link Executor} service got configured.
+ *
+ * <p>Tasks are queued in a bounded queue and get executed by a fixed number of threads.
+ * With virtual threads every task gets its own thread instead and the queue size limits
+ * the number of tasks in flight. Once that limit is reached the configured {@link RejectionPolicy}
+ * applies back-pressure to the threads firing events. Tasks fired from within a task
+ * run in the firing thread rather than blocking a thread which the queue waits for.</p>
+ *
+ * <p>The queue depth and the time tasks spent in the queue and in execution are tracked
+ * and reported to the {@link InstrumentationService} if there is one.</p>
+ *
+ * @see OpenWebBeansConfiguration#ASYNC_EVENT_THREADS
+ * @see OpenWebBeansConfiguration#ASYNC_EVENT_QUEUE_SIZE
+ * @see OpenWebBeansConfiguration#ASYNC_EVENT_REJECTION_POLICY
+ * @see OpenWebBeansConfiguration#ASYNC_EVENT_VIRTUAL_THREADS
+ */
+public final class AsyncEventEngine implements Executor, Closeable
+{
+    private static final Logger logger = WebBeansLoggerFacade.getLogger(AsyncEventEngine.class);
+
+    public enum RejectionPolicy
+    {
+        /**
+         * the firing thread waits until there is space in the queue,
+         * unless it is running a task of the engine itself and runs the new task instead
+         */
+        BLOCK,
+
+        /**
+         * the firing thread runs the task itself
+         */
+        CALLER_RUNS,
+
+        /**
+         * the task gets rejected with a {@link RejectedExecutionException}
+         */
+        ABORT;
+
+        /**
+         * @param value {@code block}, {@code caller-runs} or {@code abort}, case insensitive
+         * @return the configured policy, {@link #BLOCK} if none is configured
+         */
+        public static RejectionPolicy parse(String value)
+        {
+            if (value == null || value.trim().isEmpty())
+            {
+                return BLOCK;
+            }
+            String normalized = value.trim().toUpperCase(Locale.ENGLISH).replace('-', '_');
+            for (RejectionPolicy policy : values())
+            {
+                if (policy.name().equals(normalized))
+                {
+                    return policy;
+                }
+            }
+            throw new WebBeansConfigurationException("Unknown async event rejection policy " + value +
+                    ", use block, caller-runs or abort");
+        }
+    }
+
+    private final BlockingQueue<Runnable> queue;
+    private final RejectionPolicy rejectionPolicy;
+    private final InstrumentationService instrumentation;
+
+    /**
+     * the pool of platform threads, {@code null} if virtual threads are used
+     */
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * creates one virtual thread per task, {@code null} if platform threads are used
+     */
+    private final ThreadFactory virtualThreadFactory;
+    private final Semaphore virtualThreadPermits;
+    private final AtomicInteger virtualThreadsActive = new AtomicInteger();
+
+    /**
+     * set while the current thread runs a task of this engine
+     */
+    private final ThreadLocal<Boolean> runningTask = new ThreadLocal<>();
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder queuedNanos = new LongAdder();
+    private final LongAdder executionNanos = new LongAdder();
+    private final AtomicLong maxQueuedNanos = new AtomicLong();
+
+    private volatile boolean closed;
+
+    public AsyncEventEngine(OpenWebBeansConfiguration configuration, InstrumentationService instrumentation)
+    {
+        this(configuration.getAsyncEventThreads(), configuration.getAsyncEventQueueSize(),
+                RejectionPolicy.parse(configuration.getAsyncEventRejectionPolicy()),
+                configuration.useVirtualThreadsForAsyncEvents(), instrumentation);
+    }
+
+    /**
+     * @param threads the maximum number of threads delivering events
+     * @param queueSize the maximum number of waiting tasks
+     * @param rejectionPolicy what to do if the queue is full
+     * @param virtualThreads whether to use virtual threads if the JVM supports them
+     * @param instrumentation receives the task latencies, might be {@code null}
+     */
+    public AsyncEventEngine(int threads, int queueSize, RejectionPolicy rejectionPolicy, boolean virtualThreads,
+                            InstrumentationService instrumentation)
+    {
+        if (threads <= 0 || queueSize <= 0)
+        {
+            throw new WebBeansConfigurationException("The async event threads and queue size must be positive but are " +
+                    threads + " and " + queueSize);
+        }
+        this.rejectionPolicy = rejectionPolicy;
+        this.instrumentation = instrumentation;
+
+        queue = new ArrayBlockingQueue<>(queueSize);
+        virtualThreadFactory = virtualThreads ? createVirtualThreadFactory() : null;
+        if (virtualThreadFactory != null)
+        {
+            // virtual threads are cheap, so there is no point in pooling them
+            virtualThreadPermits = new Semaphore(queueSize);
+            executor = null;
+        }
+        else
+        {
+            virtualThreadPermits = null;
+            executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, queue,
+                    createPlatformThreadFactory(), new BackPressure());
+
+            // idle containers should not keep any threads
+            executor.allowCoreThreadTimeOut(true);
+        }
+    }
+
+    @Override
+    public void execute(Runnable command)
+    {
+        if (closed)
+        {
+            throw new RejectedExecutionException("CDI executor is shutdown");
+        }
+
+        submitted.increment();
+        if (executor != null)
+        {
+            executor.execute(new TimedTask(command));
+        }
+        else
+        {
+            startVirtualThread(new TimedTask(command));
+        }
+    }
+
+    /**
+     * Stops accepting new tasks and runs all queued ones in the calling thread,
+     * so no CompletionStage of a fired event stays incomplete.
+     */
+    @Override
+    public void close()
+    {
+        closed = true;
+        if (executor == null)
+        {
+            // every task got its own thread already
+            return;
+        }
+        executor.shutdown();
+
+        List<Runnable> pending = new ArrayList<>();
+        queue.drainTo(pending);
+        for (Runnable task : pending)
+        {
+            try
+            {
+                task.run();
+            }
+            catch (RuntimeException re)
+            {
+                logger.warning(re.getMessage());
+            }
+        }
+    }
+
+    /**
+     * @return the number of tasks waiting for a thread
+     */
+    public int getQueueDepth()
+    {
+        return queue.size();
+    }
+
+    /**
+     * @return the number of tasks currently being executed
+     */
+    public int getActiveCount()
+    {
+        return executor != null ? executor.getActiveCount() : virtualThreadsActive.get();
+    }
+
+    public long getSubmittedCount()
+    {
+        return submitted.sum();
+    }
+
+    public long getCompletedCount()
+    {
+        return completed.sum();
+    }
+
+    /**
+     * @return how often the queue was full when a task got submitted
+     */
+    public long getRejectedCount()
+    {
+        return rejected.sum();
+    }
+
+    /**
+     * @return the average time a task waited for a thread in nanoseconds
+     */
+    public long getAverageQueuedNanos()
+    {
+        long count = completed.sum();
+        return count == 0 ? 0 : queuedNanos.sum() / count;
+    }
+
+    /**
+     * @return the longest time a task waited for a thread in nanoseconds
+     */
+    public long getMaxQueuedNanos()
+    {
+        return maxQueuedNanos.get();
+    }
+
+    /**
+     * @return the average execution time of a task in nanoseconds
+     */
+    public long getAverageExecutionNanos()
+    {
+        long count = completed.sum();
+        return count == 0 ? 0 : executionNanos.sum() / count;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "AsyncEventEngine{queueDepth=" + getQueueDepth() + ", active=" + getActiveCount() +
+                ", submitted=" + getSubmittedCount() + ", completed=" + getCompletedCount() +
+                ", rejected=" + getRejectedCount() + ", avgQueuedNanos=" + getAverageQueuedNanos() +
+                ", maxQueuedNanos=" + getMaxQueuedNanos() + ", avgExecutionNanos=" + getAverageExecutionNanos() + '}';
+    }
+
+    private void record(long queued, long execution)
+    {
+        completed.increment();
+        queuedNanos.add(queued);
+        executionNanos.add(execution);
+
+        long max = maxQueuedNanos.get();
+        while (queued > max && !maxQueuedNanos.compareAndSet(max, queued))
+        {
+            max = maxQueuedNanos.get();
+        }
+
+        if (instrumentation != null)
+        {
+            instrumentation.asyncEventTaskCompleted(queued, execution);
+        }
+    }
+
+    private void startVirtualThread(TimedTask task)
+    {
+        if (!virtualThreadPermits.tryAcquire())
+        {
+            rejected.increment();
+            if (rejectionPolicy == RejectionPolicy.ABORT)
+            {
+                throw new RejectedExecutionException("The async event limit is reached, " +
+                        virtualThreadsActive.get() + " tasks are in flight");
+            }
+            if (rejectionPolicy == RejectionPolicy.CALLER_RUNS || isRunningTask())
+            {
+                task.run();
+                return;
+            }
+            try
+            {
+                virtualThreadPermits.acquire();
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                throw new RejectedExecutionException("Interrupted while waiting for a free async event slot", e);
+            }
+        }
+
+        virtualThreadsActive.incrementAndGet();
+        Thread thread = virtualThreadFactory.newThread(() ->
+        {
+            try
+            {
+                task.run();
+            }
+            finally
+            {
+                virtualThreadsActive.decrementAndGet();
+                virtualThreadPermits.release();
+            }
+        });
+        thread.start();
+    }
+
+    private boolean isRunningTask()
+    {
+        return runningTask.get() != null;
+    }
+
+    /**
+     * @return {@code Thread.ofVirtual().name(prefix, 0).factory()} or {@code null} before Java 21
+     */
+    private static ThreadFactory createVirtualThreadFactory()
+    {
+        try
+        {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Method name = builderClass.getMethod("name", String.class, long.class);
+            builder = name.invoke(builder, "OpenWebBeans-async-event-", 0L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        }
+        catch (Exception e)
+        {
+            logger.log(Level.WARNING, "Virtual threads are not supported by this JVM, " +
+                    "using platform threads for async events", e);
+            return null;
+        }
+    }
+
+    private static ThreadFactory createPlatformThreadFactory()
+    {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable ->
+        {
+            Thread thread = new Thread(runnable, "OpenWebBeans-async-event-" + counter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private final class TimedTask implements Runnable
+    {
+        private final Runnable delegate;
+        private final long submittedAt = System.nanoTime();
+
+        private TimedTask(Runnable delegate)
+        {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void run()
+        {
+            long start = System.nanoTime();
+            boolean nested = isRunningTask();
+            runningTask.set(Boolean.TRUE);
+            try
+            {
+                delegate.run();
+            }
+            finally
+            {
+                if (!nested)
+                {
+                    runningTask.remove();
+                }
+                record(start - submittedAt, System.nanoTime() - start);
+            }
+        }
+    }
+
+    private final class BackPressure implements RejectedExecutionHandler
+    {
+        @Override
+        public void rejectedExecution(Runnable task, ThreadPoolExecutor pool)
+        {
+            if (pool.isShutdown())
+            {
+                throw new RejectedExecutionException("CDI executor is shutdown");
+            }
+
+            rejected.increment();
+            switch (rejectionPolicy)
+            {
+                case CALLER_RUNS:
+                    task.run();
+                    break;
+                case ABORT:
+                    throw new RejectedExecutionException("The async event queue is full, " + queue.size() + " tasks are waiting");
+                default:
+                    if (isRunningTask())
+                    {
+                        // the thread waiting for space might be the one which would make space
+                        task.run();
+                        break;
+                    }
+                    try
+                    {
+                        queue.put(task);
+                    }
+                    catch (InterruptedException e)
+                    {
+                        Thread.currentThread().interrupt();
+                        throw new RejectedExecutionException("Interrupted while waiting for space in the async event queue", e);
+                    }
+            }
+        }
+    }
+}
@@ -47,6 +47,12 @@ public class EventImpl<T> implements Event<T>, Serializable
 
     private transient WebBeansContext webBeansContext;
 
+    /**
+     * metadata selected for the class of the last fired event.
+     * Reusing it avoids to create new metadata on each fire and lets it remember the resolved observers.
+     */
+    private transient volatile EventMetadataImpl firedMetadata;
+
     /**
      * Creates a new event.
      * 
@@ -78,9 +84,7 @@ public class EventImpl<T> implements Event<T>, Serializable
     @Override
     public void fire(T event)
     {
-        Type eventType = event.getClass();
-        webBeansContext.getWebBeansUtil().validEventType(eventType.getClass(), metadata.getType());
-        webBeansContext.getBeanManagerImpl().fireEvent(event, metadata.select(eventType), false);
+        webBeansContext.getBeanManagerImpl().fireEvent(event, selectFired(event), false);
     }
 
     @Override
@@ -92,12 +96,23 @@ public class EventImpl<T> implements Event<T>, Serializable
     @Override
     public <U extends T> CompletionStage<U> fireAsync(U event, NotificationOptions notificationOptions)
     {
-        Type eventType = event.getClass();
-        webBeansContext.getWebBeansUtil().validEventType(eventType.getClass(), metadata.getType());
-        return webBeansContext.getNotificationManager().fireEvent(event, metadata.select(eventType), false,
+        return webBeansContext.getNotificationManager().fireEvent(event, selectFired(event), false,
                     notificationOptions);
     }
 
+    private EventMetadataImpl selectFired(Object event)
+    {
+        Type eventType = event.getClass();
+        EventMetadataImpl selected = firedMetadata;
+        if (selected == null || selected.getSelectedType() != eventType)
+        {
+            webBeansContext.getWebBeansUtil().validEventType(eventType.getClass(), metadata.getType());
+            selected = metadata.select(eventType);
+            firedMetadata = selected;
+        }
+        return selected;
+    }
+
     /**
      * {@inheritDoc}
      */
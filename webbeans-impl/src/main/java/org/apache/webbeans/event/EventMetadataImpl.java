@@ -53,6 +53,11 @@ public class EventMetadataImpl implements EventMetadata, Serializable
     private final Set<Annotation> qualifiers;
     private transient WebBeansContext webBeansContext;
 
+    /**
+     * the observers this event got dispatched to the last time it got fired.
+     */
+    private transient volatile ObserverDispatchTable dispatchTable;
+
     public EventMetadataImpl(Type selectType, Type type, InjectionPoint injectionPoint, Annotation[] qualifiers, WebBeansContext context)
     {
         context.getAnnotationManager().checkQualifierConditions(qualifiers);
@@ -114,6 +119,24 @@ public class EventMetadataImpl implements EventMetadata, Serializable
         return selectType != null? selectType : type;
     }
 
+    /**
+     * @return the type this metadata got selected for, without any resolution
+     */
+    Type getSelectedType()
+    {
+        return type;
+    }
+
+    ObserverDispatchTable getDispatchTable()
+    {
+        return dispatchTable;
+    }
+
+    void setDispatchTable(ObserverDispatchTable dispatchTable)
+    {
+        this.dispatchTable = dispatchTable;
+    }
+
     @Override
     public InjectionPoint getInjectionPoint()
     {
@@ -19,20 +19,16 @@
 
 package org.apache.webbeans.event;
 
-import java.io.Closeable;
-import java.io.IOException;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -41,14 +37,13 @@ import java.util.concurrent.CompletionException;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executor;
-import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 import javax.enterprise.context.RequestScoped;
+import javax.enterprise.context.spi.Context;
 import javax.enterprise.event.NotificationOptions;
 import javax.enterprise.event.ObserverException;
 import javax.enterprise.event.TransactionPhase;
@@ -66,7 +61,9 @@ import javax.enterprise.inject.spi.ProcessProducer;
 
 import org.apache.webbeans.component.AbstractOwbBean;
 import org.apache.webbeans.config.OWBLogConst;
+import org.apache.webbeans.config.StartupProfiler;
 import org.apache.webbeans.config.WebBeansContext;
+import org.apache.webbeans.corespi.scanner.xbean.OwbAnnotationFinder;
 import org.apache.webbeans.exception.WebBeansConfigurationException;
 import org.apache.webbeans.exception.WebBeansDeploymentException;
 import org.apache.webbeans.exception.WebBeansException;
@@ -75,9 +72,13 @@ import org.apache.webbeans.portable.events.generics.GProcessObserverMethod;
 import org.apache.webbeans.portable.events.generics.GenericBeanEvent;
 import org.apache.webbeans.portable.events.generics.GenericProducerObserverEvent;
 import org.apache.webbeans.portable.events.generics.TwoParametersGenericBeanEvent;
+import org.apache.webbeans.spi.ContextsService;
+import org.apache.webbeans.spi.InstrumentationService;
 import org.apache.webbeans.spi.TransactionService;
+import org.apache.webbeans.spi.api.ThreadSafeExtension;
 import org.apache.webbeans.util.AnnotationUtil;
 import org.apache.webbeans.util.Asserts;
+import org.apache.webbeans.util.BoundedCache;
 import org.apache.webbeans.util.ClassUtil;
 import org.apache.webbeans.util.GenericsUtil;
 import org.apache.webbeans.util.WebBeansUtil;
@@ -89,6 +90,16 @@ public final class NotificationManager
 
     private final NotificationOptions defaultNotificationOptions;
 
+    /**
+     * The default async Executor, {@code null} if an {@link Executor} service is configured.
+     */
+    private AsyncEventEngine asyncEventEngine;
+
+    /**
+     * Maximum number of async observers of a single event which get notified in one task.
+     */
+    private final int asyncBatchSize;
+
     /**
      * Contains information whether certain Initialized and Destroyed events have observer methods.
      */
@@ -101,6 +112,30 @@ public final class NotificationManager
     private final ConcurrentHashMap<Class<?>, Set<ObserverMethod<?>>> observersByRawType
         = new ConcurrentHashMap<>();
 
+    /**
+     * Resolved observers per fired event type, event class and qualifiers.
+     * Only used once the deployment finished, see {@link #enableDispatchTables()}.
+     */
+    private final BoundedCache<ObserverDispatchTable.Key, ObserverDispatchTable> dispatchTables;
+
+    /**
+     * gets informed about fired events, might be {@code null}
+     */
+    private final InstrumentationService instrumentation;
+
+    private volatile boolean dispatchTablesEnabled;
+
+    /**
+     * Gets incremented whenever an observer method gets added to invalidate the resolved dispatch tables.
+     */
+    private final AtomicInteger observersVersion = new AtomicInteger();
+
+    /**
+     * The types the {@code @WithAnnotations} observers of ProcessAnnotatedType are interested in.
+     * Only available while the classes of the bean archives get processed, see {@link #enableAnnotationIndex(OwbAnnotationFinder)}.
+     */
+    private volatile WithAnnotationsIndex withAnnotationsIndex;
+
     // this is actually faster than a lambda Comparator.comparingInt(ObserverMethod::getPriority)
     private Comparator<? super ObserverMethod<? super Object>> observerMethodComparator
         = new Comparator<ObserverMethod<? super Object>>()
@@ -115,7 +150,12 @@ public final class NotificationManager
     public NotificationManager(WebBeansContext webBeansContext)
     {
         this.webBeansContext = webBeansContext;
+        this.instrumentation = webBeansContext.getInstrumentationService();
         this.defaultNotificationOptions = NotificationOptions.ofExecutor(getDefaultExecutor());
+        this.asyncBatchSize = Math.max(1, webBeansContext.getOpenWebBeansConfiguration().getAsyncEventBatchSize());
+        this.dispatchTables = new BoundedCache<>("observerDispatchTables",
+                webBeansContext.getOpenWebBeansConfiguration().getObserverDispatchCacheSize(), BoundedCache.Eviction.LRU,
+                instrumentation);
     }
 
     private Executor getDefaultExecutor()
@@ -123,9 +163,35 @@ public final class NotificationManager
         // here it would be nice to support to use a produced bean like @Named("openwebbeansCdiExecutor")
         // instead of a direct spi
         //
-        // logic is: if an Executor is registered as a spi use it, otherwise use JVM default one
+        // logic is: if an Executor is registered as a spi use it, otherwise use our own bounded one
         Executor service = webBeansContext.getService(Executor.class);
-        return service != null ? service : new CloseableExecutor();
+        if (service != null)
+        {
+            return service;
+        }
+
+        asyncEventEngine = new AsyncEventEngine(webBeansContext.getOpenWebBeansConfiguration(), instrumentation);
+        return asyncEventEngine;
+    }
+
+    /**
+     * @return the default Executor for async events with its queue and latency metrics,
+     *         {@code null} if an {@link Executor} service is configured
+     */
+    public AsyncEventEngine getAsyncEventEngine()
+    {
+        return asyncEventEngine;
+    }
+
+    /**
+     * Shuts down the default async Executor, queued events still get delivered.
+     */
+    public void close()
+    {
+        if (asyncEventEngine != null)
+        {
+            asyncEventEngine.close();
+        }
     }
 
     /**
@@ -137,6 +203,18 @@ public final class NotificationManager
     {
         observersByRawType.clear();
         hasContextLifecycleEventObservers.clear();
+        dispatchTables.clear();
+    }
+
+    /**
+     * From now on the observer methods resolved for an event get cached as immutable, pre-sorted
+     * {@link ObserverDispatchTable}s. This needs to get called once the deployment finished as the
+     * observers of Extensions must not be cached.
+     */
+    public void enableDispatchTables()
+    {
+        dispatchTables.clear();
+        dispatchTablesEnabled = true;
     }
 
     /**
@@ -189,6 +267,7 @@ public final class NotificationManager
         }
 
         set.add(observer);
+        observersVersion.incrementAndGet();
     }
 
 
@@ -214,16 +293,97 @@ public final class NotificationManager
         return observersMethods;
     }
 
+    /**
+     * @return whether all observer methods of the container lifecycle event belong to a {@link ThreadSafeExtension}
+     */
+    public boolean isThreadSafeLifecycleEvent(Object event, EventMetadataImpl metadata)
+    {
+        for (ObserverMethod<?> observerMethod : resolveObservers(event, metadata, true))
+        {
+            Class<?> beanClass = observerMethod.getBeanClass();
+            // lifecycle events do not get delivered to other beans, see fireEvent
+            if (Extension.class.isAssignableFrom(beanClass) && !beanClass.isAnnotationPresent(ThreadSafeExtension.class))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Uses the annotation index of the scanner to find the types the {@code @WithAnnotations} observers
+     * of ProcessAnnotatedType are interested in, until {@link #disableAnnotationIndex()} gets called.
+     * @param finder the annotation index of the scanned bean archives, might be {@code null}
+     */
+    public void enableAnnotationIndex(OwbAnnotationFinder finder)
+    {
+        if (finder != null)
+        {
+            withAnnotationsIndex = new WithAnnotationsIndex(finder, getProcessAnnotatedTypeObservers(), observersVersion.get());
+        }
+    }
+
+    public void disableAnnotationIndex()
+    {
+        withAnnotationsIndex = null;
+    }
+
+    /**
+     * @return {@code false} if there is no observer of ProcessAnnotatedType interested in the given type,
+     *         {@code true} if there is one or if this can't be told upfront
+     */
+    public boolean isProcessAnnotatedTypeObserved(AnnotatedType<?> annotatedType)
+    {
+        WithAnnotationsIndex index = getWithAnnotationsIndex(annotatedType);
+        return index == null || index.isObserved(annotatedType.getJavaClass());
+    }
+
+    /**
+     * @return the index if it is enabled and the AnnotatedType still reflects the annotations of the class files
+     */
+    private WithAnnotationsIndex getWithAnnotationsIndex(AnnotatedType<?> annotatedType)
+    {
+        WithAnnotationsIndex index = withAnnotationsIndex;
+        if (index == null || !webBeansContext.getAnnotatedElementFactory().isInitialAnnotatedType(annotatedType))
+        {
+            return null;
+        }
+
+        if (!index.isValidFor(observersVersion.get()))
+        {
+            // an observer method got added in the meantime
+            index = new WithAnnotationsIndex(index.getFinder(), getProcessAnnotatedTypeObservers(), observersVersion.get());
+            withAnnotationsIndex = index;
+        }
+        return index;
+    }
+
+    private List<ObserverMethod<?>> getProcessAnnotatedTypeObservers()
+    {
+        List<ObserverMethod<?>> processAnnotatedTypeObservers = new ArrayList<>();
+        for (Map.Entry<Type, Set<ObserverMethod<?>>> observerEntry : observers.entrySet())
+        {
+            // see filterByExtensionEventType, lifecycle events only get delivered to observers of the spec event types
+            if (ClassUtil.getClazz(observerEntry.getKey()) == ProcessAnnotatedType.class)
+            {
+                processAnnotatedTypeObservers.addAll(observerEntry.getValue());
+            }
+        }
+        return processAnnotatedTypeObservers;
+    }
+
     private <T> Collection<ObserverMethod<? super T>> filterByWithAnnotations(Collection<ObserverMethod<? super T>> observersMethods, AnnotatedType annotatedType)
     {
         List<ObserverMethod<? super T>> observerMethodsWithAnnotations = new ArrayList<>();
+        WithAnnotationsIndex index = getWithAnnotationsIndex(annotatedType);
 
         for (ObserverMethod<? super T> observerMethod : observersMethods)
         {
-            Class[] withAnnotations = ((ContainerEventObserverMethodImpl) observerMethod).getWithAnnotations();
-            if (withAnnotations != null && withAnnotations.length > 0)
+            Class<? extends Annotation>[] withAnnotations = WithAnnotationsIndex.getWithAnnotations(observerMethod);
+            if (withAnnotations != null)
             {
-                if (annotatedTypeHasAnnotations(annotatedType, withAnnotations))
+                Boolean observed = index != null ? index.isObserved(observerMethod, annotatedType.getJavaClass()) : null;
+                if (observed != null ? observed : annotatedTypeHasAnnotations(annotatedType, withAnnotations))
                 {
                     observerMethodsWithAnnotations.add(observerMethod);
                 }
@@ -292,22 +452,11 @@ public final class NotificationManager
 
     private boolean hasAnnotation(Set<Annotation> annotations, Class<? extends Annotation>[] withAnnotations)
     {
-        for (Class<? extends Annotation> withAnnotation : withAnnotations)
+        for (Annotation annotation : annotations)
         {
-            for (Annotation annotation : annotations)
+            if (WithAnnotationsIndex.matches(annotation.annotationType(), withAnnotations))
             {
-                if (withAnnotation.isAssignableFrom(annotation.annotationType()))
-                {
-                    return true;
-                }
-
-                for (Annotation meta : annotation.annotationType().getAnnotations())
-                {
-                    if (withAnnotation.isAssignableFrom(meta.annotationType()))
-                    {
-                        return true;
-                    }
-                }
+                return true;
             }
         }
 
@@ -347,8 +496,8 @@ public final class NotificationManager
             for (Type eventType : eventTypes)
             {
                 if ((ParameterizedType.class.isInstance(eventType) && Class.class.isInstance(observedType)
-                        && GenericsUtil.isAssignableFrom(true, false, observedType, ParameterizedType.class.cast(eventType).getRawType(), new HashMap<>()))
-                    || GenericsUtil.isAssignableFrom(true, false, observedType, eventType, new HashMap<>()))
+                        && webBeansContext.getTypeAssignabilityCache().isAssignableFrom(true, false, observedType, ParameterizedType.class.cast(eventType).getRawType()))
+                    || webBeansContext.getTypeAssignabilityCache().isAssignableFrom(true, false, observedType, eventType))
                 {
                     Set<ObserverMethod<?>> observerMethods = observerEntry.getValue();
 
@@ -499,7 +648,7 @@ public final class NotificationManager
         }
         else if (observerTypeActualArg instanceof ParameterizedType)
         {
-            return GenericsUtil.isAssignableFrom(false, true, observerTypeActualArg, beanClass, new HashMap<>());
+            return webBeansContext.getTypeAssignabilityCache().isAssignableFrom(false, true, observerTypeActualArg, beanClass);
         }
         
         return false;
@@ -534,7 +683,7 @@ public final class NotificationManager
             if(checkEventTypeParameterForExtensions(beanClass, actualArgs[0])
                     && (secondParam == null || actualArgs.length == 1
                             || checkEventTypeParameterForExtensions(secondParam, actualArgs[1])
-                            || GenericsUtil.isAssignableFrom(true, false, actualArgs[1], secondParam, new HashMap<>())))
+                            || webBeansContext.getTypeAssignabilityCache().isAssignableFrom(true, false, actualArgs[1], secondParam)))
             {
                 addToMatching(type, matching);   
             }
@@ -643,6 +792,7 @@ public final class NotificationManager
      */
     public <T> CompletionStage<T> fireEvent(Object event, EventMetadataImpl metadata, boolean isLifecycleEvent, NotificationOptions notificationOptions)
     {
+        long start = instrumentation != null ? System.nanoTime() : 0L;
         boolean async = notificationOptions != null;
 
         if (!isLifecycleEvent && webBeansContext.getWebBeansUtil().isContainerEventType(event))
@@ -650,30 +800,36 @@ public final class NotificationManager
             throw new IllegalArgumentException("Firing container events is forbidden");
         }
 
-        LinkedList<ObserverMethod<? super Object>> observerMethods = new LinkedList<>(resolveObservers(event, metadata, isLifecycleEvent));
-
-        // async doesn't apply to Extension lifecycle events
-        if (!isLifecycleEvent)
+        ObserverMethod<? super Object>[] observerMethods;
+        if (isLifecycleEvent)
         {
-            // filter for all async or all synchronous observermethods
-            // oldschool and not Streams, because of performance and avoiding tons of temporary objects
-            Iterator<ObserverMethod<? super Object>> observerMethodIterator = observerMethods.iterator();
-            while (observerMethodIterator.hasNext())
+            // async doesn't apply to Extension lifecycle events
+            Collection<ObserverMethod<? super Object>> lifecycleObservers = resolveObservers(event, metadata, true);
+            observerMethods = lifecycleObservers.toArray(new ObserverMethod[lifecycleObservers.size()]);
+
+            // new in CDI-2.0: sort observers
+            if (observerMethods.length > 1)
             {
-                if (async != observerMethodIterator.next().isAsync())
-                {
-                    observerMethodIterator.remove();
-                }
+                Arrays.sort(observerMethods, observerMethodComparator);
             }
         }
+        else
+        {
+            observerMethods = getDispatchTable(event, metadata).getObservers(async);
+        }
 
-        // new in CDI-2.0: sort observers
-        if (observerMethods.size() > 1)
+        if (observerMethods.length == 0)
         {
-            observerMethods.sort(observerMethodComparator);
+            if (instrumentation != null)
+            {
+                instrumentation.eventFired(metadata.getType(), 0, async, System.nanoTime() - start);
+            }
+            return async ? CompletableFuture.completedFuture((T) event) : null;
         }
 
-        List<CompletableFuture<Void>> completableFutures = async ? new ArrayList<>() : null;
+        // the EventContext is immutable, so all observers can share it
+        EventContextImpl<Object> eventContext = new EventContextImpl<>(event, metadata);
+        List<ObserverMethod<? super Object>> asyncObservers = async ? new ArrayList<>(observerMethods.length) : null;
 
         for (ObserverMethod<? super Object> observer : observerMethods)
         {
@@ -701,18 +857,24 @@ public final class NotificationManager
                     }
                     else
                     {
-                        invokeObserverMethod(event, metadata, observer);
+                        observer.notify(eventContext);
                     }                    
                 }
                 else
                 {
                     if (async)
                     {
-                        completableFutures.add(invokeObserverMethodAsync(event, metadata, observer, notificationOptions));
+                        asyncObservers.add(observer);
+                    }
+                    else if (isLifecycleEvent && webBeansContext.getStartupProfiler().isEnabled())
+                    {
+                        StartupProfiler.Measurement measurement = webBeansContext.getStartupProfiler().start();
+                        observer.notify(eventContext);
+                        webBeansContext.getStartupProfiler().recordExtensionObserver(observer, measurement);
                     }
                     else
                     {
-                        invokeObserverMethod(event, metadata, observer);
+                        observer.notify(eventContext);
                     }
                 }
             }
@@ -758,65 +920,119 @@ public final class NotificationManager
             }
         }
 
-        return async ? complete(completableFutures, (T) event) : null;
+        CompletionStage<T> result = async ? notifyAsync(eventContext, asyncObservers, notificationOptions, (T) event) : null;
+        if (instrumentation != null)
+        {
+            instrumentation.eventFired(metadata.getType(), observerMethods.length, async, System.nanoTime() - start);
+        }
+        return result;
     }
 
-    private <T> CompletableFuture<T> complete(List<CompletableFuture<Void>> completableFutures, T event)
+    /**
+     * Hands the observers over to the Executor in batches of {@link #asyncBatchSize},
+     * so the observers of one event share a task and its RequestScoped context.
+     */
+    private <T> CompletableFuture<T> notifyAsync(EventContextImpl<Object> eventContext,
+                                                 List<ObserverMethod<? super Object>> observerMethods,
+                                                 NotificationOptions notificationOptions, T event)
     {
-        if (completableFutures == null)
-        {
-            return null;
-        }
-        if (completableFutures.isEmpty())
+        int size = observerMethods.size();
+        if (size == 0)
         {
             return CompletableFuture.completedFuture(event);
         }
-        CDICompletionFuture<T> future = new CDICompletionFuture<>(event, completableFutures.size());
-        completableFutures.forEach(f -> f.handle((t, e) ->
-        {
-            future.addResult(e);
-            return null;
-        }));
-        return future;
-    }
 
-    private CompletableFuture invokeObserverMethodAsync(Object event,
-                                           EventMetadataImpl metadata,
-                                           ObserverMethod<? super Object> observer,
-                                           NotificationOptions notificationOptions)
-    {
-        CompletableFuture<?> future = new CompletableFuture<>();
-        CompletableFuture.runAsync(() -> {
+        Executor executor = notificationOptions.getExecutor() == null ?
+                defaultNotificationOptions.getExecutor() : notificationOptions.getExecutor();
+        CDICompletionFuture<T> future = new CDICompletionFuture<>(event, size);
+        for (int start = 0; start < size; start += asyncBatchSize)
+        {
+            List<ObserverMethod<? super Object>> batch = observerMethods.subList(start, Math.min(size, start + asyncBatchSize));
             try
             {
-                runAsync(event, metadata, observer);
-                future.complete(null);
+                executor.execute(() -> runAsync(eventContext, batch, future));
             }
-            catch (WebBeansException wbe)
+            catch (RejectedExecutionException ree)
             {
-                future.completeExceptionally(wbe.getCause());
+                for (int i = 0; i < batch.size(); i++)
+                {
+                    future.addResult(ree);
+                }
             }
-        }, notificationOptions.getExecutor() == null ? defaultNotificationOptions.getExecutor() : notificationOptions.getExecutor());
+        }
         return future;
     }
 
-    private void runAsync(Object event, EventMetadataImpl metadata, ObserverMethod<? super Object> observer)
+    private void runAsync(EventContextImpl<Object> eventContext, List<ObserverMethod<? super Object>> observerMethods,
+                          CDICompletionFuture<?> future)
     {
-        //X TODO set up threads, requestcontext etc
-        webBeansContext.getContextsService().startContext(RequestScoped.class, null);
+        ContextsService contextsService = webBeansContext.getContextsService();
+
+        // an Executor running the task in the firing thread must not end the request of that thread
+        Context requestContext = contextsService.getCurrentContext(RequestScoped.class, false);
+        boolean startRequest = requestContext == null || !requestContext.isActive();
+        if (startRequest)
+        {
+            contextsService.startContext(RequestScoped.class, null);
+        }
         try
         {
-            invokeObserverMethod(event, metadata, observer);
+            for (ObserverMethod<? super Object> observer : observerMethods)
+            {
+                Throwable failure = null;
+                try
+                {
+                    observer.notify(eventContext);
+                }
+                catch (WebBeansException wbe)
+                {
+                    failure = wbe.getCause() != null ? wbe.getCause() : wbe;
+                }
+                catch (Throwable t)
+                {
+                    // even an Error must complete the CompletionStage
+                    failure = t;
+                }
+                future.addResult(failure);
+            }
         }
         finally
         {
-            webBeansContext.getContextsService().endContext(RequestScoped.class, null);
+            if (startRequest)
+            {
+                contextsService.endContext(RequestScoped.class, null);
+            }
         }
     }
 
-    private <T> void invokeObserverMethod(T event, EventMetadataImpl metadata, ObserverMethod<?> observer)
+    /**
+     * @return the observers of the given non-lifecycle event, cached once the deployment finished
+     */
+    private ObserverDispatchTable getDispatchTable(Object event, EventMetadataImpl metadata)
     {
-        observer.notify(new EventContextImpl(event, metadata));
+        Class<?> eventClass = event.getClass();
+        int version = observersVersion.get();
+        if (!dispatchTablesEnabled)
+        {
+            return new ObserverDispatchTable(eventClass, version, resolveObservers(event, metadata, false), observerMethodComparator);
+        }
+
+        // metadata instances which get fired repeatedly, e.g. by an Event, remember their table
+        ObserverDispatchTable table = metadata.getDispatchTable();
+        if (table != null && table.isValidFor(eventClass, version))
+        {
+            return table;
+        }
+
+        ObserverDispatchTable.Key key = new ObserverDispatchTable.Key(metadata.validatedType(), eventClass, metadata.getQualifiers());
+        table = dispatchTables.get(key);
+        if (table == null || !table.isValidFor(eventClass, version))
+        {
+            table = new ObserverDispatchTable(eventClass, version, resolveObservers(event, metadata, false), observerMethodComparator);
+            dispatchTables.put(key, table);
+        }
+        metadata.setDispatchTable(table);
+        return table;
     }
 
     /**
@@ -912,48 +1128,4 @@ public final class NotificationManager
             return this;
         }
     }
-
-    private static final class CloseableExecutor implements Executor, Closeable
-    {
-        private final Collection<Runnable> tracker = new CopyOnWriteArrayList<>();
-        private volatile boolean reject;
-
-        @Override
-        public void close() throws IOException
-        {
-            reject = true;
-            tracker.forEach(r -> {
-                try
-                {
-                    r.run();
-                }
-                catch (RuntimeException re)
-                {
-                    WebBeansLoggerFacade.getLogger(NotificationManager.class).warning(re.getMessage());
-                }
-            });
-        }
-
-        @Override
-        public void execute(Runnable command)
-        {
-            if (reject)
-            {
-                throw new RejectedExecutionException("CDI executor is shutdown");
-            }
-
-            tracker.add(command);
-            ForkJoinPool.commonPool().execute(() ->
-            {
-                try
-                {
-                    command.run();
-                }
-                finally
-                {
-                    tracker.remove(command);
-                }
-            });
-        }
-    }
 }
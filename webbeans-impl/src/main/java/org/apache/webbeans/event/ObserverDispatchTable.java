@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.event;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+import javax.enterprise.inject.spi.ObserverMethod;
+
+/**
+ * The resolved observer methods for one event type and set of qualifiers,
+ * split into synchronous and asynchronous observers and already sorted by priority.
+ *
+ * Instances are immutable and get shared between all threads firing such an event.
+ */
+final class ObserverDispatchTable
+{
+    private static final ObserverMethod<? super Object>[] NO_OBSERVERS = new ObserverMethod[0];
+
+    private final Class<?> eventClass;
+    private final int observersVersion;
+    private final ObserverMethod<? super Object>[] syncObservers;
+    private final ObserverMethod<? super Object>[] asyncObservers;
+
+    ObserverDispatchTable(Class<?> eventClass, int observersVersion,
+                          Collection<ObserverMethod<? super Object>> observerMethods,
+                          Comparator<? super ObserverMethod<? super Object>> priorityComparator)
+    {
+        this.eventClass = eventClass;
+        this.observersVersion = observersVersion;
+
+        List<ObserverMethod<? super Object>> sync = new ArrayList<>(observerMethods.size());
+        List<ObserverMethod<? super Object>> async = new ArrayList<>(0);
+        for (ObserverMethod<? super Object> observerMethod : observerMethods)
+        {
+            if (observerMethod.isAsync())
+            {
+                async.add(observerMethod);
+            }
+            else
+            {
+                sync.add(observerMethod);
+            }
+        }
+        syncObservers = toSortedArray(sync, priorityComparator);
+        asyncObservers = toSortedArray(async, priorityComparator);
+    }
+
+    /**
+     * @return whether this table got resolved for the given event class and the current set of observer methods
+     */
+    boolean isValidFor(Class<?> firedEventClass, int currentObserversVersion)
+    {
+        return eventClass == firedEventClass && observersVersion == currentObserversVersion;
+    }
+
+    /**
+     * @return the observers sorted by priority, must not be modified
+     */
+    ObserverMethod<? super Object>[] getObservers(boolean async)
+    {
+        return async ? asyncObservers : syncObservers;
+    }
+
+    private static ObserverMethod<? super Object>[] toSortedArray(List<ObserverMethod<? super Object>> observerMethods,
+                                                                  Comparator<? super ObserverMethod<? super Object>> comparator)
+    {
+        if (observerMethods.isEmpty())
+        {
+            return NO_OBSERVERS;
+        }
+        ObserverMethod<? super Object>[] sorted = observerMethods.toArray(new ObserverMethod[observerMethods.size()]);
+        if (sorted.length > 1)
+        {
+            // stable sort, same as List.sort
+            Arrays.sort(sorted, comparator);
+        }
+        return sorted;
+    }
+
+    /**
+     * Key of a dispatch table, equal events get resolved to the same observer methods.
+     */
+    static final class Key
+    {
+        private final Type eventType;
+        private final Class<?> eventClass;
+        private final Set<Annotation> qualifiers;
+        private final int hashCode;
+
+        Key(Type eventType, Class<?> eventClass, Set<Annotation> qualifiers)
+        {
+            this.eventType = eventType;
+            this.eventClass = eventClass;
+            this.qualifiers = qualifiers;
+            hashCode = 31 * (31 * eventType.hashCode() + eventClass.hashCode()) + qualifiers.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o)
+            {
+                return true;
+            }
+            if (!(o instanceof Key))
+            {
+                return false;
+            }
+            Key other = (Key) o;
+            return hashCode == other.hashCode
+                    && eventClass == other.eventClass
+                    && eventType.equals(other.eventType)
+                    && qualifiers.equals(other.qualifiers);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hashCode;
+        }
+    }
+}
@@ -19,6 +19,9 @@
 package org.apache.webbeans.event;
 
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
@@ -35,7 +38,6 @@ import javax.annotation.Priority;
 import javax.enterprise.context.ContextNotActiveException;
 import javax.enterprise.context.Dependent;
 import javax.enterprise.context.spi.Context;
-import javax.enterprise.context.spi.CreationalContext;
 import javax.enterprise.event.Observes;
 import javax.enterprise.event.ObservesAsync;
 import javax.enterprise.event.Reception;
@@ -50,10 +52,15 @@ import javax.enterprise.inject.spi.ObserverMethod;
 import javax.enterprise.inject.spi.WithAnnotations;
 
 import org.apache.webbeans.component.AbstractOwbBean;
+import org.apache.webbeans.component.EnterpriseBeanMarker;
+import org.apache.webbeans.component.JmsBeanMarker;
+import org.apache.webbeans.component.OwbBean;
 import org.apache.webbeans.component.WebBeansType;
 import org.apache.webbeans.config.OWBLogConst;
 import org.apache.webbeans.config.WebBeansContext;
 import org.apache.webbeans.container.BeanManagerImpl;
+import org.apache.webbeans.container.InjectionResolver;
+import org.apache.webbeans.container.SerializableBean;
 import org.apache.webbeans.context.creational.CreationalContextImpl;
 import org.apache.webbeans.exception.WebBeansConfigurationException;
 import org.apache.webbeans.exception.WebBeansException;
@@ -88,6 +95,8 @@ public class ObserverMethodImpl<T> implements OwbObserverMethod<T>
     /**Logger instance*/
     private static final Logger logger = WebBeansLoggerFacade.getLogger(ObserverMethodImpl.class);
 
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(void.class, Object.class, Object[].class);
+
     /**Observer owner bean that defines observer method*/
     private final AbstractOwbBean<?> ownerBean;
 
@@ -118,16 +127,20 @@ public class ObserverMethodImpl<T> implements OwbObserverMethod<T>
 
     private boolean isAsync;
     
-    private static class ObserverParams
-    {
-        private Bean<Object> bean;
-        
-        private Object instance;
-        
-        private CreationalContext<Object> creational;
-        
-        private boolean isBean;
-    }
+    /**
+     * the additional parameters of the observer method, without the event parameter
+     */
+    private final ObserverParameter[] parameters;
+
+    /**
+     * the position of the event parameter
+     */
+    private final int eventPosition;
+
+    /**
+     * the observer method as {@code (Object instance, Object[] args)void}, bound on first use
+     */
+    private volatile MethodHandle invoker;
 
     /**
      * used if the qualifiers and event type are already known, e.g. from the XML.
@@ -190,13 +203,18 @@ public class ObserverMethodImpl<T> implements OwbObserverMethod<T>
         }
 
         injectionPoints = new LinkedHashSet<>();
+        List<ObserverParameter> observerParameters = new ArrayList<>();
         for (AnnotatedParameter<?> parameter: annotatedObserverMethod.getParameters())
         {
             if (!parameter.isAnnotationPresent(observerAnnotation))
             {
-                injectionPoints.add(getWebBeansContext().getInjectionPointFactory().buildInjectionPoint(ownerBean, parameter, fireEvent));
+                InjectionPoint injectionPoint = getWebBeansContext().getInjectionPointFactory().buildInjectionPoint(ownerBean, parameter, fireEvent);
+                injectionPoints.add(injectionPoint);
+                observerParameters.add(new ObserverParameter(injectionPoint));
             }
         }
+        parameters = observerParameters.toArray(new ObserverParameter[observerParameters.size()]);
+        eventPosition = annotatedObservesParameter.getPosition();
 
         checkObserverCondition(annotatedObservesParameter);
     }
@@ -263,41 +281,16 @@ public class ObserverMethodImpl<T> implements OwbObserverMethod<T>
             return;
         }
 
-        Object object = null;
-        
-        List<ObserverParams> methodArgsMap = getMethodArguments(event, metadata);
-        
         BeanManagerImpl manager = ownerBean.getWebBeansContext().getBeanManagerImpl();
-        CreationalContextImpl<Object> creationalContext = manager.createCreationalContext(component);
-        if (metadata != null)
-        {
-            creationalContext.putInjectionPoint(metadata.getInjectionPoint());
-            creationalContext.putEventMetadata(metadata);
-        }
-        
-        ObserverParams[] obargs = null;
+        Object object = null;
+        CreationalContextImpl<Object> creationalContext = null;
+        Object[] args = null;
+        CreationalContextImpl<Object>[] parameterContexts = null;
+        Bean<Object>[] dependentBeans = null;
         try
         {
-            obargs = new ObserverParams[methodArgsMap.size()];
-            obargs = methodArgsMap.toArray(obargs);
-            Object[] args = new Object[obargs.length];
-            int i = 0;
-            for(ObserverParams param : obargs)
-            {
-                args[i++] = param.instance;
-            }
-
             //Static or not
-            if (Modifier.isStatic(view.getModifiers()))
-            {
-                if (!view.isAccessible())
-                {
-                    view.setAccessible(true);
-                }
-                //Invoke Method
-                view.invoke(null, args);
-            }
-            else
+            if (!Modifier.isStatic(view.getModifiers()))
             {
                 Context context;
                 try
@@ -314,7 +307,6 @@ public class ObserverMethodImpl<T> implements OwbObserverMethod<T>
                     logger.log(Level.INFO, OWBLogConst.INFO_0010, ownerBean);
                     return;
                 }
-                
 
                 // on Reception.IF_EXISTS: ignore this bean if a the contextual instance doesn't already exist
                 object = context.get(component);
@@ -326,6 +318,7 @@ public class ObserverMethodImpl<T> implements OwbObserverMethod<T>
 
                 if (object == null)
                 {
+                    creationalContext = createCreationalContext(manager, component, metadata);
                     object = context.get(component, creationalContext);
                 }
 
@@ -342,29 +335,77 @@ public class ObserverMethodImpl<T> implements OwbObserverMethod<T>
                     }
 
                     object = manager.getReference(component, t, creationalContext);
+                }
+
+                if (object == null)
+                {
+                    return;
+                }
 
+                if (Modifier.isPrivate(view.getModifiers()))
+                {
+                    // since private methods cannot be intercepted, we have to unwrap anny possible proxy
+                    if (object instanceof OwbNormalScopeProxy)
+                    {
+                        object = getWebBeansContext().getInterceptorDecoratorProxyFactory().unwrapInstance(object);
+                    }
                 }
+            }
 
-                if (object != null)
+            args = new Object[parameters.length + 1];
+            args[eventPosition] = event;
+            for (int i = 0; i < parameters.length; i++)
+            {
+                ObserverParameter parameter = parameters[i];
+                ResolvedParameter resolved = parameter.resolve(manager);
+                int position = i < eventPosition ? i : i + 1;
+                if (resolved.normalScoped)
                 {
-                    if (!view.isAccessible())
+                    Object proxy = resolved.proxy;
+                    if (proxy == null)
                     {
-                        ownerBean.getWebBeansContext().getSecurityService().doPrivilegedSetAccessible(view, true);
+                        proxy = manager.getReference(resolved.bean, null, manager.createCreationalContext(resolved.bean));
+                        resolved.proxy = proxy;
                     }
+                    args[position] = proxy;
+                    continue;
+                }
 
-                    if (Modifier.isPrivate(view.getModifiers()))
+                CreationalContextImpl<Object> parameterContext = manager.createCreationalContext(resolved.bean);
+                if (metadata != null)
+                {
+                    parameterContext.putInjectionPoint(metadata.getInjectionPoint());
+                }
+                parameterContext.putInjectionPoint(parameter.injectionPoint);
+                parameterContext.putEventMetadata(metadata);
+                try
+                {
+                    args[position] = manager.getReference(resolved.bean, null, parameterContext);
+                }
+                finally
+                {
+                    parameterContext.removeEventMetadata();
+                    parameterContext.removeInjectionPoint();
+                    if (metadata != null)
                     {
-                        // since private methods cannot be intercepted, we have to unwrap anny possible proxy
-                        if (object instanceof OwbNormalScopeProxy)
-                        {
-                            object = getWebBeansContext().getInterceptorDecoratorProxyFactory().unwrapInstance(object);
-                        }
+                        parameterContext.removeInjectionPoint();
                     }
+                }
 
-                    //Invoke Method
-                    invoke(object, args);
+                if (resolved.dependent)
+                {
+                    if (parameterContexts == null)
+                    {
+                        parameterContexts = new CreationalContextImpl[parameters.length];
+                        dependentBeans = new Bean[parameters.length];
+                    }
+                    parameterContexts[i] = parameterContext;
+                    dependentBeans[i] = resolved.bean;
                 }
-            }                        
+            }
+
+            //Invoke Method
+            invoke(object, args);
         }
         catch (InvocationTargetException ite)
         {
@@ -376,22 +417,27 @@ public class ObserverMethodImpl<T> implements OwbObserverMethod<T>
         }
         finally
         {
-            creationalContext.removeEventMetadata();
-            creationalContext.removeInjectionPoint();
+            if (creationalContext != null)
+            {
+                creationalContext.removeEventMetadata();
+                creationalContext.removeInjectionPoint();
+            }
+
             //Destory bean instance
             if (component.getScope().equals(Dependent.class) && object != null)
             {
                 component.destroy(object, creationalContext);
             }
-            
+
             //Destroy observer method dependent instances
-            if(methodArgsMap != null)
+            if (parameterContexts != null)
             {
-                for(ObserverParams param : obargs)
+                for (int i = 0; i < parameterContexts.length; i++)
                 {
-                    if(param.isBean && param.bean.getScope().equals(Dependent.class))
+                    int position = i < eventPosition ? i : i + 1;
+                    if (parameterContexts[i] != null && args[position] != null)
                     {
-                        param.bean.destroy(param.instance, param.creational);
+                        dependentBeans[i].destroy(args[position], parameterContexts[i]);
                     }
                 }
             }
@@ -399,64 +445,71 @@ public class ObserverMethodImpl<T> implements OwbObserverMethod<T>
 
     }
 
+    private CreationalContextImpl<Object> createCreationalContext(BeanManagerImpl manager, AbstractOwbBean<Object> component, EventMetadata metadata)
+    {
+        CreationalContextImpl<Object> creationalContext = manager.createCreationalContext(component);
+        if (metadata != null)
+        {
+            creationalContext.putInjectionPoint(metadata.getInjectionPoint());
+            creationalContext.putEventMetadata(metadata);
+        }
+        return creationalContext;
+    }
+
     protected void invoke(Object object, Object[] args) throws IllegalAccessException, InvocationTargetException
     {
-        view.invoke(object, args);
+        try
+        {
+            getInvoker().invokeExact(object, args);
+        }
+        catch (Throwable t)
+        {
+            // same as Method#invoke
+            throw new InvocationTargetException(t);
+        }
     }
 
     /**
-     * Gets observer method parameters.
-     * @param event event payload
-     * @return observer method parameters
+     * Binds the observer method and resolves the Beans of the additional parameters,
+     * so the first notification does not have to do it.
+     * Gets called once the deployment got validated.
      */
-    protected List<ObserverParams> getMethodArguments(Object event, EventMetadata metadata)
+    public void prepareNotification()
     {
-        List<ObserverParams> list = new ArrayList<>();
-        if (annotatedObservesParameter.getPosition() == 0)
+        getInvoker();
+
+        BeanManagerImpl manager = getWebBeansContext().getBeanManagerImpl();
+        for (ObserverParameter parameter : parameters)
         {
-            ObserverParams param = new ObserverParams();
-            param.instance = event;
-            list.add(param);
+            parameter.resolve(manager);
         }
-        WebBeansContext webBeansContext = ownerBean.getWebBeansContext();
-        BeanManagerImpl manager = webBeansContext.getBeanManagerImpl();
+    }
 
-        for (InjectionPoint injectionPoint: injectionPoints)
+    private MethodHandle getInvoker()
+    {
+        MethodHandle handle = invoker;
+        if (handle == null)
         {
-            Bean<Object> injectedBean = (Bean<Object>)manager.getInjectionResolver().getInjectionPointBean(injectionPoint);
-            
-            CreationalContextImpl<Object> creational = manager.createCreationalContext(injectedBean);
-            creational.putInjectionPoint(metadata.getInjectionPoint());
-            creational.putInjectionPoint(injectionPoint);
-            creational.putEventMetadata(metadata);
-            Object instance;
+            if (!view.isAccessible())
+            {
+                getWebBeansContext().getSecurityService().doPrivilegedSetAccessible(view, true);
+            }
             try
             {
-                instance = manager.getReference(injectedBean, null, creational);
+                handle = MethodHandles.lookup().unreflect(view);
             }
-            finally
+            catch (IllegalAccessException e)
             {
-                creational.removeEventMetadata();
-                creational.removeInjectionPoint();
-                creational.removeInjectionPoint();
+                throw new WebBeansException(e);
             }
-                                
-            ObserverParams param = new ObserverParams();
-            param.isBean = true;
-            param.creational = creational;
-            param.instance = instance;
-            param.bean = injectedBean;
-            list.add(param);
-
-            if (list.size() == annotatedObservesParameter.getPosition())
+            if (Modifier.isStatic(view.getModifiers()))
             {
-                param = new ObserverParams();
-                param.instance = event;
-                list.add(param);                 
+                handle = MethodHandles.dropArguments(handle, 0, Object.class);
             }
+            handle = handle.asSpreader(Object[].class, view.getParameterTypes().length).asType(INVOKER_TYPE);
+            invoker = handle;
         }
-                
-        return list;
+        return handle;
     }
 
     /**
@@ -525,4 +578,55 @@ public class ObserverMethodImpl<T> implements OwbObserverMethod<T>
     {
         annotatedObserverMethod = m;
     }
+
+    /**
+     * An additional parameter of the observer method, the Bean gets resolved once.
+     */
+    private static final class ObserverParameter
+    {
+        private final InjectionPoint injectionPoint;
+        private volatile ResolvedParameter resolved;
+
+        private ObserverParameter(InjectionPoint injectionPoint)
+        {
+            this.injectionPoint = injectionPoint;
+        }
+
+        private ResolvedParameter resolve(BeanManagerImpl manager)
+        {
+            ResolvedParameter resolvedParameter = resolved;
+            if (resolvedParameter == null)
+            {
+                InjectionResolver injectionResolver = manager.getInjectionResolver();
+                resolvedParameter = new ResolvedParameter(manager, injectionResolver.getInjectionPointBean(injectionPoint));
+                if (!injectionResolver.isStartup())
+                {
+                    // Beans still might get added during the bean discovery
+                    resolved = resolvedParameter;
+                }
+            }
+            return resolvedParameter;
+        }
+    }
+
+    private static final class ResolvedParameter
+    {
+        private final Bean<Object> bean;
+        private final boolean dependent;
+
+        /**
+         * whether the client proxy can be kept, only for our own normal scoped Beans
+         */
+        private final boolean normalScoped;
+
+        private volatile Object proxy;
+
+        private ResolvedParameter(BeanManagerImpl manager, Bean<?> bean)
+        {
+            this.bean = (Bean<Object>) bean;
+            dependent = Dependent.class.equals(bean.getScope());
+            normalScoped = bean instanceof OwbBean && !(bean instanceof EnterpriseBeanMarker) && !(bean instanceof JmsBeanMarker)
+                    && !(bean instanceof SerializableBean) && manager.isNormalScope(bean.getScope());
+        }
+    }
 }
@@ -0,0 +1,261 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.event;
+
+import java.lang.annotation.Annotation;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.enterprise.inject.spi.ObserverMethod;
+
+import org.apache.webbeans.corespi.scanner.xbean.OwbAnnotationFinder;
+import org.apache.webbeans.util.ClassUtil;
+import org.apache.xbean.finder.AnnotationFinder;
+
+/**
+ * The types the {@code @WithAnnotations} observers of {@code ProcessAnnotatedType} are interested in,
+ * looked up in the annotation index the scanner built while reading the bean archives.
+ *
+ * The classes declaring one of the requested annotations get collected once per observer method.
+ * The index can only tell for classes which got read by the scanner, together with all their superclasses.
+ * The AnnotatedType of a class also contains the members of its superclasses but only the
+ * {@code @Inherited} annotations, so if a superclass declares one of the requested annotations
+ * the AnnotatedType itself has to be inspected.
+ * The classes of archives the {@link org.apache.webbeans.corespi.se.IndexedScannerService} took from
+ * their build time index are not read either, the AnnotatedType is inspected for them too.
+ */
+final class WithAnnotationsIndex
+{
+    private final OwbAnnotationFinder finder;
+    private final int observersVersion;
+
+    /**
+     * whether there is an observer method without {@code @WithAnnotations} which gets every type.
+     */
+    private final boolean unconditionalObservers;
+
+    /**
+     * the names of the classes declaring one of the requested annotations per observer method.
+     */
+    private final Map<ObserverMethod<?>, Set<String>> declaringClasses = new HashMap<>();
+
+    WithAnnotationsIndex(OwbAnnotationFinder finder, Collection<ObserverMethod<?>> processAnnotatedTypeObservers, int observersVersion)
+    {
+        this.finder = finder;
+        this.observersVersion = observersVersion;
+
+        boolean unconditional = false;
+        Map<String, Class<?>> annotationTypes = null;
+        for (ObserverMethod<?> observerMethod : processAnnotatedTypeObservers)
+        {
+            Class<? extends Annotation>[] withAnnotations = getWithAnnotations(observerMethod);
+            if (withAnnotations == null)
+            {
+                unconditional = true;
+                continue;
+            }
+
+            if (annotationTypes == null)
+            {
+                annotationTypes = loadAnnotationTypes();
+            }
+            declaringClasses.put(observerMethod, findDeclaringClasses(annotationTypes, withAnnotations));
+        }
+        unconditionalObservers = unconditional;
+    }
+
+    /**
+     * @return the annotations of a {@code @WithAnnotations} observer method, {@code null} if there are none
+     */
+    static Class<? extends Annotation>[] getWithAnnotations(ObserverMethod<?> observerMethod)
+    {
+        if (observerMethod instanceof ContainerEventObserverMethodImpl)
+        {
+            Class<? extends Annotation>[] withAnnotations = ((ContainerEventObserverMethodImpl<?>) observerMethod).getWithAnnotations();
+            if (withAnnotations != null && withAnnotations.length > 0)
+            {
+                return withAnnotations;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return whether the annotation or one of its meta-annotations is one of the requested annotations
+     */
+    static boolean matches(Class<? extends Annotation> annotationType, Class<? extends Annotation>[] withAnnotations)
+    {
+        for (Class<? extends Annotation> withAnnotation : withAnnotations)
+        {
+            if (withAnnotation.isAssignableFrom(annotationType))
+            {
+                return true;
+            }
+
+            for (Annotation meta : annotationType.getAnnotations())
+            {
+                if (withAnnotation.isAssignableFrom(meta.annotationType()))
+                {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    OwbAnnotationFinder getFinder()
+    {
+        return finder;
+    }
+
+    /**
+     * @return whether this index got built for the current set of observer methods
+     */
+    boolean isValidFor(int currentObserversVersion)
+    {
+        return observersVersion == currentObserversVersion;
+    }
+
+    /**
+     * @return {@code false} if none of the observer methods is interested in the given class,
+     *         {@code true} if one of them is or if the index can't tell
+     */
+    boolean isObserved(Class<?> type)
+    {
+        if (unconditionalObservers)
+        {
+            return true;
+        }
+
+        for (ObserverMethod<?> observerMethod : declaringClasses.keySet())
+        {
+            Boolean observed = isObserved(observerMethod, type);
+            if (observed == null || observed)
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return whether the {@code @WithAnnotations} observer method is interested in the given class,
+     *         {@code null} if the index can't tell
+     */
+    Boolean isObserved(ObserverMethod<?> observerMethod, Class<?> type)
+    {
+        Set<String> classNames = declaringClasses.get(observerMethod);
+        if (classNames == null || finder.getClassInfo(type.getName()) == null)
+        {
+            return null;
+        }
+
+        for (Class<?> superClass = type.getSuperclass(); superClass != null && superClass != Object.class; superClass = superClass.getSuperclass())
+        {
+            if (classNames.contains(superClass.getName()) || finder.getClassInfo(superClass.getName()) == null)
+            {
+                return null;
+            }
+        }
+
+        return classNames.contains(type.getName());
+    }
+
+    private Set<String> findDeclaringClasses(Map<String, Class<?>> annotationTypes, Class<? extends Annotation>[] withAnnotations)
+    {
+        Set<String> classNames = new HashSet<>();
+        for (Map.Entry<String, List<AnnotationFinder.Info>> annotated : finder.getAnnotatedInfos().entrySet())
+        {
+            Class<?> annotationType = annotationTypes.get(annotated.getKey());
+            if (annotationType == null || !matches((Class<? extends Annotation>) annotationType, withAnnotations))
+            {
+                continue;
+            }
+
+            for (AnnotationFinder.Info info : annotated.getValue())
+            {
+                String className = getDeclaringClassName(info);
+                if (className != null)
+                {
+                    classNames.add(className);
+                }
+            }
+        }
+        return classNames;
+    }
+
+    /**
+     * Only annotations with runtime retention are visible in the AnnotatedType.
+     */
+    private Map<String, Class<?>> loadAnnotationTypes()
+    {
+        Map<String, Class<?>> annotationTypes = new HashMap<>();
+        for (String annotationName : finder.getAnnotatedInfos().keySet())
+        {
+            Class<?> annotationType;
+            try
+            {
+                annotationType = ClassUtil.getClassFromName(annotationName);
+            }
+            catch (LinkageError e)
+            {
+                annotationType = null;
+            }
+
+            if (annotationType != null && annotationType.isAnnotation())
+            {
+                Retention retention = annotationType.getAnnotation(Retention.class);
+                if (retention != null && retention.value() == RetentionPolicy.RUNTIME)
+                {
+                    annotationTypes.put(annotationName, annotationType);
+                }
+            }
+        }
+        return annotationTypes;
+    }
+
+    private static String getDeclaringClassName(AnnotationFinder.Info info)
+    {
+        if (info instanceof AnnotationFinder.ClassInfo)
+        {
+            return info.getName();
+        }
+        if (info instanceof AnnotationFinder.FieldInfo)
+        {
+            return ((AnnotationFinder.FieldInfo) info).getDeclaringClass().getName();
+        }
+        if (info instanceof AnnotationFinder.MethodInfo)
+        {
+            return ((AnnotationFinder.MethodInfo) info).getDeclaringClass().getName();
+        }
+        if (info instanceof AnnotationFinder.ParameterInfo)
+        {
+            return ((AnnotationFinder.ParameterInfo) info).getDeclaringMethod().getDeclaringClass().getName();
+        }
+
+        // package annotations
+        return null;
+    }
+}
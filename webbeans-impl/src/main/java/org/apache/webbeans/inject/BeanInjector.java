@@ -0,0 +1,563 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.inject;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.enterprise.event.Observes;
+import javax.enterprise.event.ObservesAsync;
+import javax.enterprise.inject.Disposes;
+import javax.enterprise.inject.Produces;
+import javax.enterprise.inject.spi.AnnotatedMethod;
+import javax.enterprise.inject.spi.AnnotatedParameter;
+import javax.enterprise.inject.spi.InjectionPoint;
+import javax.enterprise.inject.spi.Producer;
+
+import org.apache.webbeans.config.OWBLogConst;
+import org.apache.webbeans.config.WebBeansContext;
+import org.apache.webbeans.context.creational.CreationalContextImpl;
+import org.apache.webbeans.exception.WebBeansException;
+import org.apache.webbeans.logger.WebBeansLoggerFacade;
+import org.apache.webbeans.spi.ResourceInjectionService;
+import org.apache.webbeans.util.ExceptionUtil;
+
+/**
+ * Creates and injects the instances of a bean class.
+ *
+ * The injected fields, initializer methods and &#064;PostConstruct methods get collected once
+ * per bean and bound to MethodHandles. Creating an instance therefore neither walks the class hierarchy
+ * and the injection points again nor goes through {@link Field#set} and {@link Method#invoke}.
+ *
+ * The Beans of the injection points get resolved only once, see {@link ResolvedInjectionPoint},
+ * so injecting an instance only has to fetch the references.
+ *
+ * @see InjectableConstructor
+ */
+public final class BeanInjector<T>
+{
+    private static final MethodType FIELD_SETTER = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final MethodType METHOD_INVOKER = MethodType.methodType(Object.class, Object.class, Object[].class);
+    private static final MethodType CONSTRUCTOR_INVOKER = MethodType.methodType(Object.class, Object[].class);
+    private static final MethodType LIFECYCLE_INVOKER = MethodType.methodType(void.class, Object.class);
+
+    private static final ResolvedInjectionPoint[] NO_INJECTION_POINTS = new ResolvedInjectionPoint[0];
+
+    private final Producer<T> owner;
+    private final WebBeansContext webBeansContext;
+    private final ResourceInjectionService resourceInjectionService;
+
+    private volatile ConstructorInvoker constructorInvoker;
+
+    /**
+     * the injections for each class of the hierarchy, superclass first
+     */
+    private final Injection[][] levels;
+
+    /**
+     * the &#064;PostConstruct methods, superclass first
+     */
+    private final List<AnnotatedMethod<?>> postConstructMethods;
+    private volatile MethodHandle[] postConstructInvokers;
+
+    /**
+     * @param owner the InjectionTarget
+     * @param beanClass the class of the bean
+     * @param initializerMethods &#064;Inject methods without parameters, thus without injection points
+     * @param postConstructMethods the &#064;PostConstruct methods, superclass first, might be {@code null}
+     */
+    public BeanInjector(Producer<T> owner, WebBeansContext webBeansContext, Class<T> beanClass,
+                        Collection<Method> initializerMethods, List<AnnotatedMethod<?>> postConstructMethods)
+    {
+        this.owner = owner;
+        this.webBeansContext = webBeansContext;
+        resourceInjectionService = findResourceInjectionService(webBeansContext);
+
+        Map<Member, List<InjectionPoint>> injectionPointsByMember = new LinkedHashMap<>();
+        for (InjectionPoint injectionPoint : owner.getInjectionPoints())
+        {
+            injectionPointsByMember.computeIfAbsent(injectionPoint.getMember(), m -> new ArrayList<>()).add(injectionPoint);
+        }
+
+        List<Class<?>> hierarchy = new ArrayList<>();
+        for (Class<?> type = beanClass; type != null && type != Object.class; type = type.getSuperclass())
+        {
+            hierarchy.add(0, type);
+        }
+
+        levels = new Injection[hierarchy.size()][];
+        for (int i = 0; i < levels.length; i++)
+        {
+            levels[i] = createInjections(hierarchy.get(i), injectionPointsByMember, initializerMethods);
+        }
+
+        this.postConstructMethods = postConstructMethods;
+    }
+
+    /**
+     * Creates a new instance, the constructor parameters get resolved like in the {@link InjectableConstructor}.
+     * @param constructor the constructor of the bean
+     */
+    public T newInstance(Constructor<T> constructor, CreationalContextImpl<T> creationalContext)
+    {
+        ConstructorInvoker invoker = getConstructorInvoker(constructor);
+
+        Resolver<T> resolver = new Resolver<>(webBeansContext, creationalContext);
+        try
+        {
+            return (T) (Object) invoker.handle.invokeExact(resolver.resolve(invoker.injectionPoints));
+        }
+        catch (Throwable e)
+        {
+            throw new WebBeansException(e);
+        }
+        finally
+        {
+            resolver.release();
+        }
+    }
+
+    /**
+     * Resolves the Beans of all injection points upfront.
+     * @param constructor the constructor of the bean, {@code null} if instances do not get created by this injector
+     */
+    public void prepare(Constructor<T> constructor)
+    {
+        if (constructor != null)
+        {
+            for (ResolvedInjectionPoint injectionPoint : getConstructorInvoker(constructor).injectionPoints)
+            {
+                injectionPoint.resolve(webBeansContext);
+            }
+        }
+        for (Injection[] level : levels)
+        {
+            for (Injection injection : level)
+            {
+                injection.resolve(webBeansContext);
+            }
+        }
+    }
+
+    /**
+     * Injects the fields and initializer methods, superclass first.
+     * The Java EE resources of the instance get injected after each class of the hierarchy.
+     */
+    public void inject(T instance, CreationalContextImpl<T> creationalContext)
+    {
+        Resolver<T> resolver = null;
+        try
+        {
+            for (Injection[] level : levels)
+            {
+                if (level.length > 0 && resolver == null)
+                {
+                    resolver = new Resolver<>(webBeansContext, creationalContext);
+                }
+                for (Injection injection : level)
+                {
+                    injection.inject(instance, resolver);
+                }
+                injectResources(instance);
+            }
+        }
+        finally
+        {
+            if (resolver != null)
+            {
+                resolver.release();
+            }
+        }
+    }
+
+    /**
+     * Invokes the &#064;PostConstruct methods without any interceptor.
+     */
+    public void postConstruct(T instance)
+    {
+        if (postConstructMethods == null)
+        {
+            return;
+        }
+
+        MethodHandle[] invokers = postConstructInvokers;
+        if (invokers == null)
+        {
+            invokers = new MethodHandle[postConstructMethods.size()];
+            for (int i = 0; i < invokers.length; i++)
+            {
+                invokers[i] = unreflect(postConstructMethods.get(i).getJavaMember()).asType(LIFECYCLE_INVOKER);
+            }
+            postConstructInvokers = invokers;
+        }
+
+        for (MethodHandle invoker : invokers)
+        {
+            try
+            {
+                invoker.invokeExact((Object) instance);
+            }
+            catch (Throwable e)
+            {
+                throw ExceptionUtil.throwAsRuntimeException(e);
+            }
+        }
+    }
+
+    private ConstructorInvoker getConstructorInvoker(Constructor<T> constructor)
+    {
+        ConstructorInvoker invoker = constructorInvoker;
+        if (invoker == null || invoker.constructor != constructor)
+        {
+            // the constructor gets resolved lazily, an InjectionTarget might only get used to inject existing instances
+            List<InjectionPoint> injectionPoints = new ArrayList<>();
+            for (InjectionPoint injectionPoint : owner.getInjectionPoints())
+            {
+                if (injectionPoint.getMember().equals(constructor))
+                {
+                    injectionPoints.add(injectionPoint);
+                }
+            }
+            invoker = new ConstructorInvoker(constructor,
+                    asType(unreflectConstructor(constructor), CONSTRUCTOR_INVOKER, constructor.getParameterTypes().length),
+                    sortByPosition(injectionPoints));
+            constructorInvoker = invoker;
+        }
+        return invoker;
+    }
+
+    private Injection[] createInjections(Class<?> type, Map<Member, List<InjectionPoint>> injectionPointsByMember,
+                                         Collection<Method> initializerMethods)
+    {
+        List<Injection> injections = new ArrayList<>();
+
+        // fields first, then initializer methods with and without injection points
+        for (Map.Entry<Member, List<InjectionPoint>> entry : injectionPointsByMember.entrySet())
+        {
+            Member member = entry.getKey();
+            if (member.getDeclaringClass() == type && member instanceof Field)
+            {
+                Field field = (Field) member;
+                MethodHandle setter = unreflectSetter(field);
+                if (Modifier.isStatic(field.getModifiers()))
+                {
+                    setter = MethodHandles.dropArguments(setter, 0, Object.class);
+                }
+                injections.add(new Injection(setter.asType(FIELD_SETTER), new ResolvedInjectionPoint(entry.getValue().get(0)), null));
+            }
+        }
+        for (Map.Entry<Member, List<InjectionPoint>> entry : injectionPointsByMember.entrySet())
+        {
+            Member member = entry.getKey();
+            if (member.getDeclaringClass() == type && member instanceof Method && isInitializerMethod((Method) member))
+            {
+                injections.add(createMethodInjection((Method) member, sortByPosition(entry.getValue())));
+            }
+        }
+        for (Method initializerMethod : initializerMethods)
+        {
+            if (initializerMethod.getDeclaringClass() == type)
+            {
+                injections.add(createMethodInjection(initializerMethod, NO_INJECTION_POINTS));
+            }
+        }
+
+        return injections.toArray(new Injection[injections.size()]);
+    }
+
+    private Injection createMethodInjection(Method method, ResolvedInjectionPoint[] injectionPoints)
+    {
+        MethodHandle invoker = unreflect(method);
+        if (Modifier.isStatic(method.getModifiers()))
+        {
+            invoker = MethodHandles.dropArguments(invoker, 0, Object.class);
+        }
+        return new Injection(asType(invoker, METHOD_INVOKER, method.getParameterTypes().length), null, injectionPoints);
+    }
+
+    private void injectResources(T instance)
+    {
+        if (resourceInjectionService == null)
+        {
+            return;
+        }
+        try
+        {
+            resourceInjectionService.injectJavaEEResources(instance);
+        }
+        catch (Exception e)
+        {
+            throw new WebBeansException(MessageFormat.format(
+                WebBeansLoggerFacade.getTokenString(OWBLogConst.ERROR_0023), instance), e);
+        }
+    }
+
+    private static ResourceInjectionService findResourceInjectionService(WebBeansContext webBeansContext)
+    {
+        try
+        {
+            return webBeansContext.getService(ResourceInjectionService.class);
+        }
+        catch (Exception e)
+        {
+            // When running in tests
+            return null;
+        }
+    }
+
+    /**
+     * Methods with injection points which are no producer, disposer or observer methods.
+     */
+    private static boolean isInitializerMethod(Method method)
+    {
+        if (method.isAnnotationPresent(Produces.class))
+        {
+            return false;
+        }
+        for (Annotation[] annotations : method.getParameterAnnotations())
+        {
+            for (Annotation annotation : annotations)
+            {
+                Class<? extends Annotation> annotationType = annotation.annotationType();
+                if (annotationType.equals(Disposes.class) || annotationType.equals(Observes.class) || annotationType.equals(ObservesAsync.class))
+                {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static ResolvedInjectionPoint[] sortByPosition(List<InjectionPoint> injectionPoints)
+    {
+        if (injectionPoints == null || injectionPoints.isEmpty())
+        {
+            return NO_INJECTION_POINTS;
+        }
+        InjectionPoint[] sorted = injectionPoints.toArray(new InjectionPoint[injectionPoints.size()]);
+        Arrays.sort(sorted, Comparator.comparingInt(ip -> ((AnnotatedParameter<?>) ip.getAnnotated()).getPosition()));
+
+        ResolvedInjectionPoint[] resolved = new ResolvedInjectionPoint[sorted.length];
+        for (int i = 0; i < sorted.length; i++)
+        {
+            resolved[i] = new ResolvedInjectionPoint(sorted[i]);
+        }
+        return resolved;
+    }
+
+    private static MethodHandle asType(MethodHandle handle, MethodType type, int parameterCount)
+    {
+        return handle.asSpreader(Object[].class, parameterCount).asType(type);
+    }
+
+    private MethodHandle unreflectSetter(Field field)
+    {
+        makeAccessible(field);
+        try
+        {
+            return MethodHandles.lookup().unreflectSetter(field);
+        }
+        catch (IllegalAccessException e)
+        {
+            throw new WebBeansException(e);
+        }
+    }
+
+    private MethodHandle unreflect(Method method)
+    {
+        makeAccessible(method);
+        try
+        {
+            return MethodHandles.lookup().unreflect(method);
+        }
+        catch (IllegalAccessException e)
+        {
+            throw new WebBeansException(e);
+        }
+    }
+
+    private MethodHandle unreflectConstructor(Constructor<T> constructor)
+    {
+        makeAccessible(constructor);
+        try
+        {
+            return MethodHandles.lookup().unreflectConstructor(constructor);
+        }
+        catch (IllegalAccessException e)
+        {
+            throw new WebBeansException(e);
+        }
+    }
+
+    private void makeAccessible(AccessibleObject member)
+    {
+        if (!member.isAccessible())
+        {
+            webBeansContext.getSecurityService().doPrivilegedSetAccessible(member, true);
+        }
+    }
+
+    private static final class ConstructorInvoker
+    {
+        private final Constructor<?> constructor;
+        private final MethodHandle handle;
+        private final ResolvedInjectionPoint[] injectionPoints;
+
+        private ConstructorInvoker(Constructor<?> constructor, MethodHandle handle, ResolvedInjectionPoint[] injectionPoints)
+        {
+            this.constructor = constructor;
+            this.handle = handle;
+            this.injectionPoints = injectionPoints;
+        }
+    }
+
+    /**
+     * A field or an initializer method of the bean class.
+     */
+    private static final class Injection
+    {
+        private final MethodHandle handle;
+        private final ResolvedInjectionPoint fieldInjectionPoint;
+        private final ResolvedInjectionPoint[] parameterInjectionPoints;
+
+        private Injection(MethodHandle handle, ResolvedInjectionPoint fieldInjectionPoint, ResolvedInjectionPoint[] parameterInjectionPoints)
+        {
+            this.handle = handle;
+            this.fieldInjectionPoint = fieldInjectionPoint;
+            this.parameterInjectionPoints = parameterInjectionPoints;
+        }
+
+        private void resolve(WebBeansContext webBeansContext)
+        {
+            if (fieldInjectionPoint != null)
+            {
+                fieldInjectionPoint.resolve(webBeansContext);
+            }
+            else
+            {
+                for (ResolvedInjectionPoint injectionPoint : parameterInjectionPoints)
+                {
+                    injectionPoint.resolve(webBeansContext);
+                }
+            }
+        }
+
+        private void inject(Object instance, Resolver<?> resolver)
+        {
+            if (fieldInjectionPoint != null)
+            {
+                Object value = resolver.resolve(fieldInjectionPoint);
+                try
+                {
+                    handle.invokeExact(instance, value);
+                }
+                catch (ClassCastException e)
+                {
+                    // same as Field#set
+                    throw new IllegalArgumentException(e);
+                }
+                catch (Throwable e)
+                {
+                    throw new WebBeansException(e);
+                }
+            }
+            else
+            {
+                Object[] parameters = resolver.resolve(parameterInjectionPoints);
+                try
+                {
+                    Object ignored = (Object) handle.invokeExact(instance, parameters);
+                }
+                catch (Throwable e)
+                {
+                    throw new WebBeansException(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Fetches the injected references for one new instance.
+     */
+    private static final class Resolver<T>
+    {
+        private final WebBeansContext webBeansContext;
+        private final CreationalContextImpl<T> creationalContext;
+        private CreationalContextImpl<?> transientCreationalContext;
+
+        private Resolver(WebBeansContext webBeansContext, CreationalContextImpl<T> creationalContext)
+        {
+            this.webBeansContext = webBeansContext;
+            this.creationalContext = creationalContext;
+        }
+
+        private Object resolve(ResolvedInjectionPoint injectionPoint)
+        {
+            if (injectionPoint.isDelegate())
+            {
+                return creationalContext.getDelegate();
+            }
+
+            CreationalContextImpl<?> injectionPointContext = creationalContext;
+            if (injectionPoint.isTransientReference())
+            {
+                if (transientCreationalContext == null)
+                {
+                    transientCreationalContext = webBeansContext.getBeanManagerImpl().createCreationalContext(creationalContext.getContextual());
+                }
+                injectionPointContext = transientCreationalContext;
+            }
+            return injectionPoint.getReference(webBeansContext, injectionPointContext);
+        }
+
+        private Object[] resolve(ResolvedInjectionPoint[] injectionPoints)
+        {
+            Object[] values = new Object[injectionPoints.length];
+            for (int i = 0; i < values.length; i++)
+            {
+                values[i] = resolve(injectionPoints[i]);
+            }
+            return values;
+        }
+
+        private void release()
+        {
+            if (transientCreationalContext != null)
+            {
+                transientCreationalContext.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.inject;
+
+import java.io.Serializable;
+import java.lang.reflect.Type;
+
+import javax.enterprise.context.Dependent;
+import javax.enterprise.context.spi.CreationalContext;
+import javax.enterprise.inject.IllegalProductException;
+import javax.enterprise.inject.TransientReference;
+import javax.enterprise.inject.spi.Bean;
+import javax.enterprise.inject.spi.InjectionPoint;
+
+import org.apache.webbeans.component.AbstractProducerBean;
+import org.apache.webbeans.component.EnterpriseBeanMarker;
+import org.apache.webbeans.component.JmsBeanMarker;
+import org.apache.webbeans.component.OwbBean;
+import org.apache.webbeans.config.WebBeansContext;
+import org.apache.webbeans.container.BeanManagerImpl;
+import org.apache.webbeans.container.InjectionResolver;
+import org.apache.webbeans.container.SerializableBean;
+import org.apache.webbeans.context.creational.CreationalContextImpl;
+import org.apache.webbeans.util.ClassUtil;
+import org.apache.webbeans.util.WebBeansUtil;
+
+/**
+ * An InjectionPoint of a {@link BeanInjector} together with the Bean it resolves to.
+ *
+ * The Bean gets resolved once after the bean discovery is finished, usually while
+ * validating the deployment. Fetching the reference afterwards neither goes through the
+ * {@link InjectionResolver} nor checks the bean type again, and the proxy of a normal scoped
+ * Bean gets kept right here.
+ * Same semantics as {@link AbstractInjectable#inject(InjectionPoint)}.
+ */
+final class ResolvedInjectionPoint
+{
+    enum Kind
+    {
+        /**
+         * an OpenWebBeans Bean with a normal scope, the injected client proxy never changes
+         */
+        NORMAL_SCOPED,
+
+        /**
+         * an OpenWebBeans &#064;Dependent Bean which gets created directly in the DependentContext
+         */
+        DEPENDENT,
+
+        /**
+         * everything else, e.g. EJBs and custom Beans, goes through the BeanManager
+         */
+        OTHER
+    }
+
+    private final InjectionPoint injectionPoint;
+    private final boolean delegate;
+    private final boolean transientReference;
+
+    /**
+     * the primitive type of the injection point, {@code null} for reference types
+     */
+    private final Class<?> primitiveType;
+
+    private volatile Resolution resolution;
+
+    ResolvedInjectionPoint(InjectionPoint injectionPoint)
+    {
+        this.injectionPoint = injectionPoint;
+        delegate = injectionPoint.isDelegate();
+        transientReference = injectionPoint.getAnnotated().isAnnotationPresent(TransientReference.class);
+
+        Type type = injectionPoint.getType();
+        primitiveType = type instanceof Class && ((Class<?>) type).isPrimitive() ? (Class<?>) type : null;
+    }
+
+    boolean isDelegate()
+    {
+        return delegate;
+    }
+
+    boolean isTransientReference()
+    {
+        return transientReference;
+    }
+
+    /**
+     * Resolves the Bean if this did not happen yet.
+     */
+    void resolve(WebBeansContext webBeansContext)
+    {
+        if (!delegate)
+        {
+            getResolution(webBeansContext);
+        }
+    }
+
+    Object getReference(WebBeansContext webBeansContext, CreationalContextImpl<?> creationalContext)
+    {
+        BeanManagerImpl beanManager = webBeansContext.getBeanManagerImpl();
+        Resolution resolved = getResolution(webBeansContext);
+
+        Object reference;
+        switch (resolved.kind)
+        {
+            case NORMAL_SCOPED:
+                reference = resolved.proxy;
+                if (reference == null)
+                {
+                    reference = beanManager.getInjectableReference(injectionPoint, creationalContext);
+                    resolved.proxy = reference;
+                }
+                break;
+
+            case DEPENDENT:
+                creationalContext.putInjectionPoint(injectionPoint);
+                try
+                {
+                    reference = beanManager.getContext(Dependent.class).get(resolved.bean, (CreationalContext<Object>) creationalContext);
+                }
+                finally
+                {
+                    creationalContext.removeInjectionPoint();
+                }
+                break;
+
+            default:
+                reference = beanManager.getInjectableReference(injectionPoint, creationalContext);
+        }
+
+        if (reference == null)
+        {
+            if (resolved.normalScoped)
+            {
+                throw new IllegalStateException("InjectableReference is 'null' for " + injectionPoint.toString());
+            }
+            if (primitiveType != null)
+            {
+                reference = ClassUtil.getDefaultValue(primitiveType);
+            }
+        }
+
+        /*X TODO see spec issue CDI-140 */
+        else if (resolved.dependentProducer && creationalContext.getBean() != null
+                && beanManager.isPassivatingScope(creationalContext.getBean().getScope())
+                && !Serializable.class.isAssignableFrom(reference.getClass()))
+        {
+            throw new IllegalProductException("A producer method or field of scope @Dependent returns an unserializable object for injection " +
+                    "into an injection point "+ injectionPoint +" that requires a passivation capable dependency");
+        }
+
+        return reference;
+    }
+
+    private Resolution getResolution(WebBeansContext webBeansContext)
+    {
+        Resolution resolved = resolution;
+        if (resolved == null)
+        {
+            InjectionResolver injectionResolver = webBeansContext.getBeanManagerImpl().getInjectionResolver();
+            resolved = new Resolution(webBeansContext.getBeanManagerImpl(), injectionResolver.getInjectionPointBean(injectionPoint),
+                    injectionPoint.isTransient());
+            if (!injectionResolver.isStartup())
+            {
+                // Beans still might get added during the bean discovery
+                resolution = resolved;
+            }
+        }
+        return resolved;
+    }
+
+    private static final class Resolution
+    {
+        private final Bean<Object> bean;
+        private final Kind kind;
+        private final boolean normalScoped;
+        private final boolean dependentProducer;
+
+        /**
+         * the client proxy of a {@link Kind#NORMAL_SCOPED} Bean, fetched on first use
+         */
+        private volatile Object proxy;
+
+        private Resolution(BeanManagerImpl beanManager, Bean<?> bean, boolean transientField)
+        {
+            this.bean = (Bean<Object>) bean;
+            normalScoped = beanManager.isNormalScope(bean.getScope());
+
+            boolean plainOwbBean = bean instanceof OwbBean && !(bean instanceof EnterpriseBeanMarker) && !(bean instanceof JmsBeanMarker)
+                    && !(bean instanceof SerializableBean);
+            if (plainOwbBean && normalScoped)
+            {
+                kind = Kind.NORMAL_SCOPED;
+            }
+            else if (plainOwbBean && WebBeansUtil.isDependent(bean))
+            {
+                kind = Kind.DEPENDENT;
+            }
+            else
+            {
+                kind = Kind.OTHER;
+            }
+
+            dependentProducer = WebBeansUtil.isDependent(bean) && !transientField && bean instanceof AbstractProducerBean;
+        }
+    }
+}
@@ -44,6 +44,7 @@ import javax.inject.Named;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -154,7 +155,9 @@ public class InjectionPointFactory
             }
         }
 
-        InjectionPoint injectionPoint = new InjectionPointImpl(owner, Arrays.asList(qualifierAnnots), annotField);
+        // annotated fields of extensions might not be interned yet
+        Type type = webBeansContext.getTypeInterner().intern(annotField.getBaseType());
+        InjectionPoint injectionPoint = new InjectionPointImpl(owner, type, Arrays.asList(qualifierAnnots), annotField);
 
         if (fireEvent)
         {
@@ -177,7 +180,8 @@ public class InjectionPointFactory
         Asserts.assertNotNull(parameter, "annotatedParameter");
         Set<Annotation> anns = parameter.getAnnotations();
         Annotation[] qualifierAnnots = webBeansContext.getAnnotationManager().getQualifierAnnotations(anns.toArray(new Annotation[anns.size()]));
-        InjectionPointImpl injectionPoint = new InjectionPointImpl(owner, Arrays.asList(qualifierAnnots), parameter);
+        Type type = webBeansContext.getTypeInterner().intern(parameter.getBaseType());
+        InjectionPointImpl injectionPoint = new InjectionPointImpl(owner, type, Arrays.asList(qualifierAnnots), parameter);
         if (fireEvent)
         {
             GProcessInjectionPoint event = webBeansContext.getWebBeansUtil().fireProcessInjectionPointEvent(injectionPoint);
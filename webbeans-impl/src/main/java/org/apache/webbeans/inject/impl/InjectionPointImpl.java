@@ -75,14 +75,24 @@ public class InjectionPointImpl implements InjectionPoint, Serializable
 
     InjectionPointImpl(Bean<?> ownerBean, Collection<Annotation> qualifiers, AnnotatedField<?> annotatedField)
     {
-        this(ownerBean, annotatedField.getBaseType(), qualifiers, annotatedField,
+        this(ownerBean, annotatedField.getBaseType(), qualifiers, annotatedField);
+    }
+
+    InjectionPointImpl(Bean<?> ownerBean, Type type, Collection<Annotation> qualifiers, AnnotatedField<?> annotatedField)
+    {
+        this(ownerBean, type, qualifiers, annotatedField,
                 annotatedField.getJavaMember(), annotatedField.isAnnotationPresent(Delegate.class),
                 annotatedField.getJavaMember() == null? false : Modifier.isTransient(annotatedField.getJavaMember().getModifiers()));
     }
     
     InjectionPointImpl(Bean<?> ownerBean, Collection<Annotation> qualifiers, AnnotatedParameter<?> parameter)
     {
-        this(ownerBean, parameter.getBaseType(), qualifiers, parameter, parameter.getDeclaringCallable().getJavaMember(), parameter.isAnnotationPresent(Delegate.class), false);
+        this(ownerBean, parameter.getBaseType(), qualifiers, parameter);
+    }
+
+    InjectionPointImpl(Bean<?> ownerBean, Type type, Collection<Annotation> qualifiers, AnnotatedParameter<?> parameter)
+    {
+        this(ownerBean, type, qualifiers, parameter, parameter.getDeclaringCallable().getJavaMember(), parameter.isAnnotationPresent(Delegate.class), false);
     }
 
     /**
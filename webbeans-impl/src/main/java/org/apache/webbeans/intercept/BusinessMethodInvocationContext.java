@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.intercept;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+
+import javax.enterprise.inject.spi.InterceptionType;
+import javax.enterprise.inject.spi.Interceptor;
+import javax.inject.Provider;
+
+/**
+ * InvocationContext for business method interceptors resolved via an {@link InterceptorChainTable}.
+ * The context is its own target Provider, so an invocation only allocates this context.
+ */
+final class BusinessMethodInvocationContext<T> extends AbstractInvocationContext<T> implements Provider<T>
+{
+    private final T instance;
+    private final Interceptor<?>[] interceptors;
+    private final Map<Interceptor<?>, ?> instances;
+    private int index;
+
+    BusinessMethodInvocationContext(T instance, Interceptor<?>[] interceptors, Map<Interceptor<?>, ?> instances,
+                                    Method method, Object[] parameters)
+    {
+        super(null, method, parameters);
+        target = this;
+        this.instance = instance;
+        this.interceptors = interceptors;
+        this.instances = instances;
+    }
+
+    @Override
+    public T get()
+    {
+        return instance;
+    }
+
+    @Override
+    public Object proceed() throws Exception
+    {
+        if (index < interceptors.length)
+        {
+            Interceptor interceptor = interceptors[index++];
+            try
+            {
+                return interceptor.intercept(InterceptionType.AROUND_INVOKE, instances.get(interceptor), this);
+            }
+            catch (Exception e)
+            {
+                // restore the original location
+                // this allows for catching an Exception inside an Interceptor
+                // and then try to proceed with the interceptor chain again.
+                index--;
+                throw e;
+            }
+        }
+        else
+        {
+            return directProceed();
+        }
+    }
+}
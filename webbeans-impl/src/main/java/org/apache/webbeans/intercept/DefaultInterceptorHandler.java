@@ -24,6 +24,7 @@ import org.apache.webbeans.component.WebBeansType;
 import org.apache.webbeans.config.WebBeansContext;
 import org.apache.webbeans.portable.InjectionTargetImpl;
 import org.apache.webbeans.proxy.InterceptorHandler;
+import org.apache.webbeans.spi.InstrumentationService;
 import org.apache.webbeans.util.ExceptionUtil;
 import org.apache.webbeans.util.WebBeansUtil;
 
@@ -39,6 +40,7 @@ import java.io.NotSerializableException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
 import java.io.ObjectStreamException;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -75,6 +77,17 @@ public class DefaultInterceptorHandler<T> implements InterceptorHandler, Externa
     private Map<Method, List<Interceptor<?>>> interceptors;
     private Map<Interceptor<?>, ?> instances;
 
+    /**
+     * the interceptor chains by method index of the proxy class,
+     * {@code null} after deserialisation or if the proxy is not bound to a table.
+     */
+    private InterceptorChainTable chainTable;
+
+    /**
+     * gets informed about the invocations of intercepted methods, might be {@code null}
+     */
+    private transient InstrumentationService instrumentation;
+
     /**
      * InterceptorHandler wich gets used in our InjectionTargets which
      * support interceptors and decorators
@@ -89,12 +102,43 @@ public class DefaultInterceptorHandler<T> implements InterceptorHandler, Externa
                                      Map<Method, List<Interceptor<?>>> interceptors,
                                      Map<Interceptor<?>, ?> instances,
                                      String beanPassivationId)
+    {
+        this(target, delegate, interceptors, instances, beanPassivationId, null);
+    }
+
+    /**
+     * @param chainTable the interceptors for each method index of the proxy class, might be {@code null}
+     * @see #DefaultInterceptorHandler(Object, Object, Map, Map, String)
+     */
+    public DefaultInterceptorHandler(T target,
+                                     T delegate,
+                                     Map<Method, List<Interceptor<?>>> interceptors,
+                                     Map<Interceptor<?>, ?> instances,
+                                     String beanPassivationId,
+                                     InterceptorChainTable chainTable)
+    {
+        this(target, delegate, interceptors, instances, beanPassivationId, chainTable, null);
+    }
+
+    /**
+     * @param instrumentation gets informed about the invocations of intercepted methods, might be {@code null}
+     * @see #DefaultInterceptorHandler(Object, Object, Map, Map, String, InterceptorChainTable)
+     */
+    public DefaultInterceptorHandler(T target,
+                                     T delegate,
+                                     Map<Method, List<Interceptor<?>>> interceptors,
+                                     Map<Interceptor<?>, ?> instances,
+                                     String beanPassivationId,
+                                     InterceptorChainTable chainTable,
+                                     InstrumentationService instrumentation)
     {
         this.target = target;
         this.delegate = delegate;
         this.instances = instances;
         this.interceptors = interceptors;
         this.beanPassivationId = beanPassivationId;
+        this.chainTable = chainTable;
+        this.instrumentation = instrumentation;
     }
 
     public DefaultInterceptorHandler()
@@ -122,6 +166,47 @@ public class DefaultInterceptorHandler<T> implements InterceptorHandler, Externa
         return interceptors;
     }
 
+    @Override
+    public Object invoke(int methodIndex, Method method, Object[] parameters)
+    {
+        Interceptor<?>[] chain = chainTable != null ? chainTable.getChain(methodIndex, method) : null;
+        if (chain == null)
+        {
+            return invoke(method, parameters);
+        }
+
+        try
+        {
+            if (chain.length == 0)
+            {
+                // only decorated, no need for an InvocationContext
+                return method.invoke(delegate, parameters);
+            }
+            if (instrumentation == null)
+            {
+                return new BusinessMethodInvocationContext<>(delegate, chain, instances, method, parameters).proceed();
+            }
+
+            long start = System.nanoTime();
+            try
+            {
+                return new BusinessMethodInvocationContext<>(delegate, chain, instances, method, parameters).proceed();
+            }
+            finally
+            {
+                instrumentation.interceptorChainInvoked(method, chain.length, System.nanoTime() - start);
+            }
+        }
+        catch (InvocationTargetException ite)
+        {
+            return ExceptionUtil.throwAsRuntimeException(ite.getCause());
+        }
+        catch (Exception e)
+        {
+            return ExceptionUtil.throwAsRuntimeException(e);
+        }
+    }
+
     @Override
     public Object invoke(Method method, Object[] parameters)
     {
@@ -136,7 +221,20 @@ public class DefaultInterceptorHandler<T> implements InterceptorHandler, Externa
             InterceptorInvocationContext<T> ctx
                 = new InterceptorInvocationContext<T>(new InstanceProvider(delegate), InterceptionType.AROUND_INVOKE, methodInterceptors, instances, method, parameters);
 
-            return ctx.proceed();
+            if (instrumentation == null)
+            {
+                return ctx.proceed();
+            }
+
+            long start = System.nanoTime();
+            try
+            {
+                return ctx.proceed();
+            }
+            finally
+            {
+                instrumentation.interceptorChainInvoked(method, methodInterceptors.size(), System.nanoTime() - start);
+            }
         }
         catch (Exception e)
         {
@@ -229,6 +327,7 @@ public class DefaultInterceptorHandler<T> implements InterceptorHandler, Externa
         int instancesSize = in.readInt();
         WebBeansContext webBeansContext = WebBeansContext.getInstance();
         BeanManager beanManager = webBeansContext.getBeanManagerImpl();
+        instrumentation = webBeansContext.getInstrumentationService();
 
         Map<Interceptor<?>, Object> tmpInstances = new HashMap<>();
         for (int i = 0; i < instancesSize; i++)
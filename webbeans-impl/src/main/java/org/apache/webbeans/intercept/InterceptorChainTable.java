@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.intercept;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.enterprise.inject.spi.InterceptionType;
+import javax.enterprise.inject.spi.Interceptor;
+
+/**
+ * The AroundInvoke interceptors of all intercepted methods of a bean,
+ * stored in the same order as the intercepted methods of the generated proxy class.
+ * The proxy passes the index of the invoked method, so the chain
+ * gets resolved with an array access instead of a lookup by Method.
+ *
+ * Instances are immutable and get shared between all instances of the bean.
+ */
+public final class InterceptorChainTable
+{
+    private static final Interceptor<?>[] NO_INTERCEPTORS = new Interceptor<?>[0];
+
+    private final Method[] methods;
+    private final Interceptor<?>[][] chains;
+
+    /**
+     * @param methods the intercepted methods as passed to the proxy class
+     * @param methodInterceptors all interceptors for each method
+     */
+    public InterceptorChainTable(Method[] methods, Map<Method, List<Interceptor<?>>> methodInterceptors)
+    {
+        this.methods = methods;
+        chains = new Interceptor<?>[methods.length][];
+        for (int i = 0; i < methods.length; i++)
+        {
+            chains[i] = toChain(methodInterceptors.get(methods[i]));
+
+            if (!methods[i].isAccessible())
+            {
+                methods[i].setAccessible(true);
+            }
+        }
+    }
+
+    /**
+     * @param methodIndex the index of the method in the proxy class
+     * @param method the invoked method
+     * @return the interceptors of the method, or {@code null} if the index does not belong to the method
+     */
+    Interceptor<?>[] getChain(int methodIndex, Method method)
+    {
+        if (methodIndex >= 0 && methodIndex < methods.length && methods[methodIndex] == method)
+        {
+            return chains[methodIndex];
+        }
+        return null;
+    }
+
+    private static Interceptor<?>[] toChain(List<Interceptor<?>> interceptors)
+    {
+        if (interceptors == null || interceptors.isEmpty())
+        {
+            return NO_INTERCEPTORS;
+        }
+
+        // lifecycle interceptors get filtered out once instead of on each invocation
+        List<Interceptor<?>> chain = new ArrayList<>(interceptors.size());
+        for (Interceptor<?> interceptor : interceptors)
+        {
+            if (interceptor.intercepts(InterceptionType.AROUND_INVOKE))
+            {
+                chain.add(interceptor);
+            }
+        }
+        return chain.isEmpty() ? NO_INTERCEPTORS : chain.toArray(new Interceptor<?>[chain.size()]);
+    }
+}
@@ -858,7 +858,8 @@ public class InterceptorResolutionService
                         new DecoratorHandler(interceptorInfo, decorators, instances, i - 1, instance, passivationId));
             }
         }
-        InterceptorHandler interceptorHandler = new DefaultInterceptorHandler<>(instance, delegate, methodInterceptors, interceptorInstances, passivationId);
+        InterceptorHandler interceptorHandler = new DefaultInterceptorHandler<>(instance, delegate, methodInterceptors, interceptorInstances, passivationId,
+                interceptorInfo.getInterceptorChainTable(), webBeansContext.getInstrumentationService());
 
         return webBeansContext.getInterceptorDecoratorProxyFactory().createProxyInstance(proxyClass, instance, interceptorHandler);
     }
@@ -934,6 +935,11 @@ public class InterceptorResolutionService
          */
         private Map<InterceptionType, LifecycleMethodInfo> lifecycleMethodInterceptorInfos;
 
+        /**
+         * the interceptors by method index of the proxy class of the bean,
+         * {@code null} if the proxy class is not bound to the business methods of the bean.
+         */
+        private volatile InterceptorChainTable interceptorChainTable;
 
         public List<Decorator<?>> getDecorators()
         {
@@ -979,6 +985,16 @@ public class InterceptorResolutionService
         {
             return lifecycleMethodInterceptorInfos;
         }
+
+        public InterceptorChainTable getInterceptorChainTable()
+        {
+            return interceptorChainTable;
+        }
+
+        public void setInterceptorChainTable(InterceptorChainTable interceptorChainTable)
+        {
+            this.interceptorChainTable = interceptorChainTable;
+        }
     }
 
     /**
@@ -30,6 +30,8 @@ import java.io.ObjectStreamException;
 import java.io.Serializable;
 
 import org.apache.webbeans.config.WebBeansContext;
+import org.apache.webbeans.container.BeanManagerImpl;
+import org.apache.webbeans.corespi.se.CarrierContextsService;
 
 /**
  * <p>A Provider which handles all NormalScoped proxying.
@@ -81,6 +83,16 @@ public class NormalScopedBeanInterceptorHandler implements Provider, Serializabl
         return beanManager;
     }
 
+    /**
+     * @return whether the contexts of the given BeanManager are bound to the thread,
+     *         so a proxy may cache the contextual instances per thread
+     */
+    protected static boolean hasThreadBoundContexts(BeanManager beanManager)
+    {
+        return !(beanManager instanceof BeanManagerImpl) ||
+                !(((BeanManagerImpl) beanManager).getWebBeansContext().getContextsService() instanceof CarrierContextsService);
+    }
+
     protected Object getContextualInstance()
     {
         Object webbeansInstance;
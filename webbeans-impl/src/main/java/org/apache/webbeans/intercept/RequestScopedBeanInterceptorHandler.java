@@ -18,9 +18,17 @@
  */
 package org.apache.webbeans.intercept;
 
+import javax.enterprise.context.RequestScoped;
 import javax.enterprise.inject.spi.Bean;
 import javax.enterprise.inject.spi.BeanManager;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.webbeans.component.AbstractOwbBean;
+import org.apache.webbeans.config.WebBeansContext;
 
 
 /**
@@ -30,6 +38,9 @@ import java.util.HashMap;
  * <p>Since there is only one single contextual instance of an &#064;RequestScoped bean per thread,
  * we can simply cache this instance inside our bean. We only need to reload this instance
  * if it is null or if the thread ends.</p>
+ *
+ * <p>With the {@link org.apache.webbeans.corespi.se.CarrierContextsService} the contexts do not live in ThreadLocals,
+ * so the contextual instance gets looked up in the current context directly.</p>
  */
 public class RequestScopedBeanInterceptorHandler extends NormalScopedBeanInterceptorHandler
 {
@@ -39,12 +50,17 @@ public class RequestScopedBeanInterceptorHandler extends NormalScopedBeanInterce
     /**
      * Cached bean instance for each thread
      */
-    private static ThreadLocal<HashMap<Bean<?>, Object>> cachedInstances = new ThreadLocal<>();
+    private static ThreadLocal<CachedInstances> cachedInstances = new ThreadLocal<>();
+
+    /**
+     * whether the instances get cached per thread
+     */
+    private transient boolean threadCache;
 
 
     public static void removeThreadLocals()
     {
-        cachedInstances.set(null);
+        // remove() does not create the thread local map if the thread never used it
         cachedInstances.remove();
     }
 
@@ -54,6 +70,13 @@ public class RequestScopedBeanInterceptorHandler extends NormalScopedBeanInterce
     public RequestScopedBeanInterceptorHandler(BeanManager beanManager, Bean<?> bean)
     {
         super(beanManager, bean);
+        threadCache = hasThreadBoundContexts(beanManager);
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException
+    {
+        in.defaultReadObject();
+        threadCache = hasThreadBoundContexts(WebBeansContext.getInstance().getBeanManagerImpl());
     }
     
     /**
@@ -62,22 +85,88 @@ public class RequestScopedBeanInterceptorHandler extends NormalScopedBeanInterce
     @Override
     protected Object getContextualInstance()
     {
-        HashMap<Bean<?>, Object> beanMap = cachedInstances.get();
-        if (beanMap == null)
+        if (!threadCache)
         {
-            beanMap = new HashMap<>();
-            cachedInstances.set(beanMap);
+            return super.getContextualInstance();
         }
 
-        Object cachedInstance = beanMap.get(bean);
-        if (cachedInstance == null)
+        BeanManager beanManager = getBeanManager();
+        CachedInstances first = cachedInstances.get();
+        CachedInstances instances = first;
+        while (instances != null && instances.beanManager != beanManager)
         {
+            instances = instances.next;
+        }
+        if (instances == null)
+        {
+            instances = new CachedInstances(beanManager, first);
+            cachedInstances.set(instances);
+        }
 
+        // the bean index avoids hashing the bean, it is only unique within the scope of one container
+        int beanIndex = bean instanceof AbstractOwbBean && bean.getScope() == RequestScoped.class
+                ? ((AbstractOwbBean<?>) bean).getBeanIndex()
+                : -1;
+        Object cachedInstance = beanIndex >= 0 ? instances.get(beanIndex) : instances.get(bean);
+        if (cachedInstance == null)
+        {
             cachedInstance = super.getContextualInstance();
-            beanMap.put(bean, cachedInstance);
+            if (beanIndex >= 0)
+            {
+                instances.put(beanIndex, cachedInstance);
+            }
+            else
+            {
+                instances.put(bean, cachedInstance);
+            }
         }
 
         return cachedInstance;
     }
 
+    /**
+     * The cached instances of one thread and one container, by bean index if the bean has one.
+     * Containers sharing the thread get chained, since every container starts its bean indexes at 0.
+     */
+    private static final class CachedInstances
+    {
+        private final BeanManager beanManager;
+        private final CachedInstances next;
+        private Object[] indexedInstances = new Object[0];
+        private Map<Bean<?>, Object> otherInstances;
+
+        private CachedInstances(BeanManager beanManager, CachedInstances next)
+        {
+            this.beanManager = beanManager;
+            this.next = next;
+        }
+
+        private Object get(int beanIndex)
+        {
+            return beanIndex < indexedInstances.length ? indexedInstances[beanIndex] : null;
+        }
+
+        private void put(int beanIndex, Object instance)
+        {
+            if (beanIndex >= indexedInstances.length)
+            {
+                indexedInstances = Arrays.copyOf(indexedInstances, Math.max(beanIndex + 1, indexedInstances.length * 2));
+            }
+            indexedInstances[beanIndex] = instance;
+        }
+
+        private Object get(Bean<?> bean)
+        {
+            return otherInstances != null ? otherInstances.get(bean) : null;
+        }
+
+        private void put(Bean<?> bean, Object instance)
+        {
+            if (otherInstances == null)
+            {
+                otherInstances = new HashMap<>();
+            }
+            otherInstances.put(bean, instance);
+        }
+    }
 }
@@ -20,8 +20,13 @@ package org.apache.webbeans.intercept;
 
 import javax.enterprise.inject.spi.Bean;
 import javax.enterprise.inject.spi.BeanManager;
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.util.HashMap;
 
+import org.apache.webbeans.config.WebBeansContext;
+import org.apache.webbeans.context.SessionContext;
+
 
 /**
  * <p>This is a {@link javax.inject.Provider} especially
@@ -30,6 +35,9 @@ import java.util.HashMap;
  * <p>Since there is only one single contextual instance of an &#064;SessionScoped bean per thread,
  * we can simply cache this instance inside our bean. We only need to reload this instance
  * if it is null or if the thread ends.</p>
+ *
+ * <p>With the {@link org.apache.webbeans.corespi.se.CarrierContextsService} the contexts do not live in ThreadLocals,
+ * so the contextual instance gets looked up in the current context directly.</p>
  */
 public class SessionScopedBeanInterceptorHandler extends NormalScopedBeanInterceptorHandler
 {
@@ -41,19 +49,49 @@ public class SessionScopedBeanInterceptorHandler extends NormalScopedBeanInterce
      */
     private static ThreadLocal<HashMap<Bean<?>, Object>> cachedInstances = new ThreadLocal<>();
 
+    /**
+     * whether the instances get cached per thread
+     */
+    private transient boolean threadCache;
+
 
     public static void removeThreadLocals()
     {
-        cachedInstances.set(null);
+        // remove() does not create the thread local map if the thread never used it
         cachedInstances.remove();
     }
 
+    /**
+     * Marks all beans whose instances got used by the current thread as dirty.
+     * The instances are cached per thread, so they might have been changed after the context saw them
+     * the last time. This must get invoked before the session gets replicated and before
+     * {@link #removeThreadLocals()}.
+     */
+    public static void markCachedBeansDirty(SessionContext sessionContext)
+    {
+        HashMap<Bean<?>, Object> beanMap = cachedInstances.get();
+        if (beanMap != null)
+        {
+            for (Bean<?> bean : beanMap.keySet())
+            {
+                sessionContext.markDirty(bean);
+            }
+        }
+    }
+
     /**
      * Creates a new handler.
      */
     public SessionScopedBeanInterceptorHandler(BeanManager beanManager, Bean<?> bean)
     {
         super(beanManager, bean);
+        threadCache = hasThreadBoundContexts(beanManager);
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException
+    {
+        in.defaultReadObject();
+        threadCache = hasThreadBoundContexts(WebBeansContext.getInstance().getBeanManagerImpl());
     }
     
     /**
@@ -62,6 +100,11 @@ public class SessionScopedBeanInterceptorHandler extends NormalScopedBeanInterce
     @Override
     protected Object getContextualInstance()
     {
+        if (!threadCache)
+        {
+            return super.getContextualInstance();
+        }
+
         HashMap<Bean<?>, Object> beanMap = cachedInstances.get();
         if (beanMap == null)
         {
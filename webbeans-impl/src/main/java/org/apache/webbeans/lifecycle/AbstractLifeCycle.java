@@ -128,13 +128,22 @@ public abstract class AbstractLifeCycle implements ContainerLifecycle
         logger.fine("Scanning classpaths for beans artifacts.");
 
         //Scan
-        scannerService.scan();
-        
-        //Deploy beans
-        logger.fine("Deploying scanned beans.");
+        webBeansContext.getStartupProfiler().beginPhase("scan");
+        try
+        {
+            scannerService.scan();
 
-        //Deploy
-        deployer.deploy(scannerService);
+            //Deploy beans
+            logger.fine("Deploying scanned beans.");
+
+            //Deploy
+            deployer.deploy(scannerService);
+        }
+        finally
+        {
+            // also report a failed deployment, it shows how far the startup got
+            webBeansContext.getStartupProfiler().report();
+        }
 
         //Start actual starting on sub-classes
         afterStartApplication(startupObject);
@@ -160,6 +169,9 @@ public abstract class AbstractLifeCycle implements ContainerLifecycle
             //Fire shut down
             beanManager.fireLifecycleEvent(new BeforeShutdownImpl());
 
+            // the contexts get destroyed now, no more conversations must time out in the background
+            webBeansContext.getConversationManager().close();
+
             contextsService.destroy(endObject);
 
             //Unbind BeanManager
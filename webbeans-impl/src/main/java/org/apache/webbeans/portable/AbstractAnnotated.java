@@ -69,7 +69,7 @@ public abstract class AbstractAnnotated implements Annotated
         Asserts.assertNotNull(webBeansContext, Asserts.PARAM_NAME_WEBBEANSCONTEXT);
         Asserts.assertNotNull(baseType, "base type");
         
-        this.baseType = baseType;
+        this.baseType = webBeansContext.getTypeInterner().intern(baseType);
         this.webBeansContext = webBeansContext;
     }
 
@@ -81,10 +81,10 @@ public abstract class AbstractAnnotated implements Annotated
      */
     protected AbstractAnnotated(WebBeansContext webBeansContext, Annotated annotated)
     {
-        this.baseType = annotated.getBaseType();
+        this.baseType = webBeansContext.getTypeInterner().intern(annotated.getBaseType());
         this.webBeansContext = webBeansContext;
 
-        this.typeClosures = annotated.getTypeClosure();
+        this.typeClosures = webBeansContext.getTypeInterner().internTypes(annotated.getTypeClosure());
         this.annotations.addAll(annotated.getAnnotations());
     }
 
@@ -216,11 +216,11 @@ public abstract class AbstractAnnotated implements Annotated
     {
         if (typeClosures == null)
         {
-            typeClosures = extractTypeClojure(baseType);
+            Set<Type> closure = extractTypeClojure(baseType);
             Set<String> ignoredInterfaces = webBeansContext.getOpenWebBeansConfiguration().getIgnoredInterfaces();
             if (!ignoredInterfaces.isEmpty())
             {
-                for (Iterator<Type> i = typeClosures.iterator(); i.hasNext(); )
+                for (Iterator<Type> i = closure.iterator(); i.hasNext(); )
                 {
                     Type t = i.next();
                     if (t instanceof Class && ignoredInterfaces.contains(((Class<?>) t).getName()))
@@ -229,6 +229,7 @@ public abstract class AbstractAnnotated implements Annotated
                     }
                 }
             }
+            typeClosures = webBeansContext.getTypeInterner().internTypes(closure);
         }
     }
 
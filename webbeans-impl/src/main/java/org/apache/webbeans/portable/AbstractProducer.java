@@ -38,6 +38,7 @@ import javax.enterprise.inject.spi.Producer;
 import org.apache.webbeans.component.BeanManagerBean;
 import org.apache.webbeans.config.WebBeansContext;
 import org.apache.webbeans.context.creational.CreationalContextImpl;
+import org.apache.webbeans.intercept.InterceptorChainTable;
 import org.apache.webbeans.intercept.InterceptorResolutionService.BeanInterceptorInfo;
 import org.apache.webbeans.proxy.InterceptorDecoratorProxyFactory;
 import org.apache.webbeans.proxy.OwbInterceptorProxy;
@@ -103,6 +104,7 @@ public abstract class AbstractProducer<T> implements Producer<T>
             Method[] nonInterceptedMethods = interceptorInfo.getNonInterceptedMethods().toArray(new Method[interceptorInfo.getNonInterceptedMethods().size()]);
 
             proxyClass = (Class<? extends T>) pf.createProxyClass(bean, classLoader, annotatedType.getJavaClass(), businessMethods, nonInterceptedMethods);
+            interceptorInfo.setInterceptorChainTable(new InterceptorChainTable(businessMethods, methodInterceptors));
 
             // now we collect the post-construct and pre-destroy interceptors
 
@@ -218,6 +218,16 @@ public final class AnnotatedElementFactory
         return annotatedType;
     }
 
+    /**
+     * @return whether the given AnnotatedType got created by {@link #newAnnotatedType(Class)}
+     *         and thus still reflects the annotations of the class files
+     */
+    public boolean isInitialAnnotatedType(AnnotatedType<?> annotatedType)
+    {
+        ConcurrentMap<String, AnnotatedType<?>> annotatedTypes = annotatedTypeCache.get(annotatedType.getJavaClass());
+        return annotatedTypes != null && annotatedTypes.get(OWB_DEFAULT_KEY) == annotatedType;
+    }
+
     /**
      * Creates and configures new annotated constructor.
      * 
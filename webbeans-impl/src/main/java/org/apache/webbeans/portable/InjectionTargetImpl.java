@@ -18,33 +18,24 @@
  */
 package org.apache.webbeans.portable;
 
-import org.apache.webbeans.config.OWBLogConst;
 import org.apache.webbeans.config.WebBeansContext;
 import org.apache.webbeans.context.creational.CreationalContextImpl;
 import org.apache.webbeans.exception.WebBeansCreationException;
-import org.apache.webbeans.exception.WebBeansException;
 import org.apache.webbeans.inject.InjectableConstructor;
-import org.apache.webbeans.inject.InjectableField;
-import org.apache.webbeans.inject.InjectableMethod;
+import org.apache.webbeans.inject.BeanInjector;
 import org.apache.webbeans.intercept.ConstructorInterceptorInvocationContext;
 import org.apache.webbeans.intercept.DefaultInterceptorHandler;
 import org.apache.webbeans.intercept.InterceptorResolutionService;
 import org.apache.webbeans.intercept.InterceptorResolutionService.BeanInterceptorInfo;
 import org.apache.webbeans.intercept.LifecycleInterceptorInvocationContext;
-import org.apache.webbeans.logger.WebBeansLoggerFacade;
 import org.apache.webbeans.proxy.InterceptorDecoratorProxyFactory;
 import org.apache.webbeans.proxy.InterceptorHandler;
 import org.apache.webbeans.proxy.OwbInterceptorProxy;
 import org.apache.webbeans.proxy.OwbNormalScopeProxy;
-import org.apache.webbeans.spi.ResourceInjectionService;
 import org.apache.webbeans.util.Asserts;
 import org.apache.webbeans.util.ExceptionUtil;
 
 import javax.enterprise.context.spi.CreationalContext;
-import javax.enterprise.event.Observes;
-import javax.enterprise.event.ObservesAsync;
-import javax.enterprise.inject.Disposes;
-import javax.enterprise.inject.Produces;
 import javax.enterprise.inject.spi.AnnotatedConstructor;
 import javax.enterprise.inject.spi.AnnotatedMethod;
 import javax.enterprise.inject.spi.AnnotatedParameter;
@@ -58,17 +49,11 @@ import javax.inject.Inject;
 import javax.inject.Provider;
 import javax.interceptor.InvocationContext;
 
-import java.lang.annotation.Annotation;
-import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Constructor;
-import java.lang.reflect.Field;
-import java.lang.reflect.Member;
 import java.lang.reflect.Method;
-import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -113,6 +98,8 @@ public class InjectionTargetImpl<T> extends AbstractProducer<T> implements Injec
 
     private List<Interceptor<?>> aroundConstructInterceptors;
 
+    private volatile BeanInjector<T> injector;
+
     public InjectionTargetImpl(AnnotatedType<T> annotatedType, Set<InjectionPoint> injectionPoints, WebBeansContext webBeansContext,
                                List<AnnotatedMethod<?>> postConstructMethods, List<AnnotatedMethod<?>> preDestroyMethods)
     {
@@ -194,102 +181,44 @@ public class InjectionTargetImpl<T> extends AbstractProducer<T> implements Injec
     
     protected T newInstance(CreationalContextImpl<T> creationalContext)
     {
-        return new InjectableConstructor<>(getConstructor().getJavaMember(), this, creationalContext).doInjection();
+        return getInjector().newInstance(getConstructor().getJavaMember(), creationalContext);
     }
 
     @Override
     public void inject(T instance, CreationalContext<T> context)
     {
-        inject(instance.getClass(), unwrapProxyInstance(instance), (CreationalContextImpl<T>) context);
+        getInjector().inject(unwrapProxyInstance(instance), (CreationalContextImpl<T>) context);
     }
 
-    private void inject(Class<?> type, T instance, CreationalContextImpl<T> context)
+    /**
+     * Binds the injected members and resolves the Beans of all injection points,
+     * gets called once the deployment got validated.
+     */
+    public void prepareInjection()
     {
-        if (type == null || type.equals(Object.class))
-        {
-            return;
-        }
-        inject(type.getSuperclass(), instance, context);
-        injectFields(type, instance, context);
-        injectMethods(type, instance, context);
-        injectInitializerMethods(type, instance, context);
-        injectResources(instance);
-    }
-
-    private void injectFields(Class<?> type, T instance, CreationalContextImpl<T> context)
-    {
-        for (InjectionPoint injectionPoint : getInjectionPoints())
-        {
-            if (injectionPoint.getMember().getDeclaringClass().equals(type))
-            {
-                if (injectionPoint.getMember() instanceof Field)
-                {
-                    new InjectableField<>((Field) injectionPoint.getMember(), instance, this, context).doInjection();
-                }
-            }
-        }
-    }
-
-    private void injectMethods(Class<?> type, T instance, CreationalContextImpl<T> context)
-    {
-        Set<Member> injectedMethods = new HashSet<>();
-        for (InjectionPoint injectionPoint : getInjectionPoints())
-        {
-            if (injectionPoint.getMember().getDeclaringClass().equals(type))
-            {
-                if (injectionPoint.getMember() instanceof Method
-                        && !injectedMethods.contains(injectionPoint.getMember())
-                        && !isProducerMethod(injectionPoint)
-                        && !isDisposalMethod(injectionPoint)
-                        && !isObserverMethod(injectionPoint))
-                {
-                    new InjectableMethod<>((Method) injectionPoint.getMember(), instance, this, context).doInjection();
-                    injectedMethods.add(injectionPoint.getMember());
-                }
-            }
-        }
+        getInjector().prepare(getConstructor().getJavaMember());
     }
 
     /**
-     * Performs injection on initializer methods, which are methods that are annotated with &#64;Inject,
-     * but have no parameter and thus no injection point.
+     * @return the injector of this bean, it gets created on first use
      */
-    private void injectInitializerMethods(Class<?> declaringType, T instance, CreationalContextImpl<T> context)
-    {
-        for (AnnotatedMethod<? super T> method : webBeansContext.getAnnotatedElementFactory().getFilteredAnnotatedMethods(annotatedType))
-        {
-            if (method.getDeclaringType().getJavaClass().equals(declaringType) && method.isAnnotationPresent(Inject.class) && method.getParameters().isEmpty())
-            {
-                new InjectableMethod<>(method.getJavaMember(), instance, this, context).doInjection();
-            }
-        }
-    }
-    
-    private void injectResources(T instance)
+    protected BeanInjector<T> getInjector()
     {
-        try
+        BeanInjector<T> beanInjector = injector;
+        if (beanInjector == null)
         {
-            ResourceInjectionService service = null;
-            try
-            {
-                service = webBeansContext.getService(ResourceInjectionService.class);
-            
-            }
-            catch (Exception e)
+            List<Method> initializerMethods = new ArrayList<>();
+            for (AnnotatedMethod<? super T> method : webBeansContext.getAnnotatedElementFactory().getFilteredAnnotatedMethods(annotatedType))
             {
-                // When running in tests
-            }
-        
-            if (service != null)
-            {
-                service.injectJavaEEResources(instance);   
+                if (method.isAnnotationPresent(Inject.class) && method.getParameters().isEmpty())
+                {
+                    initializerMethods.add(method.getJavaMember());
+                }
             }
+            beanInjector = new BeanInjector<>(this, webBeansContext, annotatedType.getJavaClass(), initializerMethods, postConstructMethods);
+            injector = beanInjector;
         }
-        catch (Exception e)
-        {
-            throw new WebBeansException(MessageFormat.format(
-                WebBeansLoggerFacade.getTokenString(OWBLogConst.ERROR_0023), instance), e);
-        }
+        return beanInjector;
     }
 
     @Override
@@ -312,6 +241,11 @@ public class InjectionTargetImpl<T> extends AbstractProducer<T> implements Injec
         {
             return;
         }
+        else if (postConstructInterceptors == null || postConstructInterceptors.isEmpty())
+        {
+            getInjector().postConstruct(internalInstance);
+            return;
+        }
 
         InvocationContext ic = new LifecycleInterceptorInvocationContext<>(internalInstance, InterceptionType.POST_CONSTRUCT, postConstructInterceptors,
             interceptorInstances, postConstructMethods);
@@ -401,51 +335,6 @@ public class InjectionTargetImpl<T> extends AbstractProducer<T> implements Injec
         return webBeansContext.getWebBeansUtil().getNoArgConstructor(annotatedType.getJavaClass());
     }
     
-    private boolean isProducerMethod(InjectionPoint injectionPoint)
-    {
-        return ((AnnotatedElement)injectionPoint.getMember()).isAnnotationPresent(Produces.class);
-    }
-
-    private boolean isObserverMethod(InjectionPoint injectionPoint)
-    {
-        if (!(injectionPoint.getMember() instanceof Method))
-        {
-            return false;
-        }
-        Method method = (Method) injectionPoint.getMember();
-        for (Annotation[] annotations : method.getParameterAnnotations())
-        {
-            for (Annotation annotation : annotations)
-            {
-                if (annotation.annotationType().equals(Observes.class) || annotation.annotationType().equals(ObservesAsync.class))
-                {
-                    return true;
-                }
-            }
-        }
-        return false;
-    }
-
-    private boolean isDisposalMethod(InjectionPoint injectionPoint)
-    {
-        if (!(injectionPoint.getMember() instanceof Method))
-        {
-            return false;
-        }
-        Method method = (Method) injectionPoint.getMember();
-        for (Annotation[] annotations : method.getParameterAnnotations())
-        {
-            for (Annotation annotation : annotations)
-            {
-                if (annotation.annotationType().equals(Disposes.class))
-                {
-                    return true;
-                }
-            }
-        }
-        return false;
-    }
-
     private List<Interceptor<?>> getLifecycleInterceptors(Collection<Interceptor<?>> ejbInterceptors, List<Interceptor<?>> cdiInterceptors, InterceptionType interceptionType)
     {
         List<Interceptor<?>> lifecycleInterceptors = new ArrayList<>();
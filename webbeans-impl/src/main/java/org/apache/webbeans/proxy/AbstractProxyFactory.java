@@ -22,13 +22,18 @@ import static org.apache.xbean.asm7.ClassReader.SKIP_CODE;
 import static org.apache.xbean.asm7.ClassReader.SKIP_DEBUG;
 import static org.apache.xbean.asm7.ClassReader.SKIP_FRAMES;
 
+import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Arrays;
 
+import org.apache.webbeans.config.StartupProfiler;
 import org.apache.webbeans.config.WebBeansContext;
 import org.apache.webbeans.exception.ProxyGenerationException;
 import org.apache.webbeans.exception.WebBeansException;
@@ -54,6 +59,13 @@ public abstract class AbstractProxyFactory
      */
     public static final int MODIFIER_VARARGS = 0x00000080;
 
+    /**
+     * Part of the fingerprint of pre-generated proxies.
+     * Must be increased whenever the generated proxy bytecode changes,
+     * so proxies generated by an older OpenWebBeans build are not reused.
+     */
+    private static final int GENERATOR_VERSION = 1;
+
     protected final Unsafe unsafe;
 
     private final DefiningClassService definingService;
@@ -262,15 +274,51 @@ public abstract class AbstractProxyFactory
                                                       Method[] interceptedMethods, Method[] nonInterceptedMethods,
                                                       Constructor<T> constructor)
             throws ProxyGenerationException
+    {
+        StartupProfiler profiler = webBeansContext.getStartupProfiler();
+        if (!profiler.isEnabled())
+        {
+            return defineProxyClass(classLoader, proxyClassName, classToProxy, interceptedMethods, nonInterceptedMethods, constructor);
+        }
+
+        StartupProfiler.Measurement measurement = profiler.start();
+        try
+        {
+            return defineProxyClass(classLoader, proxyClassName, classToProxy, interceptedMethods, nonInterceptedMethods, constructor);
+        }
+        finally
+        {
+            profiler.record(StartupProfiler.PROXY, proxyClassName, measurement);
+        }
+    }
+
+    private <T> Class<T> defineProxyClass(ClassLoader classLoader, String proxyClassName, Class<T> classToProxy,
+                                          Method[] interceptedMethods, Method[] nonInterceptedMethods,
+                                          Constructor<T> constructor)
+            throws ProxyGenerationException
     {
         String proxyClassFileName = proxyClassName.replace('.', '/');
 
+        Method[] proxiedInterceptedMethods = sortOutDuplicateMethods(interceptedMethods);
+        Method[] proxiedNonInterceptedMethods = sortOutDuplicateMethods(nonInterceptedMethods);
+
+        if (definingService != null && definingService.usesPreGeneratedProxies())
+        {
+            Class<T> preGenerated = definingService.findPreGeneratedProxy(proxyClassName,
+                    fingerprint(readBytecode(classToProxy), proxiedInterceptedMethods, proxiedNonInterceptedMethods, constructor),
+                    classToProxy);
+            if (preGenerated != null)
+            {
+                return preGenerated;
+            }
+        }
+
         byte[] proxyBytes = generateProxy(classLoader,
                 classToProxy,
                 proxyClassName,
                 proxyClassFileName,
-                sortOutDuplicateMethods(interceptedMethods),
-                sortOutDuplicateMethods(nonInterceptedMethods),
+                proxiedInterceptedMethods,
+                proxiedNonInterceptedMethods,
                 constructor);
 
         if (definingService != null)
@@ -280,6 +328,61 @@ public abstract class AbstractProxyFactory
         return unsafe.defineAndLoadClass(classLoader, proxyClassName, proxyBytes);
     }
 
+    /**
+     * Hash of everything the generated proxy bytecode depends on:
+     * the proxy factory and its version, the target java version, the bytecode of the proxied class and the proxied methods.
+     */
+    private String fingerprint(byte[] classToProxyBytes, Method[] interceptedMethods, Method[] nonInterceptedMethods,
+                               Constructor<?> constructor)
+    {
+        try
+        {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            digest.update(getClass().getName().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) GENERATOR_VERSION);
+            String owbVersion = AbstractProxyFactory.class.getPackage().getImplementationVersion();
+            if (owbVersion != null)
+            {
+                digest.update(owbVersion.getBytes(StandardCharsets.UTF_8));
+            }
+            digest.update((byte) javaVersion);
+            if (classToProxyBytes != null)
+            {
+                digest.update(classToProxyBytes);
+            }
+            updateDigest(digest, interceptedMethods);
+            digest.update((byte) '|');
+            updateDigest(digest, nonInterceptedMethods);
+            if (constructor != null)
+            {
+                digest.update(constructor.toString().getBytes(StandardCharsets.UTF_8));
+            }
+
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest.digest())
+            {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            throw new WebBeansException(e);
+        }
+    }
+
+    private void updateDigest(MessageDigest digest, Method[] methods)
+    {
+        if (methods != null)
+        {
+            for (Method method : methods)
+            {
+                digest.update(method.toString().getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) ';');
+            }
+        }
+    }
+
     private Method[] sortOutDuplicateMethods(Method[] methods)
     {
         if (methods == null || methods.length == 0)
@@ -358,6 +461,35 @@ public abstract class AbstractProxyFactory
         return cw.toByteArray();
     }
 
+    private byte[] readBytecode(final Class<?> from)
+    {
+        final String resource = from.getName().replace('.', '/') + ".class";
+        final ClassLoader loader = from.getClassLoader();
+        if (loader == null)
+        {
+            return null;
+        }
+        try (final InputStream stream = loader.getResourceAsStream(resource))
+        {
+            if (stream == null)
+            {
+                return null;
+            }
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[4096];
+            int read;
+            while ((read = stream.read(buffer)) >= 0)
+            {
+                bytes.write(buffer, 0, read);
+            }
+            return bytes.toByteArray();
+        }
+        catch (final Exception e)
+        {
+            return null;
+        }
+    }
+
     private int findJavaVersion(final Class<?> from)
     {
         final String resource = from.getName().replace('.', '/') + ".class";
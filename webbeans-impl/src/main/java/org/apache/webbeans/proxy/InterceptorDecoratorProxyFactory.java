@@ -509,7 +509,7 @@ public class InterceptorDecoratorProxyFactory extends AbstractProxyFactory
         }
 
         // the following code generates bytecode equivalent to:
-        // return ((<returntype>) invocationHandler.invoke(this, {methodIndex}, new Object[] { <function arguments }))[.<primitive>Value()];
+        // return ((<returntype>) invocationHandler.invoke({methodIndex}, methods[{methodIndex}], new Object[] { <function arguments }))[.<primitive>Value()];
 
         Label l4 = new Label();
         mv.visitLabel(l4);
@@ -519,23 +519,12 @@ public class InterceptorDecoratorProxyFactory extends AbstractProxyFactory
         // get the invocationHandler field from this class
         mv.visitFieldInsn(Opcodes.GETFIELD, proxyClassFileName, FIELD_INTERCEPTOR_HANDLER, Type.getDescriptor(InterceptorHandler.class));
 
-        // add the Method from the static array as first parameter
-        mv.visitFieldInsn(Opcodes.GETSTATIC, proxyClassFileName, FIELD_INTERCEPTED_METHODS, Type.getDescriptor(Method[].class));
+        // push the methodIndex of the current method as first parameter
+        pushMethodIndex(mv, methodIndex);
 
-        // push the methodIndex of the current method
-        if (methodIndex <128)
-        {
-            mv.visitIntInsn(Opcodes.BIPUSH, methodIndex);
-        }
-        else if (methodIndex < 32267)
-        {
-            // for methods > 127 we need to push a short number as index
-            mv.visitIntInsn(Opcodes.SIPUSH, methodIndex);
-        }
-        else
-        {
-            throw new ProxyGenerationException("Sorry, we only support Classes with 2^15 methods...");
-        }
+        // add the Method from the static array as second parameter
+        mv.visitFieldInsn(Opcodes.GETSTATIC, proxyClassFileName, FIELD_INTERCEPTED_METHODS, Type.getDescriptor(Method[].class));
+        pushMethodIndex(mv, methodIndex);
 
         // and now load the Method from the array
         mv.visitInsn(Opcodes.AALOAD);
@@ -547,7 +536,7 @@ public class InterceptorDecoratorProxyFactory extends AbstractProxyFactory
 
         // invoke the invocationHandler
         mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, Type.getInternalName(InterceptorHandler.class), "invoke",
-                "(Ljava/lang/reflect/Method;[Ljava/lang/Object;)Ljava/lang/Object;", true);
+                "(ILjava/lang/reflect/Method;[Ljava/lang/Object;)Ljava/lang/Object;", true);
 
         // cast the result
         mv.visitTypeInsn(Opcodes.CHECKCAST, getCastType(returnType));
@@ -621,5 +610,22 @@ public class InterceptorDecoratorProxyFactory extends AbstractProxyFactory
         mv.visitEnd();
     }
 
+    private void pushMethodIndex(MethodVisitor mv, int methodIndex) throws ProxyGenerationException
+    {
+        if (methodIndex < 128)
+        {
+            mv.visitIntInsn(Opcodes.BIPUSH, methodIndex);
+        }
+        else if (methodIndex < 32267)
+        {
+            // for methods > 127 we need to push a short number as index
+            mv.visitIntInsn(Opcodes.SIPUSH, methodIndex);
+        }
+        else
+        {
+            throw new ProxyGenerationException("Sorry, we only support Classes with 2^15 methods...");
+        }
+    }
+
 
 }
@@ -35,4 +35,18 @@ public interface InterceptorHandler
      * @return the return value of the intercepted methos
      */
     Object invoke(Method method, Object[] args);
+
+    /**
+     * Variant which gets invoked by the proxies of the {@link InterceptorDecoratorProxyFactory}.
+     * It allows handlers to bind each intercepted method to a precomputed slot
+     * instead of looking it up by the Method.
+     * @param methodIndex index of the method in the intercepted methods of the proxy class
+     * @param method Method which should get invoked
+     * @param args original invocation parameters
+     * @return the return value of the intercepted methos
+     */
+    default Object invoke(int methodIndex, Method method, Object[] args)
+    {
+        return invoke(method, args);
+    }
 }
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.proxy;
+
+import java.io.File;
+import java.util.Properties;
+
+import javax.enterprise.inject.spi.Bean;
+
+import org.apache.webbeans.annotation.AnyLiteral;
+import org.apache.webbeans.config.OpenWebBeansConfiguration;
+import org.apache.webbeans.config.WebBeansContext;
+import org.apache.webbeans.config.WebBeansFinder;
+import org.apache.webbeans.container.BeanManagerImpl;
+import org.apache.webbeans.corespi.DefaultSingletonService;
+import org.apache.webbeans.service.PreGeneratedProxyService;
+import org.apache.webbeans.spi.ContainerLifecycle;
+import org.apache.webbeans.spi.DefiningClassService;
+import org.apache.webbeans.util.WebBeansUtil;
+
+/**
+ * Boots the container on the current thread context ClassLoader and
+ * writes all proxies generated during the deployment, and the normal scoped
+ * proxies of all beans, as pre-generated proxies to a directory.
+ *
+ * The result gets used at runtime by the {@link PreGeneratedProxyService}.
+ */
+public class ProxyCatalogGenerator
+{
+    public static void main(String[] args)
+    {
+        if (args.length != 1)
+        {
+            throw new IllegalArgumentException("Usage: " + ProxyCatalogGenerator.class.getName() + " <output directory>");
+        }
+        new ProxyCatalogGenerator().generate(new File(args[0]), new Properties());
+    }
+
+    /**
+     * @param outputDirectory where to write the proxies, typically the classes directory of the application
+     * @param configuration additional OpenWebBeans configuration for the deployment
+     */
+    public void generate(File outputDirectory, Properties configuration)
+    {
+        Properties config = new Properties();
+        config.putAll(configuration);
+        config.setProperty(DefiningClassService.class.getName(), PreGeneratedProxyService.class.getName());
+        config.setProperty(OpenWebBeansConfiguration.PROXY_CATALOG_OUTPUT, outputDirectory.getAbsolutePath());
+
+        ClassLoader loader = WebBeansUtil.getCurrentClassLoader();
+        WebBeansContext context = new WebBeansContext(null, config);
+        DefaultSingletonService singletonService = DefaultSingletonService.class.cast(WebBeansFinder.getSingletonService());
+        singletonService.register(loader, context);
+        ContainerLifecycle lifecycle = context.getService(ContainerLifecycle.class);
+        lifecycle.startApplication(null);
+        try
+        {
+            // interceptor, decorator and subclass proxies got created during the deployment,
+            // normal scoped proxies are lazy so we trigger them
+            BeanManagerImpl beanManager = context.getBeanManagerImpl();
+            NormalScopeProxyFactory normalScopeProxyFactory = context.getNormalScopeProxyFactory();
+            for (Bean<?> bean : beanManager.getBeans(Object.class, AnyLiteral.INSTANCE))
+            {
+                if (beanManager.isNormalScope(bean.getScope()))
+                {
+                    normalScopeProxyFactory.createNormalScopeProxy(bean);
+                }
+            }
+
+            DefiningClassService definingService = context.getService(DefiningClassService.class);
+            if (definingService instanceof PreGeneratedProxyService)
+            {
+                ((PreGeneratedProxyService) definingService).flushCatalog();
+            }
+        }
+        finally
+        {
+            lifecycle.stopApplication(null);
+            singletonService.clear(loader);
+        }
+    }
+}
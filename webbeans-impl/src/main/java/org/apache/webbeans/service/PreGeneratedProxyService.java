@@ -0,0 +1,250 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.webbeans.config.OpenWebBeansConfiguration;
+import org.apache.webbeans.config.WebBeansContext;
+import org.apache.webbeans.exception.WebBeansException;
+import org.apache.webbeans.logger.WebBeansLoggerFacade;
+import org.apache.webbeans.util.WebBeansUtil;
+
+/**
+ * DefiningClassService which uses proxy classes generated ahead of time.
+ *
+ * The proxy classes are stored as plain class files under {@link #PROXIES_LOCATION}
+ * and listed in the {@link #CATALOG_LOCATION} together with the fingerprint they got
+ * generated for. A proxy gets only reused if the fingerprint still matches,
+ * otherwise it gets generated at runtime as usual.
+ *
+ * If {@link OpenWebBeansConfiguration#PROXY_CATALOG_OUTPUT} is configured this service
+ * records all proxies defined at runtime into this directory instead,
+ * see {@link org.apache.webbeans.proxy.ProxyCatalogGenerator}.
+ * The proxy classes get written when they are defined, the catalog only on {@link #flushCatalog()}
+ * and when the service gets closed.
+ */
+public class PreGeneratedProxyService extends ClassLoaderProxyService implements Closeable
+{
+    public static final String CATALOG_LOCATION = "META-INF/openwebbeans/proxies.properties";
+    public static final String PROXIES_LOCATION = "META-INF/openwebbeans/proxies/";
+
+    private static final Logger logger = WebBeansLoggerFacade.getLogger(PreGeneratedProxyService.class);
+
+    private final ClassLoader deploymentClassLoader;
+
+    /**
+     * key: proxy class name, value: fingerprint
+     */
+    private final Properties catalog = new Properties();
+
+    private final File output;
+
+    /**
+     * fingerprints of the proxies which are about to get generated in recording mode.
+     */
+    private final Map<String, String> pendingFingerprints = new HashMap<>();
+
+    /**
+     * whether proxies got recorded since the catalog got written the last time.
+     */
+    private boolean catalogDirty;
+
+    public PreGeneratedProxyService(WebBeansContext context)
+    {
+        super(context);
+        deploymentClassLoader = WebBeansUtil.getCurrentClassLoader();
+
+        String outputDirectory = context.getOpenWebBeansConfiguration().getProperty(OpenWebBeansConfiguration.PROXY_CATALOG_OUTPUT);
+        output = outputDirectory == null ? null : new File(outputDirectory);
+        if (output == null)
+        {
+            loadCatalog();
+        }
+    }
+
+    @Override
+    public boolean usesPreGeneratedProxies()
+    {
+        return output != null || !catalog.isEmpty();
+    }
+
+    @Override
+    public synchronized <T> Class<T> findPreGeneratedProxy(String name, String fingerprint, Class<T> proxiedClass)
+    {
+        if (output != null)
+        {
+            pendingFingerprints.put(name, fingerprint);
+            return null;
+        }
+
+        String catalogFingerprint = catalog.getProperty(name);
+        if (catalogFingerprint == null)
+        {
+            return null;
+        }
+        if (!catalogFingerprint.equals(fingerprint))
+        {
+            if (logger.isLoggable(Level.FINE))
+            {
+                logger.fine("pre-generated proxy " + name + " is outdated, generating it");
+            }
+            return null;
+        }
+
+        byte[] bytecode = readProxy(name);
+        if (bytecode == null)
+        {
+            return null;
+        }
+        return super.defineAndLoad(name, bytecode, proxiedClass);
+    }
+
+    @Override
+    public <T> Class<T> defineAndLoad(String name, byte[] bytecode, Class<T> proxiedClass)
+    {
+        Class<T> proxyClass = super.defineAndLoad(name, bytecode, proxiedClass);
+        if (output != null)
+        {
+            record(name, bytecode);
+        }
+        return proxyClass;
+    }
+
+    private synchronized void record(String name, byte[] bytecode)
+    {
+        String fingerprint = pendingFingerprints.remove(name);
+        if (fingerprint == null)
+        {
+            return;
+        }
+
+        File proxyFile = new File(output, PROXIES_LOCATION + name.replace('.', '/') + ".class");
+        try
+        {
+            mkdirs(proxyFile.getParentFile());
+            try (OutputStream out = new FileOutputStream(proxyFile))
+            {
+                out.write(bytecode);
+            }
+        }
+        catch (IOException e)
+        {
+            throw new WebBeansException("Can't write pre-generated proxy " + name, e);
+        }
+        catalog.setProperty(name, fingerprint);
+        catalogDirty = true;
+    }
+
+    /**
+     * Writes the catalog of the proxies recorded so far, a no-op if nothing got recorded.
+     */
+    public synchronized void flushCatalog()
+    {
+        if (output == null || !catalogDirty)
+        {
+            return;
+        }
+
+        File catalogFile = new File(output, CATALOG_LOCATION);
+        try
+        {
+            mkdirs(catalogFile.getParentFile());
+            try (OutputStream out = new FileOutputStream(catalogFile))
+            {
+                catalog.store(out, "OpenWebBeans pre-generated proxies");
+            }
+        }
+        catch (IOException e)
+        {
+            throw new WebBeansException("Can't write the pre-generated proxy catalog " + catalogFile, e);
+        }
+        catalogDirty = false;
+    }
+
+    @Override
+    public void close()
+    {
+        flushCatalog();
+    }
+
+    private void loadCatalog()
+    {
+        try
+        {
+            Enumeration<URL> catalogs = deploymentClassLoader.getResources(CATALOG_LOCATION);
+            while (catalogs.hasMoreElements())
+            {
+                try (InputStream in = catalogs.nextElement().openStream())
+                {
+                    catalog.load(in);
+                }
+            }
+        }
+        catch (IOException e)
+        {
+            throw new WebBeansException("Can't read the pre-generated proxy catalog", e);
+        }
+    }
+
+    private byte[] readProxy(String name)
+    {
+        try (InputStream in = deploymentClassLoader.getResourceAsStream(PROXIES_LOCATION + name.replace('.', '/') + ".class"))
+        {
+            if (in == null)
+            {
+                return null;
+            }
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = in.read(buffer)) >= 0)
+            {
+                bytes.write(buffer, 0, read);
+            }
+            return bytes.toByteArray();
+        }
+        catch (IOException e)
+        {
+            logger.log(Level.WARNING, "Can't read pre-generated proxy " + name, e);
+            return null;
+        }
+    }
+
+    private static void mkdirs(File directory) throws IOException
+    {
+        if (!directory.isDirectory() && !directory.mkdirs())
+        {
+            throw new IOException("Can't create " + directory);
+        }
+    }
+}
@@ -0,0 +1,388 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.util;
+
+import java.util.ArrayDeque;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.webbeans.exception.WebBeansConfigurationException;
+import org.apache.webbeans.spi.InstrumentationService;
+
+/**
+ * A concurrent cache with an upper bound for the number of entries.
+ *
+ * Reads are lock free and only flag the entry as recently used.
+ * Adding a new entry to a full cache takes a lock, so the number of entries never exceeds the bound.
+ * The victims get picked with the CLOCK (second chance) algorithm which approximates LRU.
+ *
+ * The {@link Eviction#TINY_LFU} policy follows W-TinyLFU: new entries always get into a small
+ * FIFO admission window of 1% of the entries. An entry leaving the window only gets into the main
+ * region if it got requested more often than the victim of the main region, otherwise it gets rejected.
+ * This protects the frequently used entries from being flushed by one-time lookups while a burst of new
+ * entries still gets cached for a while. The access frequencies are tracked in a small count-min sketch.
+ *
+ * A cache with a {@code maxSize <= 0} is unbounded.
+ */
+public final class BoundedCache<K, V>
+{
+    public enum Eviction
+    {
+        LRU,
+        TINY_LFU;
+
+        /**
+         * @param value {@code lru} or {@code tinylfu}, case insensitive
+         * @return the configured eviction policy, {@link #LRU} if none is configured
+         */
+        public static Eviction parse(String value)
+        {
+            if (value == null || value.trim().isEmpty())
+            {
+                return LRU;
+            }
+            String normalized = value.trim().toUpperCase(Locale.ENGLISH).replace("-", "_");
+            if ("TINYLFU".equals(normalized) || "W_TINYLFU".equals(normalized))
+            {
+                return TINY_LFU;
+            }
+            if ("LRU".equals(normalized))
+            {
+                return LRU;
+            }
+            throw new WebBeansConfigurationException("Unknown cache eviction policy " + value + ", use lru or tinylfu");
+        }
+    }
+
+    private final String name;
+    private final int maxSize;
+    private final InstrumentationService instrumentation;
+    private final FrequencySketch sketch;
+
+    /**
+     * with {@link Eviction#LRU} all entries are in the window and the main region is empty.
+     */
+    private final int windowMaxSize;
+    private final int mainMaxSize;
+
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+
+    /**
+     * the clocks of the keys in the admission window and in the main region, ordered by insertion.
+     * Guarded by {@code this}.
+     */
+    private final ArrayDeque<K> window = new ArrayDeque<>();
+    private final ArrayDeque<K> main = new ArrayDeque<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+
+    /**
+     * @param name name reported to the {@link InstrumentationService}
+     * @param maxSize the maximum number of entries, {@code <= 0} for an unbounded cache
+     * @param eviction the eviction policy
+     * @param instrumentation callback for cache events, might be {@code null}
+     */
+    public BoundedCache(String name, int maxSize, Eviction eviction, InstrumentationService instrumentation)
+    {
+        this.name = name;
+        this.maxSize = maxSize;
+        this.instrumentation = instrumentation;
+        sketch = maxSize > 0 && eviction == Eviction.TINY_LFU ? new FrequencySketch(maxSize) : null;
+        windowMaxSize = sketch == null ? maxSize : Math.max(1, maxSize / 100);
+        mainMaxSize = Math.max(0, maxSize - windowMaxSize);
+    }
+
+    /**
+     * @return the cached value or {@code null} if there is none
+     */
+    public V get(K key)
+    {
+        if (sketch != null)
+        {
+            sketch.increment(key.hashCode());
+        }
+
+        Entry<V> entry = entries.get(key);
+        if (entry == null)
+        {
+            misses.increment();
+            if (instrumentation != null)
+            {
+                instrumentation.cacheMiss(name);
+            }
+            return null;
+        }
+
+        if (!entry.referenced)
+        {
+            entry.referenced = true;
+        }
+        hits.increment();
+        if (instrumentation != null)
+        {
+            instrumentation.cacheHit(name);
+        }
+        return entry.value;
+    }
+
+    public void put(K key, V value)
+    {
+        if (maxSize <= 0)
+        {
+            entries.put(key, new Entry<>(value));
+            return;
+        }
+
+        synchronized (this)
+        {
+            if (entries.containsKey(key))
+            {
+                // the key keeps its place in the window or the main region
+                entries.put(key, new Entry<>(value));
+                return;
+            }
+
+            // make room before adding the entry, so even concurrent readers never see more than maxSize entries
+            if (window.size() >= windowMaxSize)
+            {
+                // the window is a plain FIFO, every new entry gets its full time there
+                admit(mainMaxSize == 0 ? victim(window) : window.poll());
+            }
+            entries.put(key, new Entry<>(value));
+            window.offer(key);
+        }
+    }
+
+    public synchronized void clear()
+    {
+        entries.clear();
+        window.clear();
+        main.clear();
+    }
+
+    public int size()
+    {
+        return entries.size();
+    }
+
+    public int getMaxSize()
+    {
+        return maxSize;
+    }
+
+    public long getHitCount()
+    {
+        return hits.sum();
+    }
+
+    public long getMissCount()
+    {
+        return misses.sum();
+    }
+
+    /**
+     * @return the number of entries removed to make room for other entries
+     */
+    public long getEvictionCount()
+    {
+        return evictions.sum();
+    }
+
+    /**
+     * @return the number of entries which left the admission window of the {@link Eviction#TINY_LFU} policy
+     *         but did not get into the main region because they were requested less often than its victim
+     */
+    public long getRejectionCount()
+    {
+        return rejections.sum();
+    }
+
+    /**
+     * Moves the candidate which left the window to the main region if it deserves it, called with the lock held.
+     */
+    private void admit(K candidate)
+    {
+        if (main.size() < mainMaxSize)
+        {
+            main.offer(candidate);
+            return;
+        }
+        if (mainMaxSize == 0)
+        {
+            entries.remove(candidate);
+            evicted();
+            return;
+        }
+
+        K victim = victim(main);
+        if (sketch.frequency(candidate.hashCode()) > sketch.frequency(victim.hashCode()))
+        {
+            entries.remove(victim);
+            evicted();
+            main.offer(candidate);
+        }
+        else
+        {
+            // the victim is used more often than the new entry, keep it as next victim
+            main.offerFirst(victim);
+            entries.remove(candidate);
+            rejected();
+        }
+    }
+
+    /**
+     * Removes the next key from the clock, entries which got read since the hand passed by get a second chance.
+     * Called with the lock held.
+     */
+    private K victim(ArrayDeque<K> clock)
+    {
+        // every entry gets at most one second chance, so 2 rounds of the clock are the upper bound
+        for (int steps = 2 * clock.size(); steps > 0; steps--)
+        {
+            K key = clock.poll();
+            Entry<V> entry = entries.get(key);
+            if (!entry.referenced)
+            {
+                return key;
+            }
+            entry.referenced = false;
+            clock.offer(key);
+        }
+        // all entries got read concurrently meanwhile, take the oldest one anyway
+        return clock.poll();
+    }
+
+    private void evicted()
+    {
+        evictions.increment();
+        if (instrumentation != null)
+        {
+            instrumentation.cacheEviction(name);
+        }
+    }
+
+    private void rejected()
+    {
+        rejections.increment();
+        if (instrumentation != null)
+        {
+            instrumentation.cacheRejection(name);
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return "BoundedCache{name=" + name + ", size=" + entries.size() + ", maxSize=" + maxSize +
+                ", hits=" + hits.sum() + ", misses=" + misses.sum() + ", evictions=" + evictions.sum() +
+                ", rejections=" + rejections.sum() + '}';
+    }
+
+    private static final class Entry<V>
+    {
+        private final V value;
+
+        /**
+         * set on each read, cleared when the clock hand passes by.
+         * Races are fine as this is only a hint for the eviction.
+         */
+        private volatile boolean referenced;
+
+        private Entry(V value)
+        {
+            this.value = value;
+        }
+    }
+
+    /**
+     * Count-min sketch with 4 rows of 4 bit counters, all counters get halved
+     * after 10 * maxSize increments so old popularity fades out.
+     * Updates are not atomic, losing some of them under contention is acceptable
+     * for a frequency estimate.
+     */
+    private static final class FrequencySketch
+    {
+        private static final int[] SEEDS = {0x97cb3127, 0xb3c35ad1, 0x1b873593, 0xcc9e2d51};
+        private static final int MAX_COUNT = 15;
+
+        private final byte[][] rows = new byte[SEEDS.length][];
+        private final int mask;
+        private final int resetThreshold;
+        private int additions;
+
+        private FrequencySketch(int maxSize)
+        {
+            int width = Integer.highestOneBit(Math.max(16, maxSize - 1) << 1);
+            for (int i = 0; i < rows.length; i++)
+            {
+                rows[i] = new byte[width];
+            }
+            mask = width - 1;
+            resetThreshold = 10 * maxSize;
+        }
+
+        private void increment(int hash)
+        {
+            for (int i = 0; i < rows.length; i++)
+            {
+                int index = index(hash, i);
+                if (rows[i][index] < MAX_COUNT)
+                {
+                    rows[i][index]++;
+                }
+            }
+            if (++additions >= resetThreshold)
+            {
+                reset();
+            }
+        }
+
+        private int frequency(int hash)
+        {
+            int frequency = MAX_COUNT;
+            for (int i = 0; i < rows.length; i++)
+            {
+                frequency = Math.min(frequency, rows[i][index(hash, i)]);
+            }
+            return frequency;
+        }
+
+        private void reset()
+        {
+            additions = 0;
+            for (byte[] row : rows)
+            {
+                for (int i = 0; i < row.length; i++)
+                {
+                    row[i] = (byte) (row[i] >>> 1);
+                }
+            }
+        }
+
+        private int index(int hash, int row)
+        {
+            int h = hash * SEEDS[row];
+            return (h ^ (h >>> 16)) & mask;
+        }
+    }
+}
@@ -52,22 +52,28 @@ public final class GenericsUtil
     public static boolean satisfiesDependency(boolean isDelegateOrEvent, boolean isProducer, Type injectionPointType, Type beanType,
                                               Map<Type, Integer> visited)
     {
-        if (beanType instanceof TypeVariable || beanType instanceof WildcardType || beanType instanceof GenericArrayType)
+        if (needsAssignabilityCheck(injectionPointType, beanType))
         {
             return isAssignableFrom(isDelegateOrEvent, isProducer, injectionPointType, beanType, visited);
         }
-        else
+
+        return false;
+    }
+
+    /**
+     * @return {@code false} if the bean type can't satisfy the injection point type because the raw types differ,
+     *         {@code true} if {@link #isAssignableFrom} decides
+     */
+    public static boolean needsAssignabilityCheck(Type injectionPointType, Type beanType)
+    {
+        if (beanType instanceof TypeVariable || beanType instanceof WildcardType || beanType instanceof GenericArrayType)
         {
-            Type injectionPointRawType = injectionPointType instanceof ParameterizedType? ((ParameterizedType)injectionPointType).getRawType(): injectionPointType;
-            Type beanRawType = beanType instanceof ParameterizedType? ((ParameterizedType)beanType).getRawType(): beanType;
-            
-            if  (ClassUtil.isSame(injectionPointRawType, beanRawType))
-            {
-                return isAssignableFrom(isDelegateOrEvent, isProducer, injectionPointType, beanType, visited);
-            }
+            return true;
         }
 
-        return false;
+        Type injectionPointRawType = injectionPointType instanceof ParameterizedType? ((ParameterizedType)injectionPointType).getRawType(): injectionPointType;
+        Type beanRawType = beanType instanceof ParameterizedType? ((ParameterizedType)beanType).getRawType(): beanType;
+        return ClassUtil.isSame(injectionPointRawType, beanRawType);
     }
 
     public static boolean satisfiesDependencyRaw(boolean isDelegateOrEvent, boolean isProducer, Type injectionPointType, Type beanType,
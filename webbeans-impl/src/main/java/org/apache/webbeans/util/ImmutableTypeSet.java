@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.util;
+
+import java.lang.reflect.Type;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An immutable set of types backed by an array.
+ *
+ * Type closures and bean types are small and never change once they got built,
+ * so instances get created by the {@link TypeInterner} and shared between all beans
+ * and annotated elements with the same types.
+ */
+public final class ImmutableTypeSet extends AbstractSet<Type>
+{
+    private final Type[] types;
+    private final int[] hashes;
+    private final int hashCode;
+
+    /**
+     * @param types distinct types
+     */
+    ImmutableTypeSet(Collection<Type> types)
+    {
+        this.types = types.toArray(new Type[types.size()]);
+        hashes = new int[this.types.length];
+        int hash = 0;
+        for (int i = 0; i < this.types.length; i++)
+        {
+            hashes[i] = this.types[i].hashCode();
+            hash += hashes[i];
+        }
+        hashCode = hash;
+    }
+
+    @Override
+    public Iterator<Type> iterator()
+    {
+        return new Iterator<Type>()
+        {
+            private int index;
+
+            @Override
+            public boolean hasNext()
+            {
+                return index < types.length;
+            }
+
+            @Override
+            public Type next()
+            {
+                if (index >= types.length)
+                {
+                    throw new NoSuchElementException();
+                }
+                return types[index++];
+            }
+        };
+    }
+
+    @Override
+    public int size()
+    {
+        return types.length;
+    }
+
+    @Override
+    public boolean contains(Object o)
+    {
+        if (!(o instanceof Type))
+        {
+            return false;
+        }
+        int hash = o.hashCode();
+        for (int i = 0; i < types.length; i++)
+        {
+            // same order of checks as a HashSet
+            if (hashes[i] == hash && (types[i] == o || o.equals(types[i])))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o)
+        {
+            return true;
+        }
+        if (o instanceof ImmutableTypeSet && ((ImmutableTypeSet) o).hashCode != hashCode)
+        {
+            return false;
+        }
+        return super.equals(o);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return hashCode;
+    }
+}
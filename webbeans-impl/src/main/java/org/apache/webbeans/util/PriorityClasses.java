@@ -33,7 +33,7 @@ public class PriorityClasses
      * value: the priority. Alternatives from beans.xml have -1 as they are lowest prio.
      */
     private final List<PriorityClass> raw = new ArrayList<>();
-    private List<Class<?>> sorted;
+    private volatile List<Class<?>> sorted;
 
     public OptionalInt getPriority(final Class<?> type)
     {
@@ -60,20 +60,34 @@ public class PriorityClasses
     }
 
     public List<Class<?>> getSorted()
+    {
+        List<Class<?>> result = sorted;
+        if (result == null)
+        {
+            result = sort();
+        }
+
+        return result;
+    }
+
+    /**
+     * Synchronized as the sorted list might be requested from multiple threads during a parallel deployment.
+     */
+    private synchronized List<Class<?>> sort()
     {
         if (sorted == null)
         {
             Collections.sort(raw);
 
-            sorted = new ArrayList<>(raw.size());
+            List<Class<?>> result = new ArrayList<>(raw.size());
 
             for (PriorityClass priorityAlternative : raw)
             {
                 // add in reverse order
-                sorted.add(priorityAlternative.getClazz());
+                result.add(priorityAlternative.getClazz());
             }
+            sorted = result;
         }
-
         return sorted;
     }
 
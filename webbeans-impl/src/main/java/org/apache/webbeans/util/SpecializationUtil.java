@@ -217,7 +217,7 @@ public class SpecializationUtil
                 }
                 else
                 {
-                    superClassTypes = superType.getTypeClosure();
+                    superClassTypes = new HashSet<>(superType.getTypeClosure());
 
                     // we can ignore Object.class in this case
                     superClassTypes.remove(Object.class);
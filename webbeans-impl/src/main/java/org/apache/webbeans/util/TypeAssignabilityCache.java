@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.util;
+
+import java.lang.reflect.Type;
+import java.util.HashMap;
+
+import org.apache.webbeans.spi.InstrumentationService;
+
+/**
+ * Memoizes the results of {@link GenericsUtil#satisfiesDependency} and {@link GenericsUtil#isAssignableFrom}.
+ *
+ * The same pairs of required type and bean type get checked over and over again during the deployment
+ * and for each new dynamic lookup. The results only depend on the types and flags, so they get cached
+ * per container. Pairs without type variables and pairs containing type variables
+ * get cached in two caches, each bounded to a configured number of entries.
+ * Both need a bound: every injection point of a generic type gets checked against
+ * every bean type with the same raw type, so the number of pairs grows with the square of the beans.
+ *
+ * The types get compared structurally, so types of different implementations,
+ * e.g. a JDK and an OWB {@link java.lang.reflect.ParameterizedType}, share the same entry.
+ * Types of unknown implementations don't get cached at all.
+ */
+public final class TypeAssignabilityCache
+{
+    private static final int SATISFIES_DEPENDENCY = 0;
+    private static final int IS_ASSIGNABLE_FROM = 1;
+
+    private final BoundedCache<Key, Boolean> plainTypes;
+    private final BoundedCache<Key, Boolean> typeVariables;
+
+    /**
+     * @param plainTypesMaxSize maximum number of cached pairs without type variables, {@code <= 0} for no bound
+     * @param typeVariablesMaxSize maximum number of cached pairs containing type variables, {@code <= 0} for no bound
+     * @param instrumentation callback for cache events, might be {@code null}
+     */
+    public TypeAssignabilityCache(int plainTypesMaxSize, int typeVariablesMaxSize, InstrumentationService instrumentation)
+    {
+        plainTypes = new BoundedCache<>("assignablePlainTypes", plainTypesMaxSize, BoundedCache.Eviction.LRU, instrumentation);
+        typeVariables = new BoundedCache<>("assignableTypeVariables", typeVariablesMaxSize, BoundedCache.Eviction.LRU, instrumentation);
+    }
+
+    /**
+     * Cached variant of {@link GenericsUtil#satisfiesDependency(boolean, boolean, Type, Type, java.util.Map)}.
+     */
+    public boolean satisfiesDependency(boolean isDelegateOrEvent, boolean isProducer, Type injectionPointType, Type beanType)
+    {
+        if (!GenericsUtil.needsAssignabilityCheck(injectionPointType, beanType))
+        {
+            // cheap and by far the most common case, caching it would only fill the cache
+            return false;
+        }
+        return lookup(SATISFIES_DEPENDENCY, isDelegateOrEvent, isProducer, injectionPointType, beanType);
+    }
+
+    /**
+     * Cached variant of {@link GenericsUtil#isAssignableFrom(boolean, boolean, Type, Type, java.util.Map)}.
+     */
+    public boolean isAssignableFrom(boolean isDelegateOrEvent, boolean isProducer, Type requiredType, Type beanType)
+    {
+        return lookup(IS_ASSIGNABLE_FROM, isDelegateOrEvent, isProducer, requiredType, beanType);
+    }
+
+    public void clear()
+    {
+        plainTypes.clear();
+        typeVariables.clear();
+    }
+
+    /**
+     * @return number of cached pairs without type variables
+     */
+    public int getPlainTypesSize()
+    {
+        return plainTypes.size();
+    }
+
+    /**
+     * @return number of cached pairs containing type variables
+     */
+    public int getTypeVariablesSize()
+    {
+        return typeVariables.size();
+    }
+
+    private boolean lookup(int operation, boolean isDelegateOrEvent, boolean isProducer, Type requiredType, Type beanType)
+    {
+        int requiredKind = TypeStructure.kind(requiredType);
+        int beanKind = requiredKind == TypeStructure.UNSUPPORTED ? TypeStructure.UNSUPPORTED : TypeStructure.kind(beanType);
+        if (beanKind == TypeStructure.UNSUPPORTED)
+        {
+            return compute(operation, isDelegateOrEvent, isProducer, requiredType, beanType);
+        }
+
+        BoundedCache<Key, Boolean> cache = requiredKind == TypeStructure.PLAIN && beanKind == TypeStructure.PLAIN ? plainTypes : typeVariables;
+        Key key = new Key(operation, isDelegateOrEvent, isProducer, requiredType, beanType);
+        Boolean result = cache.get(key);
+        if (result == null)
+        {
+            // concurrent threads might compute the same pair, the result is the same anyway
+            result = compute(operation, isDelegateOrEvent, isProducer, requiredType, beanType);
+            cache.put(key, result);
+        }
+        return result;
+    }
+
+    private static boolean compute(int operation, boolean isDelegateOrEvent, boolean isProducer, Type requiredType, Type beanType)
+    {
+        if (operation == SATISFIES_DEPENDENCY)
+        {
+            return GenericsUtil.satisfiesDependency(isDelegateOrEvent, isProducer, requiredType, beanType, new HashMap<>());
+        }
+        return GenericsUtil.isAssignableFrom(isDelegateOrEvent, isProducer, requiredType, beanType, new HashMap<>());
+    }
+
+    private static final class Key
+    {
+        private final int operation;
+        private final boolean isDelegateOrEvent;
+        private final boolean isProducer;
+        private final Type requiredType;
+        private final Type beanType;
+        private final int hashCode;
+
+        private Key(int operation, boolean isDelegateOrEvent, boolean isProducer, Type requiredType, Type beanType)
+        {
+            this.operation = operation;
+            this.isDelegateOrEvent = isDelegateOrEvent;
+            this.isProducer = isProducer;
+            this.requiredType = requiredType;
+            this.beanType = beanType;
+
+            int flags = (operation << 2) | (isDelegateOrEvent ? 2 : 0) | (isProducer ? 1 : 0);
+            hashCode = 31 * (31 * TypeStructure.hash(requiredType) + TypeStructure.hash(beanType)) + flags;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o)
+            {
+                return true;
+            }
+            if (!(o instanceof Key))
+            {
+                return false;
+            }
+            Key other = (Key) o;
+            return hashCode == other.hashCode
+                    && operation == other.operation
+                    && isDelegateOrEvent == other.isDelegateOrEvent
+                    && isProducer == other.isProducer
+                    && TypeStructure.same(requiredType, other.requiredType)
+                    && TypeStructure.same(beanType, other.beanType);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hashCode;
+        }
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.util;
+
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.webbeans.config.OwbGenericArrayTypeImpl;
+import org.apache.webbeans.config.OwbParametrizedTypeImpl;
+import org.apache.webbeans.config.OwbWildcardTypeImpl;
+
+/**
+ * Keeps one canonical instance of each type and of each set of types of a container.
+ *
+ * Reflection creates new {@link ParameterizedType} instances for each field, method and parameter,
+ * and each bean keeps its own type closure. With interning, equal types and type closures
+ * share a single instance. Nested types get interned as well.
+ *
+ * Types get compared structurally, so the first instance of a type becomes the canonical one,
+ * no matter whether it is a JDK or an OWB implementation. Types of unknown implementations
+ * don't get interned.
+ */
+public final class TypeInterner
+{
+    private final boolean enabled;
+    private final ConcurrentMap<TypeKey, Type> types = new ConcurrentHashMap<>();
+    private final ConcurrentMap<ImmutableTypeSet, ImmutableTypeSet> typeSets = new ConcurrentHashMap<>();
+
+    /**
+     * @param enabled if {@code false} all types and sets of types get returned as they are
+     */
+    public TypeInterner(boolean enabled)
+    {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    /**
+     * @return the canonical instance of the given type
+     */
+    public Type intern(Type type)
+    {
+        if (!enabled || type == null || type instanceof Class || TypeStructure.kind(type) == TypeStructure.UNSUPPORTED)
+        {
+            return type;
+        }
+        return internSupported(type);
+    }
+
+    /**
+     * @param typeSet the set to intern, must not be changed afterwards
+     * @return the shared {@link ImmutableTypeSet} with the canonical instances of the given types,
+     *         the given set if interning is disabled
+     */
+    public Set<Type> internTypes(Set<Type> typeSet)
+    {
+        if (!enabled || typeSet == null || typeSet instanceof ImmutableTypeSet)
+        {
+            return typeSet;
+        }
+
+        Set<Type> canonicalTypes = new LinkedHashSet<>();
+        boolean supported = true;
+        for (Type type : typeSet)
+        {
+            if (type instanceof Class)
+            {
+                canonicalTypes.add(type);
+            }
+            else if (TypeStructure.kind(type) == TypeStructure.UNSUPPORTED)
+            {
+                canonicalTypes.add(type);
+                supported = false;
+            }
+            else
+            {
+                canonicalTypes.add(internSupported(type));
+            }
+        }
+
+        ImmutableTypeSet candidate = new ImmutableTypeSet(canonicalTypes);
+        if (!supported)
+        {
+            // equality of unknown type implementations can't be trusted, don't share such a set
+            return candidate;
+        }
+        ImmutableTypeSet existing = typeSets.putIfAbsent(candidate, candidate);
+        return existing != null ? existing : candidate;
+    }
+
+    /**
+     * @return number of interned types
+     */
+    public int getTypeCount()
+    {
+        return types.size();
+    }
+
+    /**
+     * @return number of interned sets of types
+     */
+    public int getTypeSetCount()
+    {
+        return typeSets.size();
+    }
+
+    public void clear()
+    {
+        types.clear();
+        typeSets.clear();
+    }
+
+    private Type internSupported(Type type)
+    {
+        if (type instanceof Class)
+        {
+            return type;
+        }
+
+        TypeKey key = new TypeKey(type);
+        Type canonical = types.get(key);
+        if (canonical != null)
+        {
+            return canonical;
+        }
+
+        canonical = withInternedComponents(type);
+        Type existing = types.putIfAbsent(canonical == type ? key : new TypeKey(canonical), canonical);
+        return existing != null ? existing : canonical;
+    }
+
+    /**
+     * @return the type itself if all its components are canonical already,
+     *         otherwise a new instance built of the canonical components
+     */
+    private Type withInternedComponents(Type type)
+    {
+        if (type instanceof ParameterizedType)
+        {
+            ParameterizedType parameterizedType = (ParameterizedType) type;
+            Type owner = parameterizedType.getOwnerType();
+            Type canonicalOwner = owner == null ? null : internSupported(owner);
+            Type[] arguments = parameterizedType.getActualTypeArguments().clone();
+            boolean changed = internAll(arguments);
+            if (changed || canonicalOwner != owner)
+            {
+                return new OwbParametrizedTypeImpl(canonicalOwner, parameterizedType.getRawType(), arguments);
+            }
+        }
+        else if (type instanceof WildcardType)
+        {
+            WildcardType wildcardType = (WildcardType) type;
+            Type[] upperBounds = wildcardType.getUpperBounds().clone();
+            Type[] lowerBounds = wildcardType.getLowerBounds().clone();
+            boolean changed = internAll(upperBounds);
+            changed |= internAll(lowerBounds);
+            if (changed)
+            {
+                return new OwbWildcardTypeImpl(upperBounds, lowerBounds);
+            }
+        }
+        else if (type instanceof GenericArrayType)
+        {
+            Type componentType = ((GenericArrayType) type).getGenericComponentType();
+            Type canonicalComponentType = internSupported(componentType);
+            if (canonicalComponentType != componentType)
+            {
+                return new OwbGenericArrayTypeImpl(canonicalComponentType);
+            }
+        }
+        // type variables are kept as they are, their bounds might refer to themselves
+        return type;
+    }
+
+    /**
+     * Replaces the given types with their canonical instances.
+     * @return whether any of the types got replaced
+     */
+    private boolean internAll(Type[] componentTypes)
+    {
+        boolean changed = false;
+        for (int i = 0; i < componentTypes.length; i++)
+        {
+            Type canonical = internSupported(componentTypes[i]);
+            if (canonical != componentTypes[i])
+            {
+                componentTypes[i] = canonical;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    private static final class TypeKey
+    {
+        private final Type type;
+        private final int hashCode;
+
+        private TypeKey(Type type)
+        {
+            this.type = type;
+            hashCode = TypeStructure.hash(type);
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            return this == o
+                    || o instanceof TypeKey && hashCode == ((TypeKey) o).hashCode && TypeStructure.same(type, ((TypeKey) o).type);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hashCode;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.util;
+
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.Arrays;
+
+/**
+ * Structural comparison of types, independent of the implementation of the
+ * {@link ParameterizedType}s, {@link WildcardType}s and {@link GenericArrayType}s.
+ */
+final class TypeStructure
+{
+    static final int UNSUPPORTED = -1;
+    static final int PLAIN = 0;
+    static final int VARIABLE = 1;
+
+    private TypeStructure()
+    {
+        // utility class
+    }
+
+    /**
+     * @return {@link #PLAIN}, {@link #VARIABLE} if the type contains a type variable
+     *         or {@link #UNSUPPORTED} if it contains a type of an unknown implementation
+     */
+    static int kind(Type type)
+    {
+        if (type instanceof Class)
+        {
+            return PLAIN;
+        }
+        if (type instanceof TypeVariable)
+        {
+            return VARIABLE;
+        }
+        if (type instanceof ParameterizedType)
+        {
+            ParameterizedType parameterizedType = (ParameterizedType) type;
+            int kind = kind(parameterizedType.getRawType());
+            if (parameterizedType.getOwnerType() != null)
+            {
+                kind = combine(kind, kind(parameterizedType.getOwnerType()));
+            }
+            return combine(kind, kind(parameterizedType.getActualTypeArguments()));
+        }
+        if (type instanceof WildcardType)
+        {
+            WildcardType wildcardType = (WildcardType) type;
+            return combine(kind(wildcardType.getUpperBounds()), kind(wildcardType.getLowerBounds()));
+        }
+        if (type instanceof GenericArrayType)
+        {
+            return kind(((GenericArrayType) type).getGenericComponentType());
+        }
+        return UNSUPPORTED;
+    }
+
+    static int kind(Type[] types)
+    {
+        int kind = PLAIN;
+        for (Type type : types)
+        {
+            kind = combine(kind, kind(type));
+            if (kind == UNSUPPORTED)
+            {
+                break;
+            }
+        }
+        return kind;
+    }
+
+    private static int combine(int kind, int other)
+    {
+        return kind == UNSUPPORTED || other == UNSUPPORTED ? UNSUPPORTED : Math.max(kind, other);
+    }
+
+    static int hash(Type type)
+    {
+        if (type instanceof ParameterizedType)
+        {
+            ParameterizedType parameterizedType = (ParameterizedType) type;
+            return 31 * hash(parameterizedType.getRawType()) + hash(parameterizedType.getActualTypeArguments());
+        }
+        if (type instanceof WildcardType)
+        {
+            WildcardType wildcardType = (WildcardType) type;
+            return 31 * hash(wildcardType.getUpperBounds()) + hash(wildcardType.getLowerBounds()) + 7;
+        }
+        if (type instanceof GenericArrayType)
+        {
+            return 31 * hash(((GenericArrayType) type).getGenericComponentType()) + 3;
+        }
+        if (type instanceof TypeVariable)
+        {
+            // the bounds are left out, they might refer to the type variable itself
+            TypeVariable<?> typeVariable = (TypeVariable<?>) type;
+            return 31 * typeVariable.getName().hashCode() + typeVariable.getGenericDeclaration().hashCode();
+        }
+        return type.hashCode();
+    }
+
+    static int hash(Type[] types)
+    {
+        int hash = 1;
+        for (Type type : types)
+        {
+            hash = 31 * hash + hash(type);
+        }
+        return hash;
+    }
+
+    static boolean same(Type type, Type other)
+    {
+        if (type == other)
+        {
+            return true;
+        }
+        if (type == null || other == null)
+        {
+            return false;
+        }
+        if (type instanceof ParameterizedType && other instanceof ParameterizedType)
+        {
+            ParameterizedType parameterizedType = (ParameterizedType) type;
+            ParameterizedType otherParameterizedType = (ParameterizedType) other;
+            return same(parameterizedType.getRawType(), otherParameterizedType.getRawType())
+                    && same(parameterizedType.getOwnerType(), otherParameterizedType.getOwnerType())
+                    && same(parameterizedType.getActualTypeArguments(), otherParameterizedType.getActualTypeArguments());
+        }
+        if (type instanceof WildcardType && other instanceof WildcardType)
+        {
+            WildcardType wildcardType = (WildcardType) type;
+            WildcardType otherWildcardType = (WildcardType) other;
+            return same(wildcardType.getUpperBounds(), otherWildcardType.getUpperBounds())
+                    && same(wildcardType.getLowerBounds(), otherWildcardType.getLowerBounds());
+        }
+        if (type instanceof GenericArrayType && other instanceof GenericArrayType)
+        {
+            return same(((GenericArrayType) type).getGenericComponentType(), ((GenericArrayType) other).getGenericComponentType());
+        }
+        if (type instanceof TypeVariable && other instanceof TypeVariable)
+        {
+            // OWB creates type variables with resolved bounds, so the bounds must match as well
+            TypeVariable<?> typeVariable = (TypeVariable<?>) type;
+            TypeVariable<?> otherTypeVariable = (TypeVariable<?>) other;
+            return typeVariable.getName().equals(otherTypeVariable.getName())
+                    && typeVariable.getGenericDeclaration().equals(otherTypeVariable.getGenericDeclaration())
+                    && Arrays.equals(typeVariable.getBounds(), otherTypeVariable.getBounds());
+        }
+        // classes
+        return false;
+    }
+
+    static boolean same(Type[] types, Type[] others)
+    {
+        if (types.length != others.length)
+        {
+            return false;
+        }
+        for (int i = 0; i < types.length; i++)
+        {
+            if (!same(types[i], others[i]))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+}
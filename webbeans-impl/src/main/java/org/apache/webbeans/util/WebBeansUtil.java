@@ -725,8 +725,16 @@ public final class WebBeansUtil
      */
     public <T> GProcessAnnotatedType fireProcessAnnotatedTypeEvent(AnnotatedType<T> annotatedType)
     {
-        GProcessAnnotatedType processAnnotatedEvent = new GProcessAnnotatedType(webBeansContext, annotatedType);
+        return fireProcessAnnotatedTypeEvent(new GProcessAnnotatedType(webBeansContext, annotatedType));
+    }
 
+    /**
+     * Fires an already created <code>ProcessAnnotatedType</code> event.
+     * @param processAnnotatedEvent event
+     * @return event
+     */
+    public GProcessAnnotatedType fireProcessAnnotatedTypeEvent(GProcessAnnotatedType processAnnotatedEvent)
+    {
         //Fires ProcessAnnotatedType
         webBeansContext.getBeanManagerImpl().fireEvent(processAnnotatedEvent, true, AnnotationUtil.EMPTY_ANNOTATION_ARRAY);
 
@@ -1654,9 +1662,17 @@ public final class WebBeansUtil
     }
 
     public <T> ProcessBeanAttributesImpl<T> fireProcessBeanAttributes(Annotated annotatedType, Class<?> type, BeanAttributes<T> ba)
+    {
+        return fireProcessBeanAttributes(new GProcessBeanAttributes(webBeansContext, type, annotatedType, ba), annotatedType, ba);
+    }
+
+    /**
+     * Fires an already created <code>ProcessBeanAttributes</code> event for the given BeanAttributes.
+     * @return the event or {@code null} if the bean got vetoed
+     */
+    public <T> ProcessBeanAttributesImpl<T> fireProcessBeanAttributes(ProcessBeanAttributesImpl<T> event, Annotated annotatedType, BeanAttributes<T> ba)
     {
         // we don't use bm stack since it is actually quite useless
-        ProcessBeanAttributesImpl event = new GProcessBeanAttributes(webBeansContext, type, annotatedType, ba);
         try
         {
             webBeansContext.getBeanManagerImpl().fireEvent(event, true, AnnotationUtil.EMPTY_ANNOTATION_ARRAY);
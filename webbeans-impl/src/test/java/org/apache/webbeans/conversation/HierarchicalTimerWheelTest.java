@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.conversation;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class HierarchicalTimerWheelTest
+{
+    @Test
+    public void expiresAtDeadline()
+    {
+        HierarchicalTimerWheel<String> wheel = new HierarchicalTimerWheel<>(10, 0);
+        wheel.schedule("b", 25);
+        wheel.schedule("a", 10);
+        wheel.schedule("c", 650);
+
+        Assert.assertEquals(emptyList(), advance(wheel, 9));
+        Assert.assertEquals(asList("a"), advance(wheel, 10));
+        Assert.assertEquals(emptyList(), advance(wheel, 29));
+        Assert.assertEquals(asList("b"), advance(wheel, 30));
+        Assert.assertEquals(1, wheel.size());
+        Assert.assertEquals(emptyList(), advance(wheel, 649));
+        Assert.assertEquals(asList("c"), advance(wheel, 650));
+        Assert.assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void cascadesFromUpperLevels()
+    {
+        HierarchicalTimerWheel<Long> wheel = new HierarchicalTimerWheel<>(1, 0);
+        long[] deadlines = {1, 63, 64, 65, 4095, 4096, 4097, 262143, 262144, 300000, 20000000};
+        for (long deadline : deadlines)
+        {
+            wheel.schedule(deadline, deadline);
+        }
+
+        for (long deadline : deadlines)
+        {
+            Assert.assertEquals(emptyList(), advance(wheel, deadline - 1));
+            Assert.assertEquals(asList(deadline), advance(wheel, deadline));
+        }
+        Assert.assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void pastDeadlinesExpireWithNextTick()
+    {
+        HierarchicalTimerWheel<String> wheel = new HierarchicalTimerWheel<>(10, 1000);
+        advance(wheel, 1500);
+        wheel.schedule("late", 900);
+        Assert.assertEquals(emptyList(), advance(wheel, 1509));
+        Assert.assertEquals(asList("late"), advance(wheel, 1510));
+    }
+
+    private static <E> List<E> advance(HierarchicalTimerWheel<E> wheel, long nowMillis)
+    {
+        List<E> expired = new ArrayList<>();
+        wheel.advance(nowMillis, expired::add);
+        return expired;
+    }
+}
@@ -18,8 +18,14 @@
  */
 package org.apache.webbeans.corespi.scanner;
 
+import static java.lang.annotation.ElementType.ANNOTATION_TYPE;
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+import static java.util.Arrays.asList;
 import static java.util.Collections.emptyEnumeration;
 import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonList;
+import static java.util.stream.Collectors.toList;
 import static org.apache.xbean.asm7.ClassWriter.COMPUTE_FRAMES;
 import static org.apache.xbean.asm7.Opcodes.ACC_PUBLIC;
 import static org.apache.xbean.asm7.Opcodes.ACC_SUPER;
@@ -35,11 +41,15 @@ import static org.junit.Assert.assertTrue;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
 import java.lang.reflect.Method;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.nio.charset.StandardCharsets;
 import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Properties;
 import java.util.Set;
 import java.util.function.Consumer;
@@ -54,10 +64,16 @@ import javax.enterprise.inject.spi.Extension;
 import org.apache.webbeans.config.WebBeansContext;
 import org.apache.webbeans.config.WebBeansFinder;
 import org.apache.webbeans.corespi.DefaultSingletonService;
+import org.apache.webbeans.corespi.scanner.xbean.OwbAnnotationFinder;
 import org.apache.webbeans.spi.ContainerLifecycle;
 import org.apache.xbean.asm7.ClassWriter;
 import org.apache.xbean.asm7.MethodVisitor;
 import org.apache.xbean.asm7.Type;
+import org.apache.xbean.finder.Annotated;
+import org.apache.xbean.finder.archive.Archive;
+import org.apache.xbean.finder.archive.ClassesArchive;
+import org.apache.xbean.finder.archive.ClasspathArchive;
+import org.apache.xbean.finder.archive.CompositeArchive;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
@@ -171,6 +187,81 @@ public class AbstractMetaDataDiscoveryTest
         }
     }
 
+    @Test
+    public void mergedFinder() throws Exception
+    {
+        final URL first = createModule("first.jar", "org/apache/openwebbeans/generated/test/First.class");
+        final URL second = createModule("second.jar", "org/apache/openwebbeans/generated/test/Second.class");
+        try (final URLClassLoader loader = new URLClassLoader(new URL[]{first, second}, getClass().getClassLoader()))
+        {
+            final List<Archive> archives = asList(ClasspathArchive.archive(loader, first), ClasspathArchive.archive(loader, second));
+            final OwbAnnotationFinder sequential = new OwbAnnotationFinder(new CompositeArchive(archives));
+            final OwbAnnotationFinder merged = new OwbAnnotationFinder(new CompositeArchive(archives),
+                    archives.parallelStream().map(OwbAnnotationFinder::new).collect(toList()));
+
+            assertEquals(new HashSet<>(sequential.getAnnotatedClassNames()), new HashSet<>(merged.getAnnotatedClassNames()));
+            assertEquals(sequential.findAnnotatedClasses(ApplicationScoped.class), merged.findAnnotatedClasses(ApplicationScoped.class));
+            assertEquals(2, merged.findAnnotatedClasses(ApplicationScoped.class).size());
+            assertNotNull(merged.getClassInfo("org.apache.openwebbeans.generated.test.Second"));
+        }
+    }
+
+    @Test
+    public void mergedFinderKeepsClassesNotLoaded() throws Exception
+    {
+        final URL first = createModule("first.jar", "org/apache/openwebbeans/generated/test/First.class");
+        try (final URLClassLoader loader = new URLClassLoader(new URL[]{first}, getClass().getClassLoader()))
+        {
+            final Archive archive = ClasspathArchive.archive(loader, first);
+            final OwbAnnotationFinder part = new OwbAnnotationFinder(archive);
+            // the annotations of the scanned classes are not part of the archive
+            part.link();
+            final OwbAnnotationFinder merged = new OwbAnnotationFinder(archive, singletonList(part));
+            final OwbAnnotationFinder sequential = new OwbAnnotationFinder(archive);
+            sequential.link();
+
+            assertEquals(singletonList(ApplicationScoped.class.getName()), sequential.getClassesNotLoaded());
+            assertEquals(sequential.getClassesNotLoaded(), merged.getClassesNotLoaded());
+        }
+    }
+
+    @Test
+    public void mergedFinderWithMetaAnnotations()
+    {
+        assertMetaAnnotatedClasses(new Class<?>[]{Metatype.class, Service.class}, new Class<?>[]{MetaAnnotated.class});
+        // the meta-annotation root is in another archive than the meta-annotation
+        assertMetaAnnotatedClasses(new Class<?>[]{Metatype.class}, new Class<?>[]{Service.class, MetaAnnotated.class});
+    }
+
+    private static void assertMetaAnnotatedClasses(final Class<?>[] first, final Class<?>[] second)
+    {
+        final OwbAnnotationFinder sequential = new OwbAnnotationFinder(
+                new CompositeArchive(new ClassesArchive(first), new ClassesArchive(second)));
+        final OwbAnnotationFinder merged = new OwbAnnotationFinder(
+                new CompositeArchive(new ClassesArchive(first), new ClassesArchive(second)),
+                asList(new OwbAnnotationFinder(new ClassesArchive(first)), new OwbAnnotationFinder(new ClassesArchive(second))));
+        sequential.enableMetaAnnotations();
+        merged.enableMetaAnnotations();
+
+        assertEquals(singletonList(MetaAnnotated.class), annotatedClasses(sequential));
+        assertEquals(annotatedClasses(sequential), annotatedClasses(merged));
+    }
+
+    private static List<Class<?>> annotatedClasses(final OwbAnnotationFinder finder)
+    {
+        return finder.findMetaAnnotatedClasses(ApplicationScoped.class).stream().map(Annotated::get).collect(toList());
+    }
+
+    private URL createModule(final String name, final String resource) throws IOException
+    {
+        final File file = temp.newFile(name);
+        try (final JarOutputStream outputStream = new JarOutputStream(new FileOutputStream(file)))
+        {
+            createBean(outputStream, resource, null);
+        }
+        return file.toURI().toURL();
+    }
+
     private URL createScannedModule() throws IOException
     {
         final File file = temp.newFile("test-scanned.jar");
@@ -219,4 +310,24 @@ public class AbstractMetaDataDiscoveryTest
         outputStream.write(writer.toByteArray());
         outputStream.closeEntry();
     }
+
+    @Metatype
+    @Retention(RUNTIME)
+    @Target(ANNOTATION_TYPE)
+    public @interface Metatype
+    {
+    }
+
+    @Metatype
+    @ApplicationScoped
+    @Retention(RUNTIME)
+    @Target(TYPE)
+    public @interface Service
+    {
+    }
+
+    @Service
+    public static class MetaAnnotated
+    {
+    }
 }
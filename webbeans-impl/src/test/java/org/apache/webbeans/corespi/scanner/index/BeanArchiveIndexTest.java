@@ -0,0 +1,323 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.corespi.scanner.index;
+
+import static java.util.Collections.emptyEnumeration;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static org.apache.xbean.asm7.ClassWriter.COMPUTE_FRAMES;
+import static org.apache.xbean.asm7.Opcodes.ACC_PUBLIC;
+import static org.apache.xbean.asm7.Opcodes.ACC_SUPER;
+import static org.apache.xbean.asm7.Opcodes.ALOAD;
+import static org.apache.xbean.asm7.Opcodes.INVOKESPECIAL;
+import static org.apache.xbean.asm7.Opcodes.RETURN;
+import static org.apache.xbean.asm7.Opcodes.V1_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.enterprise.inject.spi.BeanManager;
+import javax.enterprise.inject.spi.Extension;
+import javax.enterprise.inject.spi.ProcessAnnotatedType;
+import javax.enterprise.inject.spi.WithAnnotations;
+
+import org.apache.webbeans.config.WebBeansContext;
+import org.apache.webbeans.config.WebBeansFinder;
+import org.apache.webbeans.corespi.DefaultSingletonService;
+import org.apache.webbeans.corespi.se.IndexedScannerService;
+import org.apache.webbeans.spi.ContainerLifecycle;
+import org.apache.webbeans.spi.ScannerService;
+import org.apache.xbean.asm7.ClassWriter;
+import org.apache.xbean.asm7.MethodVisitor;
+import org.apache.xbean.asm7.Type;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class BeanArchiveIndexTest
+{
+    private static final String FOO = "org.apache.openwebbeans.generated.index.Foo";
+    private static final String BAR = "org.apache.openwebbeans.generated.index.Bar";
+
+    @Rule
+    public final TemporaryFolder temp = new TemporaryFolder();
+
+    @Test
+    public void generate() throws Exception
+    {
+        final File module = createModule();
+        final File indexFile = new BeanArchiveIndexGenerator().generate(module);
+        assertTrue(indexFile.isFile());
+
+        final BeanArchiveIndex index;
+        try (final InputStream in = new FileInputStream(indexFile))
+        {
+            index = BeanArchiveIndex.read(in);
+        }
+        assertNotNull(index);
+        assertEquals(2, index.getClasses().size());
+        assertEquals(singletonList(ApplicationScoped.class.getName()), index.getClasses().get(FOO));
+        assertTrue(index.getClasses().get(BAR).isEmpty());
+        assertEquals(beansXmlDigest(module), index.getBeansXmlDigest());
+    }
+
+    @Test
+    public void roundTrip() throws Exception
+    {
+        final Map<String, List<String>> classes = new LinkedHashMap<>();
+        classes.put(FOO, singletonList(ApplicationScoped.class.getName()));
+        final BeanArchiveIndex index = new BeanArchiveIndex(1234, "abc", classes);
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        index.write(out);
+        final BeanArchiveIndex read = BeanArchiveIndex.read(new ByteArrayInputStream(out.toByteArray()));
+        assertNotNull(read);
+        assertEquals(1234, read.getTimestamp());
+        assertEquals("abc", read.getBeansXmlDigest());
+        assertEquals(classes, read.getClasses());
+    }
+
+    @Test
+    public void useIndex() throws Exception
+    {
+        final File module = createModule();
+
+        // index only contains Foo, Bar must not be picked up
+        writeIndex(module, Long.MAX_VALUE);
+
+        assertBeans(module, 1, 0);
+    }
+
+    @Test
+    public void staleIndex() throws Exception
+    {
+        final File module = createModule();
+
+        // classes are newer than the index so we must scan
+        writeIndex(module, 0);
+
+        assertBeans(module, 1, 1);
+    }
+
+    @Test
+    public void withAnnotationsOnIndexedClasses() throws Exception
+    {
+        final File module = temp.newFolder("indexed-module");
+        createBean(module, FOO, true, true);
+        createBean(module, BAR, false, false);
+        createBeansXml(module);
+
+        // the index only knows the class level annotations, the @Deprecated method of Foo must be found anyway
+        final Map<String, List<String>> classes = new LinkedHashMap<>();
+        classes.put(FOO, singletonList(ApplicationScoped.class.getName()));
+        classes.put(BAR, emptyList());
+        writeIndex(module, Long.MAX_VALUE, classes);
+
+        final DeprecatedObserver observer = new DeprecatedObserver();
+        assertBeans(module, 1, 1, observer);
+        assertEquals(singletonList(FOO), observer.types);
+    }
+
+    private void assertBeans(final File module, final int foos, final int bars) throws Exception
+    {
+        assertBeans(module, foos, bars, null);
+    }
+
+    private void assertBeans(final File module, final int foos, final int bars, final Extension extension) throws Exception
+    {
+        final Thread thread = Thread.currentThread();
+        final ClassLoader oldLoader = thread.getContextClassLoader();
+        final URL[] urls = {module.toURI().toURL()};
+        try (final URLClassLoader loader = new URLClassLoader(urls, new ClassLoader() {
+            @Override
+            public Class<?> loadClass(final String name) throws ClassNotFoundException
+            {
+                return oldLoader.loadClass(name);
+            }
+
+            @Override
+            public URL getResource(final String name)
+            {
+                return oldLoader.getResource(name);
+            }
+
+            @Override
+            public Enumeration<URL> getResources(final String name) throws IOException
+            {
+                if ("META-INF".equals(name) || "".equals(name) || "META-INF/beans.xml".equals(name))
+                {
+                    return emptyEnumeration();
+                }
+                return oldLoader.getResources(name);
+            }
+        })
+        {
+            @Override
+            public URL[] getURLs()
+            {
+                return urls;
+            }
+        })
+        {
+            thread.setContextClassLoader(loader);
+
+            final Properties config = new Properties();
+            config.setProperty("org.apache.webbeans.scanExclusionPaths", "/classes,/test-classes," +
+                    "/xbean,/ham,/junit-,/junit5-,/debugger,/idea,/openwebbeans,/geronimo");
+            final WebBeansContext context = new WebBeansContext(
+                    singletonMap(ScannerService.class, new IndexedScannerService()), config);
+            final DefaultSingletonService singletonService = DefaultSingletonService.class.cast(
+                    WebBeansFinder.getSingletonService());
+            singletonService.register(loader, context);
+            if (extension != null)
+            {
+                context.getExtensionLoader().addExtension(extension);
+            }
+            final ContainerLifecycle lifecycle = context.getService(ContainerLifecycle.class);
+            lifecycle.startApplication(null);
+            try
+            {
+                final BeanManager manager = context.getBeanManagerImpl();
+                assertEquals(foos, manager.getBeans(loader.loadClass(FOO)).size());
+                assertEquals(bars, manager.getBeans(loader.loadClass(BAR)).size());
+            }
+            finally
+            {
+                lifecycle.stopApplication(null);
+                singletonService.clear(loader);
+            }
+        }
+        finally
+        {
+            thread.setContextClassLoader(oldLoader);
+        }
+    }
+
+    private void writeIndex(final File module, final long timestamp) throws IOException
+    {
+        writeIndex(module, timestamp, singletonMap(FOO, singletonList(ApplicationScoped.class.getName())));
+    }
+
+    private void writeIndex(final File module, final long timestamp, final Map<String, List<String>> classes) throws IOException
+    {
+        final File indexFile = new File(module, BeanArchiveIndex.INDEX_LOCATION);
+        assertTrue(indexFile.getParentFile().mkdirs());
+        try (final OutputStream out = new FileOutputStream(indexFile))
+        {
+            new BeanArchiveIndex(timestamp, beansXmlDigest(module), classes).write(out);
+        }
+    }
+
+    private String beansXmlDigest(final File module) throws IOException
+    {
+        try (final InputStream in = new FileInputStream(new File(module, "META-INF/beans.xml")))
+        {
+            return BeanArchiveIndex.digest(in);
+        }
+    }
+
+    private File createModule() throws IOException
+    {
+        final File module = temp.newFolder("indexed-module");
+        createBean(module, FOO, true, false);
+        createBean(module, BAR, false, false);
+        createBeansXml(module);
+        return module;
+    }
+
+    private void createBeansXml(final File module) throws IOException
+    {
+        final File beansXml = new File(module, "META-INF/beans.xml");
+        assertTrue(beansXml.getParentFile().mkdirs());
+        try (final OutputStream out = new FileOutputStream(beansXml))
+        {
+            out.write("<beans bean-discovery-mode=\"all\"/>".getBytes("UTF-8"));
+        }
+    }
+
+    private void createBean(final File module, final String className, final boolean scoped, final boolean deprecatedMethod)
+            throws IOException
+    {
+        final String internalName = className.replace('.', '/');
+        final File classFile = new File(module, internalName + ".class");
+        assertTrue(classFile.getParentFile().isDirectory() || classFile.getParentFile().mkdirs());
+
+        final ClassWriter writer = new ClassWriter(COMPUTE_FRAMES);
+        writer.visit(V1_8, ACC_PUBLIC + ACC_SUPER, internalName, null, Type.getInternalName(Object.class), null);
+        if (scoped)
+        {
+            writer.visitAnnotation(Type.getDescriptor(ApplicationScoped.class), true).visitEnd();
+        }
+        final MethodVisitor constructor = writer.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
+        constructor.visitCode();
+        constructor.visitVarInsn(ALOAD, 0);
+        constructor.visitMethodInsn(INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+        constructor.visitInsn(RETURN);
+        constructor.visitMaxs(1, 1);
+        constructor.visitEnd();
+        if (deprecatedMethod)
+        {
+            final MethodVisitor method = writer.visitMethod(ACC_PUBLIC, "legacy", "()V", null, null);
+            method.visitAnnotation(Type.getDescriptor(Deprecated.class), true).visitEnd();
+            method.visitCode();
+            method.visitInsn(RETURN);
+            method.visitMaxs(0, 1);
+            method.visitEnd();
+        }
+        writer.visitEnd();
+        try (final OutputStream out = new FileOutputStream(classFile))
+        {
+            out.write(writer.toByteArray());
+        }
+    }
+
+    public static class DeprecatedObserver implements Extension
+    {
+        private final List<String> types = new ArrayList<>();
+
+        void observe(@Observes @WithAnnotations(Deprecated.class) final ProcessAnnotatedType<?> event)
+        {
+            final String name = event.getAnnotatedType().getJavaClass().getName();
+            if (name.startsWith("org.apache.openwebbeans.generated.index."))
+            {
+                types.add(name);
+            }
+        }
+    }
+}
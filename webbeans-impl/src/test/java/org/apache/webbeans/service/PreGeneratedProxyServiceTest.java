@@ -0,0 +1,174 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.service;
+
+import static java.util.Collections.emptyMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Properties;
+
+import org.apache.webbeans.config.OpenWebBeansConfiguration;
+import org.apache.webbeans.config.WebBeansContext;
+import org.apache.webbeans.proxy.NormalScopeProxyFactory;
+import org.apache.webbeans.spi.DefiningClassService;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class PreGeneratedProxyServiceTest
+{
+    @Rule
+    public final TemporaryFolder temp = new TemporaryFolder();
+
+    @Test
+    public void recordAndLoad() throws Exception
+    {
+        final File output = temp.newFolder("proxies");
+        final String proxyName = record(output);
+
+        assertTrue(new File(output, PreGeneratedProxyService.PROXIES_LOCATION + proxyName.replace('.', '/') + ".class").isFile());
+        assertNotNull(loadCatalog(output).getProperty(proxyName));
+
+        CountingProxyService.generated = 0;
+        assertEquals(proxyName, load(output).getName());
+        assertEquals(0, CountingProxyService.generated);
+    }
+
+    @Test
+    public void catalogIsWrittenOnceOnFlush() throws Exception
+    {
+        final File output = temp.newFolder("proxies");
+        final Properties config = new Properties();
+        config.setProperty(DefiningClassService.class.getName(), PreGeneratedProxyService.class.getName());
+        config.setProperty(OpenWebBeansConfiguration.PROXY_CATALOG_OUTPUT, output.getAbsolutePath());
+        final WebBeansContext context = new WebBeansContext(emptyMap(), config);
+        final String proxyName = new NormalScopeProxyFactory(context)
+                .createProxyClass(Thread.currentThread().getContextClassLoader(), MyBean.class)
+                .getName();
+
+        final File catalogFile = new File(output, PreGeneratedProxyService.CATALOG_LOCATION);
+        assertFalse(catalogFile.exists());
+
+        PreGeneratedProxyService.class.cast(context.getService(DefiningClassService.class)).flushCatalog();
+        assertNotNull(loadCatalog(output).getProperty(proxyName));
+    }
+
+    @Test
+    public void outdatedProxy() throws Exception
+    {
+        final File output = temp.newFolder("proxies");
+        final String proxyName = record(output);
+
+        final Properties catalog = loadCatalog(output);
+        catalog.setProperty(proxyName, "outdated");
+        try (final OutputStream out = new FileOutputStream(new File(output, PreGeneratedProxyService.CATALOG_LOCATION)))
+        {
+            catalog.store(out, null);
+        }
+
+        CountingProxyService.generated = 0;
+        assertEquals(proxyName, load(output).getName());
+        assertEquals(1, CountingProxyService.generated);
+    }
+
+    private String record(final File output)
+    {
+        final Properties config = new Properties();
+        config.setProperty(DefiningClassService.class.getName(), PreGeneratedProxyService.class.getName());
+        config.setProperty(OpenWebBeansConfiguration.PROXY_CATALOG_OUTPUT, output.getAbsolutePath());
+        final WebBeansContext context = new WebBeansContext(emptyMap(), config);
+        try
+        {
+            return new NormalScopeProxyFactory(context)
+                    .createProxyClass(Thread.currentThread().getContextClassLoader(), MyBean.class)
+                    .getName();
+        }
+        finally
+        {
+            context.clear(); // closing the service writes the catalog
+        }
+    }
+
+    private Class<?> load(final File output) throws Exception
+    {
+        final Thread thread = Thread.currentThread();
+        final ClassLoader oldLoader = thread.getContextClassLoader();
+        try (final URLClassLoader loader = new URLClassLoader(new URL[]{output.toURI().toURL()}, oldLoader))
+        {
+            thread.setContextClassLoader(loader);
+
+            final Properties config = new Properties();
+            config.setProperty(DefiningClassService.class.getName(), CountingProxyService.class.getName());
+            final WebBeansContext context = new WebBeansContext(emptyMap(), config);
+            final Class<MyBean> proxyClass = new NormalScopeProxyFactory(context).createProxyClass(loader, MyBean.class);
+            proxyClass.getMethod("ok", String.class); // this line would fail if not here, no assert needed
+            return proxyClass;
+        }
+        finally
+        {
+            thread.setContextClassLoader(oldLoader);
+        }
+    }
+
+    private Properties loadCatalog(final File output) throws IOException
+    {
+        final Properties catalog = new Properties();
+        try (final InputStream in = new FileInputStream(new File(output, PreGeneratedProxyService.CATALOG_LOCATION)))
+        {
+            catalog.load(in);
+        }
+        return catalog;
+    }
+
+    public static class CountingProxyService extends PreGeneratedProxyService
+    {
+        private static int generated;
+
+        public CountingProxyService(final WebBeansContext context)
+        {
+            super(context);
+        }
+
+        @Override
+        public <T> Class<T> defineAndLoad(final String name, final byte[] bytecode, final Class<T> proxiedClass)
+        {
+            generated++;
+            return super.defineAndLoad(name, bytecode, proxiedClass);
+        }
+    }
+
+    public static class MyBean
+    {
+        public String ok(final String value)
+        {
+            return ">" + value + "<";
+        }
+    }
+}
@@ -20,6 +20,7 @@
 package org.apache.webbeans.test.annotation.binding;
 
 import org.apache.webbeans.container.BeanCacheKey;
+import org.apache.webbeans.container.QualifierInterner;
 import org.apache.webbeans.test.annotation.binding.AnnotationWithArrayOfBooleanMember;
 import org.apache.webbeans.test.annotation.binding.AnnotationWithArrayOfIntMember;
 import org.apache.webbeans.test.annotation.binding.AnnotationWithArrayOfStringMember;
@@ -34,6 +35,7 @@ import java.lang.annotation.Annotation;
 
 public class BeanCacheKeyUnitTest
 {
+    private final QualifierInterner interner = new QualifierInterner(it -> null, 0, null);
 
     @AnnotationWithBindingMember(value = "B", number = 3)
     public BindingComponent s1;
@@ -127,8 +129,8 @@ public class BeanCacheKeyUnitTest
     @Test
     public void testEmptyNull()
     {
-        BeanCacheKey a = new BeanCacheKey(true, String.class, null, it -> null);
-        BeanCacheKey b = new BeanCacheKey(true, String.class, null, it -> null);
+        BeanCacheKey a = new BeanCacheKey(true, String.class, null, interner);
+        BeanCacheKey b = new BeanCacheKey(true, String.class, null, interner);
         Assert.assertEquals(a, b);
         Assert.assertEquals(a.hashCode(), b.hashCode());
     }
@@ -136,8 +138,8 @@ public class BeanCacheKeyUnitTest
     @Test
     public void testEmptyNullNull()
     {
-        BeanCacheKey a = new BeanCacheKey(true, String.class, null, null);
-        BeanCacheKey b = new BeanCacheKey(true, String.class, null, null);
+        BeanCacheKey a = new BeanCacheKey(true, String.class, null, new QualifierInterner(null, 0, null));
+        BeanCacheKey b = new BeanCacheKey(true, String.class, null, new QualifierInterner(null, 0, null));
         Assert.assertEquals(a, b);
         Assert.assertEquals(a.hashCode(), b.hashCode());
     }
@@ -145,8 +147,8 @@ public class BeanCacheKeyUnitTest
     @Test
     public void testTypeUnequal()
     {
-        BeanCacheKey a = new BeanCacheKey(true, String.class, null, it -> null);
-        BeanCacheKey b = new BeanCacheKey(true, Integer.class, null, it -> null);
+        BeanCacheKey a = new BeanCacheKey(true, String.class, null, interner);
+        BeanCacheKey b = new BeanCacheKey(true, Integer.class, null, interner);
         Assert.assertFalse(a.equals(b));
         Assert.assertFalse(a.hashCode() == b.hashCode());
     }
@@ -154,8 +156,8 @@ public class BeanCacheKeyUnitTest
     @Test
     public void testPath()
     {
-        BeanCacheKey a = new BeanCacheKey(true, String.class, "A", it -> null);
-        BeanCacheKey b = new BeanCacheKey(true, String.class, "A", it -> null);
+        BeanCacheKey a = new BeanCacheKey(true, String.class, "A", interner);
+        BeanCacheKey b = new BeanCacheKey(true, String.class, "A", interner);
         Assert.assertEquals(a, b);
         Assert.assertEquals(a.hashCode(), b.hashCode());
     }
@@ -163,8 +165,8 @@ public class BeanCacheKeyUnitTest
     @Test
     public void testPathUnequal()
     {
-        BeanCacheKey a = new BeanCacheKey(true, String.class, "A", it -> null);
-        BeanCacheKey b = new BeanCacheKey(true, String.class, "B", it -> null);
+        BeanCacheKey a = new BeanCacheKey(true, String.class, "A", interner);
+        BeanCacheKey b = new BeanCacheKey(true, String.class, "B", interner);
         Assert.assertFalse(a.equals(b));
         Assert.assertFalse(a.hashCode() == b.hashCode());
     }
@@ -172,16 +174,16 @@ public class BeanCacheKeyUnitTest
     @Test
     public void testNonEqualsWithBindingMemberParameter()
     {
-        BeanCacheKey a = new BeanCacheKey(true, String.class, null, it -> null, a1);
-        BeanCacheKey b = new BeanCacheKey(true, String.class, null, it -> null, a2);
+        BeanCacheKey a = new BeanCacheKey(true, String.class, null, interner, a1);
+        BeanCacheKey b = new BeanCacheKey(true, String.class, null, interner, a2);
         Assert.assertFalse(a.equals(b));
     }
 
     @Test
     public void testEqualsWithBindingMember()
     {
-        BeanCacheKey a = new BeanCacheKey(true, String.class, null, it -> null, a1);
-        BeanCacheKey b = new BeanCacheKey(true, String.class, null, it -> null, a1);
+        BeanCacheKey a = new BeanCacheKey(true, String.class, null, interner, a1);
+        BeanCacheKey b = new BeanCacheKey(true, String.class, null, interner, a1);
         Assert.assertEquals(a, b);
         Assert.assertEquals(a.hashCode(), b.hashCode());
     }
@@ -190,8 +192,8 @@ public class BeanCacheKeyUnitTest
     @Test
     public void testEqualsWithNonBindingMember()
     {
-        BeanCacheKey a = new BeanCacheKey(true, String.class, null, it -> null, a3);
-        BeanCacheKey b = new BeanCacheKey(true, String.class, null, it -> null, a3);
+        BeanCacheKey a = new BeanCacheKey(true, String.class, null, interner, a3);
+        BeanCacheKey b = new BeanCacheKey(true, String.class, null, interner, a3);
         Assert.assertEquals(a, b);
         Assert.assertEquals(a.hashCode(), b.hashCode());
     }
@@ -199,8 +201,8 @@ public class BeanCacheKeyUnitTest
     @Test
     public void testEquals2Annotations()
     {
-        BeanCacheKey a = new BeanCacheKey(true, String.class, null, it -> null, a12);
-        BeanCacheKey b = new BeanCacheKey(true, String.class, null, it -> null, a12);
+        BeanCacheKey a = new BeanCacheKey(true, String.class, null, interner, a12);
+        BeanCacheKey b = new BeanCacheKey(true, String.class, null, interner, a12);
         Assert.assertEquals(a, b);
         Assert.assertEquals(a.hashCode(), b.hashCode());
     }
@@ -208,8 +210,8 @@ public class BeanCacheKeyUnitTest
     @Test
     public void testEquals2AnnotationsUnorderedName()
     {
-        BeanCacheKey a = new BeanCacheKey(true, String.class, null, it -> null, a13);
-        BeanCacheKey b = new BeanCacheKey(true, String.class, null, it -> null, a31);
+        BeanCacheKey a = new BeanCacheKey(true, String.class, null, interner, a13);
+        BeanCacheKey b = new BeanCacheKey(true, String.class, null, interner, a31);
         Assert.assertEquals(a, b);
         Assert.assertEquals(a.hashCode(), b.hashCode());
     }
@@ -217,8 +219,8 @@ public class BeanCacheKeyUnitTest
     @Test
     public void testEquals2AnnotationsUnorderedParam()
     {
-        BeanCacheKey a = new BeanCacheKey(true, String.class, null, it -> null, a12);
-        BeanCacheKey b = new BeanCacheKey(true, String.class, null, it -> null, a21);
+        BeanCacheKey a = new BeanCacheKey(true, String.class, null, interner, a12);
+        BeanCacheKey b = new BeanCacheKey(true, String.class, null, interner, a21);
         Assert.assertEquals(a, b);
         Assert.assertEquals(a.hashCode(), b.hashCode());
     }
@@ -226,16 +228,16 @@ public class BeanCacheKeyUnitTest
     @Test
     public void testDiffMembers()
     {
-        BeanCacheKey a = new BeanCacheKey(true, String.class, null, it -> null, a4);
-        BeanCacheKey b = new BeanCacheKey(true, String.class, null, it -> null, a5);
+        BeanCacheKey a = new BeanCacheKey(true, String.class, null, interner, a4);
+        BeanCacheKey b = new BeanCacheKey(true, String.class, null, interner, a5);
         Assert.assertFalse(a.equals(b));
     }
 
     @Test
     public void testOnyDiffMembersInNonBinding()
     {
-        BeanCacheKey a = new BeanCacheKey(true, String.class, null, it -> null, a5);
-        BeanCacheKey b = new BeanCacheKey(true, String.class, null, it -> null, a6);
+        BeanCacheKey a = new BeanCacheKey(true, String.class, null, interner, a5);
+        BeanCacheKey b = new BeanCacheKey(true, String.class, null, interner, a6);
         Assert.assertEquals(a, b);
         Assert.assertEquals(a.hashCode(), b.hashCode());
     }
@@ -243,8 +245,8 @@ public class BeanCacheKeyUnitTest
     @Test
     public void testAnnotationOrdering()
     {
-        BeanCacheKey a = new BeanCacheKey(true, String.class, null, it -> null, a56);
-        BeanCacheKey b = new BeanCacheKey(true, String.class, null, it -> null, a65);
+        BeanCacheKey a = new BeanCacheKey(true, String.class, null, interner, a56);
+        BeanCacheKey b = new BeanCacheKey(true, String.class, null, interner, a65);
         Assert.assertEquals(a, b);
         Assert.assertEquals(a.hashCode(), b.hashCode());
     }
@@ -252,32 +254,32 @@ public class BeanCacheKeyUnitTest
     @Test
     public void testMemberArraysInt()
     {
-        BeanCacheKey a = new BeanCacheKey(true, String.class, null, it -> null, a7);
-        BeanCacheKey b = new BeanCacheKey(true, String.class, null, it -> null, a8);
+        BeanCacheKey a = new BeanCacheKey(true, String.class, null, interner, a7);
+        BeanCacheKey b = new BeanCacheKey(true, String.class, null, interner, a8);
         Assert.assertFalse(a.equals(b));
     }
 
     @Test
     public void testMemberArraysString()
     {
-        BeanCacheKey a = new BeanCacheKey(true, String.class, null, it -> null, a9);
-        BeanCacheKey b = new BeanCacheKey(true, String.class, null, it -> null, aa);
+        BeanCacheKey a = new BeanCacheKey(true, String.class, null, interner, a9);
+        BeanCacheKey b = new BeanCacheKey(true, String.class, null, interner, aa);
         Assert.assertFalse(a.equals(b));
     }
 
     @Test
     public void testMemberArraysBoolean()
     {
-        BeanCacheKey a = new BeanCacheKey(true, String.class, null, it -> null, ab);
-        BeanCacheKey b = new BeanCacheKey(true, String.class, null, it -> null, ac);
+        BeanCacheKey a = new BeanCacheKey(true, String.class, null, interner, ab);
+        BeanCacheKey b = new BeanCacheKey(true, String.class, null, interner, ac);
         Assert.assertFalse(a.equals(b));
     }
 
     @Test
     public void testDiffArrays()
     {
-        BeanCacheKey a = new BeanCacheKey(true, String.class, null, it -> null, a9a);
-        BeanCacheKey b = new BeanCacheKey(true, String.class, null, it -> null, abc);
+        BeanCacheKey a = new BeanCacheKey(true, String.class, null, interner, a9a);
+        BeanCacheKey b = new BeanCacheKey(true, String.class, null, interner, abc);
         Assert.assertFalse(a.equals(b));
         Assert.assertFalse(a.hashCode() == b.hashCode());
     }
@@ -286,8 +288,8 @@ public class BeanCacheKeyUnitTest
     @Test
     public void testDelegateUnequal()
     {
-        BeanCacheKey a = new BeanCacheKey(true, String.class, "A", it -> null);
-        BeanCacheKey b = new BeanCacheKey(false, String.class, "A", it -> null);
+        BeanCacheKey a = new BeanCacheKey(true, String.class, "A", interner);
+        BeanCacheKey b = new BeanCacheKey(false, String.class, "A", interner);
         Assert.assertFalse(a.equals(b));
         Assert.assertFalse(a.hashCode() == b.hashCode());
     }
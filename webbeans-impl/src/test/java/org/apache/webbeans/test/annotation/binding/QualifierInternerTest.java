@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.test.annotation.binding;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+import javax.enterprise.util.AnnotationLiteral;
+import javax.inject.Qualifier;
+
+import org.apache.webbeans.annotation.DefaultLiteral;
+import org.apache.webbeans.annotation.NamedLiteral;
+import org.apache.webbeans.container.QualifierInterner;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class QualifierInternerTest
+{
+    @Test
+    public void bindingMembers()
+    {
+        QualifierInterner interner = new QualifierInterner(null, 0, null);
+
+        Assert.assertEquals(interner.intern(BeanCacheKeyUnitTest.a1[0]), interner.intern(BeanCacheKeyUnitTest.a1[0]));
+        Assert.assertNotEquals(interner.intern(BeanCacheKeyUnitTest.a1[0]), interner.intern(BeanCacheKeyUnitTest.a2[0]));
+        Assert.assertEquals(interner.intern(new NamedLiteral("a")), interner.intern(new NamedLiteral("a")));
+        Assert.assertNotEquals(interner.intern(new NamedLiteral("a")), interner.intern(new NamedLiteral("b")));
+        Assert.assertEquals(interner.intern(DefaultLiteral.INSTANCE), interner.intern(DefaultLiteral.INSTANCE));
+        Assert.assertNotEquals(interner.intern(BeanCacheKeyUnitTest.a7[0]), interner.intern(BeanCacheKeyUnitTest.a8[0]));
+    }
+
+    @Test
+    public void nonbindingMembersAreIgnored()
+    {
+        QualifierInterner interner = new QualifierInterner(null, 0, null);
+
+        Assert.assertEquals(interner.intern(BeanCacheKeyUnitTest.a5[0]), interner.intern(BeanCacheKeyUnitTest.a6[0]));
+        Assert.assertNotEquals(interner.intern(BeanCacheKeyUnitTest.a4[0]), interner.intern(BeanCacheKeyUnitTest.a5[0]));
+    }
+
+    @Test
+    public void sortedIds()
+    {
+        QualifierInterner interner = new QualifierInterner(null, 0, null);
+
+        Assert.assertArrayEquals(interner.intern(BeanCacheKeyUnitTest.a12), interner.intern(BeanCacheKeyUnitTest.a21));
+        Assert.assertEquals(0, interner.intern().length);
+    }
+
+    @Test
+    public void idsAreNotReused()
+    {
+        QualifierInterner interner = new QualifierInterner(null, 1, null);
+
+        int a = interner.intern(new NamedLiteral("a"));
+        int b = interner.intern(new NamedLiteral("b"));
+        Assert.assertNotEquals(a, b);
+        // "a" got evicted, it gets a new id
+        Assert.assertNotEquals(b, interner.intern(new NamedLiteral("a")));
+
+        int c = interner.intern(new NamedLiteral("c"));
+        interner.clear();
+        int newC = interner.intern(new NamedLiteral("c"));
+        Assert.assertNotEquals(a, newC);
+        Assert.assertNotEquals(b, newC);
+        Assert.assertNotEquals(c, newC);
+    }
+
+    @Test
+    public void sameInstanceSkipsTheMembers()
+    {
+        QualifierInterner interner = new QualifierInterner(null, 0, null);
+
+        CountedLiteral literal = new CountedLiteral("a");
+        int id = interner.intern(literal);
+        Assert.assertEquals(1, literal.reads);
+        Assert.assertEquals(id, interner.intern(literal));
+        Assert.assertEquals(1, literal.reads);
+
+        // an equal literal still gets read once and maps to the same id
+        CountedLiteral other = new CountedLiteral("a");
+        Assert.assertEquals(id, interner.intern(other));
+        Assert.assertEquals(1, other.reads);
+        Assert.assertEquals(id, interner.intern(other));
+        Assert.assertEquals(1, other.reads);
+
+        interner.clear();
+        interner.intern(literal);
+        Assert.assertEquals(2, literal.reads);
+    }
+
+    @Qualifier
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface Counted
+    {
+        String value();
+    }
+
+    public static class CountedLiteral extends AnnotationLiteral<Counted> implements Counted
+    {
+        private final String value;
+        private int reads;
+
+        public CountedLiteral(String value)
+        {
+            this.value = value;
+        }
+
+        @Override
+        public String value()
+        {
+            reads++;
+            return value;
+        }
+    }
+}
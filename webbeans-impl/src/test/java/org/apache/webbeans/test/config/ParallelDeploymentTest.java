@@ -0,0 +1,248 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.test.config;
+
+import static java.util.Arrays.asList;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.Priority;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.context.SessionScoped;
+import javax.enterprise.event.Observes;
+import javax.enterprise.inject.spi.Extension;
+import javax.enterprise.inject.spi.ProcessAnnotatedType;
+import javax.enterprise.inject.spi.ProcessBeanAttributes;
+import javax.inject.Inject;
+import javax.interceptor.AroundInvoke;
+import javax.interceptor.Interceptor;
+import javax.interceptor.InvocationContext;
+
+import org.apache.webbeans.config.OpenWebBeansConfiguration;
+import org.apache.webbeans.spi.api.ThreadSafeExtension;
+import org.apache.webbeans.test.AbstractUnitTest;
+import org.apache.webbeans.test.component.intercept.webbeans.bindings.Transactional;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ParallelDeploymentTest extends AbstractUnitTest
+{
+    @Test
+    public void sameResultAsSequentialDeployment()
+    {
+        RecordingExtension sequential = new RecordingExtension();
+        addExtension(sequential);
+        startContainer(TransactionalInterceptor.class, ServiceA.class, ServiceB.class, ServiceC.class, Client.class);
+        shutDownContainer();
+
+        RecordingExtension parallel = new RecordingExtension();
+        addExtension(parallel);
+        enableParallelDeployment();
+        startContainer(TransactionalInterceptor.class, ServiceA.class, ServiceB.class, ServiceC.class, Client.class);
+
+        // the events still get fired in the deployment thread in the same order
+        Assert.assertEquals(sequential.beanClasses, parallel.beanClasses);
+        Assert.assertEquals(Thread.currentThread().getName(), parallel.threadName);
+
+        Client client = getInstance(Client.class);
+        Assert.assertEquals("intercepted:a", client.serviceA.call());
+        Assert.assertEquals("b", client.serviceB.call());
+    }
+
+    @Test
+    public void threadSafeExtensions()
+    {
+        RecordingExtension sequential = new RecordingExtension();
+        addExtension(sequential);
+        addExtension(new ThreadSafeRecordingExtension());
+        startContainer(ServiceA.class, ServiceB.class, ServiceC.class, Client.class, Unused.class);
+        shutDownContainer();
+
+        RecordingExtension parallel = new RecordingExtension();
+        ThreadSafeRecordingExtension threadSafe = new ThreadSafeRecordingExtension();
+        addExtension(parallel);
+        addExtension(threadSafe);
+        enableParallelDeployment();
+        startContainer(ServiceA.class, ServiceB.class, ServiceC.class, Client.class, Unused.class);
+
+        // ProcessBeanAttributes is also observed by the RecordingExtension, thus still fired in order
+        Assert.assertEquals(sequential.beanClasses, parallel.beanClasses);
+        Assert.assertFalse(parallel.beanClasses.contains(Unused.class));
+        Assert.assertTrue(getBeanManager().getBeans(Unused.class).isEmpty());
+        Assert.assertTrue(threadSafe.annotatedTypes.containsAll(asList(ServiceA.class, ServiceB.class, ServiceC.class, Client.class, Unused.class)));
+
+        Client client = getInstance(Client.class);
+        Assert.assertEquals("b", client.serviceB.call());
+    }
+
+    @Test
+    public void sameValidationProblem()
+    {
+        String sequentialProblem = startBroken();
+        Assert.assertNotNull(sequentialProblem);
+
+        enableParallelDeployment();
+        for (int i = 0; i < 5; i++)
+        {
+            // several beans fail concurrently, the first one in deployment order must win every time
+            Assert.assertEquals(sequentialProblem, startBroken());
+        }
+    }
+
+    private String startBroken()
+    {
+        try
+        {
+            startContainer(ServiceA.class, ServiceC.class, Client.class, GreeterA.class, GreeterB.class,
+                    BrokenUnsatisfied.class, BrokenAmbiguous.class, BrokenPassivating.class, Broken.class);
+            return null;
+        }
+        catch (RuntimeException e)
+        {
+            return e.getMessage();
+        }
+        finally
+        {
+            shutDownContainer();
+        }
+    }
+
+    private void enableParallelDeployment()
+    {
+        addConfiguration(OpenWebBeansConfiguration.PARALLEL_DEPLOYMENT, "true");
+        addConfiguration(OpenWebBeansConfiguration.DEPLOYMENT_PARALLELISM, "4");
+    }
+
+    public static class RecordingExtension implements Extension
+    {
+        private final List<Class<?>> beanClasses = new ArrayList<>();
+        private String threadName;
+
+        void record(@Observes ProcessBeanAttributes<?> event)
+        {
+            beanClasses.add(event.getAnnotated().getBaseType() instanceof Class ? (Class<?>) event.getAnnotated().getBaseType() : null);
+            threadName = Thread.currentThread().getName();
+        }
+    }
+
+    @ThreadSafeExtension
+    public static class ThreadSafeRecordingExtension implements Extension
+    {
+        private final Set<Class<?>> annotatedTypes = ConcurrentHashMap.newKeySet();
+
+        void record(@Observes ProcessAnnotatedType<?> event)
+        {
+            annotatedTypes.add(event.getAnnotatedType().getJavaClass());
+            if (event.getAnnotatedType().getJavaClass() == Unused.class)
+            {
+                event.veto();
+            }
+        }
+    }
+
+    @Interceptor
+    @Transactional
+    @Priority(Interceptor.Priority.APPLICATION)
+    public static class TransactionalInterceptor
+    {
+        @AroundInvoke
+        public Object intercept(InvocationContext context) throws Exception
+        {
+            return "intercepted:" + context.proceed();
+        }
+    }
+
+    @ApplicationScoped
+    @Transactional
+    public static class ServiceA
+    {
+        public String call()
+        {
+            return "a";
+        }
+    }
+
+    @ApplicationScoped
+    public static class ServiceB
+    {
+        public String call()
+        {
+            return "b";
+        }
+    }
+
+    public static class ServiceC
+    {
+    }
+
+    public static class Client
+    {
+        @Inject
+        private ServiceA serviceA;
+
+        @Inject
+        private ServiceB serviceB;
+
+        @Inject
+        private ServiceC serviceC;
+    }
+
+    public static class Unused
+    {
+    }
+
+    public static class Broken
+    {
+        @Inject
+        private ServiceB missing;
+    }
+
+    public interface Greeter
+    {
+    }
+
+    public static class GreeterA implements Greeter
+    {
+    }
+
+    public static class GreeterB implements Greeter
+    {
+    }
+
+    public static class BrokenUnsatisfied
+    {
+        @Inject
+        private Unused missing;
+    }
+
+    public static class BrokenAmbiguous
+    {
+        @Inject
+        private Greeter ambiguous;
+    }
+
+    @SessionScoped
+    public static class BrokenPassivating
+    {
+        // not Serializable
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.test.config;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import javax.enterprise.event.Observes;
+import javax.enterprise.inject.spi.Extension;
+import javax.enterprise.inject.spi.ProcessAnnotatedType;
+import javax.inject.Inject;
+
+import org.apache.webbeans.config.OpenWebBeansConfiguration;
+import org.apache.webbeans.exception.WebBeansConfigurationException;
+import org.apache.webbeans.test.AbstractUnitTest;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class StartupProfilerTest extends AbstractUnitTest
+{
+    @Test
+    public void report() throws Exception
+    {
+        File report = File.createTempFile("owb-startup", ".json");
+        try
+        {
+            addConfiguration(OpenWebBeansConfiguration.STARTUP_PROFILE, "true");
+            addConfiguration(OpenWebBeansConfiguration.STARTUP_PROFILE_OUTPUT, report.getAbsolutePath());
+            addExtension(new ProfiledExtension());
+            startContainer(SomeBean.class);
+
+            Assert.assertFalse(getWebBeansContext().getStartupProfiler().isEnabled());
+
+            String json = new String(Files.readAllBytes(report.toPath()), StandardCharsets.UTF_8);
+            Assert.assertTrue(json.startsWith("{"));
+            Assert.assertTrue(json.contains("\"totalNanos\": "));
+            for (String phase : new String[]{"scan", "loadExtensions", "processAnnotatedTypes", "getBeanAttributes",
+                                             "specialization", "deployFromBeanAttributes", "fireAfterBeanDiscoveryEvent",
+                                             "validateInjectionPoints", "fireAfterDeploymentValidationEvent"})
+            {
+                Assert.assertTrue(phase, json.contains("{\"name\": \"" + phase + "\", \"count\": 1,"));
+            }
+            Assert.assertTrue(json.contains(ProfiledExtension.class.getName() + "#pat("));
+        }
+        finally
+        {
+            report.delete();
+        }
+    }
+
+    @Test
+    public void reportOnFailedDeployment() throws Exception
+    {
+        File report = File.createTempFile("owb-startup", ".json");
+        try
+        {
+            addConfiguration(OpenWebBeansConfiguration.STARTUP_PROFILE, "true");
+            addConfiguration(OpenWebBeansConfiguration.STARTUP_PROFILE_OUTPUT, report.getAbsolutePath());
+            try
+            {
+                startContainer(BrokenBean.class);
+                Assert.fail("deployment must fail");
+            }
+            catch (WebBeansConfigurationException expected)
+            {
+                // the profile still gets written
+            }
+
+            Assert.assertFalse(getWebBeansContext().getStartupProfiler().isEnabled());
+
+            String json = new String(Files.readAllBytes(report.toPath()), StandardCharsets.UTF_8);
+            Assert.assertTrue(json.contains("{\"name\": \"validateInjectionPoints\", \"count\": 1,"));
+            Assert.assertFalse(json.contains("fireAfterDeploymentValidationEvent"));
+        }
+        finally
+        {
+            report.delete();
+        }
+    }
+
+    @Test
+    public void disabledByDefault()
+    {
+        startContainer(SomeBean.class);
+        Assert.assertFalse(getWebBeansContext().getStartupProfiler().isEnabled());
+    }
+
+    public static class ProfiledExtension implements Extension
+    {
+        void pat(@Observes ProcessAnnotatedType<?> pat)
+        {
+            // only gets measured
+        }
+    }
+
+    public static class SomeBean
+    {
+    }
+
+    public static class BrokenBean
+    {
+        @Inject
+        private Runnable unsatisfied;
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.test.containertests;
+
+import java.io.Serializable;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Set;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.inject.Produces;
+import javax.enterprise.inject.spi.Bean;
+import javax.enterprise.util.TypeLiteral;
+import javax.inject.Named;
+
+import org.apache.webbeans.annotation.AnyLiteral;
+import org.apache.webbeans.annotation.DefaultLiteral;
+import org.apache.webbeans.annotation.NamedLiteral;
+import org.apache.webbeans.container.InjectionResolver;
+import org.apache.webbeans.test.AbstractUnitTest;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TypeIndexResolutionTest extends AbstractUnitTest
+{
+    @Test
+    public void indexMatchesLinearScan()
+    {
+        startContainer(StringHolder.class, IntegerHolder.class, Producers.class);
+
+        assertSameResolution(StringHolder.class);
+        assertSameResolution(Holder.class);
+        assertSameResolution(new TypeLiteral<Holder<String>>() {}.getType());
+        assertSameResolution(new TypeLiteral<Holder<Integer>>() {}.getType());
+        assertSameResolution(new TypeLiteral<Holder<? extends Number>>() {}.getType());
+        assertSameResolution(new TypeLiteral<List<String>>() {}.getType());
+        assertSameResolution(Serializable.class);
+        assertSameResolution(int.class);
+        assertSameResolution(Integer.class);
+        assertSameResolution(long.class, new NamedLiteral("answer"));
+        assertSameResolution(Object.class, new NamedLiteral("answer"));
+        assertSameResolution(Object.class, AnyLiteral.INSTANCE);
+        assertSameResolution(StringHolder.class, AnyLiteral.INSTANCE);
+        assertSameResolution(StringHolder.class, DefaultLiteral.INSTANCE);
+        assertSameResolution(Runnable.class);
+    }
+
+    @Test
+    public void beanAddedAfterDeployment()
+    {
+        startContainer(StringHolder.class);
+
+        InjectionResolver resolver = getWebBeansContext().getBeanManagerImpl().getInjectionResolver();
+        Assert.assertTrue(resolver.implResolveByType(false, IntegerHolder.class).isEmpty());
+
+        getWebBeansContext().getBeanManagerImpl().addBean(getWebBeansContext().getWebBeansUtil()
+                .defineManagedBeanWithoutFireEvents(getBeanManager().createAnnotatedType(IntegerHolder.class)));
+        resolver.clearCaches();
+        Assert.assertEquals(1, resolver.implResolveByType(false, IntegerHolder.class).size());
+    }
+
+    private void assertSameResolution(Type type, Annotation... qualifiers)
+    {
+        InjectionResolver resolver = getWebBeansContext().getBeanManagerImpl().getInjectionResolver();
+        resolver.clearCaches();
+        Set<Bean<?>> indexed = resolver.implResolveByType(false, type, qualifiers);
+
+        // in startup mode the resolver neither uses the cache nor the type index
+        resolver.setStartup(true);
+        try
+        {
+            Assert.assertEquals(type.toString(), resolver.implResolveByType(false, type, qualifiers), indexed);
+        }
+        finally
+        {
+            resolver.setStartup(false);
+        }
+    }
+
+    public interface Holder<T>
+    {
+    }
+
+    @ApplicationScoped
+    public static class StringHolder implements Holder<String>, Serializable
+    {
+    }
+
+    public static class IntegerHolder implements Holder<Integer>
+    {
+    }
+
+    public static class Producers
+    {
+        @Produces
+        public int intValue()
+        {
+            return 1;
+        }
+
+        @Produces
+        @Named("answer")
+        public long answer()
+        {
+            return 42;
+        }
+
+        @Produces
+        public List<String> names()
+        {
+            return null;
+        }
+    }
+}
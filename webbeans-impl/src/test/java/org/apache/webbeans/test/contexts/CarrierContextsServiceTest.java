@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.test.contexts;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.Serializable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import javax.enterprise.context.ConversationScoped;
+import javax.enterprise.context.RequestScoped;
+import javax.enterprise.context.SessionScoped;
+
+import org.apache.webbeans.context.ContextCarrier;
+import org.apache.webbeans.context.RequestContext;
+import org.apache.webbeans.corespi.se.CarrierContextsService;
+import org.apache.webbeans.spi.ContextsService;
+import org.apache.webbeans.test.AbstractUnitTest;
+import org.junit.Test;
+
+public class CarrierContextsServiceTest extends AbstractUnitTest
+{
+    @Test
+    public void propagateRequestContext() throws Exception
+    {
+        addService(ContextsService.class, CarrierContextsService.class);
+        startContainer(RequestBean.class, SessionBean.class);
+
+        // the container started the request, session and conversation contexts already
+        ContextCarrier carrier = ContextCarrier.current();
+        assertNotNull(carrier);
+        assertSame(carrier.getRequestContext(), getBeanManager().getContext(RequestScoped.class));
+
+        RequestBean requestBean = getInstance(RequestBean.class);
+        requestBean.setValue("parent");
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try
+        {
+            // the request gets activated in the task and the worker thread gets cleaned up afterwards
+            assertEquals("parent", executor.submit(carrier.wrap(() -> getInstance(RequestBean.class).getValue()))
+                    .get(1, TimeUnit.MINUTES));
+            assertNull(executor.submit(ContextCarrier::current).get(1, TimeUnit.MINUTES));
+
+            // changes of the task are visible to the request
+            executor.submit(carrier.wrap(() -> requestBean.setValue("child"))).get(1, TimeUnit.MINUTES);
+            assertEquals("child", requestBean.getValue());
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        endContext(RequestScoped.class);
+        assertSame(carrier, ContextCarrier.current());
+
+        endContext(ConversationScoped.class);
+        endContext(SessionScoped.class);
+        assertNull(ContextCarrier.current());
+
+        startContext(RequestScoped.class);
+        startContext(SessionScoped.class);
+        assertNull(getInstance(RequestBean.class).getValue());
+        getInstance(SessionBean.class).setValue("session");
+        assertEquals("session", getInstance(SessionBean.class).getValue());
+    }
+
+    @Test
+    public void tasksOnlyEndTheirOwnContexts() throws Exception
+    {
+        addService(ContextsService.class, CarrierContextsService.class);
+        startContainer(RequestBean.class, SessionBean.class);
+
+        ContextCarrier carrier = ContextCarrier.current();
+        RequestContext requestContext = carrier.getRequestContext();
+        getInstance(RequestBean.class).setValue("parent");
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try
+        {
+            // a task starting and ending its own request does not touch the request of the owner
+            assertNull(executor.submit(carrier.wrap(() ->
+            {
+                startContext(RequestScoped.class);
+                String value = getInstance(RequestBean.class).getValue();
+                endContext(RequestScoped.class);
+                return value;
+            })).get(1, TimeUnit.MINUTES));
+            assertSame(requestContext, carrier.getRequestContext());
+            assertEquals("parent", getInstance(RequestBean.class).getValue());
+
+            // ending the inherited request in a task only detaches it from the task
+            executor.submit(carrier.wrap(() -> endContext(RequestScoped.class))).get(1, TimeUnit.MINUTES);
+            assertSame(requestContext, carrier.getRequestContext());
+            assertTrue(requestContext.isActive());
+            assertEquals("parent", getInstance(RequestBean.class).getValue());
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    @RequestScoped
+    public static class RequestBean
+    {
+        private String value;
+
+        public String getValue()
+        {
+            return value;
+        }
+
+        public void setValue(String value)
+        {
+            this.value = value;
+        }
+    }
+
+    @SessionScoped
+    public static class SessionBean implements Serializable
+    {
+        private String value;
+
+        public String getValue()
+        {
+            return value;
+        }
+
+        public void setValue(String value)
+        {
+            this.value = value;
+        }
+    }
+}
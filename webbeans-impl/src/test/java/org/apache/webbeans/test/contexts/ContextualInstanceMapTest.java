@@ -0,0 +1,192 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.test.contexts;
+
+import java.lang.reflect.Proxy;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.context.RequestScoped;
+import javax.enterprise.context.spi.Context;
+import javax.enterprise.context.spi.Contextual;
+import javax.enterprise.context.spi.CreationalContext;
+import javax.enterprise.inject.spi.Bean;
+import javax.enterprise.inject.spi.BeanManager;
+
+import org.apache.webbeans.component.AbstractOwbBean;
+import org.apache.webbeans.context.ContextualInstanceMap;
+import org.apache.webbeans.context.creational.BeanInstanceBag;
+import org.apache.webbeans.intercept.RequestScopedBeanInterceptorHandler;
+import org.apache.webbeans.test.AbstractUnitTest;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ContextualInstanceMapTest extends AbstractUnitTest
+{
+    @Test
+    public void beanIndexes()
+    {
+        startContainer(RequestBean.class, FirstApplicationBean.class, SecondApplicationBean.class);
+
+        int requestIndex = getBeanIndex(RequestBean.class);
+        int firstIndex = getBeanIndex(FirstApplicationBean.class);
+        int secondIndex = getBeanIndex(SecondApplicationBean.class);
+        Assert.assertTrue(requestIndex >= 0);
+        Assert.assertTrue(firstIndex >= 0);
+        Assert.assertTrue(secondIndex >= 0);
+        Assert.assertNotEquals(firstIndex, secondIndex);
+
+        RequestBean requestBean = getInstance(RequestBean.class);
+        String id = requestBean.getId();
+        Assert.assertEquals(id, requestBean.getId());
+        Assert.assertEquals(getInstance(FirstApplicationBean.class).getId(), getInstance(FirstApplicationBean.class).getId());
+        Assert.assertNotEquals(getInstance(FirstApplicationBean.class).getId(), getInstance(SecondApplicationBean.class).getId());
+
+        restartContext(RequestScoped.class);
+        Assert.assertNotEquals(id, requestBean.getId());
+    }
+
+    @Test
+    public void indexedAndOtherContextuals()
+    {
+        startContainer(RequestBean.class, FirstApplicationBean.class, SecondApplicationBean.class);
+
+        Contextual<?> first = getBean(FirstApplicationBean.class);
+        Contextual<?> second = getBean(SecondApplicationBean.class);
+        Contextual<?> otherScope = getBean(RequestBean.class);
+        Contextual<?> custom = new CustomContextual();
+
+        ContextualInstanceMap map = new ContextualInstanceMap(ApplicationScoped.class);
+        BeanInstanceBag<?> firstBag = new BeanInstanceBag<>(null);
+        Assert.assertNull(map.putIfAbsent(first, firstBag));
+        Assert.assertSame(firstBag, map.putIfAbsent(first, new BeanInstanceBag<>(null)));
+        Assert.assertNull(map.get(second));
+
+        BeanInstanceBag<?> otherScopeBag = new BeanInstanceBag<>(null);
+        BeanInstanceBag<?> customBag = new BeanInstanceBag<>(null);
+        map.put(otherScope, otherScopeBag);
+        map.put(custom, customBag);
+        Assert.assertSame(firstBag, map.get(first));
+        Assert.assertSame(otherScopeBag, map.get(otherScope));
+        Assert.assertSame(customBag, map.get(custom));
+        Assert.assertEquals(3, map.size());
+
+        Assert.assertSame(firstBag, map.remove(first));
+        Assert.assertNull(map.get(first));
+        Assert.assertEquals(2, map.size());
+
+        Iterator<Map.Entry<Contextual<?>, BeanInstanceBag<?>>> entries = map.entrySet().iterator();
+        while (entries.hasNext())
+        {
+            if (entries.next().getKey() == custom)
+            {
+                entries.remove();
+            }
+        }
+        Assert.assertNull(map.get(custom));
+        Assert.assertEquals(1, map.size());
+
+        map.clear();
+        Assert.assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void threadCacheSeparatesContainers()
+    {
+        startContainer(RequestBean.class);
+
+        // a second container on the same thread reuses the same bean indexes
+        Bean<?> bean = getBean(RequestBean.class);
+        RequestBean otherInstance = new RequestBean();
+        BeanManager otherBeanManager = newBeanManager(otherInstance);
+
+        RequestScopedBeanInterceptorHandler handler = new RequestScopedBeanInterceptorHandler(getBeanManager(), bean);
+        RequestScopedBeanInterceptorHandler otherHandler = new RequestScopedBeanInterceptorHandler(otherBeanManager, bean);
+
+        RequestBean instance = (RequestBean) handler.get();
+        Assert.assertSame(otherInstance, otherHandler.get());
+        Assert.assertSame(instance, handler.get());
+        Assert.assertSame(otherInstance, otherHandler.get());
+        Assert.assertNotEquals(instance.getId(), otherInstance.getId());
+    }
+
+    private static BeanManager newBeanManager(Object instance)
+    {
+        ClassLoader loader = ContextualInstanceMapTest.class.getClassLoader();
+        Context context = (Context) Proxy.newProxyInstance(loader, new Class<?>[]{ Context.class }, (proxy, method, args) ->
+                "get".equals(method.getName()) ? instance : null);
+        return (BeanManager) Proxy.newProxyInstance(loader, new Class<?>[]{ BeanManager.class }, (proxy, method, args) ->
+                "getContext".equals(method.getName()) ? context : null);
+    }
+
+    private int getBeanIndex(Class<?> beanClass)
+    {
+        return ((AbstractOwbBean<?>) getBean(beanClass)).getBeanIndex();
+    }
+
+    private static final class CustomContextual implements Contextual<Object>
+    {
+        @Override
+        public Object create(CreationalContext<Object> creationalContext)
+        {
+            return new Object();
+        }
+
+        @Override
+        public void destroy(Object instance, CreationalContext<Object> creationalContext)
+        {
+            // no-op
+        }
+    }
+
+    @RequestScoped
+    public static class RequestBean
+    {
+        private final String id = UUID.randomUUID().toString();
+
+        public String getId()
+        {
+            return id;
+        }
+    }
+
+    @ApplicationScoped
+    public static class FirstApplicationBean
+    {
+        private final String id = UUID.randomUUID().toString();
+
+        public String getId()
+        {
+            return id;
+        }
+    }
+
+    @ApplicationScoped
+    public static class SecondApplicationBean
+    {
+        private final String id = UUID.randomUUID().toString();
+
+        public String getId()
+        {
+            return id;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.test.contexts.conversation;
+
+import static java.util.Collections.singletonList;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.Conversation;
+import javax.enterprise.context.ConversationScoped;
+import javax.enterprise.context.RequestScoped;
+import javax.enterprise.context.SessionScoped;
+import javax.inject.Inject;
+
+import org.apache.webbeans.config.OpenWebBeansConfiguration;
+import org.apache.webbeans.context.ConversationContext;
+import org.apache.webbeans.test.AbstractUnitTest;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ConversationReaperTest extends AbstractUnitTest
+{
+    private static final List<String> DESTROYED = new CopyOnWriteArrayList<>();
+
+    @Before
+    public void clearDestroyed()
+    {
+        DESTROYED.clear();
+    }
+
+    @Test
+    public void timedOutConversationGetsDestroyedWithoutSessionAccess() throws InterruptedException
+    {
+        addConfiguration(OpenWebBeansConfiguration.APPLICATION_SUPPORTS_CONVERSATION, "true");
+        addConfiguration(OpenWebBeansConfiguration.CONVERSATION_TIMEOUT_INTERVAL, "50");
+        addConfiguration(OpenWebBeansConfiguration.CONVERSATION_REAPER_INTERVAL, "10");
+        startContainer(LongRunningBean.class);
+
+        LongRunningBean bean = getInstance(LongRunningBean.class);
+        bean.begin("abandoned");
+        endContext(RequestScoped.class);
+
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (DESTROYED.isEmpty() && System.nanoTime() < end)
+        {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(singletonList("abandoned"), DESTROYED);
+        Assert.assertTrue(getSessionConversations().isEmpty());
+
+        startContext(RequestScoped.class);
+    }
+
+    @Test
+    public void leastRecentlyUsedConversationGetsDestroyed() throws InterruptedException
+    {
+        addConfiguration(OpenWebBeansConfiguration.APPLICATION_SUPPORTS_CONVERSATION, "true");
+        addConfiguration(OpenWebBeansConfiguration.CONVERSATION_REAPER_INTERVAL, "0");
+        addConfiguration(OpenWebBeansConfiguration.CONVERSATION_MAX_PER_SESSION, "2");
+        startContainer(LongRunningBean.class);
+
+        for (int i = 0; i < 3; i++)
+        {
+            getInstance(LongRunningBean.class).begin("conversation" + i);
+            restartContext(RequestScoped.class);
+
+            // distinct access times
+            Thread.sleep(5);
+        }
+
+        Assert.assertEquals(singletonList("conversation0"), DESTROYED);
+        Assert.assertEquals(2, getSessionConversations().size());
+    }
+
+    @Test
+    public void preDestroyCanUseSessionScopedBeans() throws InterruptedException
+    {
+        addConfiguration(OpenWebBeansConfiguration.APPLICATION_SUPPORTS_CONVERSATION, "true");
+        addConfiguration(OpenWebBeansConfiguration.CONVERSATION_TIMEOUT_INTERVAL, "50");
+        addConfiguration(OpenWebBeansConfiguration.CONVERSATION_REAPER_INTERVAL, "10");
+        startContainer(SessionAwareBean.class, UserSession.class);
+
+        getInstance(UserSession.class).setUser("alice");
+        getInstance(SessionAwareBean.class).begin();
+        endContext(RequestScoped.class);
+
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (DESTROYED.isEmpty() && System.nanoTime() < end)
+        {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(singletonList("alice"), DESTROYED);
+
+        startContext(RequestScoped.class);
+    }
+
+    @Test
+    public void reaperIsOptIn()
+    {
+        addConfiguration(OpenWebBeansConfiguration.APPLICATION_SUPPORTS_CONVERSATION, "true");
+        addConfiguration(OpenWebBeansConfiguration.CONVERSATION_TIMEOUT_INTERVAL, "50");
+        startContainer(LongRunningBean.class);
+
+        getInstance(LongRunningBean.class).begin("not reaped");
+        Assert.assertFalse(Thread.getAllStackTraces().keySet().stream()
+                .anyMatch(thread -> "OpenWebBeans conversation reaper".equals(thread.getName())));
+    }
+
+    private Set<ConversationContext> getSessionConversations()
+    {
+        return getWebBeansContext().getConversationManager().getSessionConversations(
+                getWebBeansContext().getContextsService().getCurrentContext(SessionScoped.class), true);
+    }
+
+    @SessionScoped
+    public static class UserSession implements Serializable
+    {
+        private String user;
+
+        public String getUser()
+        {
+            return user;
+        }
+
+        public void setUser(String user)
+        {
+            this.user = user;
+        }
+    }
+
+    @ConversationScoped
+    public static class SessionAwareBean implements Serializable
+    {
+        @Inject
+        private Conversation conversation;
+
+        @Inject
+        private UserSession userSession;
+
+        public void begin()
+        {
+            conversation.begin();
+        }
+
+        @PreDestroy
+        public void destroy()
+        {
+            DESTROYED.add(userSession.getUser());
+        }
+    }
+
+    @ConversationScoped
+    public static class LongRunningBean implements Serializable
+    {
+        @Inject
+        private Conversation conversation;
+
+        private String name;
+
+        public void begin(String name)
+        {
+            this.name = name;
+            conversation.begin();
+        }
+
+        @PreDestroy
+        public void destroy()
+        {
+            DESTROYED.add(name);
+        }
+    }
+}
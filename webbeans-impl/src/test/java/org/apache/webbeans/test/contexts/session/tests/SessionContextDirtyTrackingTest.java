@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.test.contexts.session.tests;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonMap;
+import static org.apache.webbeans.test.contexts.SerializationTest.deSerializeObject;
+import static org.apache.webbeans.test.contexts.SerializationTest.serializeObject;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.enterprise.context.SessionScoped;
+import javax.enterprise.inject.spi.Bean;
+
+import org.apache.webbeans.context.SessionContext;
+import org.apache.webbeans.context.creational.BeanInstanceBag;
+import org.apache.webbeans.intercept.SessionScopedBeanInterceptorHandler;
+import org.apache.webbeans.test.AbstractUnitTest;
+import org.apache.webbeans.util.WebBeansUtil;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SessionContextDirtyTrackingTest extends AbstractUnitTest
+{
+    @Test
+    public void dirtyBeans()
+    {
+        startContainer(Cart.class);
+
+        SessionContext sessionContext = (SessionContext) getBeanManager().getContext(SessionScoped.class);
+        Bean<Cart> bean = getBean(Cart.class);
+        String id = WebBeansUtil.getPassivationId(bean);
+        Assert.assertFalse(sessionContext.isDirty());
+
+        Cart cart = getInstance(Cart.class);
+        cart.add("a");
+        Map<String, BeanInstanceBag<?>> flushed = new HashMap<>();
+        Assert.assertTrue(sessionContext.flushDirtyBeans(flushed::put));
+        Assert.assertEquals(1, flushed.size());
+        Assert.assertNotNull(flushed.get(id));
+        Assert.assertFalse(sessionContext.flushDirtyBeans(flushed::put));
+
+        // the instance is cached by the proxy for the current thread
+        cart.add("b");
+        SessionScopedBeanInterceptorHandler.markCachedBeansDirty(sessionContext);
+        Assert.assertTrue(sessionContext.isDirty());
+        flushed.clear();
+        Assert.assertTrue(sessionContext.flushDirtyBeans(flushed::put));
+        Assert.assertEquals(asList("a", "b"), ((Cart) flushed.get(id).getBeanInstance()).getItems());
+
+        sessionContext.markDirty(bean);
+        Assert.assertTrue(sessionContext.isDirty());
+
+        sessionContext.destroy(bean);
+        flushed.clear();
+        Assert.assertTrue(sessionContext.flushDirtyBeans(flushed::put));
+        Assert.assertTrue(flushed.containsKey(id));
+        Assert.assertNull(flushed.get(id));
+    }
+
+    @Test
+    public void beansStoredSeparately() throws Exception
+    {
+        startContainer(Cart.class);
+
+        SessionContext sessionContext = (SessionContext) getBeanManager().getContext(SessionScoped.class);
+        Bean<Cart> bean = getBean(Cart.class);
+        getInstance(Cart.class).add("a");
+
+        Map<String, BeanInstanceBag<?>> flushed = new HashMap<>();
+        sessionContext.flushDirtyBeans(flushed::put);
+        Assert.assertEquals(1, flushed.size());
+        byte[] serializedBag = serializeObject(flushed.values().iterator().next());
+
+        sessionContext.setBeansStoredSeparately(true);
+        SessionContext restored = (SessionContext) deSerializeObject(serializeObject(sessionContext));
+        restored.setActive(true);
+        Assert.assertTrue(restored.isDeserialized());
+        Assert.assertNull(restored.get(bean));
+
+        String id = WebBeansUtil.getPassivationId(bean);
+        restored.restoreBeans(singletonMap(id, (BeanInstanceBag<?>) deSerializeObject(serializedBag)));
+        Assert.assertFalse(restored.isDeserialized());
+        Cart cart = restored.get(bean);
+        Assert.assertNotNull(cart);
+        Assert.assertEquals(asList("a"), cart.getItems());
+    }
+
+    @SessionScoped
+    public static class Cart implements Serializable
+    {
+        private final List<String> items = new ArrayList<>();
+
+        public void add(String item)
+        {
+            items.add(item);
+        }
+
+        public List<String> getItems()
+        {
+            return items;
+        }
+    }
+}
@@ -0,0 +1,283 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.test.events.async;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.context.RequestScoped;
+import javax.enterprise.event.ObservesAsync;
+import javax.inject.Inject;
+
+import org.apache.webbeans.config.OpenWebBeansConfiguration;
+import org.apache.webbeans.event.AsyncEventEngine;
+import org.apache.webbeans.test.AbstractUnitTest;
+import org.junit.Assume;
+import org.junit.Test;
+
+public class AsyncEventEngineTest extends AbstractUnitTest
+{
+    @Test
+    public void observersOfOneEventShareTheRequestContext() throws Exception
+    {
+        startContainer(Observers.class, RequestBean.class);
+        AsyncEventEngine engine = getWebBeansContext().getNotificationManager().getAsyncEventEngine();
+        long submitted = engine.getSubmittedCount();
+
+        getBeanManager().getEvent().fireAsync(new Ping()).toCompletableFuture().get(1, TimeUnit.MINUTES);
+
+        List<Integer> requests = getInstance(Observers.class).getRequests();
+        assertEquals(3, requests.size());
+        assertEquals(1, requests.stream().distinct().count());
+        assertEquals(submitted + 1, engine.getSubmittedCount());
+        assertEquals(0, engine.getQueueDepth());
+    }
+
+    @Test
+    public void batchSize() throws Exception
+    {
+        addConfiguration(OpenWebBeansConfiguration.ASYNC_EVENT_BATCH_SIZE, "1");
+        startContainer(Observers.class, RequestBean.class);
+        AsyncEventEngine engine = getWebBeansContext().getNotificationManager().getAsyncEventEngine();
+        long submitted = engine.getSubmittedCount();
+
+        getBeanManager().getEvent().fireAsync(new Ping()).toCompletableFuture().get(1, TimeUnit.MINUTES);
+
+        List<Integer> requests = getInstance(Observers.class).getRequests();
+        assertEquals(3, requests.stream().distinct().count());
+        assertEquals(submitted + 3, engine.getSubmittedCount());
+    }
+
+    @Test
+    public void rejectionPolicies() throws Exception
+    {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        Runnable blocking = () ->
+        {
+            started.countDown();
+            try
+            {
+                release.await(1, TimeUnit.MINUTES);
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        AsyncEventEngine abort = new AsyncEventEngine(1, 1, AsyncEventEngine.RejectionPolicy.ABORT, false, null);
+        AsyncEventEngine callerRuns = new AsyncEventEngine(1, 1, AsyncEventEngine.RejectionPolicy.CALLER_RUNS, false, null);
+        try
+        {
+            abort.execute(blocking);
+            started.await(1, TimeUnit.MINUTES);
+            abort.execute(() -> { });
+            assertEquals(1, abort.getQueueDepth());
+            try
+            {
+                abort.execute(() -> { });
+                fail("the queue is full");
+            }
+            catch (RejectedExecutionException expected)
+            {
+                assertEquals(1, abort.getRejectedCount());
+            }
+
+            callerRuns.execute(blocking);
+            callerRuns.execute(() -> { });
+            Thread[] runner = new Thread[1];
+            callerRuns.execute(() -> runner[0] = Thread.currentThread());
+            assertSame(Thread.currentThread(), runner[0]);
+            assertEquals(1, callerRuns.getRejectedCount());
+        }
+        finally
+        {
+            release.countDown();
+            abort.close();
+            callerRuns.close();
+        }
+        assertEquals(0, abort.getQueueDepth());
+        assertTrue(abort.getCompletedCount() >= 1);
+    }
+
+    @Test
+    public void observerErrorCompletesTheStage() throws Exception
+    {
+        startContainer(FailingObserver.class);
+
+        try
+        {
+            getBeanManager().getEvent().fireAsync(new Boom()).toCompletableFuture().get(1, TimeUnit.MINUTES);
+            fail("the observer failed");
+        }
+        catch (ExecutionException expected)
+        {
+            assertTrue(expected.getCause() instanceof Error);
+        }
+    }
+
+    @Test
+    public void nestedTasksDoNotWaitForTheQueue() throws Exception
+    {
+        AsyncEventEngine engine = new AsyncEventEngine(1, 1, AsyncEventEngine.RejectionPolicy.BLOCK, false, null);
+        CountDownLatch done = new CountDownLatch(1);
+        Thread[] threads = new Thread[2];
+        try
+        {
+            engine.execute(() ->
+            {
+                threads[0] = Thread.currentThread();
+
+                // fills the queue, only this thread could make space again
+                engine.execute(() -> { });
+                engine.execute(() ->
+                {
+                    threads[1] = Thread.currentThread();
+                    done.countDown();
+                });
+            });
+            assertTrue(done.await(1, TimeUnit.MINUTES));
+            assertSame(threads[0], threads[1]);
+            assertEquals(1, engine.getRejectedCount());
+        }
+        finally
+        {
+            engine.close();
+        }
+    }
+
+    @Test
+    public void virtualThreadPerTask() throws Exception
+    {
+        Assume.assumeTrue(supportsVirtualThreads());
+
+        AsyncEventEngine engine = new AsyncEventEngine(1, 2, AsyncEventEngine.RejectionPolicy.CALLER_RUNS, true, null);
+        CountDownLatch started = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        Runnable blocking = () ->
+        {
+            started.countDown();
+            try
+            {
+                release.await(1, TimeUnit.MINUTES);
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+        };
+        try
+        {
+            // more tasks than threads run at the same time
+            engine.execute(blocking);
+            engine.execute(blocking);
+            assertTrue(started.await(1, TimeUnit.MINUTES));
+            assertEquals(2, engine.getActiveCount());
+
+            Thread[] runner = new Thread[1];
+            engine.execute(() -> runner[0] = Thread.currentThread());
+            assertSame(Thread.currentThread(), runner[0]);
+            assertEquals(1, engine.getRejectedCount());
+        }
+        finally
+        {
+            release.countDown();
+            engine.close();
+        }
+    }
+
+    private static boolean supportsVirtualThreads()
+    {
+        try
+        {
+            Thread.class.getMethod("ofVirtual");
+            return true;
+        }
+        catch (NoSuchMethodException e)
+        {
+            return false;
+        }
+    }
+
+    public static class Ping
+    {
+    }
+
+    public static class Boom
+    {
+    }
+
+    @ApplicationScoped
+    public static class FailingObserver
+    {
+        public void fail(@ObservesAsync Boom boom)
+        {
+            throw new Error("observer failed");
+        }
+    }
+
+    @RequestScoped
+    public static class RequestBean
+    {
+        public int id()
+        {
+            return System.identityHashCode(this);
+        }
+    }
+
+    @ApplicationScoped
+    public static class Observers
+    {
+        private final List<Integer> requests = new CopyOnWriteArrayList<>();
+
+        @Inject
+        private RequestBean requestBean;
+
+        public List<Integer> getRequests()
+        {
+            return requests;
+        }
+
+        public void first(@ObservesAsync Ping ping)
+        {
+            requests.add(requestBean.id());
+        }
+
+        public void second(@ObservesAsync Ping ping)
+        {
+            requests.add(requestBean.id());
+        }
+
+        public void third(@ObservesAsync Ping ping)
+        {
+            requests.add(requestBean.id());
+        }
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.test.events.observer;
+
+import static java.util.Arrays.asList;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Priority;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Event;
+import javax.enterprise.event.Observes;
+import javax.enterprise.event.ObservesAsync;
+import javax.enterprise.util.TypeLiteral;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.apache.webbeans.annotation.NamedLiteral;
+import org.apache.webbeans.test.AbstractUnitTest;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ObserverDispatchTableTest extends AbstractUnitTest
+{
+    @Test
+    public void repeatedFire() throws Exception
+    {
+        startContainer(Observers.class, Producer.class);
+
+        Producer producer = getInstance(Producer.class);
+        Observers observers = getInstance(Observers.class);
+        for (int i = 0; i < 3; i++)
+        {
+            observers.getCalls().clear();
+            producer.event.fire("x");
+            Assert.assertEquals(asList("first", "second"), observers.getCalls());
+
+            observers.getCalls().clear();
+            producer.named.fire("x");
+            Assert.assertEquals(asList("first", "second", "named:x"), observers.getCalls());
+        }
+
+        observers.getCalls().clear();
+        producer.event.select(new NamedLiteral("other")).fire("y");
+        Assert.assertEquals(asList("first", "second"), observers.getCalls());
+
+        observers.getCalls().clear();
+        producer.event.fireAsync("z").toCompletableFuture().get(1, TimeUnit.MINUTES);
+        Assert.assertEquals(asList("async"), observers.getCalls());
+    }
+
+    @Test
+    public void parameterizedEventTypes()
+    {
+        startContainer(Observers.class, Producer.class);
+
+        Producer producer = getInstance(Producer.class);
+        Observers observers = getInstance(Observers.class);
+        for (int i = 0; i < 2; i++)
+        {
+            observers.getCalls().clear();
+            producer.strings.fire(new ArrayList<>());
+            producer.integers.fire(new ArrayList<>());
+            getBeanManager().getEvent().select(new TypeLiteral<List<String>>() {}).fire(new ArrayList<>());
+            Assert.assertEquals(asList("strings", "integers", "strings"), observers.getCalls());
+        }
+    }
+
+    @ApplicationScoped
+    public static class Observers
+    {
+        private final List<String> calls = new ArrayList<>();
+
+        public List<String> getCalls()
+        {
+            return calls;
+        }
+
+        public void second(@Observes @Priority(2) String event)
+        {
+            calls.add("second");
+        }
+
+        public void first(@Observes @Priority(1) String event)
+        {
+            calls.add("first");
+        }
+
+        public void named(@Observes @Priority(3) @Named("x") String event)
+        {
+            calls.add("named:" + event);
+        }
+
+        public void async(@ObservesAsync String event)
+        {
+            calls.add("async");
+        }
+
+        public void strings(@Observes List<String> event)
+        {
+            calls.add("strings");
+        }
+
+        public void integers(@Observes List<Integer> event)
+        {
+            calls.add("integers");
+        }
+    }
+
+    public static class Producer
+    {
+        @Inject
+        private Event<String> event;
+
+        @Inject
+        @Named("x")
+        private Event<String> named;
+
+        @Inject
+        private Event<List<String>> strings;
+
+        @Inject
+        private Event<List<Integer>> integers;
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.test.events.observer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.context.Dependent;
+import javax.enterprise.event.Event;
+import javax.enterprise.event.Observes;
+import javax.enterprise.inject.spi.EventMetadata;
+import javax.inject.Inject;
+
+import org.apache.webbeans.test.AbstractUnitTest;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ObserverParametersTest extends AbstractUnitTest
+{
+    @Test
+    public void resolvedParameters()
+    {
+        startContainer(Observers.class, Service.class, Helper.class, Producer.class);
+
+        Helper.destroyed = 0;
+        Producer producer = getInstance(Producer.class);
+        Observers observers = getInstance(Observers.class);
+        for (int i = 0; i < 3; i++)
+        {
+            producer.event.fire(i);
+        }
+
+        List<Service> services = observers.getServices();
+        Assert.assertEquals(3, services.size());
+        Assert.assertSame(services.get(0), services.get(2));
+        Assert.assertEquals(Integer.class, observers.getEventTypes().get(0));
+
+        // the @Dependent parameters got destroyed after each notification
+        Assert.assertEquals(3, Helper.destroyed);
+        Assert.assertEquals(3, Observers.staticCalls);
+    }
+
+    @Test
+    public void observerException()
+    {
+        startContainer(Observers.class, Service.class, Helper.class, Producer.class);
+
+        try
+        {
+            getInstance(Producer.class).failing.fire("fail");
+            Assert.fail("the exception of the observer must get propagated");
+        }
+        catch (IllegalStateException e)
+        {
+            Assert.assertEquals("fail", e.getMessage());
+        }
+    }
+
+    @ApplicationScoped
+    public static class Service
+    {
+    }
+
+    @Dependent
+    public static class Helper
+    {
+        private static int destroyed;
+
+        @PreDestroy
+        public void destroy()
+        {
+            destroyed++;
+        }
+    }
+
+    @ApplicationScoped
+    public static class Observers
+    {
+        private static int staticCalls;
+
+        private final List<Service> services = new ArrayList<>();
+        private final List<Object> eventTypes = new ArrayList<>();
+
+        public List<Service> getServices()
+        {
+            return services;
+        }
+
+        public List<Object> getEventTypes()
+        {
+            return eventTypes;
+        }
+
+        public void observe(Service service, @Observes Integer event, Helper helper, EventMetadata metadata)
+        {
+            Assert.assertNotNull(helper);
+            services.add(service);
+            eventTypes.add(metadata.getType());
+        }
+
+        public static void observeStatic(@Observes Integer event)
+        {
+            staticCalls = event + 1;
+        }
+
+        public void fail(@Observes String event)
+        {
+            throw new IllegalStateException(event);
+        }
+    }
+
+    public static class Producer
+    {
+        @Inject
+        private Event<Integer> event;
+
+        @Inject
+        private Event<String> failing;
+    }
+}
@@ -0,0 +1,254 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.test.injection.injector;
+
+import static java.util.Arrays.asList;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.context.Dependent;
+import javax.enterprise.context.spi.CreationalContext;
+import javax.enterprise.inject.Produces;
+import javax.enterprise.inject.TransientReference;
+import javax.enterprise.inject.spi.AnnotatedType;
+import javax.enterprise.inject.spi.InjectionPoint;
+import javax.enterprise.inject.spi.InjectionTarget;
+import javax.inject.Inject;
+
+import org.apache.webbeans.test.AbstractUnitTest;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BeanInjectorTest extends AbstractUnitTest
+{
+    @Test
+    public void injectionOrder()
+    {
+        startContainer(Child.class, Dependency.class, Numbers.class);
+
+        for (int i = 0; i < 2; i++)
+        {
+            Child child = getInstance(Child.class);
+            Assert.assertNotNull(child.getParentDependency());
+            Assert.assertSame(child.getConstructorDependency(), child.getChildDependency());
+            Assert.assertEquals(42, child.getNumber());
+            Assert.assertEquals(asList("constructor", "parent.init", "child.init(42)", "child.noArgs",
+                    "parent.postConstruct", "child.postConstruct"), child.getSteps());
+        }
+    }
+
+    @Test
+    public void resolvedInjectionPoints()
+    {
+        startContainer(Consumer.class, Dependency.class, Numbers.class, InjectionPointAware.class, TransientDependency.class);
+
+        TransientDependency.destroyed = 0;
+        Consumer first = getInstance(Consumer.class);
+        Consumer second = getInstance(Consumer.class);
+
+        // the client proxy of the normal scoped bean is shared
+        Assert.assertSame(first.dependency, second.dependency);
+
+        // the dependent instances and their InjectionPoint metadata are not
+        Assert.assertNotSame(first.aware, second.aware);
+        Assert.assertEquals("aware", first.aware.getInjectionPointName());
+        Assert.assertEquals("otherAware", first.otherAware.getInjectionPointName());
+
+        // the @TransientReference got destroyed right after the construction
+        Assert.assertEquals(2, TransientDependency.destroyed);
+    }
+
+    @Test
+    public void injectExistingInstance()
+    {
+        startContainer(Dependency.class, Numbers.class);
+
+        AnnotatedType<NoDefaultConstructor> annotatedType = getBeanManager().createAnnotatedType(NoDefaultConstructor.class);
+        InjectionTarget<NoDefaultConstructor> injectionTarget = getBeanManager().createInjectionTarget(annotatedType);
+        CreationalContext<NoDefaultConstructor> creationalContext = getBeanManager().createCreationalContext(null);
+
+        NoDefaultConstructor instance = new NoDefaultConstructor("manual");
+        injectionTarget.inject(instance, creationalContext);
+        injectionTarget.postConstruct(instance);
+        Assert.assertNotNull(instance.dependency);
+        Assert.assertTrue(instance.initialized);
+    }
+
+    @ApplicationScoped
+    public static class Dependency
+    {
+    }
+
+    @Dependent
+    public static class InjectionPointAware
+    {
+        @Inject
+        private InjectionPoint injectionPoint;
+
+        public String getInjectionPointName()
+        {
+            return injectionPoint.getMember().getName();
+        }
+    }
+
+    @Dependent
+    public static class TransientDependency
+    {
+        private static int destroyed;
+
+        @PreDestroy
+        public void destroy()
+        {
+            destroyed++;
+        }
+    }
+
+    public static class Consumer
+    {
+        @Inject
+        private Dependency dependency;
+
+        @Inject
+        private InjectionPointAware aware;
+
+        @Inject
+        private InjectionPointAware otherAware;
+
+        @Inject
+        public Consumer(@TransientReference TransientDependency transientDependency)
+        {
+            Assert.assertNotNull(transientDependency);
+        }
+
+        public Consumer()
+        {
+            // proxy
+        }
+    }
+
+    public static class Numbers
+    {
+        @Produces
+        private int number = 42;
+    }
+
+    public abstract static class Parent
+    {
+        protected final List<String> steps = new ArrayList<>();
+
+        private Dependency parentDependency;
+
+        @Inject
+        private void parentInit(Dependency dependency)
+        {
+            steps.add("parent.init");
+            parentDependency = dependency;
+        }
+
+        @PostConstruct
+        private void parentPostConstruct()
+        {
+            steps.add("parent.postConstruct");
+        }
+
+        public Dependency getParentDependency()
+        {
+            return parentDependency;
+        }
+
+        public List<String> getSteps()
+        {
+            return steps;
+        }
+    }
+
+    public static class Child extends Parent
+    {
+        private final Dependency constructorDependency;
+
+        @Inject
+        private Dependency childDependency;
+
+        private int number;
+
+        @Inject
+        public Child(Dependency dependency)
+        {
+            steps.add("constructor");
+            constructorDependency = dependency;
+        }
+
+        @Inject
+        protected void init(int number)
+        {
+            steps.add("child.init(" + number + ")");
+            this.number = number;
+        }
+
+        @Inject
+        void noArgs()
+        {
+            steps.add("child.noArgs");
+        }
+
+        @PostConstruct
+        public void postConstruct()
+        {
+            steps.add("child.postConstruct");
+        }
+
+        public Dependency getConstructorDependency()
+        {
+            return constructorDependency;
+        }
+
+        public Dependency getChildDependency()
+        {
+            return childDependency;
+        }
+
+        public int getNumber()
+        {
+            return number;
+        }
+    }
+
+    public static class NoDefaultConstructor
+    {
+        @Inject
+        private Dependency dependency;
+
+        private boolean initialized;
+
+        public NoDefaultConstructor(String name)
+        {
+            // only created manually
+        }
+
+        @PostConstruct
+        private void init()
+        {
+            initialized = true;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.test.instrumentation;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Annotation;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.annotation.Priority;
+import javax.enterprise.context.Dependent;
+import javax.enterprise.context.RequestScoped;
+import javax.enterprise.event.Observes;
+import javax.enterprise.inject.spi.Bean;
+import javax.interceptor.AroundInvoke;
+import javax.interceptor.Interceptor;
+import javax.interceptor.InterceptorBinding;
+import javax.interceptor.InvocationContext;
+
+import org.apache.webbeans.spi.InstrumentationService;
+import org.apache.webbeans.test.AbstractUnitTest;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class InstrumentationServiceTest extends AbstractUnitTest
+{
+    @Test
+    public void callbacks()
+    {
+        RecordingInstrumentation instrumentation = new RecordingInstrumentation();
+        addService(InstrumentationService.class, instrumentation);
+        startContainer(Worker.class, Tool.class, CountingInterceptor.class, StringObserver.class);
+
+        getInstance(Worker.class).work();
+        Assert.assertTrue(instrumentation.calls.contains("bean:" + Worker.class.getSimpleName()));
+
+        // a @Dependent bean must not count itself as its own dependent
+        getInstance(Tool.class);
+        Assert.assertTrue(instrumentation.calls.contains("dependents:" + Tool.class.getSimpleName() + ":0"));
+        Assert.assertTrue(instrumentation.calls.contains("interceptors:work:1"));
+
+        getBeanManager().getEvent().select(String.class).fire("x");
+        Assert.assertTrue(instrumentation.calls.contains("event:java.lang.String:1:false"));
+
+        instrumentation.calls.clear();
+        restartContext(RequestScoped.class);
+        Assert.assertTrue(instrumentation.calls.contains("end:RequestScoped"));
+        Assert.assertTrue(instrumentation.calls.contains("start:RequestScoped"));
+    }
+
+    public static class RecordingInstrumentation implements InstrumentationService
+    {
+        private final List<String> calls = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void beanCreated(Bean<?> bean, long durationNanos, int dependents)
+        {
+            calls.add("bean:" + bean.getBeanClass().getSimpleName());
+            calls.add("dependents:" + bean.getBeanClass().getSimpleName() + ":" + dependents);
+        }
+
+        @Override
+        public void eventFired(Type eventType, int observers, boolean async, long durationNanos)
+        {
+            calls.add("event:" + eventType.getTypeName() + ":" + observers + ":" + async);
+        }
+
+        @Override
+        public void interceptorChainInvoked(Method method, int interceptors, long durationNanos)
+        {
+            calls.add("interceptors:" + method.getName() + ":" + interceptors);
+        }
+
+        @Override
+        public void contextStarted(Class<? extends Annotation> scopeType)
+        {
+            calls.add("start:" + scopeType.getSimpleName());
+        }
+
+        @Override
+        public void contextEnded(Class<? extends Annotation> scopeType, long durationNanos)
+        {
+            calls.add("end:" + scopeType.getSimpleName());
+        }
+    }
+
+    @InterceptorBinding
+    @Retention(RUNTIME)
+    @Target({TYPE, METHOD})
+    public @interface Counted
+    {
+    }
+
+    @Counted
+    @Interceptor
+    @Priority(1)
+    public static class CountingInterceptor
+    {
+        @AroundInvoke
+        public Object count(InvocationContext ic) throws Exception
+        {
+            return ic.proceed();
+        }
+    }
+
+    @RequestScoped
+    public static class Worker
+    {
+        @Counted
+        public String work()
+        {
+            return "done";
+        }
+    }
+
+    @Dependent
+    public static class Tool
+    {
+    }
+
+    public static class StringObserver
+    {
+        public void observe(@Observes String event)
+        {
+            // only needs to be notified
+        }
+    }
+}
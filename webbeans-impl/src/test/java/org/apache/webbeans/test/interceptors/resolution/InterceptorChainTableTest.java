@@ -0,0 +1,201 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.test.interceptors.resolution;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+import static java.util.Arrays.asList;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Priority;
+import javax.decorator.Decorator;
+import javax.decorator.Delegate;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.inject.Any;
+import javax.inject.Inject;
+import javax.interceptor.AroundInvoke;
+import javax.interceptor.Interceptor;
+import javax.interceptor.InterceptorBinding;
+import javax.interceptor.InvocationContext;
+
+import org.apache.webbeans.test.AbstractUnitTest;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class InterceptorChainTableTest extends AbstractUnitTest
+{
+    @Test
+    public void methodIndexBinding()
+    {
+        startContainer(Service.class, ServiceImpl.class, ServiceDecorator.class, Tracing.class, Retrying.class, Calls.class);
+
+        Service service = getInstance(Service.class);
+        Calls calls = getInstance(Calls.class);
+
+        Assert.assertEquals("hello a", service.hello("a"));
+        Assert.assertEquals("hello 1", service.hello(1));
+        Assert.assertEquals("decorated", service.decorated());
+        Assert.assertEquals(asList("trace:hello:String", "target:ServiceImpl", "trace:hello:int", "target:ServiceImpl"), calls.getCalls());
+
+        calls.getCalls().clear();
+        Assert.assertEquals("ok", service.retried());
+        Assert.assertEquals(asList("trace:retried:", "target:ServiceImpl", "retry", "trace:retried:", "target:ServiceImpl"), calls.getCalls());
+    }
+
+    @Retention(RUNTIME)
+    @Target({TYPE, METHOD})
+    @InterceptorBinding
+    public @interface Traced
+    {
+    }
+
+    @Retention(RUNTIME)
+    @Target({TYPE, METHOD})
+    @InterceptorBinding
+    public @interface Retried
+    {
+    }
+
+    public interface Service
+    {
+        String hello(String name);
+
+        String hello(int number);
+
+        String decorated();
+
+        String retried();
+    }
+
+    public static class ServiceImpl implements Service
+    {
+        private int attempts;
+
+        @Override
+        @Traced
+        public String hello(String name)
+        {
+            return "hello " + name;
+        }
+
+        @Override
+        @Traced
+        public String hello(int number)
+        {
+            return "hello " + number;
+        }
+
+        @Override
+        public String decorated()
+        {
+            return "undecorated";
+        }
+
+        @Override
+        @Retried
+        @Traced
+        public String retried()
+        {
+            if (attempts++ == 0)
+            {
+                throw new IllegalStateException("first attempt");
+            }
+            return "ok";
+        }
+    }
+
+    @Decorator
+    @Priority(1)
+    public abstract static class ServiceDecorator implements Service
+    {
+        @Inject
+        @Delegate
+        @Any
+        private Service delegate;
+
+        @Override
+        public String decorated()
+        {
+            return "decorated";
+        }
+    }
+
+    @ApplicationScoped
+    public static class Calls
+    {
+        private final List<String> calls = new ArrayList<>();
+
+        public List<String> getCalls()
+        {
+            return calls;
+        }
+    }
+
+    @Traced
+    @Interceptor
+    @Priority(2)
+    public static class Tracing
+    {
+        @Inject
+        private Calls calls;
+
+        @AroundInvoke
+        public Object trace(InvocationContext ctx) throws Exception
+        {
+            Class<?>[] parameterTypes = ctx.getMethod().getParameterTypes();
+            calls.getCalls().add("trace:" + ctx.getMethod().getName() + ":" + (parameterTypes.length == 0 ? "" : parameterTypes[0].getSimpleName()));
+            Assert.assertTrue(ctx.getContextData().isEmpty());
+            ctx.getContextData().put("traced", true);
+            if (ctx.getTarget() instanceof ServiceImpl)
+            {
+                calls.getCalls().add("target:ServiceImpl");
+            }
+            return ctx.proceed();
+        }
+    }
+
+    @Retried
+    @Interceptor
+    @Priority(1)
+    public static class Retrying
+    {
+        @Inject
+        private Calls calls;
+
+        @AroundInvoke
+        public Object retry(InvocationContext ctx) throws Exception
+        {
+            try
+            {
+                return ctx.proceed();
+            }
+            catch (IllegalStateException e)
+            {
+                calls.getCalls().add("retry");
+                ctx.getContextData().clear();
+                return ctx.proceed();
+            }
+        }
+    }
+}
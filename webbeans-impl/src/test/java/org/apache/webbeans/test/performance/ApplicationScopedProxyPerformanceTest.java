@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.test.performance;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+
+import org.apache.webbeans.test.AbstractUnitTest;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Concurrent first invocations of an ApplicationScoped proxy.
+ * All threads start at the same time, so they race for the creation
+ * of the contextual instance. The throughput under contention is measured
+ * by the ContendedProxyBenchmark of the benchmarks module.
+ */
+public class ApplicationScopedProxyPerformanceTest extends AbstractUnitTest
+{
+    private static final int THREADS = 64;
+
+    @Test
+    public void testConcurrentProxyInvocations() throws Exception
+    {
+        startContainer(Counter.class);
+        Counter.created.set(0);
+
+        Counter counter = getInstance(Counter.class);
+        CyclicBarrier barrier = new CyclicBarrier(THREADS);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try
+        {
+            List<Future<Integer>> results = new ArrayList<>(THREADS);
+            for (int t = 0; t < THREADS; t++)
+            {
+                results.add(executor.submit(() ->
+                {
+                    barrier.await();
+                    return counter.ping();
+                }));
+            }
+
+            for (Future<Integer> result : results)
+            {
+                Assert.assertEquals(1, result.get(1, TimeUnit.MINUTES).intValue());
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        Assert.assertEquals(1, Counter.created.get());
+    }
+
+    @ApplicationScoped
+    public static class Counter
+    {
+        private static final AtomicInteger created = new AtomicInteger();
+
+        @PostConstruct
+        public void init()
+        {
+            created.incrementAndGet();
+        }
+
+        public int ping()
+        {
+            return 1;
+        }
+    }
+}
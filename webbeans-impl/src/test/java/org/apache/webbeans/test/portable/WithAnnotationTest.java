@@ -20,6 +20,7 @@ package org.apache.webbeans.test.portable;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.event.Observes;
+import javax.enterprise.inject.Typed;
 import javax.enterprise.inject.spi.Extension;
 import javax.enterprise.inject.spi.ProcessAnnotatedType;
 import javax.enterprise.inject.spi.WithAnnotations;
@@ -29,8 +30,17 @@ import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
-
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.webbeans.config.WebBeansContext;
+import org.apache.webbeans.corespi.scanner.xbean.CdiArchive;
+import org.apache.webbeans.corespi.scanner.xbean.OwbAnnotationFinder;
+import org.apache.webbeans.lifecycle.test.OpenWebBeansTestMetaDataDiscoveryService;
+import org.apache.webbeans.spi.ScannerService;
 import org.apache.webbeans.test.AbstractUnitTest;
+import org.apache.xbean.finder.archive.ClassesArchive;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -54,6 +64,60 @@ public class WithAnnotationTest extends AbstractUnitTest
     }
 
 
+    @Test
+    public void testWithAnnotationIndex()
+    {
+        Class<?>[] classes = {WithConstructorAnnotatedClass.class, WithoutAnyAnnotation.class, WithAnnotatedClass.class,
+            WithAnnotatedField.class, WithAnnotatedMethod.class, WithAnnotatedParameter.class, WithMetaAnnotatedClass.class,
+            InheritsAnnotatedMethod.class, InheritsAnnotatedClass.class};
+
+        Set<Class<?>> reflective = observedClasses(false, classes);
+        Assert.assertEquals(new HashSet<>(Arrays.asList(WithConstructorAnnotatedClass.class, WithAnnotatedClass.class,
+            WithAnnotatedField.class, WithAnnotatedMethod.class, WithAnnotatedParameter.class, WithMetaAnnotatedClass.class,
+            InheritsAnnotatedMethod.class)), reflective);
+        Assert.assertTrue(CollectingExtension.observedWithoutAnyAnnotation);
+
+        Assert.assertEquals(reflective, observedClasses(true, classes));
+        Assert.assertFalse("types without annotations must not get fired", CollectingExtension.observedWithoutAnyAnnotation);
+    }
+
+    private Set<Class<?>> observedClasses(boolean indexed, Class<?>... classes)
+    {
+        CollectingExtension.classes.clear();
+        addExtension(new CollectingExtension());
+        if (indexed)
+        {
+            addService(ScannerService.class, new IndexedScannerService());
+        }
+        startContainer(classes);
+        shutDownContainer();
+        return new HashSet<>(CollectingExtension.classes);
+    }
+
+    public static class IndexedScannerService extends OpenWebBeansTestMetaDataDiscoveryService
+    {
+        @Override
+        protected OwbAnnotationFinder createFinder(WebBeansContext webBeansContext, CdiArchive cdiArchive)
+        {
+            return new OwbAnnotationFinder(new ClassesArchive(getBeanClasses()));
+        }
+    }
+
+    public static class CollectingExtension implements Extension
+    {
+        public static final Set<Class<?>> classes = new HashSet<>();
+        public static boolean observedWithoutAnyAnnotation;
+
+        public void collect(@Observes @WithAnnotations(MyAnnoation.class) ProcessAnnotatedType<?> pat)
+        {
+            classes.add(pat.getAnnotatedType().getJavaClass());
+
+            WebBeansContext webBeansContext = WebBeansContext.currentInstance();
+            observedWithoutAnyAnnotation = webBeansContext.getNotificationManager().isProcessAnnotatedTypeObserved(
+                webBeansContext.getAnnotatedElementFactory().newAnnotatedType(WithoutAnyAnnotation.class));
+        }
+    }
+
     public static class WithAnnotationExtension implements Extension
     {
         public static int scannedClasses = 0;
@@ -141,4 +205,38 @@ public class WithAnnotationTest extends AbstractUnitTest
         }
     }
 
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target(ElementType.TYPE)
+    @MyAnnoation
+    public static @interface MetaAnnotation
+    {
+    }
+
+    @MetaAnnotation
+    public static class WithMetaAnnotatedClass
+    {
+    }
+
+    public static class WithAnnotatedParameter
+    {
+        public void setMeaningOfLife(@MyAnnoation int meaningOfLife)
+        {
+        }
+    }
+
+    /**
+     * Picked up as the AnnotatedType contains the methods of the superclass.
+     */
+    public static class InheritsAnnotatedMethod extends WithAnnotatedMethod
+    {
+    }
+
+    /**
+     * Not picked up as MyAnnoation is no {@link java.lang.annotation.Inherited} annotation.
+     */
+    @Typed(InheritsAnnotatedClass.class)
+    public static class InheritsAnnotatedClass extends WithAnnotatedClass
+    {
+    }
+
 }
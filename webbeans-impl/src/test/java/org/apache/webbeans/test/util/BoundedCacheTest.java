@@ -0,0 +1,191 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.test.util;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.enterprise.inject.spi.Bean;
+
+import org.apache.webbeans.config.OpenWebBeansConfiguration;
+import org.apache.webbeans.spi.InstrumentationService;
+import org.apache.webbeans.test.AbstractUnitTest;
+import org.apache.webbeans.util.BoundedCache;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BoundedCacheTest extends AbstractUnitTest
+{
+    @Test
+    public void lruEviction()
+    {
+        BoundedCache<String, String> cache = new BoundedCache<>("test", 2, BoundedCache.Eviction.LRU, null);
+        cache.put("a", "A");
+        cache.put("b", "B");
+        Assert.assertEquals("A", cache.get("a"));
+
+        cache.put("c", "C");
+        Assert.assertEquals(2, cache.size());
+        Assert.assertEquals("A", cache.get("a"));
+        Assert.assertNull(cache.get("b"));
+        Assert.assertEquals("C", cache.get("c"));
+
+        Assert.assertEquals(3, cache.getHitCount());
+        Assert.assertEquals(1, cache.getMissCount());
+        Assert.assertEquals(1, cache.getEvictionCount());
+    }
+
+    @Test
+    public void tinyLfuAdmission()
+    {
+        // a window of 1 entry and a main region of 99 entries
+        BoundedCache<String, String> cache = new BoundedCache<>("test", 100, BoundedCache.Eviction.TINY_LFU, null);
+        for (int i = 0; i < 100; i++)
+        {
+            for (int lookup = 0; lookup < 3; lookup++)
+            {
+                cache.get("frequent" + i);
+            }
+            cache.put("frequent" + i, "F" + i);
+        }
+        Assert.assertEquals(100, cache.size());
+
+        // a burst of one-time lookups gets into the window but does not flush the frequently used entries
+        for (int i = 0; i < 50; i++)
+        {
+            Assert.assertNull(cache.get("once" + i));
+            cache.put("once" + i, "O" + i);
+            Assert.assertEquals("O" + i, cache.get("once" + i));
+        }
+        Assert.assertEquals(100, cache.size());
+        Assert.assertEquals(0, cache.getEvictionCount());
+        Assert.assertEquals(50, cache.getRejectionCount());
+        for (int i = 0; i < 99; i++)
+        {
+            Assert.assertEquals("F" + i, cache.get("frequent" + i));
+        }
+
+        // once a new entry got used more often it replaces a victim of the main region
+        for (int i = 0; i < 10; i++)
+        {
+            cache.get("popular");
+        }
+        cache.put("popular", "P");
+        cache.put("next", "N");
+        Assert.assertEquals("P", cache.get("popular"));
+        Assert.assertEquals(100, cache.size());
+        Assert.assertEquals(1, cache.getEvictionCount());
+    }
+
+    @Test
+    public void boundedUnderConcurrentPuts() throws Exception
+    {
+        BoundedCache<Integer, Integer> cache = new BoundedCache<>("test", 50, BoundedCache.Eviction.TINY_LFU, null);
+        AtomicInteger maxSeen = new AtomicInteger();
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++)
+        {
+            int offset = t * 10000;
+            threads[t] = new Thread(() ->
+            {
+                for (int i = 0; i < 10000; i++)
+                {
+                    cache.get(offset + i % 100);
+                    cache.put(offset + i, i);
+                    maxSeen.accumulateAndGet(cache.size(), Math::max);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads)
+        {
+            thread.join();
+        }
+
+        Assert.assertEquals(50, cache.size());
+        Assert.assertTrue(String.valueOf(maxSeen.get()), maxSeen.get() <= 50);
+    }
+
+    @Test
+    public void unbounded()
+    {
+        BoundedCache<Integer, Integer> cache = new BoundedCache<>("test", 0, BoundedCache.Eviction.LRU, null);
+        for (int i = 0; i < 1000; i++)
+        {
+            cache.put(i, i);
+        }
+        Assert.assertEquals(1000, cache.size());
+        Assert.assertEquals(0, cache.getEvictionCount());
+    }
+
+    @Test
+    public void boundedResolutionCache()
+    {
+        CountingInstrumentation.hits.set(0);
+        CountingInstrumentation.misses.set(0);
+        CountingInstrumentation.evictions.set(0);
+
+        addConfiguration(OpenWebBeansConfiguration.RESOLUTION_CACHE_SIZE, "10");
+        addConfiguration(InstrumentationService.class.getName(), CountingInstrumentation.class.getName());
+        startContainer(NamedBean.class);
+
+        for (int i = 0; i < 100; i++)
+        {
+            getBeanManager().getBeans("dynamic" + i);
+        }
+        getBeanManager().getBeans("dynamic99");
+
+        BoundedCache<String, Set<Bean<?>>> cache =
+                getWebBeansContext().getBeanManagerImpl().getInjectionResolver().getResolvedBeansByNameCache();
+        Assert.assertTrue(cache.size() <= 10);
+        Assert.assertTrue(CountingInstrumentation.misses.get() >= 100);
+        Assert.assertTrue(CountingInstrumentation.hits.get() >= 1);
+        Assert.assertTrue(CountingInstrumentation.evictions.get() >= 90);
+        Assert.assertEquals(cache.getEvictionCount(), CountingInstrumentation.evictions.get());
+    }
+
+    public static class NamedBean
+    {
+    }
+
+    public static class CountingInstrumentation implements InstrumentationService
+    {
+        private static final AtomicInteger hits = new AtomicInteger();
+        private static final AtomicInteger misses = new AtomicInteger();
+        private static final AtomicInteger evictions = new AtomicInteger();
+
+        @Override
+        public void cacheHit(String cacheName)
+        {
+            hits.incrementAndGet();
+        }
+
+        @Override
+        public void cacheMiss(String cacheName)
+        {
+            misses.incrementAndGet();
+        }
+
+        @Override
+        public void cacheEviction(String cacheName)
+        {
+            evictions.incrementAndGet();
+        }
+    }
+}
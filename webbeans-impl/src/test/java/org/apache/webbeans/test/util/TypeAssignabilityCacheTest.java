@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.test.util;
+
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import javax.enterprise.util.TypeLiteral;
+import javax.inject.Inject;
+
+import org.apache.webbeans.config.OwbParametrizedTypeImpl;
+import org.apache.webbeans.test.AbstractUnitTest;
+import org.apache.webbeans.util.GenericsUtil;
+import org.apache.webbeans.util.TypeAssignabilityCache;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TypeAssignabilityCacheTest extends AbstractUnitTest
+{
+    @Test
+    public void plainTypesShareEntriesAcrossImplementations()
+    {
+        TypeAssignabilityCache cache = new TypeAssignabilityCache(10, 10, null);
+        Type jdkType = new TypeLiteral<List<String>>() {}.getType();
+        Type owbType = new OwbParametrizedTypeImpl(null, List.class, String.class);
+
+        Assert.assertTrue(cache.isAssignableFrom(false, false, jdkType, owbType));
+        Assert.assertTrue(cache.isAssignableFrom(false, false, owbType, jdkType));
+        Assert.assertEquals(1, cache.getPlainTypesSize());
+
+        Type integers = new TypeLiteral<List<Integer>>() {}.getType();
+        Assert.assertFalse(cache.isAssignableFrom(false, false, jdkType, integers));
+        Assert.assertFalse(cache.isAssignableFrom(false, false, owbType, integers));
+        Assert.assertEquals(2, cache.getPlainTypesSize());
+        Assert.assertEquals(0, cache.getTypeVariablesSize());
+    }
+
+    @Test
+    public void sameResultsAsGenericsUtil()
+    {
+        TypeAssignabilityCache cache = new TypeAssignabilityCache(10, 10, null);
+        Type[] types = new Type[] {
+                List.class,
+                ArrayList.class,
+                Object.class,
+                new TypeLiteral<List<String>>() {}.getType(),
+                new TypeLiteral<List<? extends Number>>() {}.getType(),
+                new TypeLiteral<List<Integer>>() {}.getType(),
+                new TypeLiteral<ArrayList<Integer>>() {}.getType(),
+                Holder.class.getTypeParameters()[0],
+                Holder.class.getGenericInterfaces()[0]
+        };
+        for (int round = 0; round < 2; round++)
+        {
+            for (boolean delegate : new boolean[] {false, true})
+            {
+                for (boolean producer : new boolean[] {false, true})
+                {
+                    for (Type required : types)
+                    {
+                        for (Type beanType : types)
+                        {
+                            Assert.assertEquals(required + " <- " + beanType,
+                                    GenericsUtil.satisfiesDependency(delegate, producer, required, beanType, new HashMap<>()),
+                                    cache.satisfiesDependency(delegate, producer, required, beanType));
+                            Assert.assertEquals(required + " <- " + beanType,
+                                    GenericsUtil.isAssignableFrom(delegate, producer, required, beanType, new HashMap<>()),
+                                    cache.isAssignableFrom(delegate, producer, required, beanType));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void typeVariablesAreBounded()
+    {
+        TypeAssignabilityCache cache = new TypeAssignabilityCache(10, 1, null);
+        TypeVariable<?> variable = Holder.class.getTypeParameters()[0];
+
+        cache.isAssignableFrom(false, false, Number.class, variable);
+        cache.isAssignableFrom(false, false, Integer.class, variable);
+        cache.isAssignableFrom(false, false, Object.class, variable);
+        Assert.assertEquals(1, cache.getTypeVariablesSize());
+        Assert.assertEquals(0, cache.getPlainTypesSize());
+    }
+
+    @Test
+    public void plainTypesAreBounded()
+    {
+        TypeAssignabilityCache cache = new TypeAssignabilityCache(2, 10, null);
+        Type strings = new TypeLiteral<List<String>>() {}.getType();
+
+        Assert.assertFalse(cache.satisfiesDependency(false, false, strings, new TypeLiteral<List<Integer>>() {}.getType()));
+        Assert.assertFalse(cache.satisfiesDependency(false, false, strings, new TypeLiteral<List<Long>>() {}.getType()));
+        Assert.assertFalse(cache.satisfiesDependency(false, false, strings, new TypeLiteral<List<Double>>() {}.getType()));
+        Assert.assertTrue(cache.satisfiesDependency(false, false, strings, new TypeLiteral<List<String>>() {}.getType()));
+        Assert.assertEquals(2, cache.getPlainTypesSize());
+    }
+
+    @Test
+    public void differentRawTypesAreNotCached()
+    {
+        TypeAssignabilityCache cache = new TypeAssignabilityCache(10, 10, null);
+        Assert.assertFalse(cache.satisfiesDependency(false, false, List.class, String.class));
+        Assert.assertEquals(0, cache.getPlainTypesSize());
+    }
+
+    @Test
+    public void usedByTheContainer()
+    {
+        startContainer(StringHolder.class, Consumer.class);
+
+        Assert.assertNotNull(getInstance(Consumer.class).holder);
+        Assert.assertTrue(getWebBeansContext().getTypeAssignabilityCache().getPlainTypesSize() > 0);
+    }
+
+    public interface Holder<T extends Number> extends Comparable<Holder<T>>
+    {
+    }
+
+    public static class StringHolder implements Comparable<StringHolder>
+    {
+        @Override
+        public int compareTo(StringHolder o)
+        {
+            return 0;
+        }
+    }
+
+    public static class Consumer
+    {
+        @Inject
+        private Comparable<StringHolder> holder;
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.test.util;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.enterprise.inject.Produces;
+import javax.enterprise.inject.spi.Bean;
+import javax.enterprise.inject.spi.InjectionPoint;
+import javax.enterprise.util.TypeLiteral;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.apache.webbeans.annotation.NamedLiteral;
+import org.apache.webbeans.config.OpenWebBeansConfiguration;
+import org.apache.webbeans.config.OwbParametrizedTypeImpl;
+import org.apache.webbeans.config.OwbWildcardTypeImpl;
+import org.apache.webbeans.test.AbstractUnitTest;
+import org.apache.webbeans.util.ImmutableTypeSet;
+import org.apache.webbeans.util.TypeInterner;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TypeInternerTest extends AbstractUnitTest
+{
+    @Test
+    public void equalTypesShareOneInstance()
+    {
+        TypeInterner interner = new TypeInterner(true);
+        Type jdkType = new TypeLiteral<List<String>>() {}.getType();
+        Type otherJdkType = new TypeLiteral<List<String>>() {}.getType();
+        Type owbType = new OwbParametrizedTypeImpl(null, List.class, String.class);
+        Assert.assertNotSame(jdkType, otherJdkType);
+
+        Type canonical = interner.intern(jdkType);
+        Assert.assertSame(jdkType, canonical);
+        Assert.assertSame(canonical, interner.intern(otherJdkType));
+        Assert.assertSame(canonical, interner.intern(owbType));
+        Assert.assertSame(String.class, interner.intern(String.class));
+    }
+
+    @Test
+    public void nestedTypesGetInterned()
+    {
+        TypeInterner interner = new TypeInterner(true);
+        Type strings = interner.intern(new TypeLiteral<List<String>>() {}.getType());
+        ParameterizedType map = (ParameterizedType) interner.intern(new TypeLiteral<Map<Integer, List<String>>>() {}.getType());
+
+        Assert.assertSame(strings, map.getActualTypeArguments()[1]);
+        Assert.assertEquals(new TypeLiteral<Map<Integer, List<String>>>() {}.getType(), map);
+    }
+
+    @Test
+    public void equalTypeSetsGetShared()
+    {
+        TypeInterner interner = new TypeInterner(true);
+        Set<Type> types = new HashSet<>();
+        types.add(Object.class);
+        types.add(new TypeLiteral<List<String>>() {}.getType());
+        Set<Type> equalTypes = new HashSet<>();
+        equalTypes.add(new OwbParametrizedTypeImpl(null, List.class, String.class));
+        equalTypes.add(Object.class);
+
+        Set<Type> interned = interner.internTypes(types);
+        Assert.assertTrue(interned instanceof ImmutableTypeSet);
+        Assert.assertSame(interned, interner.internTypes(equalTypes));
+        Assert.assertEquals(types, interned);
+        Assert.assertEquals(types.hashCode(), interned.hashCode());
+        Assert.assertTrue(interned.contains(new OwbParametrizedTypeImpl(null, List.class, String.class)));
+        Assert.assertFalse(interned.contains(String.class));
+        Assert.assertEquals(1, interner.getTypeSetCount());
+
+        try
+        {
+            interned.add(String.class);
+            Assert.fail("interned type sets must be immutable");
+        }
+        catch (UnsupportedOperationException e)
+        {
+            // expected
+        }
+    }
+
+    @Test
+    public void disabled()
+    {
+        TypeInterner interner = new TypeInterner(false);
+        Type type = new TypeLiteral<List<String>>() {}.getType();
+        Set<Type> types = new HashSet<>();
+        types.add(type);
+
+        Assert.assertSame(type, interner.intern(type));
+        Assert.assertSame(types, interner.internTypes(types));
+        Assert.assertEquals(0, interner.getTypeCount());
+    }
+
+    @Test
+    public void owbWildcardEqualsJdkWildcard()
+    {
+        WildcardType jdkWildcard = (WildcardType) ((ParameterizedType) new TypeLiteral<List<? extends Number>>() {}.getType()).getActualTypeArguments()[0];
+        WildcardType owbWildcard = new OwbWildcardTypeImpl(new Type[] {Number.class}, new Type[0]);
+
+        Assert.assertEquals(owbWildcard, jdkWildcard);
+        Assert.assertEquals(jdkWildcard, owbWildcard);
+        Assert.assertEquals(jdkWildcard.hashCode(), owbWildcard.hashCode());
+    }
+
+    @Test
+    public void beanMetadataIsShared()
+    {
+        startContainer(Producers.class, Consumer.class);
+
+        Set<Bean<?>> first = getBeanManager().getBeans(new TypeLiteral<List<String>>() {}.getType(), new NamedLiteral("first"));
+        Set<Bean<?>> second = getBeanManager().getBeans(new TypeLiteral<List<String>>() {}.getType(), new NamedLiteral("second"));
+        Assert.assertEquals(1, first.size());
+        Assert.assertEquals(1, second.size());
+        Assert.assertSame(first.iterator().next().getTypes(), second.iterator().next().getTypes());
+
+        Bean<?> consumer = getBeanManager().resolve(getBeanManager().getBeans(Consumer.class));
+        Type[] injectionPointTypes = consumer.getInjectionPoints().stream().map(InjectionPoint::getType).toArray(Type[]::new);
+        Assert.assertEquals(2, injectionPointTypes.length);
+        Assert.assertSame(injectionPointTypes[0], injectionPointTypes[1]);
+    }
+
+    @Test
+    public void beanMetadataWithoutInterning()
+    {
+        addConfiguration(OpenWebBeansConfiguration.TYPE_INTERNING, "false");
+        startContainer(Producers.class, Consumer.class);
+
+        Assert.assertFalse(getWebBeansContext().getTypeInterner().isEnabled());
+        Assert.assertEquals("a", getInstance(Consumer.class).first.get(0));
+        Assert.assertEquals(0, getWebBeansContext().getTypeInterner().getTypeCount());
+    }
+
+    public static class Producers
+    {
+        @Produces
+        @Named("first")
+        public List<String> first()
+        {
+            return Collections.singletonList("a");
+        }
+
+        @Produces
+        @Named("second")
+        public List<String> second()
+        {
+            return Collections.singletonList("b");
+        }
+    }
+
+    public static class Consumer
+    {
+        @Inject
+        @Named("first")
+        private List<String> first;
+
+        @Inject
+        @Named("second")
+        private List<String> second;
+    }
+}
@@ -0,0 +1,292 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.jfr;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+
+import javax.enterprise.inject.spi.Bean;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+import org.apache.webbeans.spi.InstrumentationService;
+
+/**
+ * {@link InstrumentationService} which emits JDK Flight Recorder events.
+ *
+ * Enable it with
+ * <pre>org.apache.webbeans.spi.InstrumentationService=org.apache.webbeans.jfr.JfrInstrumentationService</pre>
+ * in {@code META-INF/openwebbeans/openwebbeans.properties}. The events are in the category {@code OpenWebBeans}
+ * and only get populated if they are enabled in the running recording, otherwise a callback only
+ * checks the event settings. Requires a JVM which ships the {@code jdk.jfr} API, e.g. Java 8u262 or newer.
+ */
+public class JfrInstrumentationService implements InstrumentationService
+{
+    @Override
+    public void beanCreated(Bean<?> bean, long durationNanos, int dependents)
+    {
+        BeanCreationEvent event = new BeanCreationEvent();
+        if (event.isEnabled())
+        {
+            event.beanClass = bean.getBeanClass();
+            event.scope = bean.getScope();
+            event.creationTime = durationNanos;
+            event.dependents = dependents;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void eventFired(Type eventType, int observers, boolean async, long durationNanos)
+    {
+        EventDispatchEvent event = new EventDispatchEvent();
+        if (event.isEnabled())
+        {
+            event.eventType = eventType.getTypeName();
+            event.observers = observers;
+            event.async = async;
+            event.dispatchTime = durationNanos;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void interceptorChainInvoked(Method method, int interceptors, long durationNanos)
+    {
+        InterceptorChainEvent event = new InterceptorChainEvent();
+        if (event.isEnabled())
+        {
+            event.declaringClass = method.getDeclaringClass();
+            event.method = method.getName();
+            event.interceptors = interceptors;
+            event.invocationTime = durationNanos;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void contextStarted(Class<? extends Annotation> scopeType)
+    {
+        ContextStartEvent event = new ContextStartEvent();
+        if (event.isEnabled())
+        {
+            event.scope = scopeType;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void contextEnded(Class<? extends Annotation> scopeType, long durationNanos)
+    {
+        ContextEndEvent event = new ContextEndEvent();
+        if (event.isEnabled())
+        {
+            event.scope = scopeType;
+            event.destructionTime = durationNanos;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void cacheMiss(String cacheName)
+    {
+        CacheMissEvent event = new CacheMissEvent();
+        if (event.isEnabled())
+        {
+            event.cache = cacheName;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void cacheEviction(String cacheName)
+    {
+        CacheEvictionEvent event = new CacheEvictionEvent();
+        if (event.isEnabled())
+        {
+            event.cache = cacheName;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void cacheRejection(String cacheName)
+    {
+        CacheRejectionEvent event = new CacheRejectionEvent();
+        if (event.isEnabled())
+        {
+            event.cache = cacheName;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void asyncEventTaskCompleted(long queuedNanos, long executionNanos)
+    {
+        AsyncEventTaskEvent event = new AsyncEventTaskEvent();
+        if (event.isEnabled())
+        {
+            event.queueTime = queuedNanos;
+            event.executionTime = executionNanos;
+            event.commit();
+        }
+    }
+
+    @Name("org.apache.webbeans.BeanCreation")
+    @Label("Bean Creation")
+    @Description("A contextual instance got created")
+    @Category("OpenWebBeans")
+    @StackTrace(false)
+    static final class BeanCreationEvent extends Event
+    {
+        @Label("Bean Class")
+        private Class<?> beanClass;
+
+        @Label("Scope")
+        private Class<?> scope;
+
+        @Label("Creation Time")
+        @Timespan(Timespan.NANOSECONDS)
+        private long creationTime;
+
+        @Label("Dependents")
+        private int dependents;
+    }
+
+    @Name("org.apache.webbeans.EventDispatch")
+    @Label("Event Dispatch")
+    @Description("An event got delivered to its observer methods")
+    @Category("OpenWebBeans")
+    static final class EventDispatchEvent extends Event
+    {
+        @Label("Event Type")
+        private String eventType;
+
+        @Label("Observers")
+        private int observers;
+
+        @Label("Async")
+        private boolean async;
+
+        @Label("Dispatch Time")
+        @Timespan(Timespan.NANOSECONDS)
+        private long dispatchTime;
+    }
+
+    @Name("org.apache.webbeans.InterceptorChain")
+    @Label("Interceptor Chain")
+    @Description("An intercepted business method got invoked")
+    @Category("OpenWebBeans")
+    @StackTrace(false)
+    static final class InterceptorChainEvent extends Event
+    {
+        @Label("Declaring Class")
+        private Class<?> declaringClass;
+
+        @Label("Method")
+        private String method;
+
+        @Label("Interceptors")
+        private int interceptors;
+
+        @Label("Invocation Time")
+        @Timespan(Timespan.NANOSECONDS)
+        private long invocationTime;
+    }
+
+    @Name("org.apache.webbeans.ContextStart")
+    @Label("Context Start")
+    @Category("OpenWebBeans")
+    @StackTrace(false)
+    static final class ContextStartEvent extends Event
+    {
+        @Label("Scope")
+        private Class<?> scope;
+    }
+
+    @Name("org.apache.webbeans.ContextEnd")
+    @Label("Context End")
+    @Description("A context got ended and its contextual instances got destroyed")
+    @Category("OpenWebBeans")
+    @StackTrace(false)
+    static final class ContextEndEvent extends Event
+    {
+        @Label("Scope")
+        private Class<?> scope;
+
+        @Label("Destruction Time")
+        @Timespan(Timespan.NANOSECONDS)
+        private long destructionTime;
+    }
+
+    @Name("org.apache.webbeans.CacheMiss")
+    @Label("Cache Miss")
+    @Description("A lookup in an internal cache, e.g. of the InjectionResolver, had to be computed")
+    @Category("OpenWebBeans")
+    @StackTrace(false)
+    static final class CacheMissEvent extends Event
+    {
+        @Label("Cache")
+        private String cache;
+    }
+
+    @Name("org.apache.webbeans.CacheEviction")
+    @Label("Cache Eviction")
+    @Category("OpenWebBeans")
+    @StackTrace(false)
+    static final class CacheEvictionEvent extends Event
+    {
+        @Label("Cache")
+        private String cache;
+    }
+
+    @Name("org.apache.webbeans.CacheRejection")
+    @Label("Cache Rejection")
+    @Description("A new entry of a tinylfu cache got dropped as it is used less often than the cached ones")
+    @Category("OpenWebBeans")
+    @StackTrace(false)
+    static final class CacheRejectionEvent extends Event
+    {
+        @Label("Cache")
+        private String cache;
+    }
+
+    @Name("org.apache.webbeans.AsyncEventTask")
+    @Label("Async Event Task")
+    @Description("A task of the asynchronous event delivery finished")
+    @Category("OpenWebBeans")
+    @StackTrace(false)
+    static final class AsyncEventTaskEvent extends Event
+    {
+        @Label("Queue Time")
+        @Timespan(Timespan.NANOSECONDS)
+        private long queueTime;
+
+        @Label("Execution Time")
+        @Timespan(Timespan.NANOSECONDS)
+        private long executionTime;
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.jfr;
+
+import java.io.File;
+import java.util.List;
+
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import org.apache.webbeans.spi.InstrumentationService;
+import org.apache.webbeans.test.AbstractUnitTest;
+import org.apache.webbeans.test.instrumentation.InstrumentationServiceTest.CountingInterceptor;
+import org.apache.webbeans.test.instrumentation.InstrumentationServiceTest.StringObserver;
+import org.apache.webbeans.test.instrumentation.InstrumentationServiceTest.Tool;
+import org.apache.webbeans.test.instrumentation.InstrumentationServiceTest.Worker;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+public class JfrInstrumentationServiceTest extends AbstractUnitTest
+{
+    @Test
+    public void flightRecorderEvents() throws Exception
+    {
+        Assume.assumeTrue("no flight recorder in this JVM", FlightRecorder.isAvailable());
+
+        addService(InstrumentationService.class, new JfrInstrumentationService());
+        File dump = File.createTempFile("owb", ".jfr");
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording())
+        {
+            recording.enable("org.apache.webbeans.BeanCreation");
+            recording.enable("org.apache.webbeans.InterceptorChain");
+            recording.start();
+
+            startContainer(Worker.class, Tool.class, CountingInterceptor.class, StringObserver.class);
+            getInstance(Worker.class).work();
+            getInstance(Tool.class);
+
+            recording.stop();
+            recording.dump(dump.toPath());
+            events = RecordingFile.readAllEvents(dump.toPath());
+        }
+        finally
+        {
+            dump.delete();
+        }
+
+        Assert.assertTrue(events.stream().anyMatch(e -> "org.apache.webbeans.BeanCreation".equals(e.getEventType().getName())
+                && Worker.class.getName().equals(e.getClass("beanClass").getName())));
+        Assert.assertTrue(events.stream().anyMatch(e -> "org.apache.webbeans.BeanCreation".equals(e.getEventType().getName())
+                && Tool.class.getName().equals(e.getClass("beanClass").getName()) && e.getInt("dependents") == 0));
+        Assert.assertTrue(events.stream().anyMatch(e -> "org.apache.webbeans.InterceptorChain".equals(e.getEventType().getName())
+                && "work".equals(e.getString("method")) && e.getInt("interceptors") == 1));
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.openwebbeans.maven.index;
+
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.List;
+
+/**
+ * Writes the bean archive index of the module classes,
+ * it is used at runtime by the IndexedScannerService to skip classpath scanning.
+ *
+ * The generator gets loaded from the runtime classpath of the module,
+ * so the plugin itself does not bring openwebbeans-impl along.
+ */
+@Mojo(name = "index", defaultPhase = LifecyclePhase.PROCESS_CLASSES, threadSafe = true,
+        requiresDependencyResolution = ResolutionScope.RUNTIME)
+public class BeanArchiveIndexMojo extends AbstractMojo
+{
+    private static final String GENERATOR = "org.apache.webbeans.corespi.scanner.index.BeanArchiveIndexGenerator";
+
+    @Parameter(defaultValue = "${project.runtimeClasspathElements}", readonly = true)
+    private List<String> classpathElements;
+
+    @Parameter(property = "openwebbeans.index.classes", defaultValue = "${project.build.outputDirectory}")
+    private File classesDirectory;
+
+    @Parameter(property = "openwebbeans.index.skip", defaultValue = "false")
+    private boolean skip;
+
+    @Override
+    public void execute() throws MojoExecutionException
+    {
+        if (skip)
+        {
+            getLog().info("Skipping bean archive index generation");
+            return;
+        }
+        if (!classesDirectory.isDirectory())
+        {
+            getLog().info(classesDirectory + " does not exist, no bean archive index generated");
+            return;
+        }
+
+        final URL[] urls = new URL[classpathElements.size()];
+        for (int i = 0; i < urls.length; i++)
+        {
+            try
+            {
+                urls[i] = new File(classpathElements.get(i)).toURI().toURL();
+            }
+            catch (final MalformedURLException e)
+            {
+                throw new MojoExecutionException(e.getMessage(), e);
+            }
+        }
+
+        try (final URLClassLoader loader = new URLClassLoader(urls, getClass().getClassLoader()))
+        {
+            final Class<?> generator = loader.loadClass(GENERATOR);
+            final Object index = generator.getMethod("generate", File.class)
+                    .invoke(generator.getConstructor().newInstance(), classesDirectory);
+            getLog().info("Generated bean archive index " + index);
+        }
+        catch (final ClassNotFoundException e)
+        {
+            throw new MojoExecutionException("openwebbeans-impl must be a runtime dependency of the module " +
+                    "or a dependency of the plugin to generate the bean archive index", e);
+        }
+        catch (final InvocationTargetException e)
+        {
+            throw new MojoExecutionException("Can't generate the bean archive index of " + classesDirectory, e.getCause());
+        }
+        catch (final IOException | ReflectiveOperationException e)
+        {
+            throw new MojoExecutionException("Can't generate the bean archive index of " + classesDirectory, e);
+        }
+    }
+}
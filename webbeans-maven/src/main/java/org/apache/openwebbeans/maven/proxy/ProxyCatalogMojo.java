@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.openwebbeans.maven.proxy;
+
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Runs the deployment of the module and writes all generated proxies as class files
+ * plus a catalog, they get used at runtime by the PreGeneratedProxyService.
+ *
+ * The generator gets loaded from the runtime classpath of the module,
+ * so the plugin itself does not bring openwebbeans-impl along.
+ */
+@Mojo(name = "proxies", defaultPhase = LifecyclePhase.PROCESS_CLASSES,
+        requiresDependencyResolution = ResolutionScope.RUNTIME)
+public class ProxyCatalogMojo extends AbstractMojo
+{
+    private static final String GENERATOR = "org.apache.webbeans.proxy.ProxyCatalogGenerator";
+
+    @Parameter(defaultValue = "${project.runtimeClasspathElements}", readonly = true)
+    private List<String> classpathElements;
+
+    @Parameter(property = "openwebbeans.proxies.output", defaultValue = "${project.build.outputDirectory}")
+    private File outputDirectory;
+
+    /**
+     * Additional OpenWebBeans configuration used for the deployment.
+     */
+    @Parameter
+    private Properties configuration;
+
+    @Parameter(property = "openwebbeans.proxies.skip", defaultValue = "false")
+    private boolean skip;
+
+    @Override
+    public void execute() throws MojoExecutionException
+    {
+        if (skip)
+        {
+            getLog().info("Skipping proxy generation");
+            return;
+        }
+
+        final URL[] urls = new URL[classpathElements.size()];
+        for (int i = 0; i < urls.length; i++)
+        {
+            try
+            {
+                urls[i] = new File(classpathElements.get(i)).toURI().toURL();
+            }
+            catch (final MalformedURLException e)
+            {
+                throw new MojoExecutionException(e.getMessage(), e);
+            }
+        }
+
+        final Thread thread = Thread.currentThread();
+        final ClassLoader pluginLoader = thread.getContextClassLoader();
+        try (final URLClassLoader loader = new URLClassLoader(urls, new PluginClassLoader(getClass().getClassLoader())))
+        {
+            thread.setContextClassLoader(loader);
+            final Class<?> generator = loader.loadClass(GENERATOR);
+            generator.getMethod("generate", File.class, Properties.class)
+                    .invoke(generator.getConstructor().newInstance(), outputDirectory,
+                            configuration == null ? new Properties() : configuration);
+            getLog().info("Generated proxies in " + outputDirectory);
+        }
+        catch (final ClassNotFoundException e)
+        {
+            throw new MojoExecutionException("openwebbeans-impl must be a runtime dependency of the module " +
+                    "or a dependency of the plugin to generate the proxies", e);
+        }
+        catch (final InvocationTargetException e)
+        {
+            throw new MojoExecutionException("Can't generate the proxies", e.getCause());
+        }
+        catch (final IOException | ReflectiveOperationException | RuntimeException e)
+        {
+            throw new MojoExecutionException("Can't generate the proxies", e);
+        }
+        finally
+        {
+            thread.setContextClassLoader(pluginLoader);
+        }
+    }
+
+    /**
+     * Gives access to the plugin classes
+     * but hides the plugin jars from the scanning of the deployment.
+     */
+    private static final class PluginClassLoader extends ClassLoader
+    {
+        private PluginClassLoader(final ClassLoader parent)
+        {
+            super(parent);
+        }
+
+        @Override
+        public Enumeration<URL> getResources(final String name) throws IOException
+        {
+            if ("".equals(name) || "META-INF".equals(name) || "META-INF/beans.xml".equals(name))
+            {
+                return Collections.emptyEnumeration();
+            }
+            return super.getResources(name);
+        }
+    }
+}
@@ -39,4 +39,29 @@ public interface DefiningClassService
      * @return the proxy class.
      */
     <T> Class<T> defineAndLoad(String name, byte[] bytecode, Class<T> proxiedClass);
+
+    /**
+     * @return {@code true} if {@link #findPreGeneratedProxy(String, String, Class)} can return a proxy
+     *         or records the proxies, only then the proxy factories compute the fingerprint of a proxy.
+     */
+    default boolean usesPreGeneratedProxies()
+    {
+        return false;
+    }
+
+    /**
+     * Lookup a proxy class which was generated ahead of time, e.g. at build time.
+     * If no class is returned the proxy bytecode gets generated and passed to
+     * {@link #defineAndLoad(String, byte[], Class)}.
+     * @param name the proxy name.
+     * @param fingerprint hash of the proxied class bytecode and of the proxied methods,
+     *                    a pre-generated proxy must only be used if it was generated for the same fingerprint.
+     * @param proxiedClass the original class.
+     * @param <T> type of the class to proxy.
+     * @return the pre-generated proxy class or {@code null} if it must get generated.
+     */
+    default <T> Class<T> findPreGeneratedProxy(String name, String fingerprint, Class<T> proxiedClass)
+    {
+        return null;
+    }
 }
@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.spi;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+
+import javax.enterprise.inject.spi.Bean;
+
+/**
+ * SPI to observe the internals of the container at runtime, e.g. to feed a monitoring system
+ * or JDK Flight Recorder.
+ *
+ * All callbacks are invoked on hot code paths, implementations must return fast
+ * and must not throw exceptions. If no InstrumentationService is configured
+ * the container does not produce any of these callbacks.
+ */
+public interface InstrumentationService
+{
+    /**
+     * A lookup in one of the internal caches got served from the cache.
+     * @param cacheName name of the cache, e.g. {@code resolvedBeansByType}
+     */
+    default void cacheHit(String cacheName)
+    {
+        // no-op
+    }
+
+    /**
+     * A lookup in one of the internal caches did not find an entry.
+     * @param cacheName name of the cache, e.g. {@code resolvedBeansByType}
+     */
+    default void cacheMiss(String cacheName)
+    {
+        // no-op
+    }
+
+    /**
+     * An entry got evicted from one of the internal caches to make room for another entry.
+     * @param cacheName name of the cache, e.g. {@code resolvedBeansByType}
+     */
+    default void cacheEviction(String cacheName)
+    {
+        // no-op
+    }
+
+    /**
+     * A new entry of one of the internal caches with the {@code tinylfu} eviction got dropped
+     * after its time in the admission window because it is less frequently used than the cached ones.
+     * @param cacheName name of the cache, e.g. {@code resolvedBeansByType}
+     */
+    default void cacheRejection(String cacheName)
+    {
+        // no-op
+    }
+
+    /**
+     * A task of the asynchronous event delivery finished.
+     * @param queuedNanos how long the task waited for a thread
+     * @param executionNanos how long notifying the observer methods took
+     */
+    default void asyncEventTaskCompleted(long queuedNanos, long executionNanos)
+    {
+        // no-op
+    }
+
+    /**
+     * A contextual instance got created.
+     * @param bean the created bean
+     * @param durationNanos how long the creation including injection and PostConstruct took
+     * @param dependents number of dependent instances held by the CreationalContext of the instance
+     */
+    default void beanCreated(Bean<?> bean, long durationNanos, int dependents)
+    {
+        // no-op
+    }
+
+    /**
+     * An event got fired.
+     * @param eventType the type of the event
+     * @param observers number of resolved observer methods
+     * @param async whether the event got fired asynchronously, the duration then only covers the dispatching
+     * @param durationNanos how long resolving and notifying the observer methods took
+     */
+    default void eventFired(Type eventType, int observers, boolean async, long durationNanos)
+    {
+        // no-op
+    }
+
+    /**
+     * An intercepted business method got invoked.
+     * @param method the intercepted method
+     * @param interceptors number of AroundInvoke interceptors of the method
+     * @param durationNanos how long the whole interceptor chain including the method itself took
+     */
+    default void interceptorChainInvoked(Method method, int interceptors, long durationNanos)
+    {
+        // no-op
+    }
+
+    /**
+     * A context got started by the {@link ContextsService}.
+     * @param scopeType the scope of the context
+     */
+    default void contextStarted(Class<? extends Annotation> scopeType)
+    {
+        // no-op
+    }
+
+    /**
+     * A context got ended by the {@link ContextsService}.
+     * @param scopeType the scope of the context
+     * @param durationNanos how long ending the context including the destruction of its instances took
+     */
+    default void contextEnded(Class<? extends Annotation> scopeType, long durationNanos)
+    {
+        // no-op
+    }
+}
@@ -31,6 +31,7 @@ import org.apache.webbeans.context.DependentContext;
 import org.apache.webbeans.context.RequestContext;
 import org.apache.webbeans.context.SessionContext;
 import org.apache.webbeans.context.SingletonContext;
+import org.apache.webbeans.context.creational.BeanInstanceBag;
 import org.apache.webbeans.conversation.ConversationManager;
 import org.apache.webbeans.el.ELContextStore;
 import org.apache.webbeans.event.NotificationManager;
@@ -51,6 +52,9 @@ import javax.servlet.ServletRequestEvent;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpSession;
 import java.lang.annotation.Annotation;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -68,6 +72,12 @@ public class WebContextsService extends AbstractContextsService
 
     private static final String OWB_SESSION_CONTEXT_ATTRIBUTE_NAME = "openWebBeansSessionContext";
 
+    /**
+     * Prefix of the HttpSession attributes which contain the single session scoped beans,
+     * followed by the passivation id of the bean.
+     */
+    private static final String OWB_SESSION_BEAN_ATTRIBUTE_PREFIX = OWB_SESSION_CONTEXT_ATTRIBUTE_NAME + ".";
+
     /**
      * TODO implement later: optional immediate destroy
      */
@@ -101,6 +111,12 @@ public class WebContextsService extends AbstractContextsService
 
     protected Boolean fireRequestLifecycleEvents;
 
+    /**
+     * whether each session scoped bean gets stored in its own HttpSession attribute
+     * @see OpenWebBeansConfiguration#SESSION_BEANS_AS_ATTRIBUTES
+     */
+    protected final boolean sessionBeansAsAttributes;
+
     /**
      * Creates a new instance.
      */
@@ -121,6 +137,7 @@ public class WebContextsService extends AbstractContextsService
         dependentContext.setActive(true);
 
         configureEagerSessionInitialisation(webBeansContext);
+        sessionBeansAsAttributes = webBeansContext.getOpenWebBeansConfiguration().storeSessionBeansAsAttributes();
     }
 
     protected void configureEagerSessionInitialisation(WebBeansContext webBeansContext)
@@ -218,7 +235,8 @@ public class WebContextsService extends AbstractContextsService
      */
     @Override
     public void endContext(Class<? extends Annotation> scopeType, Object endParameters)
-    {        
+    {
+        long start = instrumentation != null ? System.nanoTime() : 0L;
         if(scopeType.equals(RequestScoped.class))
         {
             destroyRequestContext(endParameters);
@@ -249,7 +267,9 @@ public class WebContextsService extends AbstractContextsService
             logger.warning("CDI-OpenWebBeans container does not support context scope "
                     + scopeType.getSimpleName()
                     + ". Scopes @Dependent, @RequestScoped, @ApplicationScoped and @Singleton are supported scope types");
+            return;
         }
+        contextEnded(scopeType, start);
     }
 
     @Override
@@ -338,7 +358,9 @@ public class WebContextsService extends AbstractContextsService
             logger.warning("CDI-OpenWebBeans container does not support context scope "
                     + scopeType.getSimpleName()
                     + ". Scopes @Dependent, @RequestScoped, @ApplicationScoped and @Singleton are supported scope types");
+            return;
         }
+        contextStarted(scopeType);
     }
 
     /**
@@ -447,8 +469,17 @@ public class WebContextsService extends AbstractContextsService
         }
 
 
+        // the request is not available anymore once the context got destroyed
+        HttpServletRequest servletRequest = context.getServletRequest();
+
         context.destroy();
 
+        if (context.getPropagatedSessionContext() == null)
+        {
+            // the request might have used session scoped beans, even in the destruction of the request scoped ones
+            replicateSessionContext(servletRequest);
+        }
+
         // clean up the EL caches after each request
         ELContextStore elStore = ELContextStore.getInstance(false);
         if (elStore != null)
@@ -496,6 +527,7 @@ public class WebContextsService extends AbstractContextsService
                     if (currentSessionContext == null)
                     {
                         currentSessionContext = new SessionContext();
+                        currentSessionContext.setBeansStoredSeparately(sessionBeansAsAttributes);
                         currentSessionContext.setActive(true);
                         
                         // init context before fire @Initialized(SessionScoped)
@@ -510,9 +542,13 @@ public class WebContextsService extends AbstractContextsService
             }
             else
             {
-                // we do that in any case.
-                // This is needed to trigger delta-replication on most servers
-                session.setAttribute(OWB_SESSION_CONTEXT_ATTRIBUTE_NAME, currentSessionContext);
+                // the session gets replicated at the end of the request, see replicateSessionContext
+                currentSessionContext.setBeansStoredSeparately(sessionBeansAsAttributes);
+                if (sessionBeansAsAttributes && currentSessionContext.isDeserialized())
+                {
+                    // e.g. after a failover to this node
+                    currentSessionContext.restoreBeans(getSessionBeanAttributes(session));
+                }
                 currentSessionContext.setActive(true);
 
                 //Set thread local
@@ -521,6 +557,103 @@ public class WebContextsService extends AbstractContextsService
         }
     }
 
+    /**
+     * Sets the session scoped beans which got used during the request into the HttpSession again.
+     * This is needed to trigger the delta-replication on most servers.
+     * Depending on {@link #sessionBeansAsAttributes} either only the changed beans or
+     * the whole SessionContext get set, requests which do not use any session scoped bean don't set anything.
+     *
+     * @param servletRequest the ending request, might be {@code null}
+     */
+    protected void replicateSessionContext(HttpServletRequest servletRequest)
+    {
+        SessionContext sessionContext = sessionContexts.get();
+        if (sessionContext == null || !sessionContext.isActive() || servletRequest == null)
+        {
+            return;
+        }
+
+        HttpSession session = servletRequest.getSession(false);
+        if (session == null)
+        {
+            return;
+        }
+
+        SessionScopedBeanInterceptorHandler.markCachedBeansDirty(sessionContext);
+        try
+        {
+            if (sessionBeansAsAttributes)
+            {
+                sessionContext.flushDirtyBeans((passivationId, bag) ->
+                {
+                    if (bag == null)
+                    {
+                        session.removeAttribute(OWB_SESSION_BEAN_ATTRIBUTE_PREFIX + passivationId);
+                    }
+                    else
+                    {
+                        session.setAttribute(OWB_SESSION_BEAN_ATTRIBUTE_PREFIX + passivationId, bag);
+                    }
+                });
+            }
+            else if (sessionContext.flushDirtyBeans((passivationId, bag) -> { }))
+            {
+                session.setAttribute(OWB_SESSION_CONTEXT_ATTRIBUTE_NAME, sessionContext);
+            }
+        }
+        catch (IllegalStateException e)
+        {
+            // the session got invalidated in the meantime
+            logger.log(Level.FINE, "could not replicate the session context", e);
+        }
+    }
+
+    @Override
+    public boolean runWithSessionContext(SessionContext sessionContext, Runnable task)
+    {
+        SessionContext previous = sessionContexts.get();
+        sessionContexts.set(sessionContext);
+
+        // the proxies of this thread might still cache the instances of another session
+        SessionScopedBeanInterceptorHandler.removeThreadLocals();
+        try
+        {
+            task.run();
+        }
+        finally
+        {
+            SessionScopedBeanInterceptorHandler.removeThreadLocals();
+            if (previous == null)
+            {
+                sessionContexts.remove();
+            }
+            else
+            {
+                sessionContexts.set(previous);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the instance bags of the session scoped beans per passivation id
+     */
+    private Map<String, BeanInstanceBag<?>> getSessionBeanAttributes(HttpSession session)
+    {
+        Map<String, BeanInstanceBag<?>> bags = new HashMap<>();
+        Enumeration<String> attributeNames = session.getAttributeNames();
+        while (attributeNames.hasMoreElements())
+        {
+            String attributeName = attributeNames.nextElement();
+            if (attributeName.startsWith(OWB_SESSION_BEAN_ATTRIBUTE_PREFIX))
+            {
+                bags.put(attributeName.substring(OWB_SESSION_BEAN_ATTRIBUTE_PREFIX.length()),
+                         (BeanInstanceBag<?>) session.getAttribute(attributeName));
+            }
+        }
+        return bags;
+    }
+
     /**
      * Destroys the session context and all of its components at the end of the
      * session. 
@@ -19,7 +19,6 @@
 package org.apache.webbeans.web.scanner;
 
 import org.apache.webbeans.corespi.scanner.AbstractMetaDataDiscovery;
-import org.apache.webbeans.corespi.scanner.xbean.OwbAnnotationFinder;
 import org.apache.webbeans.logger.WebBeansLoggerFacade;
 import org.apache.webbeans.util.ExceptionUtil;
 import org.apache.webbeans.util.WebBeansUtil;
@@ -61,11 +60,6 @@ public class WebScannerService extends AbstractMetaDataDiscovery
         registerBeanArchives(loader);
     }
 
-    public OwbAnnotationFinder getFinder()
-    {
-        return finder;
-    }
-
     /**
      * Returns the web application class path if it contains
      * a beans.xml marker file.
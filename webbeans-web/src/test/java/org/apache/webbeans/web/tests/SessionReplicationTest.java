@@ -0,0 +1,240 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.web.tests;
+
+import org.apache.webbeans.config.OpenWebBeansConfiguration;
+import org.apache.webbeans.test.AbstractUnitTest;
+import org.apache.webbeans.web.lifecycle.test.MockServletContext;
+import org.junit.Test;
+
+import javax.enterprise.context.RequestScoped;
+import javax.enterprise.context.SessionScoped;
+import javax.servlet.ServletRequestEvent;
+import javax.servlet.http.HttpSession;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests which session attributes get set again at the end of a request,
+ * servers use these to decide what to replicate.
+ */
+public class SessionReplicationTest extends AbstractUnitTest
+{
+    private static final String SESSION_CONTEXT_ATTRIBUTE = "openWebBeansSessionContext";
+
+    @Test
+    public void dirtySessionContextGetsReplicatedAtRequestEnd()
+    {
+        startContainer(Cart.class);
+        RecordingHttpSession session = new RecordingHttpSession();
+
+        request(session, () -> getInstance(Cart.class).add("first"));
+        assertTrue(session.getSetAttributes().contains(SESSION_CONTEXT_ATTRIBUTE));
+
+        // a request without session scoped beans does not trigger a replication
+        session.getSetAttributes().clear();
+        request(session, () -> { });
+        assertTrue(session.getSetAttributes().isEmpty());
+
+        // using a bean through its proxy marks it dirty
+        request(session, () -> getInstance(Cart.class).add("second"));
+        assertEquals(Collections.singletonList(SESSION_CONTEXT_ATTRIBUTE), session.getSetAttributes());
+    }
+
+    @Test
+    public void beansAsAttributesGetRestoredAfterFailover() throws Exception
+    {
+        addConfiguration(OpenWebBeansConfiguration.SESSION_BEANS_AS_ATTRIBUTES, "true");
+        startContainer(Cart.class, Counter.class);
+        RecordingHttpSession session = new RecordingHttpSession();
+
+        request(session, () ->
+        {
+            getInstance(Cart.class).add("first");
+            getInstance(Counter.class).increment();
+        });
+        String cartAttribute = findBeanAttribute(session, Cart.class);
+        assertNotNull(cartAttribute);
+        assertNotNull(findBeanAttribute(session, Counter.class));
+
+        // only the bean which got used gets set again
+        session.getSetAttributes().clear();
+        request(session, () -> getInstance(Cart.class).add("second"));
+        assertEquals(Collections.singletonList(cartAttribute), session.getSetAttributes());
+
+        // the attributes get replicated one by one to another node, which serves the next request in another thread
+        RecordingHttpSession replica = new RecordingHttpSession();
+        for (String name : Collections.list(session.getAttributeNames()))
+        {
+            replica.setAttribute(name, deserialize(serialize(session.getAttribute(name))));
+        }
+
+        ExecutorService otherNode = Executors.newSingleThreadExecutor();
+        try
+        {
+            List<String> items = otherNode.submit(() ->
+            {
+                List<String> result = new ArrayList<>();
+                request(replica, () -> result.addAll(getInstance(Cart.class).getItems()));
+                return result;
+            }).get(1, TimeUnit.MINUTES);
+            assertEquals(2, items.size());
+            assertEquals("first", items.get(0));
+            assertEquals("second", items.get(1));
+
+            int count = otherNode.submit(() ->
+            {
+                int[] result = new int[1];
+                request(replica, () -> result[0] = getInstance(Counter.class).get());
+                return result[0];
+            }).get(1, TimeUnit.MINUTES);
+            assertEquals(1, count);
+        }
+        finally
+        {
+            otherNode.shutdownNow();
+        }
+    }
+
+    private void request(HttpSession session, Runnable work)
+    {
+        SessionRequest request = new SessionRequest(session);
+        ServletRequestEvent event = new ServletRequestEvent(new MockServletContext(), request);
+        getWebBeansContext().getContextsService().startContext(RequestScoped.class, event);
+        try
+        {
+            work.run();
+        }
+        finally
+        {
+            getWebBeansContext().getContextsService().endContext(RequestScoped.class, event);
+        }
+    }
+
+    private static String findBeanAttribute(HttpSession session, Class<?> beanClass)
+    {
+        for (String name : Collections.list(session.getAttributeNames()))
+        {
+            if (name.startsWith(SESSION_CONTEXT_ATTRIBUTE + ".") && name.contains(beanClass.getName()))
+            {
+                return name;
+            }
+        }
+        return null;
+    }
+
+    private static byte[] serialize(Object o) throws IOException
+    {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(baos);
+        oos.writeObject(o);
+        oos.close();
+        return baos.toByteArray();
+    }
+
+    private static Object deserialize(byte[] bytes) throws IOException, ClassNotFoundException
+    {
+        return new ObjectInputStream(new ByteArrayInputStream(bytes)).readObject();
+    }
+
+    public static class RecordingHttpSession extends MockHttpSession
+    {
+        private final List<String> setAttributes = new ArrayList<>();
+
+        @Override
+        public void setAttribute(String name, Object value)
+        {
+            setAttributes.add(name);
+            super.setAttribute(name, value);
+        }
+
+        public List<String> getSetAttributes()
+        {
+            return setAttributes;
+        }
+    }
+
+    private static class SessionRequest extends MockServletRequest
+    {
+        private final HttpSession session;
+
+        private SessionRequest(HttpSession session)
+        {
+            this.session = session;
+        }
+
+        @Override
+        public HttpSession getSession()
+        {
+            return session;
+        }
+
+        @Override
+        public HttpSession getSession(boolean create)
+        {
+            return session;
+        }
+    }
+
+    @SessionScoped
+    public static class Cart implements Serializable
+    {
+        private final List<String> items = new ArrayList<>();
+
+        public void add(String item)
+        {
+            items.add(item);
+        }
+
+        public List<String> getItems()
+        {
+            return new ArrayList<>(items);
+        }
+    }
+
+    @SessionScoped
+    public static class Counter implements Serializable
+    {
+        private int count;
+
+        public void increment()
+        {
+            count++;
+        }
+
+        public int get()
+        {
+            return count;
+        }
+    }
+}